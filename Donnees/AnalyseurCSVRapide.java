@@ -0,0 +1,435 @@
+package Donnees;
+
+import com.opencsv.CSVParser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Lecteur CSV à haut débit pour les fichiers VANAD, travaillant directement sur des octets.
+ * Les champs sont repérés par leurs bornes dans un tampon réutilisé : aucune chaîne n'est créée
+ * pour les dates ({@code yyyy-MM-dd HH:mm:ss}, décodées chiffre par chiffre en secondes epoch)
+ * ni pour les entiers. Toute valeur hors de ce format simple est confiée aux mêmes méthodes
+ * que le chemin opencsv ({@code DateTimeFormatter}, {@code Integer.parseInt}, {@code Double.parseDouble}),
+ * ce qui préserve exactement leur sémantique. Les lignes contenant des guillemets ou des
+ * échappements sont analysées par le {@link CSVParser} d'opencsv.
+ */
+public class AnalyseurCSVRapide implements Closeable
+{
+
+    private static final int TAILLE_TAMPON = 1 << 20;
+    private static final int TAILLE_CACHE_CHAINES = 256;
+
+    private final FileChannel canal;
+    private final ByteBuffer region; // source projetée en mémoire (lecture d'un bloc), sinon null
+    private final Charset jeuCaracteres = Charset.defaultCharset();
+    private byte[] tampon = new byte[TAILLE_TAMPON];
+    private int position;
+    private int limite;
+    private boolean finFichier;
+    private boolean retourChariotEnAttente;
+
+    // === Ligne courante ===
+    private int debutLigne;
+    private int finLigne;
+    private boolean ligneAvecGuillemets;
+    private boolean guillemetsRencontres;
+    private int[] debutsChamps = new int[16];
+    private int[] finsChamps = new int[16];
+    private int nombreChamps;
+    private String[] champsTexte; // renseigné si la ligne a été analysée par opencsv
+
+    private CSVParser parseurOpencsv;
+    private final byte[][] cacheOctets = new byte[TAILLE_CACHE_CHAINES][];
+    private final String[] cacheChaines = new String[TAILLE_CACHE_CHAINES];
+
+    public AnalyseurCSVRapide(Path chemin) throws IOException
+    {
+        this.canal = FileChannel.open(chemin, StandardOpenOption.READ);
+        this.region = null;
+    }
+
+    /**
+     * Analyse une portion de fichier déjà projetée en mémoire (de sa position à sa limite),
+     * par exemple un bloc découpé sur une fin de ligne pour une lecture parallèle.
+     */
+    public AnalyseurCSVRapide(ByteBuffer region)
+    {
+        this.canal = null;
+        this.region = region;
+    }
+
+    // ==================== Découpage en lignes et en champs ====================
+
+    /**
+     * Passe à l'enregistrement suivant (une ligne, ou plusieurs si un champ entre guillemets
+     * contient un retour à la ligne). Retourne false en fin de fichier.
+     */
+    public boolean ligneSuivante() throws IOException
+    {
+        champsTexte = null;
+        if (!lireLignePhysique()) return false;
+
+        if (ligneAvecGuillemets) {
+            guillemetsRencontres = true;
+            analyserAvecOpencsv();
+            return true;
+        }
+
+        nombreChamps = 0;
+        int debut = debutLigne;
+        for (int i = debutLigne; i < finLigne; i++) {
+            if (tampon[i] == ',') {
+                ajouterChamp(debut, i);
+                debut = i + 1;
+            }
+        }
+        ajouterChamp(debut, finLigne);
+        return true;
+    }
+
+    private void ajouterChamp(int debut, int fin)
+    {
+        if (nombreChamps == debutsChamps.length) {
+            debutsChamps = Arrays.copyOf(debutsChamps, nombreChamps * 2);
+            finsChamps = Arrays.copyOf(finsChamps, nombreChamps * 2);
+        }
+        debutsChamps[nombreChamps] = debut;
+        finsChamps[nombreChamps] = fin;
+        nombreChamps++;
+    }
+
+    // === Même enchaînement que CSVReader.readNext() pour les champs sur plusieurs lignes ===
+    private void analyserAvecOpencsv() throws IOException
+    {
+        if (parseurOpencsv == null) parseurOpencsv = new CSVParser();
+
+        String[] resultat = parseurOpencsv.parseLineMulti(texteLigne());
+        while (parseurOpencsv.isPending()) {
+            if (!lireLignePhysique()) break;
+            String[] suite = parseurOpencsv.parseLineMulti(texteLigne());
+            String[] combine = Arrays.copyOf(resultat, resultat.length + suite.length);
+            System.arraycopy(suite, 0, combine, resultat.length, suite.length);
+            resultat = combine;
+        }
+        champsTexte = resultat;
+        nombreChamps = resultat.length;
+    }
+
+    private String texteLigne()
+    {
+        return new String(tampon, debutLigne, finLigne - debutLigne, jeuCaracteres);
+    }
+
+    /**
+     * Repère la prochaine ligne physique (terminée par \n, \r ou \r\n, comme BufferedReader.readLine).
+     */
+    private boolean lireLignePhysique() throws IOException
+    {
+        ligneAvecGuillemets = false;
+        if (retourChariotEnAttente) {
+            // Ligne précédente terminée par \r : un \n immédiatement après fait partie du même terminateur
+            retourChariotEnAttente = false;
+            if (position == limite && !finFichier) remplir();
+            if (position < limite && tampon[position] == '\n') position++;
+        }
+
+        int i = position;
+        while (true) {
+            while (i < limite) {
+                byte b = tampon[i];
+                if (b == '\n' || b == '\r') {
+                    debutLigne = position;
+                    finLigne = i;
+                    position = i + 1;
+                    retourChariotEnAttente = b == '\r';
+                    return true;
+                }
+                if (b == '"' || b == '\\') ligneAvecGuillemets = true;
+                i++;
+            }
+
+            if (finFichier) {
+                if (position == limite) return false;
+                debutLigne = position;
+                finLigne = limite;
+                position = limite;
+                return true;
+            }
+
+            int decalage = position;
+            remplir();
+            i -= decalage;
+        }
+    }
+
+    // === Décale la ligne en cours au début du tampon puis lit la suite du fichier ===
+    private void remplir() throws IOException
+    {
+        int reste = limite - position;
+        if (position > 0) {
+            System.arraycopy(tampon, position, tampon, 0, reste);
+        } else if (reste == tampon.length) {
+            tampon = Arrays.copyOf(tampon, tampon.length * 2);
+        }
+        position = 0;
+        limite = reste;
+
+        int lus;
+        if (region != null) {
+            lus = region.hasRemaining() ? Math.min(region.remaining(), tampon.length - limite) : -1;
+            if (lus > 0) region.get(tampon, limite, lus);
+        } else {
+            lus = canal.read(ByteBuffer.wrap(tampon, limite, tampon.length - limite));
+        }
+        if (lus < 0) {
+            finFichier = true;
+        } else {
+            limite += lus;
+        }
+    }
+
+    // ==================== Accès aux champs de la ligne courante ====================
+
+    /**
+     * Vrai si au moins un enregistrement a été confié à opencsv (guillemets ou échappements) :
+     * un tel enregistrement peut s'étendre sur plusieurs lignes physiques.
+     */
+    public boolean aRencontreGuillemets()
+    {
+        return guillemetsRencontres;
+    }
+
+    public int nombreChamps()
+    {
+        return nombreChamps;
+    }
+
+    /** Champs bruts (non rognés) de la ligne, pour les messages d'erreur */
+    public String[] champs()
+    {
+        if (champsTexte != null) return champsTexte;
+        String[] champs = new String[nombreChamps];
+        for (int i = 0; i < nombreChamps; i++) {
+            champs[i] = new String(tampon, debutsChamps[i], finsChamps[i] - debutsChamps[i], jeuCaracteres);
+        }
+        return champs;
+    }
+
+    /** Équivalent de {@code LecteurCSV.champVide} : champ absent ou blanc */
+    public boolean estVide(int index)
+    {
+        if (index >= nombreChamps) return true;
+        if (champsTexte != null) return champsTexte[index] == null || champsTexte[index].trim().isEmpty();
+        return debutRogne(index) == finRognee(index);
+    }
+
+    /** Valeur brute du champ, ou "null" s'il est absent (équivalent de {@code champSecurise}) */
+    public String brut(int index)
+    {
+        if (index >= nombreChamps) return "null";
+        if (champsTexte != null) return champsTexte[index] != null ? champsTexte[index] : "null";
+        return new String(tampon, debutsChamps[index], finsChamps[index] - debutsChamps[index], jeuCaracteres);
+    }
+
+    /** Valeur rognée du champ (le champ ne doit pas être vide) */
+    public String chaine(int index)
+    {
+        if (champsTexte != null) return champsTexte[index].trim();
+        int debut = debutRogne(index);
+        return new String(tampon, debut, finRognee(index) - debut, jeuCaracteres);
+    }
+
+    /**
+     * Valeur rognée du champ, en réutilisant la même instance de chaîne pour des octets identiques
+     * (libellés de files d'attente très répétés).
+     */
+    public String chaineMemorisee(int index)
+    {
+        if (champsTexte != null) return chaine(index);
+
+        int debut = debutRogne(index);
+        int fin = finRognee(index);
+        int hachage = 1;
+        for (int i = debut; i < fin; i++) hachage = 31 * hachage + tampon[i];
+        int case_ = (hachage ^ (hachage >>> 16)) & (TAILLE_CACHE_CHAINES - 1);
+
+        byte[] connu = cacheOctets[case_];
+        if (connu != null && Arrays.equals(connu, 0, connu.length, tampon, debut, fin)) {
+            return cacheChaines[case_];
+        }
+        String valeur = new String(tampon, debut, fin - debut, jeuCaracteres);
+        cacheOctets[case_] = Arrays.copyOfRange(tampon, debut, fin);
+        cacheChaines[case_] = valeur;
+        return valeur;
+    }
+
+    private int debutRogne(int index)
+    {
+        int debut = debutsChamps[index];
+        int fin = finsChamps[index];
+        while (debut < fin && (tampon[debut] & 0xFF) <= ' ') debut++;
+        return debut;
+    }
+
+    private int finRognee(int index)
+    {
+        int debut = debutRogne(index);
+        int fin = finsChamps[index];
+        while (fin > debut && (tampon[fin - 1] & 0xFF) <= ' ') fin--;
+        return fin;
+    }
+
+    // ==================== Décodage des valeurs (champ non vide) ====================
+
+    /**
+     * Date {@code yyyy-MM-dd HH:mm:ss} en secondes epoch. Le format exact est décodé directement ;
+     * toute autre forme passe par {@code LocalDateTime.parse} (mêmes résultats et mêmes exceptions).
+     */
+    public long dateEnSecondes(int index)
+    {
+        if (champsTexte == null) {
+            int d = debutRogne(index);
+            if (finRognee(index) - d == 19 && tampon[d + 4] == '-' && tampon[d + 7] == '-'
+                    && tampon[d + 10] == ' ' && tampon[d + 13] == ':' && tampon[d + 16] == ':') {
+                int annee = chiffres(d, 4);
+                int mois = chiffres(d + 5, 2);
+                int jour = chiffres(d + 8, 2);
+                int heure = chiffres(d + 11, 2);
+                int minute = chiffres(d + 14, 2);
+                int seconde = chiffres(d + 17, 2);
+                if (annee >= 1 && mois >= 1 && mois <= 12 && jour >= 1 && jour <= joursDansMois(annee, mois)
+                        && heure >= 0 && heure <= 23 && minute >= 0 && minute <= 59 && seconde >= 0 && seconde <= 59) {
+                    return jourEpoch(annee, mois, jour) * 86_400L + heure * 3600L + minute * 60L + seconde;
+                }
+            }
+        }
+        return LocalDateTime.parse(chaine(index), LecteurCSV.FORMAT_DATE).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Entier au sens de {@code Integer.parseInt} */
+    public int entier(int index)
+    {
+        long valeur = entierCourt(index);
+        return valeur != Long.MIN_VALUE ? (int) valeur : Integer.parseInt(chaine(index));
+    }
+
+    /** Entier long au sens de {@code Long.parseLong} */
+    public long entierLong(int index)
+    {
+        long valeur = entierCourt(index);
+        return valeur != Long.MIN_VALUE ? valeur : Long.parseLong(chaine(index));
+    }
+
+    /**
+     * Entier pouvant être écrit sous forme décimale ({@code 12.0}) : arrondi de {@code Double.parseDouble}
+     * si le champ contient un point, {@code Integer.parseInt} sinon.
+     */
+    public int entierFlexible(int index)
+    {
+        if (champsTexte == null) {
+            int debut = debutRogne(index);
+            int fin = finRognee(index);
+            int point = -1;
+            for (int i = debut; i < fin; i++) {
+                if (tampon[i] == '.') {
+                    point = i;
+                    break;
+                }
+            }
+            if (point < 0) return entier(index);
+
+            // Forme courante "123.0" : partie décimale nulle, la valeur est la partie entière
+            boolean decimalesNulles = point + 1 < fin;
+            for (int i = point + 1; i < fin && decimalesNulles; i++) {
+                decimalesNulles = tampon[i] == '0';
+            }
+            if (decimalesNulles) {
+                long valeur = entierSigne(debut, point);
+                if (valeur != Long.MIN_VALUE) return (int) valeur;
+            }
+        }
+
+        String valeur = chaine(index);
+        if (valeur.contains(".")) {
+            return (int) Math.round(Double.parseDouble(valeur));
+        }
+        return Integer.parseInt(valeur);
+    }
+
+    // === Entier signé d'au plus 9 chiffres, ou Long.MIN_VALUE si la forme n'est pas simple ===
+    private long entierCourt(int index)
+    {
+        if (champsTexte != null) return Long.MIN_VALUE;
+        return entierSigne(debutRogne(index), finRognee(index));
+    }
+
+    private long entierSigne(int debut, int fin)
+    {
+        boolean negatif = false;
+        if (debut < fin && (tampon[debut] == '-' || tampon[debut] == '+')) {
+            negatif = tampon[debut] == '-';
+            debut++;
+        }
+        int longueur = fin - debut;
+        if (longueur < 1 || longueur > 9) return Long.MIN_VALUE;
+
+        int valeur = chiffres(debut, longueur);
+        if (valeur < 0) return Long.MIN_VALUE;
+        return negatif ? -valeur : valeur;
+    }
+
+    // === Valeur décimale de n octets-chiffres, ou -1 si l'un d'eux n'est pas un chiffre ===
+    private int chiffres(int debut, int n)
+    {
+        int valeur = 0;
+        for (int i = debut; i < debut + n; i++) {
+            int c = tampon[i] - '0';
+            if (c < 0 || c > 9) return -1;
+            valeur = valeur * 10 + c;
+        }
+        return valeur;
+    }
+
+    private static int joursDansMois(int annee, int mois)
+    {
+        switch (mois) {
+            case 2:
+                boolean bissextile = (annee % 4 == 0) && (annee % 100 != 0 || annee % 400 == 0);
+                return bissextile ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // === Même calcul que LocalDate.toEpochDay() (années positives) ===
+    private static long jourEpoch(int annee, int mois, int jour)
+    {
+        long y = annee;
+        long total = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367L * mois - 362) / 12;
+        total += jour - 1;
+        if (mois > 2) {
+            total--;
+            boolean bissextile = (annee % 4 == 0) && (annee % 100 != 0 || annee % 400 == 0);
+            if (!bissextile) total--;
+        }
+        return total - 719_528L;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (canal != null) canal.close();
+    }
+}
@@ -0,0 +1,204 @@
+package Donnees;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Fusion k-voies de plusieurs fichiers CSV déjà triés chronologiquement (un fichier par mois, par exemple)
+ * en un seul flux ordonné, sans tri global. Chaque fichier est lu par son propre fil de lecture anticipée,
+ * qui dépose des lots d'éléments dans une file bornée ; la fusion garde la tête de chaque fichier
+ * dans un tas ordonné par clé puis par rang du fichier, ce qui rend la fusion stable.
+ * Un fichier dont les clés décroissent provoque une {@link IllegalStateException}.
+ */
+final class FusionChronologique<T> implements Iterator<T>, Closeable
+{
+
+    /** Ouverture du flux d'un fichier (par exemple {@code LecteurCSV::fluxAppels}) */
+    interface OuvertureFlux<T>
+    {
+        Stream<T> ouvrir(String cheminFichier) throws Exception;
+    }
+
+    private static final int TAILLE_LOT = 1024;
+    private static final int LOTS_EN_AVANCE = 4;
+    private static final Object FIN = new Object();
+
+    private final List<Path> fichiers;
+    private final ToLongFunction<T> cle;
+    private final List<LectureAnticipee> lectures = new ArrayList<>();
+    private final PriorityQueue<Tete<T>> tas;
+
+    private static final class Tete<T>
+    {
+        final T valeur;
+        final long cle;
+        final int rangFichier;
+
+        Tete(T valeur, long cle, int rangFichier)
+        {
+            this.valeur = valeur;
+            this.cle = cle;
+            this.rangFichier = rangFichier;
+        }
+    }
+
+    FusionChronologique(List<Path> fichiers, OuvertureFlux<T> ouverture, ToLongFunction<T> cle)
+    {
+        this.fichiers = fichiers;
+        this.cle = cle;
+        this.tas = new PriorityQueue<>(Math.max(1, fichiers.size()), (a, b) -> a.cle != b.cle
+                ? Long.compare(a.cle, b.cle)
+                : Integer.compare(a.rangFichier, b.rangFichier));
+
+        // En cas d'échec, l'appelant n'a aucun objet à fermer : les fils déjà lancés sont arrêtés ici
+        try {
+            for (Path fichier : fichiers) {
+                LectureAnticipee lecture = new LectureAnticipee(fichier, ouverture);
+                lectures.add(lecture);
+                lecture.start();
+            }
+            for (int rang = 0; rang < lectures.size(); rang++) {
+                avancer(rang);
+            }
+        } catch (RuntimeException | Error e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return !tas.isEmpty();
+    }
+
+    @Override
+    public T next()
+    {
+        Tete<T> tete = tas.poll();
+        if (tete == null) throw new NoSuchElementException();
+        avancer(tete.rangFichier);
+        return tete.valeur;
+    }
+
+    // === Remplace la tête du fichier donné par son élément suivant, s'il en reste ===
+    private void avancer(int rang)
+    {
+        LectureAnticipee lecture = lectures.get(rang);
+        T valeur = lecture.suivant();
+        if (valeur == null) return;
+
+        long c = cle.applyAsLong(valeur);
+        if (c < lecture.derniereCle) {
+            throw new IllegalStateException("Fichier non trié chronologiquement : " + fichiers.get(rang) + " (" + valeur + ")");
+        }
+        lecture.derniereCle = c;
+        tas.add(new Tete<>(valeur, c, rang));
+    }
+
+    /** Arrête les fils de lecture et ferme les fichiers */
+    @Override
+    public void close()
+    {
+        for (LectureAnticipee lecture : lectures) {
+            lecture.arreter();
+        }
+        tas.clear();
+    }
+
+    /**
+     * Fil de lecture d'un fichier : convertit les lignes et les dépose par lots dans une file bornée.
+     * La fin du fichier est signalée par {@link #FIN}, une erreur par l'exception elle-même.
+     */
+    private final class LectureAnticipee extends Thread
+    {
+        private final Path fichier;
+        private final OuvertureFlux<T> ouverture;
+        private final BlockingQueue<Object> lots = new ArrayBlockingQueue<>(LOTS_EN_AVANCE);
+        private volatile boolean arretDemande;
+
+        // Côté consommateur
+        private List<T> lotCourant = List.of();
+        private int positionLot;
+        private boolean termine;
+        long derniereCle = Long.MIN_VALUE;
+
+        LectureAnticipee(Path fichier, OuvertureFlux<T> ouverture)
+        {
+            super("lecture-" + fichier.getFileName());
+            setDaemon(true);
+            this.fichier = fichier;
+            this.ouverture = ouverture;
+        }
+
+        @Override
+        public void run()
+        {
+            try (Stream<T> flux = ouverture.ouvrir(fichier.toString())) {
+                Iterator<T> elements = flux.iterator();
+                List<T> lot = new ArrayList<>(TAILLE_LOT);
+                while (!arretDemande && elements.hasNext()) {
+                    lot.add(elements.next());
+                    if (lot.size() == TAILLE_LOT) {
+                        lots.put(lot);
+                        lot = new ArrayList<>(TAILLE_LOT);
+                    }
+                }
+                if (!lot.isEmpty()) lots.put(lot);
+                lots.put(FIN);
+            } catch (InterruptedException e) {
+                // arrêt demandé par close()
+            } catch (Throwable e) {
+                if (!arretDemande) {
+                    try {
+                        lots.put(e);
+                    } catch (InterruptedException ignoree) {
+                        // arrêt demandé par close()
+                    }
+                }
+            }
+        }
+
+        /** Élément suivant du fichier, ou null à la fin ; attend le fil de lecture si nécessaire */
+        @SuppressWarnings("unchecked")
+        T suivant()
+        {
+            while (positionLot == lotCourant.size()) {
+                if (termine) return null;
+                Object lot;
+                try {
+                    lot = lots.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Fusion interrompue", e);
+                }
+                if (lot == FIN) {
+                    termine = true;
+                    return null;
+                }
+                if (lot instanceof Throwable) {
+                    termine = true;
+                    throw new IllegalStateException("Lecture impossible de " + fichier, (Throwable) lot);
+                }
+                lotCourant = (List<T>) lot;
+                positionLot = 0;
+            }
+            return lotCourant.get(positionLot++);
+        }
+
+        void arreter()
+        {
+            arretDemande = true;
+            interrupt();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package Donnees;
+
+import Modele.ActivitesColonnaires;
+import Modele.AppelsColonnaires;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantané binaire des données VANAD déjà analysées, pour éviter de relire les CSV à chaque exécution.
+ * Le fichier {@code <csv>.instantane} est écrit à côté de la source lors de la première lecture,
+ * puis projeté en mémoire et décodé lors des lectures suivantes.
+ * <p>
+ * Format : un en-tête (type, nombre de lignes, taille et somme CRC32C du CSV source, taille et somme
+ * CRC32C du contenu qui suit) puis les colonnes ligne par ligne en entiers de longueur variable. Les dates sont codées en écart (à la date de réception
+ * ou de début précédente pour la date principale, à la date principale de la ligne pour les autres),
+ * les files d'attente par leur code de dictionnaire. L'instantané est ignoré et réécrit dès que la taille
+ * ou la somme de contrôle du CSV ne correspond plus, ou que son propre contenu est tronqué ou altéré. Les avertissements de lecture ligne par ligne
+ * ne sont émis qu'à l'analyse du CSV, pas au rechargement de l'instantané.
+ */
+public final class InstantaneBinaire
+{
+
+    private static final int MAGIQUE = 0x56414E44; // "VAND"
+    private static final int VERSION = 2;
+    private static final int TYPE_APPELS = 1;
+    private static final int TYPE_ACTIVITES = 2;
+    private static final String EXTENSION = ".instantane";
+    private static final long FENETRE_CONTROLE = 256L << 20;
+    private static final int TAILLE_EN_TETE = 48;
+    private static final int POSITION_NOMBRE_LIGNES = 12;
+
+    // Horodatage.ABSENT et ActivitesColonnaires.AUCUN_ID partagent cette valeur
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    private InstantaneBinaire()
+    {
+    }
+
+    /**
+     * Appels du CSV donné : depuis l'instantané s'il est à jour, sinon par
+     * {@link LecteurCSV#lireAppelsColonnairesParallele(String)} puis écriture de l'instantané.
+     */
+    public static AppelsColonnaires lireAppels(String cheminCsv) throws Exception
+    {
+        Path source = Path.of(cheminCsv);
+        Path instantane = cheminInstantane(source);
+        long taille = Files.size(source);
+        long somme = sommeControle(source);
+
+        ByteBuffer contenu = projeterSiValide(instantane, TYPE_APPELS, taille, somme);
+        if (contenu != null) {
+            try {
+                AppelsColonnaires appels = decoderAppels(contenu);
+                System.out.println("[APPEL] Instantané binaire chargé : " + instantane);
+                System.out.println("[APPEL] Nombre total d'appels lus : " + appels.taille());
+                return appels;
+            } catch (RuntimeException e) {
+                System.err.println("[WARN] Instantané illisible, relecture du CSV : " + instantane + " (" + e + ")");
+            }
+        }
+
+        AppelsColonnaires appels = LecteurCSV.lireAppelsColonnairesParallele(cheminCsv);
+        enregistrer(instantane, TYPE_APPELS, appels.taille(), taille, somme, sortie -> encoderAppels(appels, sortie));
+        return appels;
+    }
+
+    /**
+     * Activités du CSV donné : depuis l'instantané s'il est à jour, sinon par
+     * {@link LecteurCSV#lireActivitesColonnairesParallele(String)} puis écriture de l'instantané.
+     */
+    public static ActivitesColonnaires lireActivites(String cheminCsv) throws Exception
+    {
+        Path source = Path.of(cheminCsv);
+        Path instantane = cheminInstantane(source);
+        long taille = Files.size(source);
+        long somme = sommeControle(source);
+
+        ByteBuffer contenu = projeterSiValide(instantane, TYPE_ACTIVITES, taille, somme);
+        if (contenu != null) {
+            try {
+                ActivitesColonnaires activites = decoderActivites(contenu);
+                System.out.println("[ACTIVITÉ] Instantané binaire chargé : " + instantane);
+                System.out.println("[ACTIVITÉ] Nombre total d'activités lues : " + activites.taille());
+                return activites;
+            } catch (RuntimeException e) {
+                System.err.println("[WARN] Instantané illisible, relecture du CSV : " + instantane + " (" + e + ")");
+            }
+        }
+
+        ActivitesColonnaires activites = LecteurCSV.lireActivitesColonnairesParallele(cheminCsv);
+        enregistrer(instantane, TYPE_ACTIVITES, activites.taille(), taille, somme, sortie -> encoderActivites(activites, sortie));
+        return activites;
+    }
+
+    public static Path cheminInstantane(Path source)
+    {
+        return source.resolveSibling(source.getFileName() + EXTENSION);
+    }
+
+    // ==================== En-tête et validation ====================
+
+    /**
+     * Contenu de l'instantané projeté en mémoire et positionné sur le nombre de lignes, ou null s'il est
+     * absent, d'un autre type ou d'une autre version, si la source a changé, ou si la somme CRC32C de son
+     * contenu ne correspond pas à l'en-tête (écriture interrompue, fichier altéré) : rien n'est décodé
+     * d'un contenu non vérifié.
+     */
+    private static ByteBuffer projeterSiValide(Path instantane, int type, long tailleSource, long sommeSource) throws IOException
+    {
+        if (!Files.isRegularFile(instantane)) return null;
+        try (FileChannel canal = FileChannel.open(instantane, StandardOpenOption.READ)) {
+            if (canal.size() < TAILLE_EN_TETE || canal.size() > Integer.MAX_VALUE) return null;
+            ByteBuffer contenu = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (contenu.getInt() != MAGIQUE || contenu.getInt() != VERSION || contenu.getInt() != type) return null;
+            contenu.getInt(); // nombre de lignes, relu par le décodeur
+            if (contenu.getLong() != tailleSource || contenu.getLong() != sommeSource) return null;
+
+            long tailleContenu = contenu.getLong();
+            long sommeContenu = contenu.getLong();
+            CRC32C crc = new CRC32C();
+            crc.update(contenu.slice(TAILLE_EN_TETE, contenu.limit() - TAILLE_EN_TETE));
+            if (tailleContenu != canal.size() - TAILLE_EN_TETE || sommeContenu != crc.getValue()) {
+                System.err.println("[WARN] Instantané altéré, relecture du CSV : " + instantane);
+                return null;
+            }
+            return contenu.position(POSITION_NOMBRE_LIGNES);
+        }
+    }
+
+    private interface Encodeur
+    {
+        void ecrire(DataOutputStream sortie) throws IOException;
+    }
+
+    /**
+     * Écrit dans un fichier temporaire propre à cet enregistrement, dans le répertoire de l'instantané, puis le
+     * renomme : un instantané n'est jamais lu à moitié écrit, et deux processus qui enregistrent le même
+     * instantané n'écrivent pas dans le même fichier. Le contenu est écrit d'abord ; l'en-tête, qui porte
+     * sa taille et sa somme CRC32C, est écrit ensuite à l'emplacement réservé.
+     */
+    private static void enregistrer(Path instantane, int type, int nombreLignes, long tailleSource, long sommeSource,
+                                    Encodeur encodeur)
+    {
+        Path temporaire = null;
+        try {
+            temporaire = Files.createTempFile(instantane.toAbsolutePath().getParent(), instantane.getFileName() + ".", ".tmp");
+            try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.WRITE)) {
+                CRC32C crc = new CRC32C();
+                canal.position(TAILLE_EN_TETE);
+                DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(Channels.newOutputStream(canal), crc), 1 << 16));
+                encodeur.ecrire(sortie);
+                sortie.flush();
+
+                ByteBuffer entete = ByteBuffer.allocate(TAILLE_EN_TETE)
+                        .putInt(MAGIQUE)
+                        .putInt(VERSION)
+                        .putInt(type)
+                        .putInt(nombreLignes)
+                        .putLong(tailleSource)
+                        .putLong(sommeSource)
+                        .putLong(canal.position() - TAILLE_EN_TETE)
+                        .putLong(crc.getValue())
+                        .flip();
+                while (entete.hasRemaining()) canal.write(entete, entete.position());
+                canal.force(false);
+            }
+            try {
+                Files.move(temporaire, instantane, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaire, instantane, StandardCopyOption.REPLACE_EXISTING);
+            }
+            System.out.println("[INFO] Instantané binaire enregistré : " + instantane);
+        } catch (IOException e) {
+            // Répertoire en lecture seule, disque plein… : la simulation continue sans instantané
+            System.err.println("[WARN] Impossible d'écrire l'instantané " + instantane + " : " + e.getMessage());
+            try {
+                if (temporaire != null) Files.deleteIfExists(temporaire);
+            } catch (IOException ignoree) {
+                // rien de plus à faire
+            }
+        }
+    }
+
+    /** Somme CRC32C du fichier, calculée sur des fenêtres projetées en mémoire */
+    private static long sommeControle(Path source) throws IOException
+    {
+        CRC32C crc = new CRC32C();
+        try (FileChannel canal = FileChannel.open(source, StandardOpenOption.READ)) {
+            long taille = canal.size();
+            for (long position = 0; position < taille; position += FENETRE_CONTROLE) {
+                crc.update(canal.map(FileChannel.MapMode.READ_ONLY, position, Math.min(FENETRE_CONTROLE, taille - position)));
+            }
+        }
+        return crc.getValue();
+    }
+
+    // ==================== Appels ====================
+
+    private static void encoderAppels(AppelsColonnaires appels, DataOutputStream sortie) throws IOException
+    {
+        ecrireVarint(sortie, appels.nombreServices());
+        for (int code = 0; code < appels.nombreServices(); code++) {
+            byte[] octets = appels.serviceDeCode(code).getBytes(StandardCharsets.UTF_8);
+            ecrireVarint(sortie, octets.length);
+            sortie.write(octets);
+        }
+
+        long receptionPrecedente = 0;
+        for (int i = 0; i < appels.taille(); i++) {
+            long reception = appels.getReception(i);
+            ecrireRelatif(sortie, reception, receptionPrecedente);
+            if (reception != ABSENT) receptionPrecedente = reception;
+
+            long reference = reception != ABSENT ? reception : 0;
+            int code = appels.getCodeService(i);
+            ecrireVarint(sortie, code == AppelsColonnaires.AUCUN ? 0 : code + 1L);
+            ecrireVarint(sortie, zigzag(appels.getAgent(i)));
+            ecrireRelatif(sortie, appels.getReponse(i), reference);
+            ecrireRelatif(sortie, appels.getConsultation(i), reference);
+            ecrireRelatif(sortie, appels.getTransfert(i), reference);
+            ecrireRelatif(sortie, appels.getRaccrochage(i), reference);
+        }
+    }
+
+    // Les services sont rajoutés par nom dans l'ordre des lignes : le dictionnaire est reconstruit
+    // dans l'ordre de première apparition, donc avec les mêmes codes que lors de l'analyse du CSV
+    private static AppelsColonnaires decoderAppels(ByteBuffer contenu)
+    {
+        int nombreLignes = contenu.getInt();
+        contenu.position(TAILLE_EN_TETE);
+
+        String[] services = new String[(int) lireVarint(contenu)];
+        for (int code = 0; code < services.length; code++) {
+            byte[] octets = new byte[(int) lireVarint(contenu)];
+            contenu.get(octets);
+            services[code] = new String(octets, StandardCharsets.UTF_8);
+        }
+
+        AppelsColonnaires appels = new AppelsColonnaires(nombreLignes);
+        long receptionPrecedente = 0;
+        for (int i = 0; i < nombreLignes; i++) {
+            long reception = lireRelatif(contenu, receptionPrecedente);
+            if (reception != ABSENT) receptionPrecedente = reception;
+
+            long reference = reception != ABSENT ? reception : 0;
+            long code = lireVarint(contenu);
+            int agent = (int) dezigzag(lireVarint(contenu));
+            long reponse = lireRelatif(contenu, reference);
+            long consultation = lireRelatif(contenu, reference);
+            long transfert = lireRelatif(contenu, reference);
+            long raccrochage = lireRelatif(contenu, reference);
+            appels.ajouter(reception, code == 0 ? null : services[(int) code - 1], agent,
+                    reponse, consultation, transfert, raccrochage);
+        }
+        return appels;
+    }
+
+    // ==================== Activités ====================
+
+    private static void encoderActivites(ActivitesColonnaires activites, DataOutputStream sortie) throws IOException
+    {
+        long idPrecedent = 0;
+        long debutPrecedent = 0;
+        for (int i = 0; i < activites.taille(); i++) {
+            long id = activites.getIdActivite(i);
+            ecrireRelatif(sortie, id, idPrecedent);
+            if (id != ABSENT) idPrecedent = id;
+
+            ecrireVarint(sortie, zigzag(activites.getIdUtilisateur(i)));
+            ecrireVarint(sortie, zigzag(activites.getIdDnd(i)));
+            ecrireVarint(sortie, zigzag(activites.getIdCampagne(i)));
+            ecrireVarint(sortie, zigzag(activites.getExtension(i)));
+            ecrireVarint(sortie, zigzag(activites.getIdDernierAppel(i)));
+
+            long debut = activites.getDebut(i);
+            ecrireRelatif(sortie, debut, debutPrecedent);
+            if (debut != ABSENT) debutPrecedent = debut;
+            ecrireRelatif(sortie, activites.getFin(i), debut != ABSENT ? debut : 0);
+
+            ecrireVarint(sortie, zigzag(activites.getIdAgent(i)));
+        }
+    }
+
+    private static ActivitesColonnaires decoderActivites(ByteBuffer contenu)
+    {
+        int nombreLignes = contenu.getInt();
+        contenu.position(TAILLE_EN_TETE);
+
+        ActivitesColonnaires activites = new ActivitesColonnaires(nombreLignes);
+        long idPrecedent = 0;
+        long debutPrecedent = 0;
+        for (int i = 0; i < nombreLignes; i++) {
+            long id = lireRelatif(contenu, idPrecedent);
+            if (id != ABSENT) idPrecedent = id;
+
+            int idUtilisateur = (int) dezigzag(lireVarint(contenu));
+            int idDnd = (int) dezigzag(lireVarint(contenu));
+            int idCampagne = (int) dezigzag(lireVarint(contenu));
+            int extension = (int) dezigzag(lireVarint(contenu));
+            int idDernierAppel = (int) dezigzag(lireVarint(contenu));
+
+            long debut = lireRelatif(contenu, debutPrecedent);
+            if (debut != ABSENT) debutPrecedent = debut;
+            long fin = lireRelatif(contenu, debut != ABSENT ? debut : 0);
+
+            int idAgent = (int) dezigzag(lireVarint(contenu));
+            activites.ajouter(id, idUtilisateur, idDnd, idCampagne, extension, idDernierAppel, debut, fin, idAgent);
+        }
+        return activites;
+    }
+
+    // ==================== Entiers de longueur variable ====================
+
+    /** Valeur absente codée 0, sinon écart à la référence (zigzag) + 1 */
+    private static void ecrireRelatif(DataOutputStream sortie, long valeur, long reference) throws IOException
+    {
+        ecrireVarint(sortie, valeur == ABSENT ? 0 : zigzag(valeur - reference) + 1);
+    }
+
+    private static long lireRelatif(ByteBuffer contenu, long reference)
+    {
+        long code = lireVarint(contenu);
+        return code == 0 ? ABSENT : dezigzag(code - 1) + reference;
+    }
+
+    private static long zigzag(long valeur)
+    {
+        return (valeur << 1) ^ (valeur >> 63);
+    }
+
+    private static long dezigzag(long code)
+    {
+        return (code >>> 1) ^ -(code & 1);
+    }
+
+    // === 7 bits par octet, bit de poids fort à 1 tant que la valeur continue ===
+    private static void ecrireVarint(DataOutputStream sortie, long valeur) throws IOException
+    {
+        while ((valeur & ~0x7FL) != 0) {
+            sortie.write((int) ((valeur & 0x7F) | 0x80));
+            valeur >>>= 7;
+        }
+        sortie.write((int) valeur);
+    }
+
+    private static long lireVarint(ByteBuffer contenu)
+    {
+        long valeur = 0;
+        int decalage = 0;
+        byte octet;
+        do {
+            octet = contenu.get();
+            valeur |= (long) (octet & 0x7F) << decalage;
+            decalage += 7;
+        } while (octet < 0);
+        return valeur;
+    }
+}
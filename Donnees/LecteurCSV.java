@@ -3,11 +3,32 @@ package Donnees;
 import com.opencsv.CSVReader;
 import Modele.Appel;
 import Modele.ActiviteAgent;
+import Modele.AppelsColonnaires;
+import Modele.ActivitesColonnaires;
+import Modele.Horodatage;
 
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Classe utilitaire pour lire les fichiers CSV contenant les appels clients
@@ -18,7 +39,10 @@ public class LecteurCSV
 {
 
     // Format standard utilisé pour parser les dates présentes dans les CSV
-    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Lignes et champs invalides : signalés par traces échantillonnées
+    private static final Trace TRACE = Trace.pour("LecteurCSV");
 
     /**
      * Lit un fichier CSV contenant les appels clients et retourne une liste d'objets Appel.
@@ -33,23 +57,8 @@ public class LecteurCSV
 
             while ((ligne = lecteur.readNext()) != null) {
                 numeroLigne++;
-                try {
-                    Appel appel = new Appel();
-
-                    appel.setDateReceptionAppel(parseDateSecurisee(ligne, 0, "date_received", numeroLigne, false));
-                    appel.setNomFileAttenteClient(parseChaineSecurisee(ligne, 1));
-                    appel.setIdentifiantAgent(parseNombreEntierFlexible(ligne, 2, "agent_number", numeroLigne));
-
-                    appel.setDateReponseAgent(parseDateSecurisee(ligne, 3, "answered", numeroLigne, true));
-                    appel.setDateConsultation(parseDateSecurisee(ligne, 4, "consult", numeroLigne, true));
-                    appel.setDateTransfert(parseDateSecurisee(ligne, 5, "transfer", numeroLigne, true));
-                    appel.setDateRaccrochage(parseDateSecurisee(ligne, 6, "hangup", numeroLigne, true));
-
-                    appels.add(appel);
-                } catch (Exception e) {
-                    System.err.printf("[APPEL] Erreur de parsing ligne %d : %s%n", numeroLigne, Arrays.toString(ligne));
-                    e.printStackTrace();
-                }
+                Appel appel = convertirAppel(ligne, numeroLigne);
+                if (appel != null) appels.add(appel);
             }
         }
         System.out.println("[APPEL] Nombre total d'appels lus : " + appels.size());
@@ -70,35 +79,542 @@ public class LecteurCSV
 
             while ((ligne = lecteur.readNext()) != null) {
                 numeroLigne++;
-                try {
-                    ActiviteAgent activite = new ActiviteAgent();
+                ActiviteAgent activite = convertirActivite(ligne, numeroLigne);
+                if (activite != null) activites.add(activite);
+            }
+        }
+        System.out.println("[ACTIVITÉ] Nombre total d'activités lues : " + activites.size());
+        return activites;
+    }
+
+    /**
+     * Flux paresseux des appels du fichier, dans l'ordre du fichier, sans les conserver en mémoire.
+     * Les lignes invalides sont signalées puis ignorées, comme dans {@link #lireAppels(String)}.
+     * Le flux doit être fermé (try-with-resources) pour libérer le fichier.
+     */
+    public static Stream<Appel> fluxAppels(String cheminFichier) throws IOException
+    {
+        return fluxLignes(cheminFichier, LecteurCSV::convertirAppel);
+    }
+
+    /**
+     * Flux paresseux des activités du fichier, dans l'ordre du fichier, sans les conserver en mémoire.
+     * Le flux doit être fermé (try-with-resources) pour libérer le fichier.
+     */
+    public static Stream<ActiviteAgent> fluxActivites(String cheminFichier) throws IOException
+    {
+        return fluxLignes(cheminFichier, LecteurCSV::convertirActivite);
+    }
+
+    /**
+     * Flux des appels de plusieurs fichiers triés par date de réception (un export par mois, par exemple),
+     * fusionnés en un seul flux chronologique sans tri global. Le paramètre désigne un fichier, un répertoire
+     * (tous ses fichiers .csv) ou un motif glob sur les noms de fichiers ({@code data_csv/appels_2014_*.csv}).
+     * À date égale, les appels suivent l'ordre alphabétique des fichiers. Chaque fichier est lu par son
+     * propre fil de lecture anticipée ; le flux doit être fermé (try-with-resources).
+     */
+    public static Stream<Appel> fluxAppelsFusionnes(String fichiersOuMotif) throws IOException
+    {
+        return fluxFusionne(fichiersCorrespondants(fichiersOuMotif), LecteurCSV::fluxAppels,
+                appel -> Horodatage.enSecondes(appel.getDateReceptionAppel()));
+    }
+
+    /**
+     * Flux des activités de plusieurs fichiers triés par date de début, fusionnés chronologiquement
+     * (mêmes règles que {@link #fluxAppelsFusionnes(String)}).
+     */
+    public static Stream<ActiviteAgent> fluxActivitesFusionnees(String fichiersOuMotif) throws IOException
+    {
+        return fluxFusionne(fichiersCorrespondants(fichiersOuMotif), LecteurCSV::fluxActivites,
+                activite -> Horodatage.enSecondes(activite.getDebutActivite()));
+    }
+
+    private static <T> Stream<T> fluxFusionne(List<Path> fichiers, FusionChronologique.OuvertureFlux<T> ouverture,
+                                              ToLongFunction<T> cle)
+    {
+        FusionChronologique<T> fusion = new FusionChronologique<>(fichiers, ouverture, cle);
+        Spliterator<T> elements = Spliterators.spliteratorUnknownSize(fusion, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(elements, false).onClose(fusion::close);
+    }
+
+    /**
+     * Fichiers désignés par un chemin : le fichier lui-même, les .csv d'un répertoire,
+     * ou les fichiers dont le nom correspond au motif glob du dernier élément. Triés par nom.
+     */
+    static List<Path> fichiersCorrespondants(String fichiersOuMotif) throws IOException
+    {
+        Path chemin = Path.of(fichiersOuMotif);
+        if (Files.isRegularFile(chemin)) return List.of(chemin);
 
-                    activite.setIdActivite(parseLongSecurise(ligne, 0, "id", numeroLigne));
-                    activite.setIdUtilisateur(parseEntierSecurise(ligne, 1, "user_id", numeroLigne));
-                    activite.setIdDnd(parseEntierSecurise(ligne, 2, "dnd_id", numeroLigne));
-                    activite.setIdCampagne(parseEntierSecurise(ligne, 3, "campaign_id", numeroLigne));
-                    activite.setExtension(parseEntierSecurise(ligne, 4, "extension", numeroLigne));
-                    activite.setIdDernierAppel(parseEntierSecurise(ligne, 5, "last_call_id", numeroLigne));
+        Path repertoire = Files.isDirectory(chemin) ? chemin : chemin.toAbsolutePath().getParent();
+        String motif = Files.isDirectory(chemin) ? "*.csv" : chemin.getFileName().toString();
+        PathMatcher correspondance = FileSystems.getDefault().getPathMatcher("glob:" + motif);
 
-                    activite.setDebutActivite(parseDateSecurisee(ligne, 6, "startdatetime", numeroLigne, false));
-                    activite.setFinActivite(parseDateSecurisee(ligne, 7, "enddatetime", numeroLigne, true));
-                    activite.setIdAgent(parseEntierSecurise(ligne, 8, "agent_id", numeroLigne));
+        List<Path> fichiers;
+        try (Stream<Path> contenu = Files.list(repertoire)) {
+            fichiers = contenu.filter(Files::isRegularFile)
+                    .filter(f -> correspondance.matches(f.getFileName()))
+                    .sorted()
+                    .toList();
+        }
+        if (fichiers.isEmpty()) {
+            throw new IOException("Aucun fichier CSV ne correspond à : " + fichiersOuMotif);
+        }
+        return fichiers;
+    }
 
-                    activites.add(activite);
+    // === Flux séquentiel des lignes converties (lignes invalides ignorées) ===
+    private static <T> Stream<T> fluxLignes(String cheminFichier, BiFunction<String[], Integer, T> conversion) throws IOException
+    {
+        CSVReader lecteur = new CSVReader(new FileReader(cheminFichier));
+        try {
+            lecteur.readNext();
+        } catch (Exception e) {
+            lecteur.close();
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+
+        Spliterator<T> lignes = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL)
+        {
+            private int numeroLigne = 1;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action)
+            {
+                try {
+                    String[] ligne;
+                    while ((ligne = lecteur.readNext()) != null) {
+                        numeroLigne++;
+                        T valeur = conversion.apply(ligne, numeroLigne);
+                        if (valeur != null) {
+                            action.accept(valeur);
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 } catch (Exception e) {
-                    System.err.printf("[ACTIVITÉ] Erreur de parsing ligne %d : %s%n", numeroLigne, Arrays.toString(ligne));
-                    e.printStackTrace();
+                    throw new IllegalStateException("Lecture impossible de " + cheminFichier, e);
                 }
             }
+        };
+
+        return StreamSupport.stream(lignes, false).onClose(() -> {
+            try {
+                lecteur.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // === Conversion d'une ligne d'appel (null si la ligne est invalide) ===
+    private static Appel convertirAppel(String[] ligne, int numeroLigne)
+    {
+        try {
+            Appel appel = new Appel();
+
+            appel.setDateReceptionAppel(parseDateSecurisee(ligne, 0, "date_received", numeroLigne, false));
+            appel.setNomFileAttenteClient(parseChaineSecurisee(ligne, 1));
+            appel.setIdentifiantAgent(parseNombreEntierFlexible(ligne, 2, "agent_number", numeroLigne));
+
+            appel.setDateReponseAgent(parseDateSecurisee(ligne, 3, "answered", numeroLigne, true));
+            appel.setDateConsultation(parseDateSecurisee(ligne, 4, "consult", numeroLigne, true));
+            appel.setDateTransfert(parseDateSecurisee(ligne, 5, "transfer", numeroLigne, true));
+            appel.setDateRaccrochage(parseDateSecurisee(ligne, 6, "hangup", numeroLigne, true));
+
+            return appel;
+        } catch (Exception e) {
+            TRACE.erreur(e, "[APPEL] Erreur de parsing ligne %d : %s", numeroLigne, Arrays.asList(ligne));
+            return null;
         }
-        System.out.println("[ACTIVITÉ] Nombre total d'activités lues : " + activites.size());
+    }
+
+    // === Conversion d'une ligne d'activité (null si la ligne est invalide) ===
+    private static ActiviteAgent convertirActivite(String[] ligne, int numeroLigne)
+    {
+        try {
+            ActiviteAgent activite = new ActiviteAgent();
+
+            activite.setIdActivite(parseLongSecurise(ligne, 0, "id", numeroLigne));
+            activite.setIdUtilisateur(parseEntierSecurise(ligne, 1, "user_id", numeroLigne));
+            activite.setIdDnd(parseEntierSecurise(ligne, 2, "dnd_id", numeroLigne));
+            activite.setIdCampagne(parseEntierSecurise(ligne, 3, "campaign_id", numeroLigne));
+            activite.setExtension(parseEntierSecurise(ligne, 4, "extension", numeroLigne));
+            activite.setIdDernierAppel(parseEntierSecurise(ligne, 5, "last_call_id", numeroLigne));
+
+            activite.setDebutActivite(parseDateSecurisee(ligne, 6, "startdatetime", numeroLigne, false));
+            activite.setFinActivite(parseDateSecurisee(ligne, 7, "enddatetime", numeroLigne, true));
+            activite.setIdAgent(parseEntierSecurise(ligne, 8, "agent_id", numeroLigne));
+
+            return activite;
+        } catch (Exception e) {
+            TRACE.erreur(e, "[ACTIVITÉ] Erreur de parsing ligne %d : %s", numeroLigne, Arrays.asList(ligne));
+            return null;
+        }
+    }
+
+    /**
+     * Lit le fichier CSV des appels directement dans un stockage colonnaire,
+     * sans conserver d'objet Appel par ligne. Utilise l'analyseur sur octets {@link AnalyseurCSVRapide},
+     * avec les mêmes règles de tolérance et les mêmes messages que {@link #lireAppels(String)}.
+     */
+    public static AppelsColonnaires lireAppelsColonnaires(String cheminFichier) throws Exception
+    {
+        AppelsColonnaires appels;
+        try (AnalyseurCSVRapide lecteur = new AnalyseurCSVRapide(Path.of(cheminFichier))) {
+            appels = lireBlocAppels(lecteur, true, new JournalBloc(false));
+        }
+        appels.compacter();
+        System.out.println("[APPEL] Nombre total d'appels lus : " + appels.taille());
+        return appels;
+    }
+
+    /**
+     * Lit le fichier CSV des activités directement dans un stockage colonnaire,
+     * sans conserver d'objet ActiviteAgent par ligne (analyseur sur octets).
+     */
+    public static ActivitesColonnaires lireActivitesColonnaires(String cheminFichier) throws Exception
+    {
+        ActivitesColonnaires activites;
+        try (AnalyseurCSVRapide lecteur = new AnalyseurCSVRapide(Path.of(cheminFichier))) {
+            activites = lireBlocActivites(lecteur, true, new JournalBloc(false));
+        }
+        activites.compacter();
+        System.out.println("[ACTIVITÉ] Nombre total d'activités lues : " + activites.taille());
         return activites;
     }
 
+    /**
+     * Variante parallèle de {@link #lireAppelsColonnaires(String)} pour les gros fichiers : le fichier est
+     * projeté en mémoire, découpé en blocs sur des fins de ligne, et chaque bloc est analysé sur le pool
+     * fork-join appelant (le pool commun hors d'un pool fork-join). Les blocs sont recollés dans l'ordre du fichier et leurs messages d'erreur
+     * sont restitués dans l'ordre avec les numéros de ligne absolus : le résultat et les messages
+     * sont ceux de la lecture séquentielle.
+     */
+    public static AppelsColonnaires lireAppelsColonnairesParallele(String cheminFichier) throws Exception
+    {
+        return lireAppelsColonnairesParallele(cheminFichier, 0);
+    }
+
+    /**
+     * @param nombreBlocs Nombre de blocs imposé, sans taille minimale (vérification des frontières de blocs) ;
+     *                    0 pour le découpage selon la taille du fichier et le parallélisme
+     */
+    static AppelsColonnaires lireAppelsColonnairesParallele(String cheminFichier, int nombreBlocs) throws Exception
+    {
+        List<BlocLu<AppelsColonnaires>> blocs = lireBlocsEnParallele(Path.of(cheminFichier), nombreBlocs, LecteurCSV::lireBlocAppels);
+        if (blocs == null) return lireAppelsColonnaires(cheminFichier);
+
+        AppelsColonnaires appels = new AppelsColonnaires(blocs.stream().mapToInt(b -> b.donnees.taille()).sum());
+        int lignesPrecedentes = 0;
+        for (BlocLu<AppelsColonnaires> bloc : blocs) {
+            bloc.journal.restituer(lignesPrecedentes);
+            lignesPrecedentes += bloc.journal.lignes;
+            appels.ajouterTout(bloc.donnees);
+        }
+        appels.compacter();
+        System.out.println("[APPEL] Nombre total d'appels lus : " + appels.taille());
+        return appels;
+    }
 
+    /**
+     * Variante parallèle de {@link #lireActivitesColonnaires(String)} (même découpage en blocs
+     * que {@link #lireAppelsColonnairesParallele(String)}).
+     */
+    public static ActivitesColonnaires lireActivitesColonnairesParallele(String cheminFichier) throws Exception
+    {
+        return lireActivitesColonnairesParallele(cheminFichier, 0);
+    }
+
+    /** @param nombreBlocs Comme pour {@link #lireAppelsColonnairesParallele(String, int)} */
+    static ActivitesColonnaires lireActivitesColonnairesParallele(String cheminFichier, int nombreBlocs) throws Exception
+    {
+        List<BlocLu<ActivitesColonnaires>> blocs = lireBlocsEnParallele(Path.of(cheminFichier), nombreBlocs, LecteurCSV::lireBlocActivites);
+        if (blocs == null) return lireActivitesColonnaires(cheminFichier);
+
+        ActivitesColonnaires activites = new ActivitesColonnaires(blocs.stream().mapToInt(b -> b.donnees.taille()).sum());
+        int lignesPrecedentes = 0;
+        for (BlocLu<ActivitesColonnaires> bloc : blocs) {
+            bloc.journal.restituer(lignesPrecedentes);
+            lignesPrecedentes += bloc.journal.lignes;
+            activites.ajouterTout(bloc.donnees);
+        }
+        activites.compacter();
+        System.out.println("[ACTIVITÉ] Nombre total d'activités lues : " + activites.taille());
+        return activites;
+    }
+
+    // ==================== Lecture par blocs ====================
+
+    // Un bloc fait au moins 8 Mo (en deçà, le découpage coûte plus qu'il ne rapporte) et au plus 256 Mo ;
+    // on vise quelques blocs par fil du pool qui lit, pour lisser les écarts de durée entre blocs
+    private static final long TAILLE_MIN_BLOC = 8L << 20;
+    private static final long TAILLE_MAX_BLOC = 256L << 20;
+    private static final int BLOCS_PAR_COEUR = 4;
+
+    /** Analyse d'une suite d'enregistrements ; le premier bloc commence par la ligne d'en-tête */
+    private interface LecteurBloc<T>
+    {
+        T lire(AnalyseurCSVRapide lecteur, boolean premierBloc, JournalBloc journal) throws IOException;
+    }
+
+    /** Résultat de l'analyse d'un bloc et ses messages en attente */
+    private static final class BlocLu<T>
+    {
+        final T donnees;
+        final JournalBloc journal;
+
+        BlocLu(T donnees, JournalBloc journal)
+        {
+            this.donnees = donnees;
+            this.journal = journal;
+        }
+    }
+
+    /**
+     * Compte les lignes lues dans un bloc et ses messages d'erreur. En lecture séquentielle les messages
+     * sont tracés immédiatement ; pour un bloc parallèle ils sont conservés avec leur numéro de ligne
+     * relatif et restitués une fois connu le nombre de lignes des blocs précédents. Les messages sous
+     * le seuil de trace ne sont pas conservés, et leur texte n'est construit que dans le fil d'écriture.
+     */
+    private static final class JournalBloc
+    {
+        int lignes;
+        private final List<Signalement> enAttente;
+
+        JournalBloc(boolean differe)
+        {
+            this.enAttente = differe ? new ArrayList<>() : null;
+        }
+
+        void signaler(Trace.Niveau niveau, int ligne, IntFunction<String> message, Throwable erreur)
+        {
+            if (!Trace.actif(niveau)) return;
+            Signalement signalement = new Signalement(niveau, ligne, message, erreur);
+            if (enAttente != null) {
+                enAttente.add(signalement);
+                return;
+            }
+            signalement.tracer(0);
+        }
+
+        void restituer(int decalageLignes)
+        {
+            for (Signalement s : enAttente) {
+                s.tracer(decalageLignes);
+            }
+        }
+    }
+
+    private record Signalement(Trace.Niveau niveau, int ligne, IntFunction<String> message, Throwable erreur)
+    {
+        void tracer(int decalageLignes)
+        {
+            TRACE.tracer(niveau, erreur, "%s", new MessageLigne(message, ligne + decalageLignes));
+        }
+    }
+
+    /** Message mis en forme à la demande, par le fil d'écriture des traces */
+    private record MessageLigne(IntFunction<String> message, int ligne)
+    {
+        @Override
+        public String toString()
+        {
+            return message.apply(ligne);
+        }
+    }
+
+    /**
+     * Projette le fichier en mémoire par blocs et les analyse en parallèle, dans l'ordre du fichier.
+     * Retourne null si le fichier tient en un seul bloc ou si un enregistrement entre guillemets a été
+     * rencontré (un champ sur plusieurs lignes peut chevaucher une frontière de bloc) : l'appelant
+     * relit alors le fichier séquentiellement.
+     */
+    private static <T> List<BlocLu<T>> lireBlocsEnParallele(Path chemin, int nombreBlocs, LecteurBloc<T> lecteurBloc) throws IOException
+    {
+        try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.READ)) {
+            long[] bornes = decouperEnBlocs(canal, nombreBlocs);
+            if (bornes.length <= 2) return null;
+
+            List<BlocLu<T>> blocs = IntStream.range(0, bornes.length - 1).parallel().mapToObj(i -> {
+                try {
+                    ByteBuffer region = canal.map(FileChannel.MapMode.READ_ONLY, bornes[i], bornes[i + 1] - bornes[i]);
+                    JournalBloc journal = new JournalBloc(true);
+                    AnalyseurCSVRapide lecteur = new AnalyseurCSVRapide(region);
+                    T donnees = lecteurBloc.lire(lecteur, i == 0, journal);
+                    return lecteur.aRencontreGuillemets() ? null : new BlocLu<>(donnees, journal);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).toList();
+
+            return blocs.contains(null) ? null : blocs;
+        }
+    }
+
+    /** Bornes des blocs (début du premier, …, fin du dernier), chacune placée juste après un \n */
+    private static long[] decouperEnBlocs(FileChannel canal, int nombreBlocs) throws IOException
+    {
+        long taille = canal.size();
+        long nombre;
+        if (nombreBlocs > 0) {
+            nombre = Math.min(nombreBlocs, taille);
+        } else {
+            nombre = Math.min(taille / TAILLE_MIN_BLOC, (long) BLOCS_PAR_COEUR * parallelisme());
+            nombre = Math.max(nombre, (taille + TAILLE_MAX_BLOC - 1) / TAILLE_MAX_BLOC);
+        }
+        if (nombre <= 1) return new long[]{0, taille};
+
+        long[] bornes = new long[(int) nombre + 1];
+        int n = 1;
+        ByteBuffer fenetre = ByteBuffer.allocate(1 << 16);
+        for (long k = 1; k < nombre; k++) {
+            long borne = finDeLigneApres(canal, Math.max(k * taille / nombre, bornes[n - 1]), fenetre);
+            if (borne >= taille) break;
+            if (borne > bornes[n - 1]) bornes[n++] = borne;
+        }
+        bornes[n++] = taille;
+        return Arrays.copyOf(bornes, n);
+    }
+
+    // === Fils du pool qui exécutera la lecture : pool fork-join appelant, sinon tous les cœurs (pool commun) ===
+    private static int parallelisme()
+    {
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        return pool != null && pool != ForkJoinPool.commonPool() ? pool.getParallelism() : Runtime.getRuntime().availableProcessors();
+    }
+
+    // === Position suivant le premier \n rencontré à partir de 'depart' (taille du fichier s'il n'y en a pas) ===
+    private static long finDeLigneApres(FileChannel canal, long depart, ByteBuffer fenetre) throws IOException
+    {
+        long position = depart;
+        while (true) {
+            fenetre.clear();
+            int lus = canal.read(fenetre, position);
+            if (lus <= 0) return canal.size();
+            for (int i = 0; i < lus; i++) {
+                if (fenetre.get(i) == '\n') return position + i + 1;
+            }
+            position += lus;
+        }
+    }
+
+    private static AppelsColonnaires lireBlocAppels(AnalyseurCSVRapide lecteur, boolean premierBloc, JournalBloc journal) throws IOException
+    {
+        AppelsColonnaires appels = new AppelsColonnaires();
+        if (premierBloc) {
+            journal.lignes = 1;
+            lecteur.ligneSuivante();
+        }
+
+        while (lecteur.ligneSuivante()) {
+            int numeroLigne = ++journal.lignes;
+            try {
+                long reception = parseDateSecurisee(lecteur, journal, 0, "date_received", numeroLigne, false);
+                String service = lecteur.estVide(1) ? null : lecteur.chaineMemorisee(1);
+                int agent = parseNombreEntierFlexible(lecteur, journal, 2, "agent_number", numeroLigne);
+
+                appels.ajouter(reception, service, agent,
+                        parseDateSecurisee(lecteur, journal, 3, "answered", numeroLigne, true),
+                        parseDateSecurisee(lecteur, journal, 4, "consult", numeroLigne, true),
+                        parseDateSecurisee(lecteur, journal, 5, "transfer", numeroLigne, true),
+                        parseDateSecurisee(lecteur, journal, 6, "hangup", numeroLigne, true));
+            } catch (Exception e) {
+                String champs = Arrays.toString(lecteur.champs());
+                journal.signaler(Trace.Niveau.ERREUR, numeroLigne, l -> String.format("[APPEL] Erreur de parsing ligne %d : %s", l, champs), e);
+            }
+        }
+        return appels;
+    }
+
+    private static ActivitesColonnaires lireBlocActivites(AnalyseurCSVRapide lecteur, boolean premierBloc, JournalBloc journal) throws IOException
+    {
+        ActivitesColonnaires activites = new ActivitesColonnaires();
+        if (premierBloc) {
+            journal.lignes = 1;
+            lecteur.ligneSuivante();
+        }
+
+        while (lecteur.ligneSuivante()) {
+            int numeroLigne = ++journal.lignes;
+            try {
+                long id = parseLongSecurise(lecteur, journal, 0, "id", numeroLigne);
+                int idUtilisateur = parseEntierSecurise(lecteur, journal, 1, "user_id", numeroLigne);
+                int idDnd = parseEntierSecurise(lecteur, journal, 2, "dnd_id", numeroLigne);
+                int idCampagne = parseEntierSecurise(lecteur, journal, 3, "campaign_id", numeroLigne);
+                int extension = parseEntierSecurise(lecteur, journal, 4, "extension", numeroLigne);
+                int idDernierAppel = parseEntierSecurise(lecteur, journal, 5, "last_call_id", numeroLigne);
+                long debut = parseDateSecurisee(lecteur, journal, 6, "startdatetime", numeroLigne, false);
+                long fin = parseDateSecurisee(lecteur, journal, 7, "enddatetime", numeroLigne, true);
+                int idAgent = parseEntierSecurise(lecteur, journal, 8, "agent_id", numeroLigne);
+
+                activites.ajouter(id, idUtilisateur, idDnd, idCampagne, extension, idDernierAppel, debut, fin, idAgent);
+            } catch (Exception e) {
+                String champs = Arrays.toString(lecteur.champs());
+                journal.signaler(Trace.Niveau.ERREUR, numeroLigne, l -> String.format("[ACTIVITÉ] Erreur de parsing ligne %d : %s", l, champs), e);
+            }
+        }
+        return activites;
+    }
 
     // ==================== Méthodes utilitaires internes ====================
 
+    // --- Variantes sur l'analyseur d'octets : mêmes règles, valeurs absentes codées par sentinelle ---
+
+    /** Date en secondes epoch, ou Horodatage.ABSENT si vide (ou invalide et nullable) */
+    private static long parseDateSecurisee(AnalyseurCSVRapide lecteur, JournalBloc journal, int index, String nomChamp, int ligne, boolean peutEtreNull) {
+        try {
+            if (lecteur.estVide(index)) {
+                if (peutEtreNull) return Horodatage.ABSENT;
+                throw new IllegalArgumentException("Date obligatoire manquante");
+            }
+            return lecteur.dateEnSecondes(index);
+        } catch (Exception e) {
+            if (peutEtreNull) return Horodatage.ABSENT;
+            String valeur = lecteur.brut(index);
+            journal.signaler(Trace.Niveau.AVERTISSEMENT, ligne, l -> String.format("Parsing date '%s' ligne %d : '%s'", nomChamp, l, valeur), null);
+            throw e;
+        }
+    }
+
+    private static int parseEntierSecurise(AnalyseurCSVRapide lecteur, JournalBloc journal, int index, String nomChamp, int ligne) {
+        try {
+            if (lecteur.estVide(index)) return ActivitesColonnaires.AUCUN;
+            return lecteur.entier(index);
+        } catch (NumberFormatException e) {
+            String valeur = lecteur.brut(index);
+            journal.signaler(Trace.Niveau.AVERTISSEMENT, ligne, l -> String.format("Erreur entier '%s' ligne %d : '%s'", nomChamp, l, valeur), null);
+            return ActivitesColonnaires.AUCUN;
+        }
+    }
+
+    private static int parseNombreEntierFlexible(AnalyseurCSVRapide lecteur, JournalBloc journal, int index, String nomChamp, int ligne) {
+        try {
+            if (lecteur.estVide(index)) return AppelsColonnaires.AUCUN;
+            return lecteur.entierFlexible(index);
+        } catch (Exception e) {
+            String valeur = lecteur.brut(index);
+            journal.signaler(Trace.Niveau.AVERTISSEMENT, ligne, l -> String.format("Erreur nombre-entier '%s' ligne %d : '%s'", nomChamp, l, valeur), null);
+            return AppelsColonnaires.AUCUN;
+        }
+    }
+
+    private static long parseLongSecurise(AnalyseurCSVRapide lecteur, JournalBloc journal, int index, String nomChamp, int ligne)
+    {
+        try {
+            if (lecteur.estVide(index)) return ActivitesColonnaires.AUCUN_ID;
+            return lecteur.entierLong(index);
+        } catch (NumberFormatException e) {
+            String valeur = lecteur.brut(index);
+            journal.signaler(Trace.Niveau.AVERTISSEMENT, ligne, l -> String.format("Erreur long '%s' ligne %d : '%s'", nomChamp, l, valeur), null);
+            return ActivitesColonnaires.AUCUN_ID;
+        }
+    }
+
+    // --- Variantes sur les champs opencsv ---
+
     /** Parse une date en toute sécurité, avec gestion des erreurs et valeurs nullables */
     private static LocalDateTime parseDateSecurisee(String[] champs, int index, String nomChamp, int ligne, boolean peutEtreNull) {
         try {
@@ -109,7 +625,7 @@ public class LecteurCSV
             return LocalDateTime.parse(champs[index].trim(), FORMAT_DATE);
         } catch (Exception e) {
             if (peutEtreNull) return null;
-            System.err.printf("[ERREUR] Parsing date '%s' ligne %d : '%s'%n", nomChamp, ligne, champSecurise(champs, index));
+            TRACE.avertissement("Parsing date '%s' ligne %d : '%s'", nomChamp, ligne, champSecurise(champs, index));
             throw e;
         }
     }
@@ -126,7 +642,7 @@ public class LecteurCSV
             if (champVide(champs, index)) return null;
             return Integer.parseInt(champs[index].trim());
         } catch (NumberFormatException e) {
-            System.err.printf("[WARN] Erreur entier '%s' ligne %d : '%s'%n", nomChamp, ligne, champSecurise(champs, index));
+            TRACE.avertissement("Erreur entier '%s' ligne %d : '%s'", nomChamp, ligne, champSecurise(champs, index));
             return null;
         }
     }
@@ -144,7 +660,7 @@ public class LecteurCSV
                 return Integer.parseInt(valeur);
             }
         } catch (Exception e) {
-            System.err.printf("[WARN] Erreur nombre-entier '%s' ligne %d : '%s'%n", nomChamp, ligne, champSecurise(champs, index));
+            TRACE.avertissement("Erreur nombre-entier '%s' ligne %d : '%s'", nomChamp, ligne, champSecurise(champs, index));
             return null;
         }
     }
@@ -156,7 +672,7 @@ public class LecteurCSV
             if (champVide(champs, index)) return null;
             return Long.parseLong(champs[index].trim());
         } catch (NumberFormatException e) {
-            System.err.printf("[WARN] Erreur long '%s' ligne %d : '%s'%n", nomChamp, ligne, champSecurise(champs, index));
+            TRACE.avertissement("Erreur long '%s' ligne %d : '%s'", nomChamp, ligne, champSecurise(champs, index));
             return null;
         }
     }
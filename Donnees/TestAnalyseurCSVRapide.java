@@ -0,0 +1,175 @@
+package Donnees;
+
+import Modele.ActivitesColonnaires;
+import Modele.AppelsColonnaires;
+import com.opencsv.CSVReader;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Vérification de {@link AnalyseurCSVRapide} face à opencsv, à lancer comme {@code Simulation.TestSimulation}
+ * depuis la racine du dépôt, sur les fichiers de cas limites de {@code Donnees/essais} (fins de ligne CRLF
+ * et CR seul, champs entre guillemets avec séparateurs, guillemets doublés ou retours à la ligne, barre oblique
+ * inverse, lignes vides ou blanches, champs manquants ou en trop, valeurs entourées d'espaces, signes,
+ * agents décimaux ou trop grands, dates invalides ou ajustées par le résolveur SMART, dernière ligne sans fin) :
+ * <ul>
+ *   <li>enregistrement par enregistrement, mêmes champs que {@code CSVReader.readNext()} : nombre, valeur
+ *       brute, vacuité et valeur rognée ;</li>
+ *   <li>champ par champ, mêmes valeurs ou mêmes exceptions que le décodage du chemin opencsv (date au format
+ *       {@code yyyy-MM-dd HH:mm:ss}, {@code Integer.parseInt}, {@code Long.parseLong}, entier décimal arrondi) ;</li>
+ *   <li>fichier par fichier, mêmes colonnes que la lecture en objets {@code Appel} et {@code ActiviteAgent}.</li>
+ * </ul>
+ * Arguments facultatifs : fichier des appels, fichier des activités.
+ */
+public class TestAnalyseurCSVRapide {
+
+    private static int comparaisons;
+    private static int differences;
+
+    public static void main(String[] args) throws Exception {
+        String appels = args.length > 0 ? args[0] : "Donnees/essais/appels_cas_limites.csv";
+        String activites = args.length > 1 ? args[1] : "Donnees/essais/activites_cas_limites.csv";
+
+        for (String fichier : new String[]{appels, activites}) {
+            comparerChamps(fichier);
+        }
+
+        // Les lectures complètes impriment leur bilan : seules les différences sont affichées
+        PrintStream sortie = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        AppelsColonnaires appelsObjets;
+        AppelsColonnaires appelsOctets;
+        ActivitesColonnaires activitesObjets;
+        ActivitesColonnaires activitesOctets;
+        try {
+            appelsObjets = AppelsColonnaires.depuis(LecteurCSV.lireAppels(appels));
+            appelsOctets = LecteurCSV.lireAppelsColonnaires(appels);
+            activitesObjets = ActivitesColonnaires.depuis(LecteurCSV.lireActivites(activites));
+            activitesOctets = LecteurCSV.lireActivitesColonnaires(activites);
+        } finally {
+            System.setOut(sortie);
+        }
+        comparerAppels(appelsObjets, appelsOctets);
+        comparerActivites(activitesObjets, activitesOctets);
+
+        System.out.printf("%d comparaisons, %d différences (%d appels, %d activités lus)%n",
+                comparaisons, differences, appelsOctets.taille(), activitesOctets.taille());
+        boolean succes = differences == 0;
+        System.out.println(succes ? "Analyseur sur octets identique à opencsv." : "ÉCHEC : analyseur sur octets différent d'opencsv.");
+        if (!succes) System.exit(1);
+    }
+
+    // === Enregistrements et champs, lus en parallèle par opencsv et par l'analyseur ===
+    private static void comparerChamps(String fichier) throws IOException {
+        try (CSVReader reference = new CSVReader(new FileReader(fichier));
+             AnalyseurCSVRapide analyseur = new AnalyseurCSVRapide(Path.of(fichier))) {
+            int enregistrement = 0;
+            while (true) {
+                String[] attendus = lireSuivant(reference);
+                boolean suivant = analyseur.ligneSuivante();
+                enregistrement++;
+                String lieu = fichier + ", enregistrement " + enregistrement;
+                verifier(lieu + " : présence", attendus != null, suivant);
+                if (attendus == null || !suivant) return;
+
+                verifier(lieu + " : nombre de champs", attendus.length, analyseur.nombreChamps());
+                verifier(lieu + " : champs", Arrays.asList(attendus), Arrays.asList(analyseur.champs()));
+                for (int i = 0; i <= attendus.length; i++) {
+                    comparerChamp(lieu + ", champ " + i, attendus, i, analyseur);
+                }
+            }
+        }
+    }
+
+    private static String[] lireSuivant(CSVReader reference) throws IOException {
+        try {
+            return reference.readNext();
+        } catch (com.opencsv.exceptions.CsvValidationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void comparerChamp(String lieu, String[] attendus, int i, AnalyseurCSVRapide analyseur) {
+        boolean vide = i >= attendus.length || attendus[i] == null || attendus[i].trim().isEmpty();
+        verifier(lieu + " : vide", vide, analyseur.estVide(i));
+        verifier(lieu + " : brut", i < attendus.length && attendus[i] != null ? attendus[i] : "null", analyseur.brut(i));
+        if (vide) return;
+
+        String valeur = attendus[i].trim();
+        verifier(lieu + " : rogné", valeur, analyseur.chaine(i));
+        verifier(lieu + " : mémorisé", valeur, analyseur.chaineMemorisee(i));
+        verifierResultat(lieu + " : date",
+                () -> LocalDateTime.parse(valeur, LecteurCSV.FORMAT_DATE).toEpochSecond(ZoneOffset.UTC),
+                () -> analyseur.dateEnSecondes(i));
+        verifierResultat(lieu + " : entier", () -> Integer.parseInt(valeur), () -> analyseur.entier(i));
+        verifierResultat(lieu + " : entier long", () -> Long.parseLong(valeur), () -> analyseur.entierLong(i));
+        verifierResultat(lieu + " : entier décimal",
+                () -> valeur.contains(".") ? (int) Math.round(Double.parseDouble(valeur)) : Integer.parseInt(valeur),
+                () -> analyseur.entierFlexible(i));
+    }
+
+    // === Même valeur, ou exception de même classe et de même message ===
+    private static void verifierResultat(String lieu, Supplier<Object> reference, Supplier<Object> rapide) {
+        verifier(lieu, evaluer(reference), evaluer(rapide));
+    }
+
+    private static String evaluer(Supplier<Object> calcul) {
+        try {
+            return String.valueOf(calcul.get());
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    // === Colonnes issues des objets (chemin opencsv) et de l'analyseur ===
+    private static void comparerAppels(AppelsColonnaires attendus, AppelsColonnaires obtenus) {
+        verifier("appels : nombre", attendus.taille(), obtenus.taille());
+        for (int i = 0; i < Math.min(attendus.taille(), obtenus.taille()); i++) {
+            String lieu = "appel " + i;
+            comparerColonne(lieu + " : réception", attendus::getReception, obtenus::getReception, i);
+            comparerColonne(lieu + " : service", attendus::getService, obtenus::getService, i);
+            comparerColonne(lieu + " : agent", attendus::getAgent, obtenus::getAgent, i);
+            comparerColonne(lieu + " : réponse", attendus::getReponse, obtenus::getReponse, i);
+            comparerColonne(lieu + " : consultation", attendus::getConsultation, obtenus::getConsultation, i);
+            comparerColonne(lieu + " : transfert", attendus::getTransfert, obtenus::getTransfert, i);
+            comparerColonne(lieu + " : raccrochage", attendus::getRaccrochage, obtenus::getRaccrochage, i);
+        }
+    }
+
+    private static void comparerActivites(ActivitesColonnaires attendues, ActivitesColonnaires obtenues) {
+        verifier("activités : nombre", attendues.taille(), obtenues.taille());
+        for (int i = 0; i < Math.min(attendues.taille(), obtenues.taille()); i++) {
+            String lieu = "activité " + i;
+            comparerColonne(lieu + " : id", attendues::getIdActivite, obtenues::getIdActivite, i);
+            comparerColonne(lieu + " : utilisateur", attendues::getIdUtilisateur, obtenues::getIdUtilisateur, i);
+            comparerColonne(lieu + " : dnd", attendues::getIdDnd, obtenues::getIdDnd, i);
+            comparerColonne(lieu + " : campagne", attendues::getIdCampagne, obtenues::getIdCampagne, i);
+            comparerColonne(lieu + " : extension", attendues::getExtension, obtenues::getExtension, i);
+            comparerColonne(lieu + " : dernier appel", attendues::getIdDernierAppel, obtenues::getIdDernierAppel, i);
+            comparerColonne(lieu + " : début", attendues::getDebut, obtenues::getDebut, i);
+            comparerColonne(lieu + " : fin", attendues::getFin, obtenues::getFin, i);
+            comparerColonne(lieu + " : agent", attendues::getIdAgent, obtenues::getIdAgent, i);
+        }
+    }
+
+    private static void comparerColonne(String lieu, IntFunction<Object> attendue, IntFunction<Object> obtenue, int i) {
+        verifier(lieu, attendue.apply(i), obtenue.apply(i));
+    }
+
+    private static void verifier(String lieu, Object attendu, Object obtenu) {
+        comparaisons++;
+        if (Objects.equals(attendu, obtenu)) return;
+        differences++;
+        System.out.println(lieu + " : opencsv " + attendu + ", analyseur " + obtenu);
+    }
+}
@@ -0,0 +1,228 @@
+package Donnees;
+
+import Modele.ActivitesColonnaires;
+import Modele.AppelsColonnaires;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Vérification des lectures parallèles de {@link LecteurCSV}, à lancer comme {@code Simulation.TestSimulation}
+ * depuis la racine du dépôt : {@code lireAppelsColonnairesParallele} et {@code lireActivitesColonnairesParallele}
+ * doivent produire les mêmes colonnes et les mêmes messages, aux mêmes numéros de ligne, que la lecture
+ * séquentielle. Chaque fichier est relu en 2 à 2n+2 blocs imposés (n lignes), si bien que les frontières de
+ * blocs tombent sur chaque ligne, dont la dernière (avec ou sans fin de ligne), et à l'intérieur des champs
+ * entre guillemets qui s'étendent sur plusieurs lignes.
+ * <p>
+ * Fichiers relus : les cas limites de {@code Donnees/essais}, puis des fichiers aléatoires mêlant lignes
+ * valides, erronées, vides ou incomplètes, fins de ligne LF, CRLF et CR seul, et, pour la moitié d'entre eux,
+ * des champs entre guillemets (séparateur ou retour à la ligne inclus).
+ * Arguments facultatifs : nombre de fichiers aléatoires par type (12), lignes par fichier (60).
+ */
+public class TestLecteurCSVParallele {
+
+    private static final String EN_TETE_APPELS = "date_received,queue_name,agent_number,answered,consult,transfer,hangup";
+    private static final String EN_TETE_ACTIVITES = "id,user_id,dnd_id,campaign_id,extension,last_call_id,startdatetime,enddatetime,agent_id";
+    private static final String[] FINS_DE_LIGNE = {"\n", "\n", "\n", "\n", "\r\n", "\r"};
+
+    private static Path traces;
+    private static long octetsLus;
+    private static long lectures;
+
+    public static void main(String[] args) throws Exception {
+        int fichiers = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int lignes = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+
+        // Toutes les traces de lecture, sans échantillonnage ni pile d'appels, dans un fichier relu après chaque lecture
+        Path repertoire = Files.createTempDirectory("test-lecteur-parallele");
+        traces = repertoire.resolve("traces.log");
+        System.setProperty("vanad.trace.fichier", traces.toString());
+        Trace.configurer(Trace.Niveau.INFO, Integer.MAX_VALUE, 1);
+
+        // Les lectures impriment leur bilan : seules les différences sont affichées
+        PrintStream sortie = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        List<String> echecs = new ArrayList<>();
+        try {
+            verifierAppels(Path.of("Donnees/essais/appels_cas_limites.csv"), echecs);
+            verifierActivites(Path.of("Donnees/essais/activites_cas_limites.csv"), echecs);
+            SplittableRandom alea = new SplittableRandom(7);
+            for (int f = 0; f < fichiers && echecs.isEmpty(); f++) {
+                boolean guillemets = f % 2 == 1;
+                Path appels = repertoire.resolve("appels_" + f + ".csv");
+                Files.writeString(appels, genererAppels(alea, lignes, guillemets), StandardCharsets.UTF_8);
+                verifierAppels(appels, echecs);
+                Path activites = repertoire.resolve("activites_" + f + ".csv");
+                Files.writeString(activites, genererActivites(alea, lignes, guillemets), StandardCharsets.UTF_8);
+                verifierActivites(activites, echecs);
+            }
+        } finally {
+            System.setOut(sortie);
+            try (Stream<Path> crees = Files.walk(repertoire)) {
+                for (Path p : crees.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+            }
+        }
+
+        echecs.stream().limit(10).forEach(System.out::println);
+        System.out.printf("%d lectures parallèles comparées à la lecture séquentielle%n", lectures);
+        boolean succes = echecs.isEmpty();
+        System.out.println(succes ? "Lectures parallèles identiques à la lecture séquentielle."
+                : "ÉCHEC : lectures parallèles différentes de la lecture séquentielle.");
+        if (!succes) System.exit(1);
+    }
+
+    // === Une lecture séquentielle, puis une lecture parallèle par nombre de blocs ===
+    private static void verifierAppels(Path fichier, List<String> echecs) throws Exception {
+        String chemin = fichier.toString();
+        List<String> attendues = lignes(LecteurCSV.lireAppelsColonnaires(chemin));
+        List<String> messagesAttendus = messages();
+        int blocsMax = 2 * Files.readAllLines(fichier).size() + 2;
+        for (int blocs = 2; blocs <= blocsMax; blocs++) {
+            List<String> obtenues = lignes(LecteurCSV.lireAppelsColonnairesParallele(chemin, blocs));
+            comparer(fichier + " en " + blocs + " blocs", attendues, obtenues, messagesAttendus, messages(), echecs);
+        }
+    }
+
+    private static void verifierActivites(Path fichier, List<String> echecs) throws Exception {
+        String chemin = fichier.toString();
+        List<String> attendues = lignes(LecteurCSV.lireActivitesColonnaires(chemin));
+        List<String> messagesAttendus = messages();
+        int blocsMax = 2 * Files.readAllLines(fichier).size() + 2;
+        for (int blocs = 2; blocs <= blocsMax; blocs++) {
+            List<String> obtenues = lignes(LecteurCSV.lireActivitesColonnairesParallele(chemin, blocs));
+            comparer(fichier + " en " + blocs + " blocs", attendues, obtenues, messagesAttendus, messages(), echecs);
+        }
+    }
+
+    private static void comparer(String lieu, List<String> attendues, List<String> obtenues,
+                                 List<String> messagesAttendus, List<String> messagesObtenus, List<String> echecs) {
+        lectures++;
+        if (!attendues.equals(obtenues)) {
+            echecs.add(lieu + " : " + premiereDifference(attendues, obtenues));
+        }
+        if (!messagesAttendus.equals(messagesObtenus)) {
+            echecs.add(lieu + ", messages : " + premiereDifference(messagesAttendus, messagesObtenus));
+        }
+    }
+
+    private static String premiereDifference(List<String> attendues, List<String> obtenues) {
+        for (int i = 0; i < Math.min(attendues.size(), obtenues.size()); i++) {
+            if (!attendues.get(i).equals(obtenues.get(i))) {
+                return "rang " + i + ", séquentiel [" + attendues.get(i) + "], parallèle [" + obtenues.get(i) + "]";
+            }
+        }
+        return attendues.size() + " en séquentiel, " + obtenues.size() + " en parallèle";
+    }
+
+    // === Contenu comparé : une chaîne par enregistrement, et les traces émises depuis la lecture précédente ===
+    private static List<String> lignes(AppelsColonnaires appels) {
+        List<String> lignes = new ArrayList<>(appels.taille());
+        for (int i = 0; i < appels.taille(); i++) {
+            lignes.add(appels.getReception(i) + "," + appels.getService(i) + "," + appels.getAgent(i) + ","
+                    + appels.getReponse(i) + "," + appels.getConsultation(i) + "," + appels.getTransfert(i) + ","
+                    + appels.getRaccrochage(i));
+        }
+        return lignes;
+    }
+
+    private static List<String> lignes(ActivitesColonnaires activites) {
+        List<String> lignes = new ArrayList<>(activites.taille());
+        for (int i = 0; i < activites.taille(); i++) {
+            lignes.add(activites.getIdActivite(i) + "," + activites.getIdUtilisateur(i) + "," + activites.getIdDnd(i) + ","
+                    + activites.getIdCampagne(i) + "," + activites.getExtension(i) + "," + activites.getIdDernierAppel(i) + ","
+                    + activites.getDebut(i) + "," + activites.getFin(i) + "," + activites.getIdAgent(i));
+        }
+        return lignes;
+    }
+
+    private static List<String> messages() throws IOException {
+        Trace.vider();
+        if (!Files.exists(traces)) return List.of();
+        byte[] suite;
+        try (InputStream entree = Files.newInputStream(traces)) {
+            entree.skipNBytes(octetsLus);
+            suite = entree.readAllBytes();
+        }
+        octetsLus += suite.length;
+        List<String> nouvelles = new ArrayList<>();
+        for (String ligne : new String(suite, StandardCharsets.UTF_8).split("\n")) {
+            // Sans l'heure d'émission
+            if (!ligne.isEmpty()) nouvelles.add(ligne.replaceFirst("^\\d\\d:\\d\\d:\\d\\d\\.\\d\\d\\d ", ""));
+        }
+        return nouvelles;
+    }
+
+    // === Fichiers aléatoires ===
+    private static String genererAppels(SplittableRandom alea, int lignes, boolean guillemets) {
+        StringBuilder texte = new StringBuilder(EN_TETE_APPELS).append(finDeLigne(alea));
+        long reception = 1_389_000_000L;
+        for (int l = 0; l < lignes; l++) {
+            reception += alea.nextInt(120);
+            String service = guillemets && alea.nextInt(4) == 0 ? champEntreGuillemets(alea, "30175") : "30" + (170 + alea.nextInt(12));
+            switch (alea.nextInt(12)) {
+                case 0 -> texte.append("");
+                case 1 -> texte.append("   ");
+                case 2 -> texte.append(date(reception)).append(',').append(service);
+                case 3 -> texte.append("2014-13-01 10:00:00,").append(service).append(",,,,,").append(date(reception + 60));
+                case 4 -> texte.append(date(reception)).append(',').append(service).append(",abc,,,,").append(date(reception + 60));
+                case 5 -> texte.append(date(reception)).append(',').append(service).append(",,,,,").append(date(reception + 60));
+                default -> texte.append(date(reception)).append(',').append(service).append(',')
+                        .append(alea.nextBoolean() ? "" + (1 + alea.nextInt(300)) : (1 + alea.nextInt(300)) + ".0").append(',')
+                        .append(date(reception + 10)).append(",,,").append(date(reception + 10 + alea.nextInt(600)));
+            }
+            if (l < lignes - 1 || alea.nextBoolean()) texte.append(finDeLigne(alea));
+        }
+        return texte.toString();
+    }
+
+    private static String genererActivites(SplittableRandom alea, int lignes, boolean guillemets) {
+        StringBuilder texte = new StringBuilder(EN_TETE_ACTIVITES).append(finDeLigne(alea));
+        long debut = 1_389_000_000L;
+        for (int l = 0; l < lignes; l++) {
+            debut += alea.nextInt(300);
+            String extension = guillemets && alea.nextInt(4) == 0 ? champEntreGuillemets(alea, "2001") : "" + (2000 + alea.nextInt(50));
+            String prefixe = l + "," + (10 + alea.nextInt(5)) + "," + alea.nextInt(20) + "," + (100 + alea.nextInt(9)) + ","
+                    + extension + "," + (900 + alea.nextInt(99)) + ",";
+            switch (alea.nextInt(10)) {
+                case 0 -> texte.append("");
+                case 1 -> texte.append(prefixe).append(",").append(date(debut + 60)).append(",7");
+                case 2 -> texte.append(prefixe).append(date(debut)).append(",,7");
+                case 3 -> texte.append(prefixe).append(date(debut)).append(",pas une date,x");
+                case 4 -> texte.append(l).append(",12");
+                default -> texte.append(prefixe).append(date(debut)).append(',').append(date(debut + alea.nextInt(900)))
+                        .append(',').append(1 + alea.nextInt(60));
+            }
+            if (l < lignes - 1 || alea.nextBoolean()) texte.append(finDeLigne(alea));
+        }
+        return texte.toString();
+    }
+
+    // Valeur entre guillemets, avec un guillemet doublé, un séparateur ou un retour à la ligne
+    private static String champEntreGuillemets(SplittableRandom alea, String valeur) {
+        return switch (alea.nextInt(3)) {
+            case 0 -> "\"" + valeur + "\"";
+            case 1 -> "\"" + valeur.substring(0, 2) + "," + valeur.substring(2) + "\"";
+            default -> "\"" + valeur.substring(0, 2) + "\n\"\"" + valeur.substring(2) + "\"";
+        };
+    }
+
+    private static String finDeLigne(SplittableRandom alea) {
+        return FINS_DE_LIGNE[alea.nextInt(FINS_DE_LIGNE.length)];
+    }
+
+    private static String date(long secondes) {
+        return LecteurCSV.FORMAT_DATE.format(LocalDateTime.ofEpochSecond(secondes, 0, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,341 @@
+package Donnees;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Traces asynchrones et échantillonnées, en remplacement des écritures console ligne par ligne.
+ * <p>
+ * Chaque canal ({@link #pour(String)}) compte ses traces par niveau : seules les {@code premiers} premières
+ * puis une sur {@code periode} sont conservées, et le nombre de traces omises est rappelé par {@link #vider()}.
+ * Les traces conservées sont déposées, sans verrou ni mise en forme, dans un anneau borné ; un fil d'écriture
+ * en arrière-plan les met en forme et les écrit par lots. Si l'anneau est plein, la trace est perdue
+ * (et comptée) plutôt que de bloquer l'appelant. Sous le seuil, un appel ne coûte
+ * qu'une lecture de champ : les sites chauds testent {@link #actif(Niveau)} avant de préparer leurs arguments.
+ * <p>
+ * Réglages par propriétés système (ou {@link #configurer(Niveau, int, int)}) :
+ * {@code vanad.trace} (seuil : AUCUN, ERREUR, AVERTISSEMENT, INFO, DETAIL ; INFO par défaut),
+ * {@code vanad.trace.premiers} (20), {@code vanad.trace.periode} (1000),
+ * {@code vanad.trace.fichier} (sortie d'erreur par défaut).
+ */
+public final class Trace
+{
+
+    /** Niveaux par gravité décroissante */
+    public enum Niveau
+    {
+        ERREUR, AVERTISSEMENT, INFO, DETAIL
+    }
+
+    private record Entree(long instant, Niveau niveau, Trace canal, String format, Object[] arguments,
+                          Throwable erreur) {}
+
+    private static final int CAPACITE = 1 << 14;
+    private static final int MASQUE = CAPACITE - 1;
+    private static final DateTimeFormatter FORMAT_HEURE = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    // === Réglages (seuil = nombre de niveaux actifs, 0 : aucune trace) ===
+    private static volatile int seuil = lireSeuil(System.getProperty("vanad.trace", "INFO"));
+    private static volatile int premiers = Integer.getInteger("vanad.trace.premiers", 20);
+    private static volatile int periode = Math.max(1, Integer.getInteger("vanad.trace.periode", 1000));
+
+    // === Anneau multi-producteurs, un seul consommateur (cases numérotées par séquence) ===
+    private static final AtomicReferenceArray<Entree> cases = new AtomicReferenceArray<>(CAPACITE);
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITE);
+    private static final AtomicLong positionEcriture = new AtomicLong();
+    private static final AtomicLong positionLecture = new AtomicLong();
+
+    private static final LongAdder perdues = new LongAdder();
+    private static final LongAdder omises = new LongAdder();
+
+    static {
+        for (int i = 0; i < CAPACITE; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    private final String nom;
+    private final AtomicLongArray compteurs = new AtomicLongArray(Niveau.values().length);
+
+    private Trace(String nom)
+    {
+        this.nom = nom;
+    }
+
+    /** Canal de traces nommé (à conserver dans un champ statique) */
+    public static Trace pour(String nom)
+    {
+        return new Trace(nom);
+    }
+
+    /**
+     * Remplace les réglages issus des propriétés système.
+     *
+     * @param seuilActif Niveau le moins grave encore tracé (null : aucune trace)
+     * @param premiers   Traces toujours conservées au début de chaque canal
+     * @param periode    Au-delà, une trace conservée sur {@code periode}
+     */
+    public static void configurer(Niveau seuilActif, int premiers, int periode)
+    {
+        Trace.premiers = premiers;
+        Trace.periode = Math.max(1, periode);
+        Trace.seuil = seuilActif == null ? 0 : seuilActif.ordinal() + 1;
+    }
+
+    private static int lireSeuil(String valeur)
+    {
+        if (valeur.equalsIgnoreCase("AUCUN")) return 0;
+        try {
+            return Niveau.valueOf(valeur.toUpperCase(Locale.ROOT)).ordinal() + 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println("[WARN] Niveau de trace inconnu '" + valeur + "', INFO retenu");
+            return Niveau.INFO.ordinal() + 1;
+        }
+    }
+
+    // === Émission ===
+
+    /** Vrai si les traces de ce niveau sont émises (à tester avant de préparer des arguments coûteux) */
+    public static boolean actif(Niveau niveau)
+    {
+        return niveau.ordinal() < seuil;
+    }
+
+    public void erreur(Throwable erreur, String format, Object... arguments)
+    {
+        tracer(Niveau.ERREUR, erreur, format, arguments);
+    }
+
+    public void avertissement(String format, Object... arguments)
+    {
+        tracer(Niveau.AVERTISSEMENT, null, format, arguments);
+    }
+
+    public void info(String format, Object... arguments)
+    {
+        tracer(Niveau.INFO, null, format, arguments);
+    }
+
+    public void detail(String format, Object... arguments)
+    {
+        tracer(Niveau.DETAIL, null, format, arguments);
+    }
+
+    /**
+     * Trace un message au format {@link String#format} ; la mise en forme a lieu dans le fil d'écriture,
+     * les arguments doivent donc être immuables.
+     */
+    public void tracer(Niveau niveau, Throwable erreur, String format, Object... arguments)
+    {
+        if (!actif(niveau)) return;
+        long rang = compteurs.getAndIncrement(niveau.ordinal());
+        if (rang >= premiers && (rang - premiers + 1) % periode != 0) {
+            omises.increment();
+            return;
+        }
+        if (!deposer(new Entree(System.currentTimeMillis(), niveau, this, format, arguments, erreur))) {
+            perdues.increment();
+        }
+    }
+
+    private static boolean deposer(Entree entree)
+    {
+        Ecrivain.demarrer();
+        long position = positionEcriture.get();
+        while (true) {
+            int indice = (int) position & MASQUE;
+            long ecart = sequences.get(indice) - position;
+            if (ecart == 0) {
+                if (positionEcriture.compareAndSet(position, position + 1)) {
+                    cases.setPlain(indice, entree);
+                    // écriture volatile : publiée avant la lecture de enAttente (cf. Ecrivain.attendre)
+                    sequences.set(indice, position + 1);
+                    if (Ecrivain.enAttente) LockSupport.unpark(Ecrivain.fil);
+                    return true;
+                }
+                position = positionEcriture.get();
+            } else if (ecart < 0) {
+                return false;
+            } else {
+                position = positionEcriture.get();
+            }
+        }
+    }
+
+    // === Consommation (fil d'écriture uniquement) ===
+    private static Entree retirer()
+    {
+        long position = positionLecture.get();
+        int indice = (int) position & MASQUE;
+        if (sequences.getAcquire(indice) != position + 1) return null;
+        Entree entree = cases.getPlain(indice);
+        cases.setPlain(indice, null);
+        sequences.setRelease(indice, position + CAPACITE);
+        positionLecture.set(position + 1);
+        return entree;
+    }
+
+    private static boolean anneauVide()
+    {
+        long position = positionLecture.get();
+        return sequences.get((int) position & MASQUE) != position + 1;
+    }
+
+    /**
+     * Attend que toutes les traces déposées soient écrites (au plus {@code delaiMillis}), puis vide la sortie
+     * en rappelant le nombre de traces omises ou perdues.
+     */
+    public static void vider(long delaiMillis)
+    {
+        if (!Ecrivain.demarre()) return;
+        long cible = positionEcriture.get();
+        long limite = System.nanoTime() + delaiMillis * 1_000_000;
+        Ecrivain.bilanDemande = true;
+        while ((Ecrivain.ecrites() < cible || Ecrivain.bilanDemande) && System.nanoTime() < limite) {
+            LockSupport.unpark(Ecrivain.fil);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    public static void vider()
+    {
+        vider(5_000);
+    }
+
+    /** Traces écartées par échantillonnage depuis le démarrage */
+    public static long getNombreOmises()
+    {
+        return omises.sum();
+    }
+
+    /** Traces perdues faute de place dans l'anneau depuis le démarrage */
+    public static long getNombrePerdues()
+    {
+        return perdues.sum();
+    }
+
+    private static String mettreEnForme(Entree entree)
+    {
+        String message;
+        try {
+            message = entree.arguments() == null || entree.arguments().length == 0
+                    ? entree.format()
+                    : String.format(entree.format(), entree.arguments());
+        } catch (RuntimeException e) {
+            message = entree.format() + " (mise en forme impossible : " + e + ")";
+        }
+        return FORMAT_HEURE.format(Instant.ofEpochMilli(entree.instant())) + " [" + entree.niveau() + " "
+                + entree.canal().nom + "] " + message;
+    }
+
+    /**
+     * Fil d'écriture démarré à la première trace ; il dort tant que l'anneau est vide, réveillé par le dépôt
+     * suivant ou par {@link #vider(long)}, et écrit les traces restantes à l'arrêt de la JVM.
+     */
+    private static final class Ecrivain
+    {
+        private static volatile Thread fil;
+        private static volatile long ecrites;
+        private static volatile boolean bilanDemande;
+        private static volatile boolean enAttente;
+
+        static boolean demarre()
+        {
+            return fil != null;
+        }
+
+        static long ecrites()
+        {
+            return ecrites;
+        }
+
+        static void demarrer()
+        {
+            if (fil != null) return;
+            synchronized (Ecrivain.class) {
+                if (fil != null) return;
+                Thread nouveau = new Thread(Ecrivain::executer, "vanad-trace");
+                nouveau.setDaemon(true);
+                nouveau.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(Trace::vider, "vanad-trace-arret"));
+                fil = nouveau;
+            }
+        }
+
+        private static Writer ouvrirSortie() throws IOException
+        {
+            String fichier = System.getProperty("vanad.trace.fichier");
+            if (fichier != null) return Files.newBufferedWriter(Path.of(fichier), StandardCharsets.UTF_8);
+            return new BufferedWriter(new OutputStreamWriter(System.err, System.err.charset()));
+        }
+
+        private static void executer()
+        {
+            try (PrintWriter sortie = new PrintWriter(ouvrirSortie())) {
+                long perduesSignalees = 0;
+                long omisesSignalees = 0;
+                while (true) {
+                    Entree entree = retirer();
+                    if (entree == null) {
+                        long pertes = perdues.sum();
+                        if (pertes != perduesSignalees) {
+                            sortie.println("[AVERTISSEMENT trace] " + (pertes - perduesSignalees)
+                                    + " traces perdues (anneau plein)");
+                            perduesSignalees = pertes;
+                        }
+                        boolean bilan = bilanDemande;
+                        long omisesTotal = omises.sum();
+                        if (bilan && omisesTotal != omisesSignalees) {
+                            sortie.println("[INFO trace] " + (omisesTotal - omisesSignalees)
+                                    + " traces omises par échantillonnage (vanad.trace.periode=" + periode + ")");
+                            omisesSignalees = omisesTotal;
+                        }
+                        sortie.flush();
+                        ecrites = positionLecture.get();
+                        if (bilan) bilanDemande = false;
+                        attendre();
+                        continue;
+                    }
+                    sortie.println(mettreEnForme(entree));
+                    if (entree.erreur() != null) {
+                        if (actif(Niveau.DETAIL)) {
+                            entree.erreur().printStackTrace(sortie);
+                        } else {
+                            sortie.println("    " + entree.erreur());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("[WARN] Traces désactivées, sortie inutilisable : " + e.getMessage());
+                seuil = 0;
+            }
+        }
+
+        /**
+         * Dort sans délai jusqu'au prochain dépôt ou bilan. {@code enAttente} est levé avant de revérifier
+         * l'anneau, et le déposant publie sa trace avant de lire {@code enAttente} : l'un des deux voit l'autre.
+         */
+        private static void attendre()
+        {
+            enAttente = true;
+            if (anneauVide() && !bilanDemande) LockSupport.park();
+            enAttente = false;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package Modele;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Stockage colonnaire des activités d'agents VANAD : une colonne primitive par attribut au lieu
+ * d'un objet {@link ActiviteAgent} par ligne. Les dates sont en secondes epoch
+ * ({@link Horodatage#ABSENT} si absentes), les entiers absents valent {@link #AUCUN} et
+ * l'identifiant d'activité absent vaut {@link #AUCUN_ID}. Les champs dérivés sont calculés à la demande.
+ */
+public class ActivitesColonnaires
+{
+
+    /** Valeur sentinelle d'un entier absent */
+    public static final int AUCUN = Integer.MIN_VALUE;
+
+    /** Valeur sentinelle d'un identifiant d'activité absent */
+    public static final long AUCUN_ID = Long.MIN_VALUE;
+
+    private long[] idsActivite;
+    private int[] idsUtilisateur;
+    private int[] idsDnd;
+    private int[] idsCampagne;
+    private int[] extensions;
+    private int[] idsDernierAppel;
+    private long[] debuts;
+    private long[] fins;
+    private int[] idsAgent;
+    private int taille;
+
+    public ActivitesColonnaires()
+    {
+        this(1024);
+    }
+
+    public ActivitesColonnaires(int capaciteInitiale)
+    {
+        int capacite = Math.max(1, capaciteInitiale);
+        this.idsActivite = new long[capacite];
+        this.idsUtilisateur = new int[capacite];
+        this.idsDnd = new int[capacite];
+        this.idsCampagne = new int[capacite];
+        this.extensions = new int[capacite];
+        this.idsDernierAppel = new int[capacite];
+        this.debuts = new long[capacite];
+        this.fins = new long[capacite];
+        this.idsAgent = new int[capacite];
+    }
+
+    /**
+     * Construit le stockage colonnaire à partir d'une liste d'activités (même ordre).
+     */
+    public static ActivitesColonnaires depuis(List<ActiviteAgent> activites)
+    {
+        ActivitesColonnaires colonnes = new ActivitesColonnaires(activites.size());
+        for (ActiviteAgent activite : activites) {
+            colonnes.ajouter(activite);
+        }
+        return colonnes;
+    }
+
+    // === Ajout d'une ligne ===
+
+    public void ajouter(ActiviteAgent activite)
+    {
+        Long id = activite.getIdActivite();
+        ajouter(id == null ? AUCUN_ID : id,
+                entier(activite.getIdUtilisateur()),
+                entier(activite.getIdDnd()),
+                entier(activite.getIdCampagne()),
+                entier(activite.getExtension()),
+                entier(activite.getIdDernierAppel()),
+                Horodatage.enSecondes(activite.getDebutActivite()),
+                Horodatage.enSecondes(activite.getFinActivite()),
+                entier(activite.getIdAgent()));
+    }
+
+    public void ajouter(long idActivite, int idUtilisateur, int idDnd, int idCampagne, int extension,
+                        int idDernierAppel, long debut, long fin, int idAgent)
+    {
+        if (taille == debuts.length) {
+            agrandir(taille * 2);
+        }
+        idsActivite[taille] = idActivite;
+        idsUtilisateur[taille] = idUtilisateur;
+        idsDnd[taille] = idDnd;
+        idsCampagne[taille] = idCampagne;
+        extensions[taille] = extension;
+        idsDernierAppel[taille] = idDernierAppel;
+        debuts[taille] = debut;
+        fins[taille] = fin;
+        idsAgent[taille] = idAgent;
+        taille++;
+    }
+
+    private static int entier(Integer valeur)
+    {
+        return valeur == null ? AUCUN : valeur;
+    }
+
+    private static Integer objet(int valeur)
+    {
+        return valeur == AUCUN ? null : valeur;
+    }
+
+    private void agrandir(int capacite)
+    {
+        idsActivite = Arrays.copyOf(idsActivite, capacite);
+        idsUtilisateur = Arrays.copyOf(idsUtilisateur, capacite);
+        idsDnd = Arrays.copyOf(idsDnd, capacite);
+        idsCampagne = Arrays.copyOf(idsCampagne, capacite);
+        extensions = Arrays.copyOf(extensions, capacite);
+        idsDernierAppel = Arrays.copyOf(idsDernierAppel, capacite);
+        debuts = Arrays.copyOf(debuts, capacite);
+        fins = Arrays.copyOf(fins, capacite);
+        idsAgent = Arrays.copyOf(idsAgent, capacite);
+    }
+
+    /** Ajoute à la suite toutes les lignes d'un autre stockage (même ordre) */
+    public void ajouterTout(ActivitesColonnaires autre)
+    {
+        if (taille + autre.taille > debuts.length) {
+            agrandir(Math.max(taille + autre.taille, taille * 2));
+        }
+        System.arraycopy(autre.idsActivite, 0, idsActivite, taille, autre.taille);
+        System.arraycopy(autre.idsUtilisateur, 0, idsUtilisateur, taille, autre.taille);
+        System.arraycopy(autre.idsDnd, 0, idsDnd, taille, autre.taille);
+        System.arraycopy(autre.idsCampagne, 0, idsCampagne, taille, autre.taille);
+        System.arraycopy(autre.extensions, 0, extensions, taille, autre.taille);
+        System.arraycopy(autre.idsDernierAppel, 0, idsDernierAppel, taille, autre.taille);
+        System.arraycopy(autre.debuts, 0, debuts, taille, autre.taille);
+        System.arraycopy(autre.fins, 0, fins, taille, autre.taille);
+        System.arraycopy(autre.idsAgent, 0, idsAgent, taille, autre.taille);
+        taille += autre.taille;
+    }
+
+    /** Ajuste les colonnes à la taille exacte (après chargement complet) */
+    public void compacter()
+    {
+        if (taille < debuts.length) {
+            agrandir(Math.max(1, taille));
+        }
+    }
+
+    // === Sélection et tri sans matérialiser d'objets ActiviteAgent ===
+
+    /** Nouveau stockage contenant les lignes désignées, dans l'ordre donné */
+    public ActivitesColonnaires extraire(int[] indices)
+    {
+        ActivitesColonnaires resultat = new ActivitesColonnaires(indices.length);
+        for (int i : indices) {
+            resultat.ajouter(idsActivite[i], idsUtilisateur[i], idsDnd[i], idsCampagne[i], extensions[i],
+                    idsDernierAppel[i], debuts[i], fins[i], idsAgent[i]);
+        }
+        return resultat;
+    }
+
+    /** Lignes satisfaisant le prédicat (appliqué aux indices), dans l'ordre courant */
+    public ActivitesColonnaires selectionner(IntPredicate critere)
+    {
+        int[] retenus = new int[taille];
+        int n = 0;
+        for (int i = 0; i < taille; i++) {
+            if (critere.test(i)) retenus[n++] = i;
+        }
+        return extraire(Arrays.copyOf(retenus, n));
+    }
+
+    /**
+     * Indices des lignes ayant une date de début, triés (tri stable) par date de début.
+     */
+    public int[] ordreChronologique()
+    {
+        int[] ordre = new int[taille];
+        int n = 0;
+        for (int i = 0; i < taille; i++) {
+            if (debuts[i] != Horodatage.ABSENT) ordre[n++] = i;
+        }
+        ordre = Arrays.copyOf(ordre, n);
+        TriIndices.trierStable(ordre, debuts);
+        return ordre;
+    }
+
+    /** Copie triée (stable) par date de début, sans les lignes sans date de début */
+    public ActivitesColonnaires trierParDebut()
+    {
+        return extraire(ordreChronologique());
+    }
+
+    /** Reconstitue l'objet ActiviteAgent d'une ligne (compatibilité avec l'API objet) */
+    public ActiviteAgent versActivite(int i)
+    {
+        ActiviteAgent activite = new ActiviteAgent();
+        activite.setIdActivite(idsActivite[i] == AUCUN_ID ? null : idsActivite[i]);
+        activite.setIdUtilisateur(objet(idsUtilisateur[i]));
+        activite.setIdDnd(objet(idsDnd[i]));
+        activite.setIdCampagne(objet(idsCampagne[i]));
+        activite.setExtension(objet(extensions[i]));
+        activite.setIdDernierAppel(objet(idsDernierAppel[i]));
+        activite.setDebutActivite(Horodatage.versDateHeure(debuts[i]));
+        activite.setFinActivite(Horodatage.versDateHeure(fins[i]));
+        activite.setIdAgent(objet(idsAgent[i]));
+        return activite;
+    }
+
+    // === Accès aux colonnes ===
+
+    public int taille()
+    {
+        return taille;
+    }
+
+    public long getIdActivite(int i)
+    {
+        return idsActivite[i];
+    }
+
+    /** Identifiant d'activité en entier, ou {@link #AUCUN} s'il est absent ou hors plage */
+    public int getCodeActivite(int i)
+    {
+        long id = idsActivite[i];
+        return (id == AUCUN_ID || id != (int) id) ? AUCUN : (int) id;
+    }
+
+    public int getIdUtilisateur(int i)
+    {
+        return idsUtilisateur[i];
+    }
+
+    public int getIdDnd(int i)
+    {
+        return idsDnd[i];
+    }
+
+    public int getIdCampagne(int i)
+    {
+        return idsCampagne[i];
+    }
+
+    public int getExtension(int i)
+    {
+        return extensions[i];
+    }
+
+    public int getIdDernierAppel(int i)
+    {
+        return idsDernierAppel[i];
+    }
+
+    public long getDebut(int i)
+    {
+        return debuts[i];
+    }
+
+    public long getFin(int i)
+    {
+        return fins[i];
+    }
+
+    public int getIdAgent(int i)
+    {
+        return idsAgent[i];
+    }
+
+    // === Champs dérivés calculés à la demande (date de début présente) ===
+
+    public int getJourSemaine(int i)
+    {
+        return Horodatage.jourSemaine(debuts[i]);
+    }
+
+    public int getHeure(int i)
+    {
+        return Horodatage.heure(debuts[i]);
+    }
+
+    public int getMinute(int i)
+    {
+        return Horodatage.minute(debuts[i]);
+    }
+
+    public double getTempsJournee(int i)
+    {
+        return Horodatage.tempsDansJournee(debuts[i]);
+    }
+
+    /** Durée de l'activité en minutes, ou NaN si l'une des deux dates est absente */
+    public double getDureeMinutes(int i)
+    {
+        if (debuts[i] == Horodatage.ABSENT || fins[i] == Horodatage.ABSENT) return Double.NaN;
+        return (fins[i] - debuts[i]) / 60.0;
+    }
+}
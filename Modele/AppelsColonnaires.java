@@ -0,0 +1,313 @@
+package Modele;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Stockage colonnaire des appels VANAD : une colonne primitive par attribut au lieu d'un objet
+ * {@link Appel} par ligne. Les dates sont en secondes epoch ({@link Horodatage#ABSENT} si absentes),
+ * les files d'attente sont codées par dictionnaire et les agents sont des {@code int}
+ * ({@link #AUCUN} si absents). Les champs calendaires dérivés sont calculés à la demande.
+ * Une ligne est désignée par son indice (0 … taille() - 1).
+ */
+public class AppelsColonnaires
+{
+
+    /** Valeur sentinelle d'un entier absent (agent, code de service) */
+    public static final int AUCUN = Integer.MIN_VALUE;
+
+    private long[] receptions;
+    private long[] reponses;
+    private long[] consultations;
+    private long[] transferts;
+    private long[] raccrochages;
+    private int[] codesService;
+    private int[] agents;
+    private int taille;
+
+    private final List<String> dictionnaireServices;
+    private final Map<String, Integer> codeParService;
+
+    public AppelsColonnaires()
+    {
+        this(1024);
+    }
+
+    public AppelsColonnaires(int capaciteInitiale)
+    {
+        this(capaciteInitiale, new ArrayList<>(), new HashMap<>());
+    }
+
+    private AppelsColonnaires(int capaciteInitiale, List<String> dictionnaire, Map<String, Integer> codes)
+    {
+        int capacite = Math.max(1, capaciteInitiale);
+        this.receptions = new long[capacite];
+        this.reponses = new long[capacite];
+        this.consultations = new long[capacite];
+        this.transferts = new long[capacite];
+        this.raccrochages = new long[capacite];
+        this.codesService = new int[capacite];
+        this.agents = new int[capacite];
+        this.dictionnaireServices = dictionnaire;
+        this.codeParService = codes;
+    }
+
+    /**
+     * Construit le stockage colonnaire à partir d'une liste d'appels (même ordre).
+     */
+    public static AppelsColonnaires depuis(List<Appel> appels)
+    {
+        AppelsColonnaires colonnes = new AppelsColonnaires(appels.size());
+        for (Appel appel : appels) {
+            colonnes.ajouter(appel);
+        }
+        return colonnes;
+    }
+
+    // === Ajout d'une ligne ===
+
+    public void ajouter(Appel appel)
+    {
+        Integer agent = appel.getIdentifiantAgent();
+        ajouter(Horodatage.enSecondes(appel.getDateReceptionAppel()),
+                appel.getNomFileAttenteClient(),
+                agent == null ? AUCUN : agent,
+                Horodatage.enSecondes(appel.getDateReponseAgent()),
+                Horodatage.enSecondes(appel.getDateConsultation()),
+                Horodatage.enSecondes(appel.getDateTransfert()),
+                Horodatage.enSecondes(appel.getDateRaccrochage()));
+    }
+
+    public void ajouter(long reception, String service, int agent,
+                        long reponse, long consultation, long transfert, long raccrochage)
+    {
+        ajouterCode(reception, coderService(service), agent, reponse, consultation, transfert, raccrochage);
+    }
+
+    private void ajouterCode(long reception, int codeService, int agent,
+                             long reponse, long consultation, long transfert, long raccrochage)
+    {
+        if (taille == receptions.length) {
+            agrandir(taille * 2);
+        }
+        receptions[taille] = reception;
+        codesService[taille] = codeService;
+        agents[taille] = agent;
+        reponses[taille] = reponse;
+        consultations[taille] = consultation;
+        transferts[taille] = transfert;
+        raccrochages[taille] = raccrochage;
+        taille++;
+    }
+
+    private int coderService(String service)
+    {
+        if (service == null) return AUCUN;
+        Integer code = codeParService.get(service);
+        if (code == null) {
+            code = dictionnaireServices.size();
+            dictionnaireServices.add(service);
+            codeParService.put(service, code);
+        }
+        return code;
+    }
+
+    private void agrandir(int capacite)
+    {
+        receptions = Arrays.copyOf(receptions, capacite);
+        reponses = Arrays.copyOf(reponses, capacite);
+        consultations = Arrays.copyOf(consultations, capacite);
+        transferts = Arrays.copyOf(transferts, capacite);
+        raccrochages = Arrays.copyOf(raccrochages, capacite);
+        codesService = Arrays.copyOf(codesService, capacite);
+        agents = Arrays.copyOf(agents, capacite);
+    }
+
+    /**
+     * Ajoute à la suite toutes les lignes d'un autre stockage (même ordre). Les codes de service
+     * sont retraduits dans le dictionnaire courant, dans l'ordre de première apparition.
+     */
+    public void ajouterTout(AppelsColonnaires autre)
+    {
+        int[] correspondance = new int[autre.dictionnaireServices.size()];
+        for (int code = 0; code < correspondance.length; code++) {
+            correspondance[code] = coderService(autre.dictionnaireServices.get(code));
+        }
+        if (taille + autre.taille > receptions.length) {
+            agrandir(Math.max(taille + autre.taille, taille * 2));
+        }
+        System.arraycopy(autre.receptions, 0, receptions, taille, autre.taille);
+        System.arraycopy(autre.reponses, 0, reponses, taille, autre.taille);
+        System.arraycopy(autre.consultations, 0, consultations, taille, autre.taille);
+        System.arraycopy(autre.transferts, 0, transferts, taille, autre.taille);
+        System.arraycopy(autre.raccrochages, 0, raccrochages, taille, autre.taille);
+        System.arraycopy(autre.agents, 0, agents, taille, autre.taille);
+        for (int i = 0; i < autre.taille; i++) {
+            int code = autre.codesService[i];
+            codesService[taille + i] = code == AUCUN ? AUCUN : correspondance[code];
+        }
+        taille += autre.taille;
+    }
+
+    /** Ajuste les colonnes à la taille exacte (après chargement complet) */
+    public void compacter()
+    {
+        if (taille < receptions.length) {
+            agrandir(Math.max(1, taille));
+        }
+    }
+
+    // === Sélection et tri sans matérialiser d'objets Appel ===
+
+    /**
+     * Nouveau stockage contenant les lignes désignées, dans l'ordre donné.
+     * Le dictionnaire des services est recopié : les codes restent identiques.
+     */
+    public AppelsColonnaires extraire(int[] indices)
+    {
+        AppelsColonnaires resultat = new AppelsColonnaires(indices.length,
+                new ArrayList<>(dictionnaireServices), new HashMap<>(codeParService));
+        for (int i : indices) {
+            resultat.ajouterCode(receptions[i], codesService[i], agents[i],
+                    reponses[i], consultations[i], transferts[i], raccrochages[i]);
+        }
+        return resultat;
+    }
+
+    /** Lignes satisfaisant le prédicat (appliqué aux indices), dans l'ordre courant */
+    public AppelsColonnaires selectionner(IntPredicate critere)
+    {
+        int[] retenus = new int[taille];
+        int n = 0;
+        for (int i = 0; i < taille; i++) {
+            if (critere.test(i)) retenus[n++] = i;
+        }
+        return extraire(Arrays.copyOf(retenus, n));
+    }
+
+    /** Copie triée (stable) par date de réception ; les dates absentes viennent en tête */
+    public AppelsColonnaires trierParReception()
+    {
+        int[] ordre = new int[taille];
+        for (int i = 0; i < taille; i++) ordre[i] = i;
+        TriIndices.trierStable(ordre, receptions);
+        return extraire(ordre);
+    }
+
+    /** Reconstitue l'objet Appel d'une ligne (compatibilité avec l'API objet) */
+    public Appel versAppel(int i)
+    {
+        Appel appel = new Appel();
+        appel.setDateReceptionAppel(Horodatage.versDateHeure(receptions[i]));
+        appel.setNomFileAttenteClient(getService(i));
+        appel.setIdentifiantAgent(agents[i] == AUCUN ? null : agents[i]);
+        appel.setDateReponseAgent(Horodatage.versDateHeure(reponses[i]));
+        appel.setDateConsultation(Horodatage.versDateHeure(consultations[i]));
+        appel.setDateTransfert(Horodatage.versDateHeure(transferts[i]));
+        appel.setDateRaccrochage(Horodatage.versDateHeure(raccrochages[i]));
+        return appel;
+    }
+
+    // === Accès aux colonnes ===
+
+    public int taille()
+    {
+        return taille;
+    }
+
+    public long getReception(int i)
+    {
+        return receptions[i];
+    }
+
+    public long getReponse(int i)
+    {
+        return reponses[i];
+    }
+
+    public long getConsultation(int i)
+    {
+        return consultations[i];
+    }
+
+    public long getTransfert(int i)
+    {
+        return transferts[i];
+    }
+
+    public long getRaccrochage(int i)
+    {
+        return raccrochages[i];
+    }
+
+    public int getCodeService(int i)
+    {
+        return codesService[i];
+    }
+
+    public String getService(int i)
+    {
+        return serviceDeCode(codesService[i]);
+    }
+
+    public int getAgent(int i)
+    {
+        return agents[i];
+    }
+
+    // === Dictionnaire des services ===
+
+    public int nombreServices()
+    {
+        return dictionnaireServices.size();
+    }
+
+    public String serviceDeCode(int code)
+    {
+        return code == AUCUN ? null : dictionnaireServices.get(code);
+    }
+
+    /** Code d'un service, ou {@link #AUCUN} s'il n'apparaît pas dans le stockage */
+    public int codeDeService(String service)
+    {
+        Integer code = service == null ? null : codeParService.get(service);
+        return code == null ? AUCUN : code;
+    }
+
+    // === Champs dérivés calculés à la demande (date de réception présente) ===
+
+    public int getAnneeAppel(int i)
+    {
+        return Horodatage.date(receptions[i]).getYear();
+    }
+
+    public int getMoisAppel(int i)
+    {
+        return Horodatage.date(receptions[i]).getMonthValue();
+    }
+
+    public int getJourAppel(int i)
+    {
+        return Horodatage.date(receptions[i]).getDayOfMonth();
+    }
+
+    public int getNumeroJourSemaine(int i)
+    {
+        return Horodatage.jourSemaine(receptions[i]);
+    }
+
+    public int getHeureAppel(int i)
+    {
+        return Horodatage.heure(receptions[i]);
+    }
+
+    public int getMinuteAppel(int i)
+    {
+        return Horodatage.minute(receptions[i]);
+    }
+
+    public double getTempsDansJournee(int i)
+    {
+        return Horodatage.tempsDansJournee(receptions[i]);
+    }
+}
@@ -0,0 +1,75 @@
+package Modele;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversions entre {@code LocalDateTime} et secondes epoch (heure locale VANAD, sans fuseau),
+ * et calcul à la demande des composantes calendaires à partir d'une date en secondes.
+ * Une date absente est codée par {@link #ABSENT}.
+ */
+public final class Horodatage
+{
+
+    /** Valeur sentinelle d'une date absente (champ vide du CSV) */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private static final long SECONDES_PAR_JOUR = 86_400L;
+
+    private Horodatage() {}
+
+    public static long enSecondes(LocalDateTime date)
+    {
+        return date == null ? ABSENT : date.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime versDateHeure(long secondes)
+    {
+        return secondes == ABSENT ? null : LocalDateTime.ofEpochSecond(secondes, 0, ZoneOffset.UTC);
+    }
+
+    // === Composantes calendaires (la date doit être présente) ===
+
+    public static long jourEpoch(long secondes)
+    {
+        return Math.floorDiv(secondes, SECONDES_PAR_JOUR);
+    }
+
+    public static LocalDate date(long secondes)
+    {
+        return LocalDate.ofEpochDay(jourEpoch(secondes));
+    }
+
+    public static int secondeDansJournee(long secondes)
+    {
+        return (int) Math.floorMod(secondes, SECONDES_PAR_JOUR);
+    }
+
+    public static int heure(long secondes)
+    {
+        return secondeDansJournee(secondes) / 3600;
+    }
+
+    public static int minute(long secondes)
+    {
+        return (secondeDansJournee(secondes) % 3600) / 60;
+    }
+
+    public static int seconde(long secondes)
+    {
+        return secondeDansJournee(secondes) % 60;
+    }
+
+    /** Jour de la semaine ISO : 1 = lundi … 7 = dimanche (le 01/01/1970 était un jeudi) */
+    public static int jourSemaine(long secondes)
+    {
+        return (int) Math.floorMod(jourEpoch(secondes) + 3, 7L) + 1;
+    }
+
+    /** Heure + minutes en décimal, comme {@code Appel.getTempsDansJournee()} */
+    public static double tempsDansJournee(long secondes)
+    {
+        return heure(secondes) + (minute(secondes) / 60.0);
+    }
+}
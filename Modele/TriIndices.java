@@ -0,0 +1,40 @@
+package Modele;
+
+/**
+ * Tri stable d'indices de lignes selon une colonne de clés {@code long} (tri fusion),
+ * utilisé par les stockages colonnaires pour ordonner sans matérialiser d'objets.
+ */
+final class TriIndices
+{
+
+    private TriIndices() {}
+
+    static void trierStable(int[] indices, long[] cles)
+    {
+        int n = indices.length;
+        if (n < 2) return;
+        int[] tampon = new int[n];
+        int[] source = indices;
+        int[] cible = tampon;
+
+        for (int largeur = 1; largeur < n; largeur *= 2) {
+            for (int gauche = 0; gauche < n; gauche += 2 * largeur) {
+                int milieu = Math.min(gauche + largeur, n);
+                int droite = Math.min(gauche + 2 * largeur, n);
+                int i = gauche, j = milieu, k = gauche;
+                while (i < milieu && j < droite) {
+                    cible[k++] = cles[source[j]] < cles[source[i]] ? source[j++] : source[i++];
+                }
+                while (i < milieu) cible[k++] = source[i++];
+                while (j < droite) cible[k++] = source[j++];
+            }
+            int[] echange = source;
+            source = cible;
+            cible = echange;
+        }
+
+        if (source != indices) {
+            System.arraycopy(source, 0, indices, 0, n);
+        }
+    }
+}
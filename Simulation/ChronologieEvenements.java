@@ -0,0 +1,168 @@
+package Simulation;
+
+import Modele.ActivitesColonnaires;
+import Modele.AppelsColonnaires;
+import Modele.Horodatage;
+
+import java.util.Arrays;
+
+/**
+ * Chronologie compacte des événements d'un replay, en remplacement d'une liste d'objets {@link Evenement} :
+ * chaque événement est un {@code long} d'un tableau primitif, qui code
+ * <pre>
+ *   [ secondes depuis l'origine : 31 bits | type : 2 bits | indice de ligne : 30 bits ]
+ * </pre>
+ * l'indice désignant la ligne de l'appel ({@link AppelsColonnaires}) ou de l'activité
+ * ({@link ActivitesColonnaires}) correspondante. L'ordre naturel des codes est donc l'ordre chronologique,
+ * puis les appels avant les activités, puis l'ordre des lignes : un simple tri du tableau donne le même
+ * ordre qu'un tri stable des événements ajoutés appels d'abord.
+ * <p>
+ * Le parcours passe par un {@link Visiteur} typé : ni objet par événement, ni transtypage, ni boxing
+ * (8 octets par événement en tout).
+ */
+public final class ChronologieEvenements
+{
+
+    /** Traitement des événements, dans l'ordre chronologique */
+    public interface Visiteur
+    {
+        /** Réception de l'appel de ligne {@code indiceAppel} à {@code instant} (secondes epoch) */
+        void appel(long instant, int indiceAppel);
+
+        /** Début de l'activité de ligne {@code indiceActivite} à {@code instant} (secondes epoch) */
+        void activite(long instant, int indiceActivite);
+    }
+
+    public static final int APPEL = 0;
+    public static final int ACTIVITE = 1;
+
+    private static final int BITS_INDICE = 30;
+    private static final int BITS_TYPE = 2;
+    private static final int DECALAGE_INSTANT = BITS_INDICE + BITS_TYPE;
+    private static final long MASQUE_INDICE = (1L << BITS_INDICE) - 1;
+    private static final long MASQUE_TYPE = (1L << BITS_TYPE) - 1;
+    private static final long ECART_MAX = (1L << (63 - DECALAGE_INSTANT)) - 1;
+
+    private final long[] evenements;
+    private final long origine;
+
+    private ChronologieEvenements(long[] evenements, long origine)
+    {
+        this.evenements = evenements;
+        this.origine = origine;
+    }
+
+    /**
+     * Chronologie des réceptions d'appels et des débuts d'activités (lignes sans date ignorées).
+     *
+     * @param activites Activités, ou null pour une chronologie des seuls appels
+     */
+    public static ChronologieEvenements depuis(AppelsColonnaires appels, ActivitesColonnaires activites)
+    {
+        int nombreActivites = activites == null ? 0 : activites.taille();
+        if (Math.max(appels.taille(), nombreActivites) > MASQUE_INDICE + 1) {
+            throw new IllegalArgumentException("Trop de lignes pour la chronologie : "
+                    + Math.max(appels.taille(), nombreActivites));
+        }
+
+        long debut = Long.MAX_VALUE;
+        long fin = Long.MIN_VALUE;
+        int nombre = 0;
+        for (int i = 0; i < appels.taille(); i++) {
+            long instant = appels.getReception(i);
+            if (instant == Horodatage.ABSENT) continue;
+            debut = Math.min(debut, instant);
+            fin = Math.max(fin, instant);
+            nombre++;
+        }
+        for (int i = 0; i < nombreActivites; i++) {
+            long instant = activites.getDebut(i);
+            if (instant == Horodatage.ABSENT) continue;
+            debut = Math.min(debut, instant);
+            fin = Math.max(fin, instant);
+            nombre++;
+        }
+        if (nombre == 0) return new ChronologieEvenements(new long[0], 0);
+        if (fin - debut > ECART_MAX) {
+            throw new IllegalArgumentException("Période trop longue pour la chronologie : " + (fin - debut) + " s");
+        }
+
+        long[] evenements = new long[nombre];
+        int n = 0;
+        for (int i = 0; i < appels.taille(); i++) {
+            long instant = appels.getReception(i);
+            if (instant != Horodatage.ABSENT) evenements[n++] = coder(instant - debut, APPEL, i);
+        }
+        for (int i = 0; i < nombreActivites; i++) {
+            long instant = activites.getDebut(i);
+            if (instant != Horodatage.ABSENT) evenements[n++] = coder(instant - debut, ACTIVITE, i);
+        }
+        Arrays.sort(evenements);
+        return new ChronologieEvenements(evenements, debut);
+    }
+
+    private static long coder(long secondes, int type, int indice)
+    {
+        return secondes << DECALAGE_INSTANT | (long) type << BITS_INDICE | indice;
+    }
+
+    // === Parcours ===
+
+    public void parcourir(Visiteur visiteur)
+    {
+        parcourir(0, evenements.length, visiteur);
+    }
+
+    /** Parcourt les événements de rang {@code debut} (inclus) à {@code fin} (exclu) */
+    public void parcourir(int debut, int fin, Visiteur visiteur)
+    {
+        for (int rang = debut; rang < fin; rang++) {
+            long code = evenements[rang];
+            long instant = origine + (code >>> DECALAGE_INSTANT);
+            int indice = (int) (code & MASQUE_INDICE);
+            if ((code >>> BITS_INDICE & MASQUE_TYPE) == APPEL) {
+                visiteur.appel(instant, indice);
+            } else {
+                visiteur.activite(instant, indice);
+            }
+        }
+    }
+
+    /** Rang du premier événement survenant à partir de {@code instant} (secondes epoch) */
+    public int rangDepuis(long instant)
+    {
+        if (instant <= origine) return 0;
+        long ecart = instant - origine;
+        if (ecart > ECART_MAX) return evenements.length;
+        int rang = Arrays.binarySearch(evenements, ecart << DECALAGE_INSTANT);
+        return rang >= 0 ? rang : -rang - 1;
+    }
+
+    // === Accès ===
+
+    public int taille()
+    {
+        return evenements.length;
+    }
+
+    public long getInstant(int rang)
+    {
+        return origine + (evenements[rang] >>> DECALAGE_INSTANT);
+    }
+
+    public int getType(int rang)
+    {
+        return (int) (evenements[rang] >>> BITS_INDICE & MASQUE_TYPE);
+    }
+
+    public int getIndice(int rang)
+    {
+        return (int) (evenements[rang] & MASQUE_INDICE);
+    }
+
+    /** Mémoire occupée par le tableau des événements (en-tête compris) */
+    public long tailleMemoire()
+    {
+        return 16L + 8L * evenements.length;
+    }
+}
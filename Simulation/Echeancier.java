@@ -0,0 +1,35 @@
+package Simulation;
+
+/**
+ * Échéancier d'événements à clés primitives : chaque entrée associe un instant ({@code long}, en secondes
+ * ou millisecondes epoch selon l'appelant) à une valeur {@code int} (indice d'événement, type codé…).
+ * Les entrées sont retirées par instant croissant ; de nouvelles entrées peuvent être ajoutées à tout moment
+ * pendant le déroulement (fins de service, retours d'agents).
+ * <p>
+ * Implémentations : {@link TasMinLong} (tas binaire, O(log n), ordre quelconque entre instants égaux)
+ * et {@link FileCalendrier} (file calendrier, O(1) amorti, premier ajouté premier retiré à instant égal).
+ * Le rejeu de l'historique, dont tous les événements sont connus d'avance, passe par le tri unique de
+ * {@link ChronologieEvenements} ; {@link TestChronologieEvenements} vérifie que la file calendrier
+ * donne le même ordre.
+ */
+public interface Echeancier
+{
+
+    /** Programme la valeur à l'instant donné */
+    void ajouter(long cle, int valeur);
+
+    /** Instant de la prochaine entrée (exception si l'échéancier est vide) */
+    long cleMin();
+
+    /** Valeur de la prochaine entrée (exception si l'échéancier est vide) */
+    int valeurMin();
+
+    /** Retire la prochaine entrée (exception si l'échéancier est vide) */
+    void retirerMin();
+
+    boolean estVide();
+
+    int taille();
+
+    void vider();
+}
@@ -1,10 +1,10 @@
 package Simulation;
 
+import Donnees.Trace;
 import Modele.Appel;
 import Modele.ActiviteAgent;
 
 import java.time.LocalDateTime;
-import java.util.*;
 
 /**
  * Classe représentant l’état instantané du système de centre d’appel VANAD.
@@ -15,11 +15,14 @@ import java.util.*;
 public class EtatSysteme
 {
 
-    // === État dynamique du système pendant la simulation ===
-    private Set<Integer> identifiantsAgentsLibres = new HashSet<>();
-    private Queue<Appel> fileAppelsEnAttente = new LinkedList<>();
+    // === État dynamique du système pendant la simulation (créé au premier événement) ===
+    private EtatSystemeConcurrent etatDynamique;
+    private static final Trace TRACE = Trace.pour("EtatSysteme");
 
 
+    /** Taille du vecteur de caractéristiques (cf. {@link #nomsColonnesCSV()}) */
+    public static final int NOMBRE_CARACTERISTIQUES = 13;
+
     // === Variables utilisées pour générer des vecteurs de caractéristiques ===
     private String libelleService;
     private int tailleFilePrincipale;
@@ -29,6 +32,7 @@ public class EtatSysteme
     private double delaiAttenteObserve;
     private double estimationLES;
     private double estimationLESMoyenne;
+    private double estimationANN = Double.NaN;
 
     // === Constructeurs ===
 
@@ -55,17 +59,17 @@ public class EtatSysteme
         this.horodatageAppel = nouvelAppel.getDateReceptionAppel();
         this.libelleService = nouvelAppel.getNomFileAttenteClient();
 
-        if (!identifiantsAgentsLibres.isEmpty()) {
-            Integer agentAssigne = identifiantsAgentsLibres.iterator().next();
-            identifiantsAgentsLibres.remove(agentAssigne);
-            System.out.println("Appel reçu à " + nouvelAppel.getDateReceptionAppel() + " pris en charge par l’agent " + agentAssigne);
-        } else {
-            fileAppelsEnAttente.add(nouvelAppel);
-            System.out.println("Appel reçu à " + nouvelAppel.getDateReceptionAppel() + " mis en attente (file d’attente)");
+        Integer agentAssigne = etatDynamique().enregistrerAppel(nouvelAppel);
+        if (Trace.actif(Trace.Niveau.DETAIL)) {
+            if (agentAssigne != null) {
+                TRACE.detail("Appel reçu à %s pris en charge par l’agent %d", nouvelAppel.getDateReceptionAppel(), agentAssigne);
+            } else {
+                TRACE.detail("Appel reçu à %s mis en attente (file d’attente)", nouvelAppel.getDateReceptionAppel());
+            }
         }
 
-        this.tailleFilePrincipale = fileAppelsEnAttente.size();
-        this.nombreAgentsLibres = identifiantsAgentsLibres.size();
+        this.tailleFilePrincipale = etatDynamique.getNombreAppelsEnAttente();
+        this.nombreAgentsLibres = etatDynamique.getNombreAgentsLibres();
     }
 
     // === Enregistrement de la disponibilité d’un agent via une nouvelle activité ===
@@ -79,17 +83,30 @@ public class EtatSysteme
         Integer identifiantAgent = nouvelleActivite.getIdAgent();
         if (identifiantAgent == null) return;
 
-        identifiantsAgentsLibres.add(identifiantAgent);
-        System.out.println("Agent " + identifiantAgent + " signalé libre à " + nouvelleActivite.getDebutActivite());
+        if (Trace.actif(Trace.Niveau.DETAIL)) {
+            TRACE.detail("Agent %d signalé libre à %s", identifiantAgent, nouvelleActivite.getDebutActivite());
+        }
 
-        if (!fileAppelsEnAttente.isEmpty()) {
-            Appel appelExtrait = fileAppelsEnAttente.poll();
-            System.out.println("Appel en file traité par l’agent " + identifiantAgent + " (appel initial à " + appelExtrait.getDateReceptionAppel() + ")");
-            identifiantsAgentsLibres.remove(identifiantAgent);
+        Appel appelExtrait = etatDynamique().enregistrerLiberationAgent(identifiantAgent);
+        if (appelExtrait != null && Trace.actif(Trace.Niveau.DETAIL)) {
+            TRACE.detail("Appel en file traité par l’agent %d (appel initial à %s)", identifiantAgent, appelExtrait.getDateReceptionAppel());
         }
 
-        this.tailleFilePrincipale = fileAppelsEnAttente.size();
-        this.nombreAgentsLibres = identifiantsAgentsLibres.size();
+        this.tailleFilePrincipale = etatDynamique.getNombreAppelsEnAttente();
+        this.nombreAgentsLibres = etatDynamique.getNombreAgentsLibres();
+    }
+
+    private EtatSystemeConcurrent etatDynamique() {
+        if (etatDynamique == null) etatDynamique = new EtatSystemeConcurrent();
+        return etatDynamique;
+    }
+
+    /**
+     * État dynamique sous-jacent (files par service, agents libres), partageable entre fils ;
+     * null tant qu'aucun événement n'a été enregistré.
+     */
+    public EtatSystemeConcurrent getEtatDynamique() {
+        return etatDynamique;
     }
 
     // === Encodage d’un état sous forme de vecteur de caractéristiques ===
@@ -99,26 +116,32 @@ public class EtatSysteme
      * Utilisé pour entraîner ou tester un modèle supervisé (par ex. ANN).
      */
     public double[] transformerEnVecteurCaracteristiques() {
-        double service_30175 = "30175".equals(libelleService) ? 1.0 : 0.0;
-        double service_30560 = "30560".equals(libelleService) ? 1.0 : 0.0;
-        double service_30172 = "30172".equals(libelleService) ? 1.0 : 0.0;
-        double service_30181 = "30181".equals(libelleService) ? 1.0 : 0.0;
-        double service_30179 = "30179".equals(libelleService) ? 1.0 : 0.0;
-
-        double heure = horodatageAppel != null ? horodatageAppel.getHour() : 0.0;
-        double jour = horodatageAppel != null ? horodatageAppel.getDayOfWeek().getValue() : 0.0;
-
-        double fileAnnexe1 = (taillesFilesAnnexes != null && taillesFilesAnnexes.length > 0) ? taillesFilesAnnexes[0] : 0.0;
-        double fileAnnexe2 = (taillesFilesAnnexes != null && taillesFilesAnnexes.length > 1) ? taillesFilesAnnexes[1] : 0.0;
-
-        return new double[]{
-                service_30175, service_30560, service_30172, service_30181, service_30179,
-                tailleFilePrincipale, fileAnnexe1, fileAnnexe2,
-                heure, jour,
-                nombreAgentsLibres,
-                estimationLES,
-                estimationLESMoyenne
-        };
+        double[] vecteur = new double[NOMBRE_CARACTERISTIQUES];
+        remplirVecteurCaracteristiques(vecteur);
+        return vecteur;
+    }
+
+    /**
+     * Variante sans allocation : écrit le vecteur de caractéristiques dans {@code cible}
+     * (au moins {@link #NOMBRE_CARACTERISTIQUES} éléments).
+     */
+    public void remplirVecteurCaracteristiques(double[] cible) {
+        cible[0] = "30175".equals(libelleService) ? 1.0 : 0.0;
+        cible[1] = "30560".equals(libelleService) ? 1.0 : 0.0;
+        cible[2] = "30172".equals(libelleService) ? 1.0 : 0.0;
+        cible[3] = "30181".equals(libelleService) ? 1.0 : 0.0;
+        cible[4] = "30179".equals(libelleService) ? 1.0 : 0.0;
+
+        cible[5] = tailleFilePrincipale;
+        cible[6] = (taillesFilesAnnexes != null && taillesFilesAnnexes.length > 0) ? taillesFilesAnnexes[0] : 0.0;
+        cible[7] = (taillesFilesAnnexes != null && taillesFilesAnnexes.length > 1) ? taillesFilesAnnexes[1] : 0.0;
+
+        cible[8] = horodatageAppel != null ? horodatageAppel.getHour() : 0.0;
+        cible[9] = horodatageAppel != null ? horodatageAppel.getDayOfWeek().getValue() : 0.0;
+
+        cible[10] = nombreAgentsLibres;
+        cible[11] = estimationLES;
+        cible[12] = estimationLESMoyenne;
     }
 
     /**
@@ -216,12 +239,23 @@ public class EtatSysteme
         this.estimationLESMoyenne = estimationLESMoyenne;
     }
 
+    /** Prédiction du réseau ANN embarqué (NaN si aucun modèle n'est chargé) */
+    public double getEstimationANN()
+    {
+        return estimationANN;
+    }
+
+    public void setEstimationANN(double estimationANN)
+    {
+        this.estimationANN = estimationANN;
+    }
+
     // === Représentation texte pour le debogage ===
     @Override
     public String toString() {
         return "ContexteSimulation{" +
                 "tailleFilePrincipale=" + tailleFilePrincipale +
-                ", agentsLibres=" + identifiantsAgentsLibres.size() +
+                ", agentsLibres=" + (etatDynamique == null ? 0 : etatDynamique.getNombreAgentsLibres()) +
                 ", libelleService='" + libelleService + '\'' +
                 ", horodatageAppel=" + horodatageAppel +
                 '}';
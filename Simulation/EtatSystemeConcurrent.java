@@ -0,0 +1,472 @@
+package Simulation;
+
+import Modele.Appel;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * État dynamique du centre (files d'attente et agents libres) partageable entre fils, pour l'usage en direct :
+ * plusieurs producteurs signalent arrivées d'appels et libérations d'agents sans verrou global.
+ * <ul>
+ *   <li>une file sans verrou ({@link ConcurrentLinkedQueue}) par service, chaque appel portant un rang
+ *       global : un agent libéré prend l'appel de plus petit rang parmi les têtes de file (FIFO toutes files
+ *       confondues, exact en usage mono-fil) ;</li>
+ *   <li>agents libres et occupés dans des ensembles concurrents ; un agent est « pris » par le fil dont
+ *       le {@code remove} réussit, ce qui garantit qu'il n'est affecté qu'une fois ;</li>
+ *   <li>après chaque ajout (appel en file ou agent libre), le producteur rééquilibre : à l'état de repos,
+ *       il n'existe jamais à la fois un agent libre et un appel en attente.</li>
+ * </ul>
+ * Les lectures d'état passent par {@link #capturerInstantane(Instantane)} : chaque modification est encadrée
+ * par deux compteurs (écritures commencées / terminées) et le lecteur recommence sa collecte tant qu'une écriture
+ * la chevauche, à la manière d'un verrou séquentiel. Les écrivains ne s'attendent jamais entre eux. Comme des
+ * producteurs continus peuvent ne jamais laisser d'instant sans écriture en cours, le lecteur abandonne après
+ * {@value #ESSAIS_OPTIMISTES} essais : il lève une barrière qui retient les nouvelles écritures, attend la fin
+ * de celles en cours et collecte seul.
+ * <p>
+ * Les services sont tenus dans un ordre stable (par nom), recopié seulement à l'apparition d'un service :
+ * un instantané réutilisé est rempli sans allocation.
+ */
+public class EtatSystemeConcurrent
+{
+
+    /** Notification d'une affectation réalisée lors d'un rééquilibrage (appel en file pris par un agent libre) */
+    public interface EcouteurAffectations
+    {
+        void affectation(Appel appel, int agent);
+    }
+
+    private record AppelEnAttente(long rang, Appel appel) {}
+
+    private static final class FileService
+    {
+        final ConcurrentLinkedQueue<AppelEnAttente> appels = new ConcurrentLinkedQueue<>();
+        final AtomicInteger taille = new AtomicInteger();
+    }
+
+    /** Services triés par nom et leurs files, aux mêmes positions ; remplacé en bloc à l'ajout d'un service */
+    private record Services(String[] noms, FileService[] files) {}
+
+    /**
+     * Vue cohérente de l'état à un instant : aucune écriture ne s'est produite pendant sa collecte.
+     * Réutilisable d'une capture à l'autre ; les tailles de files suivent l'ordre des services (par nom).
+     */
+    public static final class Instantane
+    {
+        private String[] services = new String[0];
+        private int[] taillesFiles = new int[0];
+        private int agentsLibres;
+        private int agentsOccupes;
+        private long arrivees;
+        private long affectations;
+
+        public int nombreServices()
+        {
+            return services.length;
+        }
+
+        public String service(int position)
+        {
+            return services[position];
+        }
+
+        public int tailleFile(int position)
+        {
+            return taillesFiles[position];
+        }
+
+        /** Position du service dans l'instantané, -1 s'il n'a encore reçu aucun appel */
+        public int positionService(String service)
+        {
+            int position = Arrays.binarySearch(services, Objects.requireNonNullElse(service, ""));
+            return position >= 0 ? position : -1;
+        }
+
+        public int tailleFile(String service)
+        {
+            int position = positionService(service);
+            return position >= 0 ? taillesFiles[position] : 0;
+        }
+
+        public int appelsEnAttente()
+        {
+            int total = 0;
+            for (int s = 0; s < services.length; s++) total += taillesFiles[s];
+            return total;
+        }
+
+        public int agentsLibres()
+        {
+            return agentsLibres;
+        }
+
+        public int agentsOccupes()
+        {
+            return agentsOccupes;
+        }
+
+        public long arrivees()
+        {
+            return arrivees;
+        }
+
+        public long affectations()
+        {
+            return affectations;
+        }
+
+        @Override
+        public String toString()
+        {
+            StringBuilder texte = new StringBuilder("Instantane{files={");
+            for (int s = 0; s < services.length; s++) {
+                if (s > 0) texte.append(", ");
+                texte.append(services[s]).append('=').append(taillesFiles[s]);
+            }
+            return texte.append("}, agentsLibres=").append(agentsLibres).append(", agentsOccupes=").append(agentsOccupes)
+                    .append(", arrivees=").append(arrivees).append(", affectations=").append(affectations).append('}').toString();
+        }
+    }
+
+    private static final int ESSAIS_AVANT_CEDER = 64;
+    private static final int ESSAIS_OPTIMISTES = 4 * ESSAIS_AVANT_CEDER;
+
+    private final ConcurrentHashMap<String, FileService> files = new ConcurrentHashMap<>();
+    private volatile Services services = new Services(new String[0], new FileService[0]);
+    private final Set<Integer> agentsLibres = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> agentsOccupes = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nombreLibres = new AtomicInteger();
+    private final AtomicInteger nombreOccupes = new AtomicInteger();
+    private final AtomicLong rangs = new AtomicLong();
+    private final AtomicLong arrivees = new AtomicLong();
+    private final AtomicLong affectations = new AtomicLong();
+
+    private final AtomicLong ecrituresCommencees = new AtomicLong();
+    private final AtomicLong ecrituresTerminees = new AtomicLong();
+    private final Object barriereLecteurs = new Object();
+    private volatile boolean barriere;
+    private final AtomicLong capturesSousBarriere = new AtomicLong();
+
+    private final EcouteurAffectations ecouteur;
+
+    public EtatSystemeConcurrent()
+    {
+        this((appel, agent) -> { });
+    }
+
+    /**
+     * @param ecouteur Appelé, hors de toute section d'écriture, pour chaque appel en file affecté lors
+     *                 d'un rééquilibrage ; les affectations directes sont rendues par les méthodes d'enregistrement
+     */
+    public EtatSystemeConcurrent(EcouteurAffectations ecouteur)
+    {
+        this.ecouteur = ecouteur;
+    }
+
+    // === Événements ===
+
+    /**
+     * Arrivée d'un appel : il est pris par un agent libre s'il en existe un, sinon mis en attente
+     * dans la file de son service.
+     *
+     * @return Identifiant de l'agent affecté, ou null si l'appel est mis en attente
+     */
+    public Integer enregistrerAppel(Appel appel)
+    {
+        FileService file = file(Objects.requireNonNullElse(appel.getNomFileAttenteClient(), ""));
+        debutEcriture();
+        try {
+            arrivees.incrementAndGet();
+            Integer agent = prendreAgentLibre();
+            if (agent != null) {
+                occuper(agent);
+                return agent;
+            }
+            file.appels.add(new AppelEnAttente(rangs.getAndIncrement(), appel));
+            file.taille.incrementAndGet();
+        } finally {
+            finEcriture();
+        }
+        equilibrer();
+        return null;
+    }
+
+    /**
+     * Un agent signale qu'il est libre : il prend l'appel en attente le plus ancien s'il y en a un,
+     * sinon il rejoint les agents libres.
+     *
+     * @return Appel pris en charge par l'agent, ou null s'il reste libre
+     */
+    public Appel enregistrerLiberationAgent(int agent)
+    {
+        debutEcriture();
+        try {
+            if (agentsLibres.remove(agent)) nombreLibres.decrementAndGet();
+            if (agentsOccupes.remove(agent)) nombreOccupes.decrementAndGet();
+
+            AppelEnAttente enAttente = extraireAppelLePlusAncien();
+            if (enAttente != null) {
+                occuper(agent);
+                return enAttente.appel();
+            }
+            agentsLibres.add(agent);
+            nombreLibres.incrementAndGet();
+        } finally {
+            finEcriture();
+        }
+        equilibrer();
+        return null;
+    }
+
+    private FileService file(String service)
+    {
+        FileService file = files.get(service);
+        return file != null ? file : ajouterService(service);
+    }
+
+    // === Nouveau service : insertion à sa place dans l'ordre des noms, dans une section d'écriture ===
+    private synchronized FileService ajouterService(String service)
+    {
+        FileService file = files.get(service);
+        if (file != null) return file;
+
+        file = new FileService();
+        Services anciens = services;
+        int n = anciens.noms().length;
+        int position = -Arrays.binarySearch(anciens.noms(), service) - 1;
+        String[] noms = new String[n + 1];
+        FileService[] filesTriees = new FileService[n + 1];
+        System.arraycopy(anciens.noms(), 0, noms, 0, position);
+        System.arraycopy(anciens.files(), 0, filesTriees, 0, position);
+        noms[position] = service;
+        filesTriees[position] = file;
+        System.arraycopy(anciens.noms(), position, noms, position + 1, n - position);
+        System.arraycopy(anciens.files(), position, filesTriees, position + 1, n - position);
+
+        debutEcriture();
+        try {
+            files.put(service, file);
+            services = new Services(noms, filesTriees);
+        } finally {
+            finEcriture();
+        }
+        return file;
+    }
+
+    // === Rapproche agents libres et appels en attente apparus concurremment ===
+    private void equilibrer()
+    {
+        while (nombreLibres.get() > 0 && aDesAppelsEnAttente()) {
+            Integer agent;
+            AppelEnAttente enAttente = null;
+            debutEcriture();
+            try {
+                agent = prendreAgentLibre();
+                if (agent != null) {
+                    enAttente = extraireAppelLePlusAncien();
+                    if (enAttente != null) {
+                        occuper(agent);
+                    } else {
+                        agentsLibres.add(agent);
+                        nombreLibres.incrementAndGet();
+                    }
+                }
+            } finally {
+                finEcriture();
+            }
+            if (enAttente != null) ecouteur.affectation(enAttente.appel(), agent);
+        }
+    }
+
+    private Integer prendreAgentLibre()
+    {
+        for (Integer agent : agentsLibres) {
+            if (agentsLibres.remove(agent)) {
+                nombreLibres.decrementAndGet();
+                return agent;
+            }
+        }
+        return null;
+    }
+
+    private void occuper(int agent)
+    {
+        if (agentsOccupes.add(agent)) nombreOccupes.incrementAndGet();
+        affectations.incrementAndGet();
+    }
+
+    private boolean aDesAppelsEnAttente()
+    {
+        for (FileService file : services.files()) {
+            if (!file.appels.isEmpty()) return true;
+        }
+        return false;
+    }
+
+    private AppelEnAttente extraireAppelLePlusAncien()
+    {
+        while (true) {
+            FileService choisie = null;
+            long rangMin = Long.MAX_VALUE;
+            for (FileService file : services.files()) {
+                AppelEnAttente tete = file.appels.peek();
+                if (tete != null && tete.rang() < rangMin) {
+                    rangMin = tete.rang();
+                    choisie = file;
+                }
+            }
+            if (choisie == null) return null;
+
+            AppelEnAttente enAttente = choisie.appels.poll();
+            if (enAttente != null) {
+                choisie.taille.decrementAndGet();
+                return enAttente;
+            }
+            // tête prise entre-temps par un autre fil : nouvelle recherche
+        }
+    }
+
+    /**
+     * Ouvre une section d'écriture ; si un lecteur a levé la barrière, s'en retire et attend qu'elle tombe.
+     * (Le compteur est incrémenté avant de lire la barrière, et le lecteur lève la barrière avant de lire
+     * les compteurs : l'un des deux voit toujours l'autre.)
+     */
+    private void debutEcriture()
+    {
+        while (true) {
+            ecrituresCommencees.incrementAndGet();
+            if (!barriere) return;
+            ecrituresTerminees.incrementAndGet();
+            for (int essai = 1; barriere; essai++) {
+                patienter(essai);
+            }
+        }
+    }
+
+    private void finEcriture()
+    {
+        ecrituresTerminees.incrementAndGet();
+    }
+
+    // === Lectures ===
+
+    private static void patienter(int essai)
+    {
+        if (essai % ESSAIS_AVANT_CEDER == 0) {
+            Thread.yield();
+        } else {
+            Thread.onSpinWait();
+        }
+    }
+
+    /** Nouvel instantané (cf. {@link #capturerInstantane(Instantane)} pour réutiliser le même) */
+    public Instantane capturerInstantane()
+    {
+        Instantane instantane = new Instantane();
+        capturerInstantane(instantane);
+        return instantane;
+    }
+
+    /**
+     * Remplit {@code cible} d'une vue cohérente de l'état : collecte recommencée tant qu'une écriture la
+     * chevauche, puis, au-delà de {@value #ESSAIS_OPTIMISTES} essais, faite derrière la barrière.
+     * Sans allocation tant que le nombre de services ne change pas.
+     */
+    public void capturerInstantane(Instantane cible)
+    {
+        for (int essai = 1; essai <= ESSAIS_OPTIMISTES; essai++) {
+            long terminees = ecrituresTerminees.get();
+            if (ecrituresCommencees.get() == terminees) {
+                collecter(cible);
+                if (ecrituresCommencees.get() == terminees) return;
+            }
+            patienter(essai);
+        }
+        synchronized (barriereLecteurs) {
+            barriere = true;
+            try {
+                for (int essai = 1; ecrituresCommencees.get() != ecrituresTerminees.get(); essai++) {
+                    patienter(essai);
+                }
+                collecter(cible);
+                capturesSousBarriere.incrementAndGet();
+            } finally {
+                barriere = false;
+            }
+        }
+    }
+
+    private void collecter(Instantane cible)
+    {
+        Services actuels = services;
+        int n = actuels.noms().length;
+        if (cible.taillesFiles.length != n) cible.taillesFiles = new int[n];
+        cible.services = actuels.noms();
+        for (int s = 0; s < n; s++) {
+            cible.taillesFiles[s] = actuels.files()[s].taille.get();
+        }
+        cible.agentsLibres = nombreLibres.get();
+        cible.agentsOccupes = nombreOccupes.get();
+        cible.arrivees = arrivees.get();
+        cible.affectations = affectations.get();
+    }
+
+    /**
+     * Vecteur d'état pour un appel du service donné, à partir d'un instantané cohérent : file du service,
+     * files des autres services (par nom), agents libres.
+     */
+    public EtatSysteme capturerEtatSysteme(String service, LocalDateTime horodatage)
+    {
+        EtatSysteme etat = new EtatSysteme();
+        capturerEtatSysteme(service, horodatage, new Instantane(), etat);
+        return etat;
+    }
+
+    /**
+     * Variante sans allocation de {@link #capturerEtatSysteme(String, LocalDateTime)} : {@code instantane} sert
+     * de tampon de collecte et {@code cible} est rempli sur place (son tableau des autres files est réutilisé
+     * tant que le nombre de services ne change pas).
+     */
+    public void capturerEtatSysteme(String service, LocalDateTime horodatage, Instantane instantane, EtatSysteme cible)
+    {
+        capturerInstantane(instantane);
+        int position = instantane.positionService(service);
+        int autres = instantane.nombreServices() - (position >= 0 ? 1 : 0);
+        int[] annexes = cible.getTaillesFilesAnnexes();
+        if (annexes == null || annexes.length != autres) annexes = new int[autres];
+        for (int s = 0, k = 0; s < instantane.nombreServices(); s++) {
+            if (s != position) annexes[k++] = instantane.tailleFile(s);
+        }
+        cible.setLibelleService(service);
+        cible.setTailleFilePrincipale(position >= 0 ? instantane.tailleFile(position) : 0);
+        cible.setTaillesFilesAnnexes(annexes);
+        cible.setHorodatageAppel(horodatage);
+        cible.setNombreAgentsLibres(instantane.agentsLibres());
+    }
+
+    /** Captures faites derrière la barrière, faute d'instant sans écriture en cours */
+    public long getCapturesSousBarriere()
+    {
+        return capturesSousBarriere.get();
+    }
+
+    /** Nombre courant d'agents libres (lecture isolée, sans garantie de cohérence avec les files) */
+    public int getNombreAgentsLibres()
+    {
+        return nombreLibres.get();
+    }
+
+    /** Nombre courant d'appels en attente, toutes files confondues (lecture isolée) */
+    public int getNombreAppelsEnAttente()
+    {
+        int total = 0;
+        for (FileService file : services.files()) total += file.taille.get();
+        return total;
+    }
+}
@@ -0,0 +1,314 @@
+package Simulation;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Évaluation en ligne des prédicteurs LES, Avg-LES et ANN, ventilée par service × jour de semaine × heure
+ * d'arrivée. Chaque échantillon met à jour un cumul par segment (moyenne et variance de l'attente réelle
+ * par l'algorithme de Welford, sommes des erreurs quadratiques et absolues) : aucune liste d'échantillons
+ * n'est conservée et les cumuls se regroupent sans perte (par service, par heure, total).
+ * Les erreurs de l'ANN ne portent que sur les échantillons qui ont une prédiction du réseau (cf.
+ * {@link EtatSysteme#getEstimationANN()}) et ne sont restituées que si un modèle était chargé.
+ */
+public class EvaluationSegmentee
+{
+
+    private static final int JOURS = 7;
+    private static final int HEURES = 24;
+
+    private final Map<String, Integer> indiceParService = new HashMap<>();
+    private final List<String> services = new ArrayList<>();
+    private final List<Mesures[]> segmentsParService = new ArrayList<>();
+    private final Mesures total = new Mesures();
+
+    /**
+     * Cumul des erreurs d'un ensemble d'échantillons.
+     */
+    public static final class Mesures
+    {
+        private long nombre;
+        private double moyenneAttente;
+        private double m2Attente;
+        private double sommeCarresLES;
+        private double sommeAbsoluesLES;
+        private double sommeCarresLESMoyenne;
+        private double sommeAbsoluesLESMoyenne;
+        private long nombreANN;
+        private double sommeCarresANN;
+        private double sommeAbsoluesANN;
+
+        /**
+         * @param predictionANN Prédiction du réseau, NaN si aucun modèle n'est chargé
+         */
+        void ajouter(double attente, double predictionLES, double predictionLESMoyenne, double predictionANN)
+        {
+            nombre++;
+            double ecart = attente - moyenneAttente;
+            moyenneAttente += ecart / nombre;
+            m2Attente += ecart * (attente - moyenneAttente);
+
+            double erreurLES = attente - predictionLES;
+            double erreurLESMoyenne = attente - predictionLESMoyenne;
+            sommeCarresLES += erreurLES * erreurLES;
+            sommeAbsoluesLES += Math.abs(erreurLES);
+            sommeCarresLESMoyenne += erreurLESMoyenne * erreurLESMoyenne;
+            sommeAbsoluesLESMoyenne += Math.abs(erreurLESMoyenne);
+
+            if (Double.isNaN(predictionANN)) return;
+            double erreurANN = attente - predictionANN;
+            nombreANN++;
+            sommeCarresANN += erreurANN * erreurANN;
+            sommeAbsoluesANN += Math.abs(erreurANN);
+        }
+
+        // === Regroupement de deux cumuls (formule de Chan et al. pour la variance) ===
+        void fusionner(Mesures autre)
+        {
+            if (autre.nombre == 0) return;
+            long n = nombre + autre.nombre;
+            double ecart = autre.moyenneAttente - moyenneAttente;
+            moyenneAttente += ecart * autre.nombre / n;
+            m2Attente += autre.m2Attente + ecart * ecart * ((double) nombre * autre.nombre / n);
+            nombre = n;
+            sommeCarresLES += autre.sommeCarresLES;
+            sommeAbsoluesLES += autre.sommeAbsoluesLES;
+            sommeCarresLESMoyenne += autre.sommeCarresLESMoyenne;
+            sommeAbsoluesLESMoyenne += autre.sommeAbsoluesLESMoyenne;
+            nombreANN += autre.nombreANN;
+            sommeCarresANN += autre.sommeCarresANN;
+            sommeAbsoluesANN += autre.sommeAbsoluesANN;
+        }
+
+        public long getNombre()
+        {
+            return nombre;
+        }
+
+        public double getMoyenneAttente()
+        {
+            return moyenneAttente;
+        }
+
+        /** Écart-type empirique (n - 1) de l'attente réelle */
+        public double getEcartTypeAttente()
+        {
+            return nombre > 1 ? Math.sqrt(m2Attente / (nombre - 1)) : 0.0;
+        }
+
+        public double getMseLES()
+        {
+            return nombre == 0 ? 0.0 : sommeCarresLES / nombre;
+        }
+
+        public double getMaeLES()
+        {
+            return nombre == 0 ? 0.0 : sommeAbsoluesLES / nombre;
+        }
+
+        /** RMSE rapportée à l'attente moyenne */
+        public double getRrmseLES()
+        {
+            return Math.sqrt(getMseLES()) / moyenneAttente;
+        }
+
+        public double getMseLESMoyenne()
+        {
+            return nombre == 0 ? 0.0 : sommeCarresLESMoyenne / nombre;
+        }
+
+        public double getMaeLESMoyenne()
+        {
+            return nombre == 0 ? 0.0 : sommeAbsoluesLESMoyenne / nombre;
+        }
+
+        public double getRrmseLESMoyenne()
+        {
+            return Math.sqrt(getMseLESMoyenne()) / moyenneAttente;
+        }
+
+        /** Nombre d'échantillons portant une prédiction du réseau ANN */
+        public long getNombreANN()
+        {
+            return nombreANN;
+        }
+
+        public double getMseANN()
+        {
+            return nombreANN == 0 ? 0.0 : sommeCarresANN / nombreANN;
+        }
+
+        public double getMaeANN()
+        {
+            return nombreANN == 0 ? 0.0 : sommeAbsoluesANN / nombreANN;
+        }
+
+        public double getRrmseANN()
+        {
+            return Math.sqrt(getMseANN()) / moyenneAttente;
+        }
+    }
+
+    // === Prise en compte d'un échantillon valide ===
+    public void ajouter(EtatSysteme etat)
+    {
+        double attente = etat.getDelaiAttenteObserve();
+        total.ajouter(attente, etat.getEstimationLES(), etat.getEstimationLESMoyenne(), etat.getEstimationANN());
+
+        LocalDateTime horodatage = etat.getHorodatageAppel();
+        if (horodatage == null) return;
+        Mesures[] segments = segmentsDuService(etat.getLibelleService());
+        int indice = (horodatage.getDayOfWeek().getValue() - 1) * HEURES + horodatage.getHour();
+        if (segments[indice] == null) segments[indice] = new Mesures();
+        segments[indice].ajouter(attente, etat.getEstimationLES(), etat.getEstimationLESMoyenne(), etat.getEstimationANN());
+    }
+
+    private Mesures[] segmentsDuService(String service)
+    {
+        Integer indice = indiceParService.get(service);
+        if (indice == null) {
+            indice = services.size();
+            indiceParService.put(service, indice);
+            services.add(service);
+            segmentsParService.add(new Mesures[JOURS * HEURES]);
+        }
+        return segmentsParService.get(indice);
+    }
+
+    // === Consultation ===
+
+    public Mesures getTotal()
+    {
+        return total;
+    }
+
+    /** Services rencontrés, dans l'ordre d'apparition */
+    public List<String> getServices()
+    {
+        return List.copyOf(services);
+    }
+
+    /** Cumul d'un segment (vide s'il n'a reçu aucun échantillon) ; jour ISO 1 (lundi) … 7, heure 0 … 23 */
+    public Mesures getSegment(String service, int jour, int heure)
+    {
+        Integer indice = indiceParService.get(service);
+        Mesures segment = indice == null ? null : segmentsParService.get(indice)[(jour - 1) * HEURES + heure];
+        return segment == null ? new Mesures() : segment;
+    }
+
+    public Mesures getParService(String service)
+    {
+        Mesures cumul = new Mesures();
+        for (int jour = 1; jour <= JOURS; jour++) {
+            for (int heure = 0; heure < HEURES; heure++) {
+                cumul.fusionner(getSegment(service, jour, heure));
+            }
+        }
+        return cumul;
+    }
+
+    public Mesures getParHeure(int heure)
+    {
+        Mesures cumul = new Mesures();
+        for (String service : services) {
+            for (int jour = 1; jour <= JOURS; jour++) {
+                cumul.fusionner(getSegment(service, jour, heure));
+            }
+        }
+        return cumul;
+    }
+
+    public Mesures getParJour(int jour)
+    {
+        Mesures cumul = new Mesures();
+        for (String service : services) {
+            for (int heure = 0; heure < HEURES; heure++) {
+                cumul.fusionner(getSegment(service, jour, heure));
+            }
+        }
+        return cumul;
+    }
+
+    // === Restitution ===
+
+    /** Vrai si au moins un échantillon porte une prédiction du réseau ANN */
+    public boolean aPredictionsANN()
+    {
+        return total.nombreANN > 0;
+    }
+
+    /**
+     * Affiche la précision des prédicteurs par service, par jour et par heure d'arrivée
+     * (colonnes ANN seulement si un modèle était chargé).
+     */
+    public void afficherResume()
+    {
+        boolean ann = aPredictionsANN();
+        System.out.println("=== PRÉCISION DES PRÉDICTEURS PAR SEGMENT ===");
+        System.out.printf("%-10s %8s %9s %9s | %9s %9s %7s | %9s %9s %7s", "Segment", "n", "attente", "écart-t.",
+                "RMSE LES", "MAE LES", "RRMSE", "RMSE Avg", "MAE Avg", "RRMSE");
+        System.out.printf(ann ? " | %9s %9s %7s%n" : "%n", "RMSE ANN", "MAE ANN", "RRMSE");
+        for (String service : services) {
+            afficherLigne("s " + service, getParService(service), ann);
+        }
+        for (int jour = 1; jour <= JOURS; jour++) {
+            Mesures cumul = getParJour(jour);
+            if (cumul.getNombre() > 0) {
+                afficherLigne(DayOfWeek.of(jour).getDisplayName(TextStyle.SHORT, Locale.FRENCH), cumul, ann);
+            }
+        }
+        for (int heure = 0; heure < HEURES; heure++) {
+            Mesures cumul = getParHeure(heure);
+            if (cumul.getNombre() > 0) {
+                afficherLigne(String.format("%02dh", heure), cumul, ann);
+            }
+        }
+        afficherLigne("Total", total, ann);
+    }
+
+    private static void afficherLigne(String libelle, Mesures m, boolean ann)
+    {
+        System.out.printf("%-10s %8d %9.1f %9.1f | %9.2f %9.2f %7.3f | %9.2f %9.2f %7.3f", libelle, m.getNombre(),
+                m.getMoyenneAttente(), m.getEcartTypeAttente(),
+                Math.sqrt(m.getMseLES()), m.getMaeLES(), m.getRrmseLES(),
+                Math.sqrt(m.getMseLESMoyenne()), m.getMaeLESMoyenne(), m.getRrmseLESMoyenne());
+        System.out.printf(ann ? " | %9.2f %9.2f %7.3f%n" : "%n",
+                Math.sqrt(m.getMseANN()), m.getMaeANN(), m.getRrmseANN());
+    }
+
+    /**
+     * Écrit la table complète service × jour × heure (segments non vides) au format CSV ; les colonnes ANN
+     * restent vides pour un segment sans prédiction du réseau.
+     */
+    public void exporterCSV(Path fichier) throws IOException
+    {
+        try (PrintWriter sortie = new PrintWriter(Files.newBufferedWriter(fichier))) {
+            sortie.println("service,jour_semaine,heure,n,attente_moyenne,ecart_type_attente,"
+                    + "rmse_les,mae_les,rrmse_les,rmse_avg_les,mae_avg_les,rrmse_avg_les,rmse_ann,mae_ann,rrmse_ann");
+            for (String service : services) {
+                for (int jour = 1; jour <= JOURS; jour++) {
+                    for (int heure = 0; heure < HEURES; heure++) {
+                        Mesures m = getSegment(service, jour, heure);
+                        if (m.getNombre() == 0) continue;
+                        sortie.printf(Locale.US, "%s,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%.4f,%.2f,%.2f,%.4f,",
+                                service, jour, heure, m.getNombre(), m.getMoyenneAttente(), m.getEcartTypeAttente(),
+                                Math.sqrt(m.getMseLES()), m.getMaeLES(), m.getRrmseLES(),
+                                Math.sqrt(m.getMseLESMoyenne()), m.getMaeLESMoyenne(), m.getRrmseLESMoyenne());
+                        sortie.printf(Locale.US, m.getNombreANN() == 0 ? ",,%n" : "%.2f,%.2f,%.4f%n",
+                                Math.sqrt(m.getMseANN()), m.getMaeANN(), m.getRrmseANN());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
  * Représente un événement dans la simulation du centre d’appel VANAD.
  * Un événement peut être soit un appel reçu, soit une activité d’agent.
  * Ces objets sont insérés dans une file de priorité (ordonnée par date) pour simuler le temps de manière fidèle.
+ * Pour rejouer des données colonnaires, {@link ChronologieEvenements} code les mêmes événements sans objet.
  */
 public class Evenement implements Comparable<Evenement>
 {
@@ -0,0 +1,161 @@
+package Simulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * Événements Java Flight Recorder du replay, à ouvrir dans JDK Mission Control ou avec {@code jfr print} :
+ * <ul>
+ *   <li>{@link Phase} : durée de chaque phase de {@code lancerReplayHistorique} et {@code lancerReplayParJours}
+ *       (chargement, filtrage, tri, replay, export, analyse) et nombre d'éléments traités ;</li>
+ *   <li>{@link Capture} : une capture d'état sur {@code vanad.jfr.periode} (100 par défaut), avec sa durée et
+ *       les tailles des files, de l'ensemble des agents et des historiques du service.</li>
+ * </ul>
+ * Sans enregistrement en cours, un événement n'est ni horodaté ni écrit : le coût se limite à la création
+ * d'un objet que le compilateur élimine. L'enregistrement est démarré par {@link #demarrer(Path)}
+ * (option {@code --jfr} de la ligne de commande) ou par les options habituelles de la JVM.
+ */
+public final class EvenementsJfr
+{
+
+    /** Une capture d'état sur {@code PERIODE_CAPTURES} est enregistrée */
+    static final int PERIODE_CAPTURES = Math.max(1, Integer.getInteger("vanad.jfr.periode", 100));
+
+    private EvenementsJfr() {}
+
+    @Name("vanad.Phase")
+    @Label("Phase du replay")
+    @Category({"VANAD", "Replay"})
+    @StackTrace(false)
+    public static final class Phase extends Event
+    {
+        @Label("Phase")
+        String phase;
+
+        @Label("Données")
+        String donnees;
+
+        @Label("Éléments")
+        @Description("Lignes chargées, retenues ou triées, appels rejoués, échantillons exportés ou analysés")
+        long elements;
+
+        @Label("Temps actif")
+        @Description("Temps effectivement passé dans la phase quand elle est entrelacée avec une autre"
+                + " (écriture des échantillons pendant le replay), 0 sinon")
+        @Timespan(Timespan.NANOSECONDS)
+        long tempsActif;
+
+        /** Phase débutant maintenant, à terminer par {@link #terminer(long)} */
+        static Phase debuter(String phase, String donnees)
+        {
+            Phase evenement = new Phase();
+            evenement.phase = phase;
+            evenement.donnees = donnees;
+            evenement.begin();
+            return evenement;
+        }
+
+        void terminer(long elements)
+        {
+            this.elements = elements;
+            commit();
+        }
+    }
+
+    @Name("vanad.Capture")
+    @Label("Capture d'état")
+    @Category({"VANAD", "Replay"})
+    @StackTrace(false)
+    public static final class Capture extends Event
+    {
+        @Label("Service")
+        String service;
+
+        @Label("File du service")
+        int fileService;
+
+        @Label("Files (total)")
+        int filesTotal;
+
+        @Label("Agents compatibles disponibles")
+        int agentsDisponibles;
+
+        @Label("Agents connus")
+        int agentsConnus;
+
+        @Label("Historique des attentes")
+        int historiqueAttentes;
+
+        @Label("Historique des services")
+        int historiqueServices;
+    }
+
+    /**
+     * Puits mesurant l'export si les phases sont enregistrées (le puits lui-même sinon) : la phase « export »
+     * couvre le replay jusqu'à la fermeture du puits, son temps actif cumule écritures et fermeture.
+     */
+    static PuitsEchantillons mesurerExport(PuitsEchantillons puits)
+    {
+        Phase phase = Phase.debuter("export", "échantillons");
+        if (!phase.isEnabled()) return puits;
+        return new PuitsEchantillons()
+        {
+            private long lignes;
+            private long nanos;
+
+            @Override
+            public void ecrire(EtatSysteme etat) throws IOException
+            {
+                long debut = System.nanoTime();
+                puits.ecrire(etat);
+                nanos += System.nanoTime() - debut;
+                lignes++;
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                long debut = System.nanoTime();
+                try {
+                    puits.close();
+                } finally {
+                    phase.tempsActif = nanos + System.nanoTime() - debut;
+                    phase.terminer(lignes);
+                }
+            }
+        };
+    }
+
+    /**
+     * Démarre un enregistrement (profil JFR {@code default}, événements VANAD compris) écrit dans
+     * {@code fichier} à son arrêt ou, à défaut, à la sortie de la JVM.
+     */
+    public static Recording demarrer(Path fichier) throws IOException
+    {
+        Recording enregistrement;
+        try {
+            enregistrement = new Recording(Configuration.getConfiguration("default"));
+        } catch (ParseException e) {
+            throw new IOException("Profil JFR « default » illisible", e);
+        }
+        enregistrement.setName("vanad");
+        enregistrement.enable(Phase.class);
+        enregistrement.enable(Capture.class);
+        enregistrement.setToDisk(true);
+        enregistrement.setDestination(fichier);
+        enregistrement.setDumpOnExit(true);
+        enregistrement.start();
+        return enregistrement;
+    }
+}
@@ -0,0 +1,160 @@
+package Simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Export binaire du jeu d'entraînement, colonne par colonne : un fichier NumPy {@code .npy} (float32
+ * petit-boutiste, une dimension) par caractéristique de {@link EtatSysteme#nomsColonnesCSV()} et un pour
+ * la cible {@code attente_reelle}, plus un manifeste {@code manifeste.json} (colonnes, fichiers, nombre
+ * de lignes). Côté Python, {@code np.load(fichier, mmap_mode="r")} projette une colonne sans analyse.
+ * <p>
+ * Les lignes sont ajoutées au fil du replay ; l'en-tête de chaque fichier a une taille fixe et
+ * sa forme {@code (n,)} est réécrite à la fermeture. Les valeurs sont arrondies au float32 le plus proche.
+ */
+public class ExportateurColonnesNpy implements PuitsEchantillons
+{
+
+    public static final String NOM_CIBLE = "attente_reelle";
+    public static final String NOM_MANIFESTE = "manifeste.json";
+
+    private static final int TAILLE_EN_TETE = 128; // multiple de 64, comme l'exige le format .npy
+    private static final int TAILLE_TAMPON = 1 << 16;
+
+    private final Path repertoire;
+    private final String[] colonnes;
+    private final FileChannel[] canaux;
+    private final ByteBuffer[] tampons;
+    private final double[] vecteur = new double[EtatSysteme.NOMBRE_CARACTERISTIQUES];
+    private long nombreLignes;
+
+    /**
+     * Crée le répertoire si besoin et (re)crée un fichier par colonne.
+     */
+    public ExportateurColonnesNpy(Path repertoire) throws IOException
+    {
+        this.repertoire = repertoire;
+        String[] caracteristiques = EtatSysteme.nomsColonnesCSV();
+        this.colonnes = new String[caracteristiques.length + 1];
+        System.arraycopy(caracteristiques, 0, colonnes, 0, caracteristiques.length);
+        colonnes[caracteristiques.length] = NOM_CIBLE;
+
+        Files.createDirectories(repertoire);
+        this.canaux = new FileChannel[colonnes.length];
+        this.tampons = new ByteBuffer[colonnes.length];
+        try {
+            for (int c = 0; c < colonnes.length; c++) {
+                canaux[c] = FileChannel.open(repertoire.resolve(nomFichier(colonnes[c])), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                canaux[c].write(enTete(0), 0);
+                canaux[c].position(TAILLE_EN_TETE);
+                tampons[c] = ByteBuffer.allocate(TAILLE_TAMPON).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException e) {
+            fermerCanaux();
+            throw e;
+        }
+    }
+
+    public static String nomFichier(String colonne)
+    {
+        return colonne + ".npy";
+    }
+
+    @Override
+    public void ecrire(EtatSysteme etat) throws IOException
+    {
+        if (!tampons[0].hasRemaining()) vider();
+
+        etat.remplirVecteurCaracteristiques(vecteur);
+        for (int c = 0; c < vecteur.length; c++) {
+            tampons[c].putFloat((float) vecteur[c]);
+        }
+        tampons[vecteur.length].putFloat((float) etat.getDelaiAttenteObserve());
+        nombreLignes++;
+    }
+
+    public long getNombreLignes()
+    {
+        return nombreLignes;
+    }
+
+    private void vider() throws IOException
+    {
+        for (int c = 0; c < colonnes.length; c++) {
+            ByteBuffer tampon = tampons[c].flip();
+            while (tampon.hasRemaining()) {
+                canaux[c].write(tampon);
+            }
+            tampon.clear();
+        }
+    }
+
+    // === En-tête .npy v1.0 : magie, version, longueur du dictionnaire, dictionnaire complété d'espaces ===
+    private static ByteBuffer enTete(long lignes)
+    {
+        String dictionnaire = "{'descr': '<f4', 'fortran_order': False, 'shape': (" + lignes + ",), }";
+        StringBuilder texte = new StringBuilder(dictionnaire);
+        while (texte.length() < TAILLE_EN_TETE - 10 - 1) texte.append(' ');
+        texte.append('\n');
+
+        ByteBuffer tampon = ByteBuffer.allocate(TAILLE_EN_TETE).order(ByteOrder.LITTLE_ENDIAN);
+        tampon.put((byte) 0x93).put("NUMPY".getBytes(StandardCharsets.US_ASCII));
+        tampon.put((byte) 1).put((byte) 0);
+        tampon.putShort((short) (TAILLE_EN_TETE - 10));
+        tampon.put(texte.toString().getBytes(StandardCharsets.US_ASCII));
+        return tampon.flip();
+    }
+
+    private String manifeste()
+    {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"format\": \"npy\",\n");
+        json.append("  \"dtype\": \"<f4\",\n");
+        json.append("  \"lignes\": ").append(nombreLignes).append(",\n");
+        json.append("  \"cible\": \"").append(NOM_CIBLE).append("\",\n");
+        json.append("  \"colonnes\": [\n");
+        for (int c = 0; c < colonnes.length; c++) {
+            json.append("    {\"nom\": \"").append(colonnes[c])
+                    .append("\", \"fichier\": \"").append(nomFichier(colonnes[c])).append("\"}")
+                    .append(c < colonnes.length - 1 ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        return json.toString();
+    }
+
+    /** Écrit les dernières lignes, la forme définitive de chaque fichier et le manifeste */
+    @Override
+    public void close() throws IOException
+    {
+        try {
+            vider();
+            for (FileChannel canal : canaux) {
+                canal.write(enTete(nombreLignes), 0);
+            }
+            Files.writeString(repertoire.resolve(NOM_MANIFESTE), manifeste(), StandardCharsets.UTF_8);
+        } finally {
+            fermerCanaux();
+        }
+    }
+
+    private void fermerCanaux() throws IOException
+    {
+        IOException erreur = null;
+        for (FileChannel canal : canaux) {
+            if (canal == null) continue;
+            try {
+                canal.close();
+            } catch (IOException e) {
+                if (erreur == null) erreur = e;
+            }
+        }
+        if (erreur != null) throw erreur;
+    }
+}
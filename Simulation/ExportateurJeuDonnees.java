@@ -0,0 +1,128 @@
+package Simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Écriture du jeu d'entraînement CSV (13 caractéristiques puis l'attente réelle, deux décimales),
+ * utilisable comme puits pendant le replay : chaque échantillon est formaté directement en octets
+ * ASCII dans un tampon réutilisé, vidé par grandes écritures sur un {@link FileChannel}.
+ * Le fichier produit est identique octet pour octet à un formatage {@code String.format(Locale.US, "%.2f", …)}.
+ */
+public class ExportateurJeuDonnees implements PuitsEchantillons
+{
+
+    private static final int TAILLE_TAMPON = 1 << 20;
+    private static final int LIGNE_MAX = 1024;
+
+    // Au-delà, ou trop près d'une demi-unité du centième, le formatage est confié à String.format
+    private static final double VALEUR_MAX_DIRECTE = 1e9;
+    private static final double MARGE_ARRONDI = 1e-3;
+
+    private final FileChannel canal;
+    private final ByteBuffer tampon = ByteBuffer.allocate(TAILLE_TAMPON);
+    private final byte[] chiffres = new byte[20];
+    private final double[] vecteur = new double[EtatSysteme.NOMBRE_CARACTERISTIQUES];
+    private long nombreLignes;
+
+    /**
+     * Crée (ou remplace) le fichier et écrit la ligne d'en-tête.
+     */
+    public ExportateurJeuDonnees(Path fichier) throws IOException
+    {
+        this.canal = FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        String enTete = String.join(",", EtatSysteme.nomsColonnesCSV()) + ",attente_reelle\n";
+        tampon.put(enTete.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** Ajoute la ligne d'un échantillon */
+    @Override
+    public void ecrire(EtatSysteme etat) throws IOException
+    {
+        if (tampon.remaining() < LIGNE_MAX) vider();
+
+        etat.remplirVecteurCaracteristiques(vecteur);
+        for (double valeur : vecteur) {
+            ecrireDeuxDecimales(valeur);
+            tampon.put((byte) ',');
+        }
+        ecrireDeuxDecimales(etat.getDelaiAttenteObserve());
+        tampon.put((byte) '\n');
+        nombreLignes++;
+    }
+
+    public long getNombreLignes()
+    {
+        return nombreLignes;
+    }
+
+    /**
+     * Équivalent de {@code String.format(Locale.US, "%.2f", valeur)}. Ce dernier arrondit au demi supérieur
+     * la plus courte écriture décimale du double : pour une valeur modérée dont le centuple n'est pas
+     * proche d'une demi-unité, c'est l'arrondi au plus proche de la valeur elle-même, calculé ici
+     * en entiers. Les autres cas (très rares) passent par String.format.
+     */
+    private void ecrireDeuxDecimales(double valeur)
+    {
+        double absolue = Math.abs(valeur);
+        if (!(absolue < VALEUR_MAX_DIRECTE)) {
+            ecrireTexte(String.format(Locale.US, "%.2f", valeur));
+            return;
+        }
+
+        double centiemes = absolue * 100.0;
+        double partieEntiere = Math.floor(centiemes);
+        if (Math.abs(centiemes - partieEntiere - 0.5) < MARGE_ARRONDI) {
+            ecrireTexte(String.format(Locale.US, "%.2f", valeur));
+            return;
+        }
+
+        long arrondi = (long) partieEntiere + (centiemes - partieEntiere > 0.5 ? 1 : 0);
+        if (valeur < 0 || (valeur == 0 && 1 / valeur < 0)) tampon.put((byte) '-');
+        ecrireEntier(arrondi / 100);
+        tampon.put((byte) '.');
+        int decimales = (int) (arrondi % 100);
+        tampon.put((byte) ('0' + decimales / 10));
+        tampon.put((byte) ('0' + decimales % 10));
+    }
+
+    private void ecrireEntier(long valeur)
+    {
+        int n = 0;
+        do {
+            chiffres[n++] = (byte) ('0' + valeur % 10);
+            valeur /= 10;
+        } while (valeur > 0);
+        while (n > 0) tampon.put(chiffres[--n]);
+    }
+
+    private void ecrireTexte(String texte)
+    {
+        tampon.put(texte.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void vider() throws IOException
+    {
+        tampon.flip();
+        while (tampon.hasRemaining()) {
+            canal.write(tampon);
+        }
+        tampon.clear();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try {
+            vider();
+        } finally {
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package Simulation;
+
+import Modele.Horodatage;
+
+/**
+ * File d'appels d'un service, ordonnée par date de réponse de l'agent (secondes epoch).
+ * Un appel reste compté dans la file tant que sa réponse n'est pas strictement antérieure
+ * à la date courante ; les appels sans date de réponse y restent indéfiniment.
+ * La purge ne dépile que les appels échus depuis la purge précédente (O(k log n)),
+ * au lieu de reparcourir toute la file.
+ */
+public class FileAppelsParEcheance
+{
+
+    private final TasMinLong echeancesReponse = new TasMinLong();
+    private int appelsSansReponse;
+
+    // === Ajoute un appel à la file ({@link Horodatage#ABSENT} si jamais répondu) ===
+    public void ajouter(long dateReponse)
+    {
+        if (dateReponse == Horodatage.ABSENT) {
+            appelsSansReponse++;
+        } else {
+            echeancesReponse.ajouter(dateReponse, 0);
+        }
+    }
+
+    // === Retire les appels dont la réponse est strictement antérieure à la date donnée ===
+    public void purgerAvant(long horodatage)
+    {
+        while (!echeancesReponse.estVide() && echeancesReponse.cleMin() < horodatage) {
+            echeancesReponse.retirerMin();
+        }
+    }
+
+    // === Nombre d'appels encore présents dans la file ===
+    public int taille()
+    {
+        return appelsSansReponse + echeancesReponse.taille();
+    }
+
+    // === Nombre d'appels présents à la date donnée, sans purger (égal à taille() après purgerAvant(horodatage)) ===
+    public int tailleA(long horodatage)
+    {
+        return appelsSansReponse + echeancesReponse.compterAPartirDe(horodatage);
+    }
+}
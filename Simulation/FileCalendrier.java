@@ -0,0 +1,287 @@
+package Simulation;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * File calendrier (R. Brown, 1988) à clés primitives {@code long} : l'axe du temps est découpé en seaux
+ * de largeur fixe (une puissance de deux, d'où un simple décalage pour trouver le seau), répartis
+ * circulairement sur un tableau comme les jours d'un calendrier sur les années. Chaque seau est une liste
+ * chaînée triée ; le retrait parcourt les seaux à partir du seau courant et ne prend une tête que si elle
+ * appartient à « l'année » courante.
+ * <p>
+ * Le nombre de seaux suit la taille (doublé au-delà de deux entrées par seau, divisé par deux sous un quart)
+ * et la largeur est alors réestimée sur l'écart moyen entre prochaines échéances, ainsi qu'après un tour
+ * complet de seaux vides : ajout et retrait en O(1) amorti
+ * tant que la répartition des instants reste stable. Les entrées sont tenues dans des tableaux parallèles
+ * (aucune allocation par événement) et, à instant égal, sont retirées dans leur ordre d'ajout
+ * (même ordre qu'un tri stable).
+ */
+public class FileCalendrier implements Echeancier
+{
+
+    private static final int FIN = -1;
+    private static final int SEAUX_MIN = 16;
+    private static final int ECHANTILLON = 256;
+    private static final int ECHANTILLON_MIN = 16;
+
+    // === Entrées (nœuds chaînés, les nœuds libérés sont réutilisés) ===
+    private long[] cles;
+    private int[] valeurs;
+    private int[] suivants;
+    private int premierLibre = FIN;
+    private int noeudsUtilises;
+
+    // === Seaux ===
+    private int[] tetes;
+    private int[] queues;
+    private int masque;
+    private int decalage;       // largeur d'un seau : 2^decalage
+    private long seauCourant;   // numéro absolu (cle >> decalage) du seau examiné
+    private int noeudMin = FIN; // prochaine entrée, si déjà localisée
+    private int taille;
+
+    public FileCalendrier()
+    {
+        this(16);
+    }
+
+    public FileCalendrier(int capaciteInitiale)
+    {
+        int capacite = Math.max(1, capaciteInitiale);
+        this.cles = new long[capacite];
+        this.valeurs = new int[capacite];
+        this.suivants = new int[capacite];
+        initialiserSeaux(SEAUX_MIN);
+    }
+
+    private void initialiserSeaux(int nombre)
+    {
+        tetes = new int[nombre];
+        queues = new int[nombre];
+        Arrays.fill(tetes, FIN);
+        masque = nombre - 1;
+    }
+
+    // === Insertion (O(1) amorti) ===
+    public void ajouter(long cle, int valeur)
+    {
+        int noeud = allouer();
+        cles[noeud] = cle;
+        valeurs[noeud] = valeur;
+        long numero = cle >> decalage;
+        chainer(noeud, cle, (int) numero & masque);
+
+        if (taille++ == 0 || numero < seauCourant) {
+            seauCourant = numero;
+            noeudMin = FIN;
+        } else if (noeudMin != FIN && cle < cles[noeudMin]) {
+            noeudMin = FIN;
+        }
+        if (taille > 2 * tetes.length) redimensionner(tetes.length * 2);
+    }
+
+    /** Insère le nœud dans le seau, après les clés inférieures ou égales (ordre d'ajout à clé égale) */
+    private void chainer(int noeud, long cle, int seau)
+    {
+        int tete = tetes[seau];
+        if (tete == FIN) {
+            tetes[seau] = noeud;
+            queues[seau] = noeud;
+            suivants[noeud] = FIN;
+            return;
+        }
+        int queue = queues[seau];
+        if (cles[queue] <= cle) {
+            suivants[queue] = noeud;
+            suivants[noeud] = FIN;
+            queues[seau] = noeud;
+            return;
+        }
+        if (cle < cles[tete]) {
+            suivants[noeud] = tete;
+            tetes[seau] = noeud;
+            return;
+        }
+        int precedent = tete;
+        while (cles[suivants[precedent]] <= cle) {
+            precedent = suivants[precedent];
+        }
+        suivants[noeud] = suivants[precedent];
+        suivants[precedent] = noeud;
+    }
+
+    private int allouer()
+    {
+        if (premierLibre != FIN) {
+            int noeud = premierLibre;
+            premierLibre = suivants[noeud];
+            return noeud;
+        }
+        if (noeudsUtilises == cles.length) {
+            int capacite = cles.length * 2;
+            cles = Arrays.copyOf(cles, capacite);
+            valeurs = Arrays.copyOf(valeurs, capacite);
+            suivants = Arrays.copyOf(suivants, capacite);
+        }
+        return noeudsUtilises++;
+    }
+
+    // === Prochaine entrée ===
+
+    /**
+     * Avance le seau courant jusqu'à une tête de l'année courante ; après un tour complet sans succès
+     * (instants très espacés), saute directement à la plus petite tête et réestime la largeur des seaux.
+     */
+    private int localiserMin()
+    {
+        if (noeudMin != FIN) return noeudMin;
+        if (taille == 0) throw new NoSuchElementException("Échéancier vide");
+
+        long numero = seauCourant;
+        for (int pas = 0; pas <= masque; pas++, numero++) {
+            int tete = tetes[(int) numero & masque];
+            if (tete != FIN && cles[tete] >> decalage == numero) {
+                seauCourant = numero;
+                return noeudMin = tete;
+            }
+        }
+        int plusPetite = FIN;
+        for (int tete : tetes) {
+            if (tete != FIN && (plusPetite == FIN || cles[tete] < cles[plusPetite])) plusPetite = tete;
+        }
+        // Seaux trop étroits pour la répartition actuelle : largeur réestimée (même nombre de seaux)
+        redimensionner(tetes.length);
+        return noeudMin = plusPetite;
+    }
+
+    public long cleMin()
+    {
+        return cles[localiserMin()];
+    }
+
+    public int valeurMin()
+    {
+        return valeurs[localiserMin()];
+    }
+
+    // === Retrait de la prochaine entrée (O(1) amorti) ===
+    public void retirerMin()
+    {
+        int noeud = localiserMin();
+        int seau = (int) seauCourant & masque;
+        tetes[seau] = suivants[noeud];
+        suivants[noeud] = premierLibre;
+        premierLibre = noeud;
+        noeudMin = FIN;
+        taille--;
+        if (taille < tetes.length / 4 && tetes.length > SEAUX_MIN) redimensionner(tetes.length / 2);
+    }
+
+    public boolean estVide()
+    {
+        return taille == 0;
+    }
+
+    public int taille()
+    {
+        return taille;
+    }
+
+    public void vider()
+    {
+        initialiserSeaux(SEAUX_MIN);
+        decalage = 0;
+        premierLibre = FIN;
+        noeudsUtilises = 0;
+        noeudMin = FIN;
+        taille = 0;
+    }
+
+    // === Redimensionnement ===
+
+    /**
+     * Réestime la largeur des seaux puis rechaîne toutes les entrées dans un nouveau tableau de seaux.
+     * Les seaux sont parcourus dans l'ordre de leurs listes : à clé égale, l'ordre d'ajout est conservé.
+     */
+    private void redimensionner(int nombreSeaux)
+    {
+        int[] anciennesTetes = tetes;
+        decalage = estimerDecalage();
+        initialiserSeaux(nombreSeaux);
+
+        long plusPetite = Long.MAX_VALUE;
+        for (int tete : anciennesTetes) {
+            int noeud = tete;
+            while (noeud != FIN) {
+                int suivant = suivants[noeud];
+                long cle = cles[noeud];
+                chainer(noeud, cle, (int) (cle >> decalage) & masque);
+                plusPetite = Math.min(plusPetite, cle);
+                noeud = suivant;
+            }
+        }
+        seauCourant = taille == 0 ? 0 : plusPetite >> decalage;
+        noeudMin = FIN;
+    }
+
+    /**
+     * Largeur visée : environ trois fois l'écart moyen entre les prochaines échéances (Brown), écarts
+     * anormalement grands exclus. Les prochaines échéances sont lues dans l'année courante, à partir du seau
+     * courant ; si elles sont trop peu nombreuses (seaux trop étroits), l'écart est estimé sur un échantillon
+     * de toutes les entrées, entre ses déciles extrêmes.
+     */
+    private int estimerDecalage()
+    {
+        if (taille < 2) return decalage;
+        long[] echantillon = new long[Math.min(taille, ECHANTILLON)];
+        int retenus = 0;
+        long numero = seauCourant;
+        for (int pas = 0; pas <= masque && retenus < echantillon.length; pas++, numero++) {
+            for (int noeud = tetes[(int) numero & masque];
+                 noeud != FIN && retenus < echantillon.length && cles[noeud] >> decalage == numero;
+                 noeud = suivants[noeud]) {
+                echantillon[retenus++] = cles[noeud];
+            }
+        }
+        double ecartMoyen = retenus >= Math.min(taille, ECHANTILLON_MIN)
+                ? ecartProchaines(echantillon, retenus)
+                : ecartGlobal(echantillon);
+        long largeur = (long) Math.min(Long.MAX_VALUE / 4, 3 * ecartMoyen);
+        return largeur <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(largeur);
+    }
+
+    /** Écart moyen entre échéances consécutives (triées), recalculé sans les écarts de plus du double */
+    private static double ecartProchaines(long[] triees, int nombre)
+    {
+        double moyenne = (double) (triees[nombre - 1] - triees[0]) / (nombre - 1);
+        double somme = 0;
+        int retenus = 0;
+        for (int i = 1; i < nombre; i++) {
+            long ecart = triees[i] - triees[i - 1];
+            if (ecart <= 2 * moyenne) {
+                somme += ecart;
+                retenus++;
+            }
+        }
+        return retenus == 0 ? moyenne : somme / retenus;
+    }
+
+    /** Écart moyen entre instants voisins sur un échantillon de toutes les entrées, entre ses déciles extrêmes */
+    private double ecartGlobal(long[] echantillon)
+    {
+        int pas = Math.max(1, taille / echantillon.length);
+        int retenus = 0;
+        int rang = 0;
+        for (int tete : tetes) {
+            for (int noeud = tete; noeud != FIN && retenus < echantillon.length; noeud = suivants[noeud]) {
+                if (rang++ % pas == 0) echantillon[retenus++] = cles[noeud];
+            }
+        }
+        Arrays.sort(echantillon, 0, retenus);
+        int bas = retenus / 10;
+        int haut = retenus - 1 - retenus / 10;
+        double etendue = (double) echantillon[haut] - echantillon[bas];
+        return etendue / Math.max(1.0, (double) taille * (haut - bas) / retenus);
+    }
+}
@@ -0,0 +1,187 @@
+package Simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Générateur de charge local pour {@link ServeurPrediction} : {@code clients} clients simultanés, chacun
+ * sur son fil virtuel et sa connexion HTTP/1.1 persistante, enchaînent des requêtes de prédiction
+ * (et une part d'appels terminés). La latence de chaque requête est mesurée côté client, de l'envoi
+ * à la lecture complète de la réponse. Le client HTTP est volontairement minimal (requête écrite
+ * d'un bloc, réponse lue par {@code Content-Length}) pour laisser le processeur au serveur mesuré.
+ */
+public class GenerateurChargePrediction
+{
+
+    private final int port;
+    private final String[] services;
+    private final LocalDateTime instantDepart;
+    private final double partAppels;
+
+    private final HistogrammeLatences latences = new HistogrammeLatences();
+    private final LongAdder erreurs = new LongAdder();
+
+    /**
+     * @param port          Port local du serveur
+     * @param services      Services interrogés (tirés au hasard)
+     * @param instantDepart Instants des requêtes tirés dans l'heure qui suit
+     * @param partAppels    Proportion de requêtes {@code POST /appel} (0 : prédictions seules)
+     */
+    public GenerateurChargePrediction(int port, String[] services, LocalDateTime instantDepart, double partAppels)
+    {
+        this.port = port;
+        this.services = services.clone();
+        this.instantDepart = instantDepart;
+        this.partAppels = partAppels;
+    }
+
+    /**
+     * Lance la charge, attend la fin de tous les clients, puis affiche le rapport.
+     */
+    public void executer(int clients, int requetesParClient) throws InterruptedException
+    {
+        System.out.printf(Locale.US, "Charge : %d clients simultanés × %d requêtes (part d'appels : %.0f%%)%n",
+                clients, requetesParClient, 100 * partAppels);
+
+        SplittableRandom racine = new SplittableRandom(42);
+        List<SplittableRandom> aleas = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            aleas.add(racine.split());
+        }
+
+        long debut = System.nanoTime();
+        try (ExecutorService fils = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (SplittableRandom alea : aleas) {
+                fils.submit(() -> executerClient(alea, requetesParClient));
+            }
+        }
+        long duree = System.nanoTime() - debut;
+
+        System.out.println("=== LATENCE CÔTÉ CLIENT ===");
+        System.out.println(latences.resume());
+        System.out.printf(Locale.US, "Débit : %.0f requêtes/s sur %.2f s ; erreurs : %d%n",
+                latences.getNombre() / (duree / 1e9), duree / 1e9, erreurs.sum());
+    }
+
+    private void executerClient(SplittableRandom alea, int requetes)
+    {
+        Connexion connexion = null;
+        try {
+            for (int r = 0; r < requetes; r++) {
+                byte[] requete = requete(alea);
+                long debut = System.nanoTime();
+                try {
+                    if (connexion == null) connexion = new Connexion(port);
+                    int code = connexion.echanger(requete);
+                    latences.enregistrer(System.nanoTime() - debut);
+                    if (code >= 400) erreurs.increment();
+                } catch (IOException e) {
+                    erreurs.increment();
+                    fermer(connexion);
+                    connexion = null;
+                }
+            }
+        } finally {
+            fermer(connexion);
+        }
+    }
+
+    private byte[] requete(SplittableRandom alea)
+    {
+        String service = services[alea.nextInt(services.length)];
+        LocalDateTime instant = instantDepart.plusSeconds(alea.nextInt(3600));
+        String ligne = alea.nextDouble() < partAppels
+                ? "POST /appel?service=" + service + "&reception=" + instant
+                + "&reponse=" + instant.plusSeconds(alea.nextInt(300))
+                + "&raccrochage=" + instant.plusSeconds(300 + alea.nextInt(600))
+                : "GET /prediction?service=" + service + "&instant=" + instant;
+        String texte = ligne + " HTTP/1.1\r\nHost: 127.0.0.1\r\n"
+                + (ligne.startsWith("POST") ? "Content-Length: 0\r\n" : "") + "\r\n";
+        return texte.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void fermer(Connexion connexion)
+    {
+        if (connexion == null) return;
+        try {
+            connexion.close();
+        } catch (IOException e) {
+            // connexion déjà rompue
+        }
+    }
+
+    public HistogrammeLatences getLatences()
+    {
+        return latences;
+    }
+
+    /**
+     * Connexion HTTP/1.1 persistante réduite au nécessaire : ligne de statut, en-têtes, corps de longueur connue.
+     */
+    private static final class Connexion implements Closeable
+    {
+        private final Socket socket;
+        private final OutputStream sortie;
+        private final InputStream entree;
+        private final StringBuilder ligne = new StringBuilder();
+
+        Connexion(int port) throws IOException
+        {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            sortie = new BufferedOutputStream(socket.getOutputStream());
+            entree = new BufferedInputStream(socket.getInputStream());
+        }
+
+        /** Envoie la requête et lit toute la réponse ; retourne le code HTTP */
+        int echanger(byte[] requete) throws IOException
+        {
+            sortie.write(requete);
+            sortie.flush();
+
+            String statut = lireLigne();
+            int code = Integer.parseInt(statut.substring(9, 12));
+            long longueur = 0;
+            for (String entete = lireLigne(); !entete.isEmpty(); entete = lireLigne()) {
+                if (entete.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    longueur = Long.parseLong(entete.substring(15).trim());
+                }
+            }
+            entree.skipNBytes(longueur);
+            return code;
+        }
+
+        private String lireLigne() throws IOException
+        {
+            ligne.setLength(0);
+            int octet;
+            while ((octet = entree.read()) != '\n') {
+                if (octet < 0) throw new EOFException("Connexion fermée par le serveur");
+                if (octet != '\r') ligne.append((char) octet);
+            }
+            return ligne.toString();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package Simulation;
+
+import Modele.Horodatage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Générateur de jeux de données synthétiques au format VANAD (fichiers d'appels et d'activités d'agents,
+ * colonnes lues par {@code LecteurCSV.lireAppels} / {@code lireActivites}), pour éprouver le replay à des
+ * volumes ou des effectifs supérieurs à ceux de l'extrait réel. Les distributions viennent d'un
+ * {@link ModeleCharge}, éventuellement mis à l'échelle :
+ * <ul>
+ *   <li>arrivées : processus de Poisson par service, au taux de l'heure de la semaine × {@code facteurVolume} ;</li>
+ *   <li>attente avant réponse : exponentielle ({@link #setAttenteMoyenne(double)}), abandon si la patience
+ *       (exponentielle, taux du service) est plus courte ;</li>
+ *   <li>durée de traitement : distribution empirique du service ;</li>
+ *   <li>agents : profils de compétences du modèle, effectif de chaque heure × {@code facteurAgents} ; l'agent
+ *       qui répond est tiré parmi les agents en poste d'un profil traitant le service ;</li>
+ *   <li>activités : suites d'activités de durée exponentielle ({@link #setDureeActiviteMoyenne(double)})
+ *       pendant les heures de poste, codes tirés selon des poids ({@link #setCodesActivite(int[], double[])} ;
+ *       par défaut 60 % de codes de disponibilité et 40 % d'indisponibilité du {@link MoteurReplay}).</li>
+ * </ul>
+ * Les fichiers sont produits heure par heure, triés par date (réception des appels, début des activités),
+ * formatés directement en octets et écrits par grands blocs : la mémoire ne dépend pas de la durée générée.
+ * Appels et activités ont chacun leur flux de tirages issu de la graine : mêmes paramètres et même graine,
+ * mêmes fichiers.
+ */
+public class GenerateurVanad
+{
+
+    private static final long SECONDES_HEURE = 3600;
+    private static final int TAILLE_TAMPON = 1 << 20;
+    private static final int LIGNE_MAX = 256;
+    private static final int BITS_SERVICE = 16;
+    private static final String EN_TETE_APPELS = "date_received,queue_name,agent_number,answered,consult,transfer,hangup";
+    private static final String EN_TETE_ACTIVITES =
+            "id,user_id,dnd_id,campaign_id,extension,last_call_id,startdatetime,enddatetime,agent_id";
+
+    private final ModeleCharge modele;
+    private final double facteurVolume;
+    private final int[] premierAgent;   // agents du profil p : numéros premierAgent[p] + 1 … premierAgent[p + 1]
+    private final int[][] enPoste;      // [profil][heure de la semaine], les premiers agents du profil
+    private final byte[][] nomsServices;
+
+    private double attenteMoyenne = 30.0;
+    private double dureeActiviteMoyenne = 900.0;
+    private int[] codesActivite;
+    private double[] poidsCumules;
+
+    /**
+     * @param facteurVolume Multiplicateur des taux d'arrivée du modèle
+     * @param facteurAgents Multiplicateur des effectifs par profil et par heure (au moins un agent en poste
+     *                      quand le modèle en prévoit)
+     */
+    public GenerateurVanad(ModeleCharge modele, double facteurVolume, double facteurAgents)
+    {
+        if (facteurVolume < 0 || facteurAgents < 0) {
+            throw new IllegalArgumentException("Facteurs négatifs : volume " + facteurVolume + ", agents " + facteurAgents);
+        }
+        this.modele = modele;
+        this.facteurVolume = facteurVolume;
+
+        int profils = modele.nombreProfils();
+        enPoste = new int[profils][ModeleCharge.HEURES_SEMAINE];
+        premierAgent = new int[profils + 1];
+        for (int p = 0; p < profils; p++) {
+            int maximum = 0;
+            for (int h = 0; h < ModeleCharge.HEURES_SEMAINE; h++) {
+                double effectif = modele.getEffectif(p, h) * facteurAgents;
+                enPoste[p][h] = effectif > 0 ? (int) Math.max(1, Math.round(effectif)) : 0;
+                maximum = Math.max(maximum, enPoste[p][h]);
+            }
+            premierAgent[p + 1] = premierAgent[p] + maximum;
+        }
+
+        nomsServices = new byte[modele.nombreServices()][];
+        for (int s = 0; s < nomsServices.length; s++) {
+            nomsServices[s] = modele.getService(s).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        int[] disponibilite = MoteurReplay.CODES_DISPONIBILITE.stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] indisponibilite = MoteurReplay.CODES_INDISPONIBILITE.stream().mapToInt(Integer::intValue).sorted().toArray();
+        double[] poids = new double[disponibilite.length + indisponibilite.length];
+        Arrays.fill(poids, 0, disponibilite.length, 0.6 / disponibilite.length);
+        Arrays.fill(poids, disponibilite.length, poids.length, 0.4 / indisponibilite.length);
+        codesActivite = IntStream.concat(IntStream.of(disponibilite), IntStream.of(indisponibilite)).toArray();
+        poidsCumules = cumulerPoids(codesActivite, poids);
+    }
+
+    // === Paramètres ===
+
+    /** Attente moyenne (secondes) des appels avant réponse, loi exponentielle (30 s par défaut) */
+    public void setAttenteMoyenne(double secondes)
+    {
+        this.attenteMoyenne = secondes;
+    }
+
+    /** Durée moyenne (secondes) des activités, loi exponentielle (15 minutes par défaut) */
+    public void setDureeActiviteMoyenne(double secondes)
+    {
+        this.dureeActiviteMoyenne = secondes;
+    }
+
+    /** Codes d'activité possibles et leurs poids relatifs */
+    public void setCodesActivite(int[] codes, double[] poids)
+    {
+        double[] cumules = cumulerPoids(codes, poids);
+        this.codesActivite = codes.clone();
+        this.poidsCumules = cumules;
+    }
+
+    // === Poids normalisés et cumulés, pour le tirage d'un code par recherche dans les cumuls ===
+    private static double[] cumulerPoids(int[] codes, double[] poids)
+    {
+        if (codes.length == 0 || codes.length != poids.length) {
+            throw new IllegalArgumentException("Codes et poids d'activité incohérents : "
+                    + codes.length + " codes, " + poids.length + " poids");
+        }
+        double total = Arrays.stream(poids).sum();
+        double[] cumules = new double[poids.length];
+        double cumul = 0;
+        for (int k = 0; k < poids.length; k++) {
+            if (poids[k] < 0) throw new IllegalArgumentException("Poids négatif pour le code " + codes[k]);
+            cumul += poids[k] / total;
+            cumules[k] = cumul;
+        }
+        return cumules;
+    }
+
+    /** Nombre d'agents distincts des fichiers générés */
+    public int nombreAgents()
+    {
+        return premierAgent[premierAgent.length - 1];
+    }
+
+    // === Appels ===
+
+    /**
+     * Écrit les appels reçus pendant {@code heures} heures à partir de {@code debut} (ramené à l'heure pleine).
+     *
+     * @return Nombre d'appels écrits
+     */
+    public long ecrireAppels(Path fichier, LocalDateTime debut, int heures, long graine) throws IOException
+    {
+        SplittableRandom alea = new SplittableRandom(graine);
+        long origine = Horodatage.enSecondes(debut.truncatedTo(ChronoUnit.HOURS));
+        long[] arrivees = new long[1024];
+
+        try (SortieCSV sortie = new SortieCSV(fichier, EN_TETE_APPELS)) {
+            for (int k = 0; k < heures; k++) {
+                long heure = origine + k * SECONDES_HEURE;
+                int heureSemaine = ModeleCharge.heureSemaine(heure);
+
+                // Arrivées de l'heure, tous services confondus, triées (seconde dans l'heure, service)
+                int nombre = 0;
+                for (int s = 0; s < nomsServices.length; s++) {
+                    double taux = modele.getTauxArrivee(s, heureSemaine) * facteurVolume;
+                    if (taux <= 0) continue;
+                    double ecartMoyen = SECONDES_HEURE / taux;
+                    for (double t = exponentielle(alea, ecartMoyen); t < SECONDES_HEURE; t += exponentielle(alea, ecartMoyen)) {
+                        if (nombre == arrivees.length) arrivees = Arrays.copyOf(arrivees, nombre * 2);
+                        arrivees[nombre++] = (long) t << BITS_SERVICE | s;
+                    }
+                }
+                Arrays.sort(arrivees, 0, nombre);
+
+                for (int i = 0; i < nombre; i++) {
+                    ecrireAppel(sortie, heure + (arrivees[i] >>> BITS_SERVICE),
+                            (int) (arrivees[i] & ((1 << BITS_SERVICE) - 1)), alea);
+                }
+            }
+            return sortie.lignes;
+        }
+    }
+
+    private void ecrireAppel(SortieCSV sortie, long reception, int service, SplittableRandom alea) throws IOException
+    {
+        long attente = Math.round(exponentielle(alea, attenteMoyenne));
+        double tauxPatience = modele.getTauxPatience(service);
+        long patience = tauxPatience > 0 ? Math.round(exponentielle(alea, 1 / tauxPatience)) : Long.MAX_VALUE;
+        int agent = patience < attente ? 0 : tirerAgent(service, ModeleCharge.heureSemaine(reception + attente), alea);
+
+        sortie.date(reception);
+        sortie.virgule();
+        sortie.octets(nomsServices[service]);
+        sortie.virgule();
+        if (agent == 0) {
+            // Abandon (ou aucun agent en poste pour le service) : ni agent ni réponse
+            sortie.octets(",,,,");
+            sortie.date(reception + Math.min(patience, attente));
+        } else {
+            long reponse = reception + attente;
+            sortie.entier(agent);
+            sortie.virgule();
+            sortie.date(reponse);
+            sortie.octets(",,,");
+            sortie.date(reponse + Math.max(1, Math.round(modele.tirerDuree(service, alea))));
+        }
+        sortie.finLigne();
+    }
+
+    /** Agent en poste (numéro à partir de 1) tiré parmi les profils traitant le service, 0 si aucun */
+    private int tirerAgent(int service, int heureSemaine, SplittableRandom alea)
+    {
+        int[] profils = modele.getProfilsService(service);
+        int total = 0;
+        for (int p : profils) total += enPoste[p][heureSemaine];
+        if (total == 0) return 0;
+        int rang = alea.nextInt(total);
+        for (int p : profils) {
+            if (rang < enPoste[p][heureSemaine]) return premierAgent[p] + rang + 1;
+            rang -= enPoste[p][heureSemaine];
+        }
+        throw new IllegalStateException("Tirage d'agent hors des profils du service " + modele.getService(service));
+    }
+
+    // === Activités ===
+
+    /**
+     * Écrit les activités des agents en poste pendant {@code heures} heures à partir de {@code debut}
+     * (ramené à l'heure pleine) : chaque agent enchaîne des activités tant qu'il est en poste.
+     *
+     * @return Nombre d'activités écrites
+     */
+    public long ecrireActivites(Path fichier, LocalDateTime debut, int heures, long graine) throws IOException
+    {
+        SplittableRandom alea = new SplittableRandom(graine).split();
+        long origine = Horodatage.enSecondes(debut.truncatedTo(ChronoUnit.HOURS));
+        long[] prochainDebut = new long[nombreAgents()];
+        Arrays.fill(prochainDebut, Long.MIN_VALUE);
+
+        // Activités de l'heure : clé de tri (seconde dans l'heure, rang) et colonnes
+        long[] cles = new long[1024];
+        long[] debuts = new long[1024];
+        long[] fins = new long[1024];
+        int[] agents = new int[1024];
+        int[] codes = new int[1024];
+
+        try (SortieCSV sortie = new SortieCSV(fichier, EN_TETE_ACTIVITES)) {
+            for (int k = 0; k < heures; k++) {
+                long heure = origine + k * SECONDES_HEURE;
+                long finHeure = heure + SECONDES_HEURE;
+                int heureSemaine = ModeleCharge.heureSemaine(heure);
+
+                int nombre = 0;
+                for (int p = 0; p < enPoste.length; p++) {
+                    for (int rang = 0; rang < enPoste[p][heureSemaine]; rang++) {
+                        int agent = premierAgent[p] + rang;
+                        for (long t = Math.max(prochainDebut[agent], heure); t < finHeure; nombre++) {
+                            if (nombre == cles.length) {
+                                int capacite = nombre * 2;
+                                cles = Arrays.copyOf(cles, capacite);
+                                debuts = Arrays.copyOf(debuts, capacite);
+                                fins = Arrays.copyOf(fins, capacite);
+                                agents = Arrays.copyOf(agents, capacite);
+                                codes = Arrays.copyOf(codes, capacite);
+                            }
+                            long duree = Math.max(1, Math.round(exponentielle(alea, dureeActiviteMoyenne)));
+                            cles[nombre] = (t - heure) << 32 | nombre;
+                            debuts[nombre] = t;
+                            fins[nombre] = t + duree;
+                            agents[nombre] = agent + 1;
+                            codes[nombre] = tirerCode(alea);
+                            t += duree;
+                            prochainDebut[agent] = t;
+                        }
+                    }
+                }
+                Arrays.sort(cles, 0, nombre);
+
+                for (int i = 0; i < nombre; i++) {
+                    int a = (int) cles[i];
+                    ecrireActivite(sortie, codes[a], agents[a], debuts[a], fins[a]);
+                }
+            }
+            return sortie.lignes;
+        }
+    }
+
+    private void ecrireActivite(SortieCSV sortie, int code, int agent, long debut, long fin) throws IOException
+    {
+        sortie.entier(code);
+        sortie.virgule();
+        sortie.entier(agent);
+        sortie.virgule();
+        if (MoteurReplay.CODES_INDISPONIBILITE.contains(code)) sortie.entier(1);
+        sortie.virgule();
+        sortie.entier(1 + agent % 4);
+        sortie.virgule();
+        sortie.entier(100 + agent);
+        sortie.octets(",,");
+        sortie.date(debut);
+        sortie.virgule();
+        sortie.date(fin);
+        sortie.virgule();
+        sortie.entier(agent);
+        sortie.finLigne();
+    }
+
+    private int tirerCode(SplittableRandom alea)
+    {
+        double u = alea.nextDouble();
+        for (int k = 0; k < poidsCumules.length - 1; k++) {
+            if (u < poidsCumules[k]) return codesActivite[k];
+        }
+        return codesActivite[codesActivite.length - 1];
+    }
+
+    private static double exponentielle(SplittableRandom alea, double moyenne)
+    {
+        return -moyenne * Math.log(1.0 - alea.nextDouble());
+    }
+
+    /**
+     * Fichier CSV écrit en octets ASCII dans un tampon réutilisé, vidé par grandes écritures ; les dates
+     * ({@code yyyy-MM-dd HH:mm:ss}, UTC comme {@link Horodatage}) réutilisent le préfixe du dernier jour formaté.
+     */
+    private static final class SortieCSV implements Closeable
+    {
+        private final FileChannel canal;
+        private final ByteBuffer tampon = ByteBuffer.allocate(TAILLE_TAMPON);
+        private final byte[] chiffres = new byte[20];
+        private final byte[] prefixeJour = new byte[11];
+        private long jour = Long.MIN_VALUE;
+        long lignes;
+
+        SortieCSV(Path fichier, String enTete) throws IOException
+        {
+            canal = FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            tampon.put((enTete + "\n").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        void date(long secondes)
+        {
+            long jourEpoch = Math.floorDiv(secondes, 86_400L);
+            if (jourEpoch != jour) {
+                jour = jourEpoch;
+                byte[] texte = (LocalDate.ofEpochDay(jourEpoch) + " ").getBytes(StandardCharsets.US_ASCII);
+                if (texte.length != prefixeJour.length) {
+                    throw new IllegalArgumentException("Date hors format VANAD : " + LocalDate.ofEpochDay(jourEpoch));
+                }
+                System.arraycopy(texte, 0, prefixeJour, 0, texte.length);
+            }
+            tampon.put(prefixeJour);
+            int seconde = (int) Math.floorMod(secondes, 86_400L);
+            deuxChiffres(seconde / 3600);
+            tampon.put((byte) ':');
+            deuxChiffres(seconde / 60 % 60);
+            tampon.put((byte) ':');
+            deuxChiffres(seconde % 60);
+        }
+
+        private void deuxChiffres(int valeur)
+        {
+            tampon.put((byte) ('0' + valeur / 10));
+            tampon.put((byte) ('0' + valeur % 10));
+        }
+
+        void entier(long valeur)
+        {
+            if (valeur < 0) {
+                tampon.put((byte) '-');
+                valeur = -valeur;
+            }
+            int n = 0;
+            do {
+                chiffres[n++] = (byte) ('0' + valeur % 10);
+                valeur /= 10;
+            } while (valeur > 0);
+            while (n > 0) tampon.put(chiffres[--n]);
+        }
+
+        void octets(byte[] texte)
+        {
+            tampon.put(texte);
+        }
+
+        void octets(String texte)
+        {
+            for (int i = 0; i < texte.length(); i++) tampon.put((byte) texte.charAt(i));
+        }
+
+        void virgule()
+        {
+            tampon.put((byte) ',');
+        }
+
+        void finLigne() throws IOException
+        {
+            tampon.put((byte) '\n');
+            lignes++;
+            if (tampon.remaining() < LIGNE_MAX) vider();
+        }
+
+        private void vider() throws IOException
+        {
+            tampon.flip();
+            while (tampon.hasRemaining()) canal.write(tampon);
+            tampon.clear();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            try (canal) {
+                vider();
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package Simulation;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme concurrent de durées en nanosecondes, à classes log-linéaires : chaque puissance de deux
+ * est découpée en {@value #SOUS_CLASSES} classes égales, soit une erreur relative inférieure à 3 %
+ * sur les quantiles, pour une taille fixe quel que soit le nombre de mesures.
+ * L'enregistrement est sans verrou et peut être appelé depuis un grand nombre de fils.
+ */
+public class HistogrammeLatences
+{
+
+    private static final int BITS_SOUS_CLASSES = 5;
+    private static final int SOUS_CLASSES = 1 << BITS_SOUS_CLASSES;
+    private static final int NOMBRE_CLASSES = SOUS_CLASSES * (64 - BITS_SOUS_CLASSES);
+
+    private final AtomicLongArray comptes = new AtomicLongArray(NOMBRE_CLASSES);
+    private final LongAdder nombre = new LongAdder();
+    private final LongAdder somme = new LongAdder();
+    private final LongAccumulator maximum = new LongAccumulator(Math::max, 0);
+
+    /** Ajoute une durée (les valeurs négatives comptent pour 0) */
+    public void enregistrer(long nanos)
+    {
+        long valeur = Math.max(0, nanos);
+        comptes.incrementAndGet(classe(valeur));
+        nombre.increment();
+        somme.add(valeur);
+        maximum.accumulate(valeur);
+    }
+
+    private static int classe(long valeur)
+    {
+        if (valeur < SOUS_CLASSES) return (int) valeur;
+        int exposant = 63 - Long.numberOfLeadingZeros(valeur);
+        int sousClasse = (int) (valeur >>> (exposant - BITS_SOUS_CLASSES)) - SOUS_CLASSES;
+        return SOUS_CLASSES + (exposant - BITS_SOUS_CLASSES) * SOUS_CLASSES + sousClasse;
+    }
+
+    // === Plus grande valeur de la classe ===
+    private static long borneHaute(int classe)
+    {
+        if (classe < SOUS_CLASSES) return classe;
+        int decalage = (classe - SOUS_CLASSES) / SOUS_CLASSES;
+        long debut = (long) (SOUS_CLASSES + (classe - SOUS_CLASSES) % SOUS_CLASSES) << decalage;
+        return debut + (1L << decalage) - 1;
+    }
+
+    public long getNombre()
+    {
+        return nombre.sum();
+    }
+
+    /** Somme des durées enregistrées */
+    public long getSomme()
+    {
+        return somme.sum();
+    }
+
+    public long getMaximum()
+    {
+        return maximum.get();
+    }
+
+    public double getMoyenne()
+    {
+        long n = nombre.sum();
+        return n == 0 ? 0.0 : (double) somme.sum() / n;
+    }
+
+    /**
+     * Quantile d'ordre {@code q} (0 &lt; q ≤ 1), borné par le maximum observé ; 0 si l'histogramme est vide.
+     */
+    public long quantile(double q)
+    {
+        long total = 0;
+        for (int c = 0; c < NOMBRE_CLASSES; c++) {
+            total += comptes.get(c);
+        }
+        if (total == 0) return 0;
+
+        long rang = Math.max(1, (long) Math.ceil(q * total));
+        long cumul = 0;
+        for (int c = 0; c < NOMBRE_CLASSES; c++) {
+            cumul += comptes.get(c);
+            if (cumul >= rang) return Math.min(borneHaute(c), getMaximum());
+        }
+        return getMaximum();
+    }
+
+    /** Résumé sur une ligne, en microsecondes : nombre, moyenne, p50, p90, p99, p99.9, maximum */
+    public String resume()
+    {
+        return String.format(Locale.US, "n=%d moyenne=%.1f µs p50=%.1f µs p90=%.1f µs p99=%.1f µs p99.9=%.1f µs max=%.1f µs",
+                getNombre(), getMoyenne() / 1e3, quantile(0.50) / 1e3, quantile(0.90) / 1e3,
+                quantile(0.99) / 1e3, quantile(0.999) / 1e3, getMaximum() / 1e3);
+    }
+}
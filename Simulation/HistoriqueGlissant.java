@@ -0,0 +1,166 @@
+package Simulation;
+
+/**
+ * Historique glissant de capacité fixe sur un tampon circulaire de {@code double}.
+ * La somme et la somme des carrés des écarts à la moyenne sont tenues à jour à chaque insertion, ce qui rend
+ * l'ajout, la moyenne et la variance O(1) et sans allocation, quelle que soit la taille de la fenêtre.
+ * Le suivi du minimum et du maximum de la fenêtre est optionnel (files monotones, O(1) amorti).
+ */
+public class HistoriqueGlissant
+{
+
+    private final double[] valeurs;
+    private long nbAjouts;
+    private int taille;
+    private double somme;
+    private double sommeEcartsCarres;
+
+    // Files monotones des rangs candidats au minimum / maximum (null si suivi désactivé)
+    private final long[] rangsMin;
+    private final long[] rangsMax;
+    private int debutMin, tailleMin;
+    private int debutMax, tailleMax;
+
+    public HistoriqueGlissant(int capacite)
+    {
+        this(capacite, false);
+    }
+
+    /**
+     * @param capacite       Nombre maximal de valeurs conservées
+     * @param suiviExtremes  Active le suivi du minimum et du maximum de la fenêtre
+     */
+    public HistoriqueGlissant(int capacite, boolean suiviExtremes)
+    {
+        if (capacite <= 0) throw new IllegalArgumentException("Capacité invalide : " + capacite);
+        this.valeurs = new double[capacite];
+        this.rangsMin = suiviExtremes ? new long[capacite] : null;
+        this.rangsMax = suiviExtremes ? new long[capacite] : null;
+    }
+
+    // === Ajoute une valeur, en évinçant la plus ancienne si la fenêtre est pleine ===
+    public void ajouter(double valeur)
+    {
+        int capacite = valeurs.length;
+        int position = (int) (nbAjouts % capacite);
+
+        // Mise à jour de Welford, sur des écarts à la moyenne : pas de différence de grands carrés,
+        // la variance reste exacte même loin de zéro (horodatages en secondes, par exemple)
+        double moyenneAvant = taille == 0 ? 0.0 : somme / taille;
+        if (taille == capacite) {
+            double ancienne = valeurs[position];
+            somme -= ancienne;
+            somme += valeur;
+            double moyenneApres = somme / taille;
+            sommeEcartsCarres += (valeur - ancienne) * (valeur - moyenneApres + ancienne - moyenneAvant);
+        } else {
+            taille++;
+            somme += valeur;
+            sommeEcartsCarres += (valeur - moyenneAvant) * (valeur - somme / taille);
+        }
+        valeurs[position] = valeur;
+        if (position == capacite - 1) {
+            recalculer();
+        }
+
+        if (rangsMin != null) {
+            mettreAJourExtremes(nbAjouts, valeur);
+        }
+        nbAjouts++;
+    }
+
+    // === Recalcul exact à chaque tour du tampon (O(1) amorti) : les arrondis des mises à jour ne s'accumulent pas ===
+    private void recalculer()
+    {
+        double total = 0.0;
+        for (int i = 0; i < taille; i++) {
+            total += valeurs[i];
+        }
+        somme = total;
+        double moyenne = total / taille;
+        double ecarts = 0.0;
+        for (int i = 0; i < taille; i++) {
+            double ecart = valeurs[i] - moyenne;
+            ecarts += ecart * ecart;
+        }
+        sommeEcartsCarres = ecarts;
+    }
+
+    private void mettreAJourExtremes(long rang, double valeur)
+    {
+        int capacite = valeurs.length;
+        long rangExpire = rang - capacite;
+
+        // Retrait en tête des rangs sortis de la fenêtre
+        if (tailleMin > 0 && rangsMin[debutMin] <= rangExpire) {
+            debutMin = (debutMin + 1) % capacite;
+            tailleMin--;
+        }
+        if (tailleMax > 0 && rangsMax[debutMax] <= rangExpire) {
+            debutMax = (debutMax + 1) % capacite;
+            tailleMax--;
+        }
+
+        // Retrait en queue des candidats dominés par la nouvelle valeur
+        while (tailleMin > 0 && valeurDuRang(rangsMin[(debutMin + tailleMin - 1) % capacite]) >= valeur) {
+            tailleMin--;
+        }
+        while (tailleMax > 0 && valeurDuRang(rangsMax[(debutMax + tailleMax - 1) % capacite]) <= valeur) {
+            tailleMax--;
+        }
+
+        rangsMin[(debutMin + tailleMin++) % capacite] = rang;
+        rangsMax[(debutMax + tailleMax++) % capacite] = rang;
+    }
+
+    private double valeurDuRang(long rang)
+    {
+        return valeurs[(int) (rang % valeurs.length)];
+    }
+
+    // === Moyenne de la fenêtre, ou valeur par défaut si vide ===
+    public double moyenne(double valeurParDefaut)
+    {
+        return taille == 0 ? valeurParDefaut : somme / taille;
+    }
+
+    // === Variance (population) de la fenêtre, 0 si vide ===
+    public double variance()
+    {
+        return taille == 0 ? 0.0 : Math.max(0.0, sommeEcartsCarres / taille);
+    }
+
+    // === Minimum de la fenêtre (suivi des extrêmes requis) ===
+    public double min(double valeurParDefaut)
+    {
+        verifierSuiviExtremes();
+        return tailleMin == 0 ? valeurParDefaut : valeurDuRang(rangsMin[debutMin]);
+    }
+
+    // === Maximum de la fenêtre (suivi des extrêmes requis) ===
+    public double max(double valeurParDefaut)
+    {
+        verifierSuiviExtremes();
+        return tailleMax == 0 ? valeurParDefaut : valeurDuRang(rangsMax[debutMax]);
+    }
+
+    private void verifierSuiviExtremes()
+    {
+        if (rangsMin == null) throw new IllegalStateException("Suivi des extrêmes non activé");
+    }
+
+    public int taille()
+    {
+        return taille;
+    }
+
+    public int capacite()
+    {
+        return valeurs.length;
+    }
+
+    public boolean estVide()
+    {
+        return taille == 0;
+    }
+}
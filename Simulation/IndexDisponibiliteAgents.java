@@ -0,0 +1,147 @@
+package Simulation;
+
+/**
+ * Index de disponibilité des agents par service, maintenu au fil du replay.
+ * Chaque agent (désigné par sa position 0 … n-1) a un instant de libération : le plus tardif
+ * de ses instants dispoApres, indispoAvant et occupeJusquA (en secondes epoch), à partir duquel
+ * {@code Modele.EtatAgent.estDisponible} est vrai. L'index tient un compteur d'agents disponibles
+ * par service et un échéancier des libérations à venir.
+ * Tant que les dates interrogées sont croissantes (cas du replay chronologique), le comptage
+ * coûte O(1) plus O(log n) par libération échue ; une date antérieure retombe sur un parcours complet.
+ */
+public class IndexDisponibiliteAgents
+{
+
+    private final int[][] servicesParAgent;
+    private final long[] dispoApres;
+    private final long[] indispoAvant;
+    private final long[] occupeJusquA;
+    private final long[] liberationParAgent;
+    private final boolean[] enAttenteLiberation;
+    private final int[] disponiblesParService;
+    private final TasMinLong liberations;
+    private long horloge = Long.MIN_VALUE;
+
+    /**
+     * @param nombreServices   Nombre d'indices de services possibles
+     * @param servicesParAgent Indices des services acceptés par chaque agent
+     */
+    public IndexDisponibiliteAgents(int nombreServices, int[][] servicesParAgent)
+    {
+        int nbAgents = servicesParAgent.length;
+        this.servicesParAgent = servicesParAgent;
+        this.dispoApres = new long[nbAgents];
+        this.indispoAvant = new long[nbAgents];
+        this.occupeJusquA = new long[nbAgents];
+        this.liberationParAgent = new long[nbAgents];
+        this.enAttenteLiberation = new boolean[nbAgents];
+        this.disponiblesParService = new int[nombreServices];
+        this.liberations = new TasMinLong(Math.max(16, nbAgents));
+
+        // Au départ, tous les agents sont disponibles (équivalent de LocalDateTime.MIN)
+        for (int position = 0; position < nbAgents; position++) {
+            dispoApres[position] = Long.MIN_VALUE;
+            indispoAvant[position] = Long.MIN_VALUE;
+            occupeJusquA[position] = Long.MIN_VALUE;
+            liberationParAgent[position] = Long.MIN_VALUE;
+            ajusterCompteurs(position, +1);
+        }
+    }
+
+    // === Mises à jour de l'état d'un agent ===
+
+    public void definirDispoApres(int position, long instant)
+    {
+        dispoApres[position] = instant;
+        mettreAJour(position);
+    }
+
+    public void definirIndispoAvant(int position, long instant)
+    {
+        indispoAvant[position] = instant;
+        mettreAJour(position);
+    }
+
+    public void definirOccupeJusquA(int position, long instant)
+    {
+        occupeJusquA[position] = instant;
+        mettreAJour(position);
+    }
+
+    // === Répercute un changement d'instant de libération sur les compteurs ===
+    private void mettreAJour(int position)
+    {
+        long nouvelle = Math.max(dispoApres[position], Math.max(indispoAvant[position], occupeJusquA[position]));
+        if (nouvelle == liberationParAgent[position]) return;
+        liberationParAgent[position] = nouvelle;
+
+        boolean etaitDisponible = !enAttenteLiberation[position];
+        boolean estDisponible = nouvelle <= horloge;
+
+        if (etaitDisponible && !estDisponible) {
+            ajusterCompteurs(position, -1);
+            enAttenteLiberation[position] = true;
+            liberations.ajouter(nouvelle, position);
+        } else if (!etaitDisponible && estDisponible) {
+            ajusterCompteurs(position, +1);
+            enAttenteLiberation[position] = false;
+        } else if (!etaitDisponible) {
+            // L'ancienne entrée de l'échéancier devient obsolète et sera ignorée au dépilement
+            liberations.ajouter(nouvelle, position);
+        }
+    }
+
+    // === Nombre d'agents acceptant le service et disponibles à l'instant donné ===
+    public int compterDisponibles(int indiceService, long instant)
+    {
+        if (instant < horloge) {
+            return compterParParcours(indiceService, instant);
+        }
+        avancerHorloge(instant);
+        return disponiblesParService[indiceService];
+    }
+
+    // === Dépile les libérations échues jusqu'à l'instant t ===
+    private void avancerHorloge(long t)
+    {
+        while (!liberations.estVide() && liberations.cleMin() <= t) {
+            long cle = liberations.cleMin();
+            int position = liberations.valeurMin();
+            liberations.retirerMin();
+
+            if (enAttenteLiberation[position] && liberationParAgent[position] == cle) {
+                enAttenteLiberation[position] = false;
+                ajusterCompteurs(position, +1);
+            }
+        }
+        horloge = t;
+    }
+
+    private void ajusterCompteurs(int position, int delta)
+    {
+        for (int indice : servicesParAgent[position]) {
+            disponiblesParService[indice] += delta;
+        }
+    }
+
+    // === Comptage de secours par parcours complet (date antérieure à l'horloge) ===
+    private int compterParParcours(int indiceService, long instant)
+    {
+        int total = 0;
+        for (int position = 0; position < servicesParAgent.length; position++) {
+            if (liberationParAgent[position] > instant) continue;
+            for (int indice : servicesParAgent[position]) {
+                if (indice == indiceService) {
+                    total++;
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    public int nombreAgents()
+    {
+        return servicesParAgent.length;
+    }
+}
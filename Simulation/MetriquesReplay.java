@@ -0,0 +1,102 @@
+package Simulation;
+
+/**
+ * Métriques d'un {@link MoteurReplay} publiées dans un {@link RegistreMetriques} : appels capturés et
+ * enregistrés, débit de capture, file et agents compatibles du dernier appel de chaque service, erreur
+ * quadratique moyenne glissante de chaque prédicteur et durée des captures. Toutes les séries sont créées
+ * d'avance, par service et par prédicteur : la mise à jour, appelée par le fil du replay, ne fait ni
+ * recherche ni allocation.
+ */
+final class MetriquesReplay
+{
+
+    /** Nombre d'appels servis sur lesquels porte la RMSE glissante de chaque service */
+    static final int FENETRE_ERREURS = 1000;
+
+    /** Le débit est recalculé toutes les {@code PERIODE_DEBIT} captures */
+    private static final int PERIODE_DEBIT = 1024;
+
+    private static final String[] PREDICTEURS = {"les", "avg_les", "ann"};
+
+    private final RegistreMetriques.Compteur captures;
+    private final RegistreMetriques.Compteur appels;
+    private final RegistreMetriques.Jauge debit;
+    private final HistogrammeLatences dureesCaptures;
+    private final RegistreMetriques.Jauge[] files;
+    private final RegistreMetriques.Jauge[] agents;
+    private final RegistreMetriques.Jauge[][] rmse;
+    private final HistoriqueGlissant[][] erreursCarrees;
+
+    private int capturesAvantDebit = PERIODE_DEBIT;
+    private long debutPeriodeDebit = System.nanoTime();
+
+    MetriquesReplay(RegistreMetriques registre, String[] services)
+    {
+        captures = registre.compteur("vanad_replay_captures_total",
+                "États capturés à la réception d'un appel");
+        appels = registre.compteur("vanad_replay_appels_enregistres_total",
+                "Appels enregistrés dans les files et l'occupation des agents");
+        debit = registre.jauge("vanad_replay_debit_captures",
+                "Captures par seconde sur les " + PERIODE_DEBIT + " dernières");
+        dureesCaptures = registre.histogramme("vanad_replay_duree_capture_secondes",
+                "Durée d'une capture d'état, prédicteurs compris");
+
+        files = new RegistreMetriques.Jauge[services.length];
+        agents = new RegistreMetriques.Jauge[services.length];
+        rmse = new RegistreMetriques.Jauge[PREDICTEURS.length][services.length];
+        erreursCarrees = new HistoriqueGlissant[PREDICTEURS.length][services.length];
+        for (int s = 0; s < services.length; s++) {
+            files[s] = registre.jauge("vanad_replay_file_attente",
+                    "Appels en file à la dernière capture du service", "service", services[s]);
+            agents[s] = registre.jauge("vanad_replay_agents_compatibles",
+                    "Agents compatibles disponibles à la dernière capture du service", "service", services[s]);
+        }
+        for (int p = 0; p < PREDICTEURS.length; p++) {
+            for (int s = 0; s < services.length; s++) {
+                rmse[p][s] = registre.jauge("vanad_replay_rmse_secondes",
+                        "RMSE glissante du prédicteur sur les " + FENETRE_ERREURS + " derniers appels servis du service",
+                        "service", services[s], "predicteur", PREDICTEURS[p]);
+                erreursCarrees[p][s] = new HistoriqueGlissant(FENETRE_ERREURS);
+            }
+        }
+    }
+
+    /**
+     * @param service Indice du service (-1 si non suivi : seuls les compteurs et la durée sont mis à jour)
+     * @param duree   Durée de la capture en nanosecondes
+     */
+    void capture(int service, EtatSysteme etat, int agentsCompatibles, long duree)
+    {
+        captures.incrementer();
+        dureesCaptures.enregistrer(duree);
+        if (--capturesAvantDebit == 0) {
+            long maintenant = System.nanoTime();
+            debit.definir(PERIODE_DEBIT * 1e9 / Math.max(1, maintenant - debutPeriodeDebit));
+            debutPeriodeDebit = maintenant;
+            capturesAvantDebit = PERIODE_DEBIT;
+        }
+        if (service < 0 || service >= files.length) return;
+
+        files[service].definir(etat.getTailleFilePrincipale());
+        agents[service].definir(agentsCompatibles);
+
+        double attente = etat.getDelaiAttenteObserve();
+        if (attente < 0) return;
+        erreur(0, service, etat.getEstimationLES() - attente);
+        erreur(1, service, etat.getEstimationLESMoyenne() - attente);
+        erreur(2, service, etat.getEstimationANN() - attente);
+    }
+
+    private void erreur(int predicteur, int service, double ecart)
+    {
+        if (Double.isNaN(ecart)) return;
+        HistoriqueGlissant carres = erreursCarrees[predicteur][service];
+        carres.ajouter(ecart * ecart);
+        rmse[predicteur][service].definir(Math.sqrt(Math.max(0.0, carres.moyenne(0.0))));
+    }
+
+    void appelEnregistre()
+    {
+        appels.incrementer();
+    }
+}
@@ -0,0 +1,290 @@
+package Simulation;
+
+import Modele.AppelsColonnaires;
+import Modele.EtatAgent;
+import Modele.Horodatage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Modèle de charge du centre ajusté sur les appels historiques, pour la simulation générative
+ * ({@link SimulationGenerative}) :
+ * <ul>
+ *   <li>taux d'arrivée par service et par heure de la semaine (appels par heure, moyenne sur la période) ;</li>
+ *   <li>durée de traitement par service : distribution empirique (table de quantiles) des écarts
+ *       réponse → raccrochage ;</li>
+ *   <li>patience par service : loi exponentielle, estimée avec censure (abandons / temps d'attente cumulé) ;</li>
+ *   <li>profils de compétences : agents regroupés selon leur {@link EtatAgent#getServicesAutorises()},
+ *       avec l'effectif moyen de chaque profil par heure de la semaine (agents distincts ayant répondu).</li>
+ * </ul>
+ * Les heures de la semaine sont numérotées de 0 (lundi 0 h) à 167 (dimanche 23 h).
+ */
+public class ModeleCharge
+{
+
+    public static final int HEURES_SEMAINE = 168;
+    private static final int NOMBRE_QUANTILES = 256;
+
+    private final String[] services;
+    private final double[][] tauxArrivee;        // [service][heure de la semaine], appels par heure
+    private final double[][] quantilesDuree;     // [service][k], secondes
+    private final double[] tauxPatience;         // [service], abandons par seconde d'attente (0 : aucune)
+    private final int[][] servicesParProfil;     // [profil] indices de services traités
+    private final int[][] profilsParService;     // [service] profils le traitant, du plus spécialisé au plus polyvalent
+    private final double[][] effectifs;          // [profil][heure de la semaine]
+    private final long finHistorique;            // secondes epoch du dernier appel
+
+    private ModeleCharge(String[] services, double[][] tauxArrivee, double[][] quantilesDuree, double[] tauxPatience,
+                         int[][] servicesParProfil, double[][] effectifs, long finHistorique)
+    {
+        this.services = services;
+        this.tauxArrivee = tauxArrivee;
+        this.quantilesDuree = quantilesDuree;
+        this.tauxPatience = tauxPatience;
+        this.servicesParProfil = servicesParProfil;
+        this.effectifs = effectifs;
+        this.finHistorique = finHistorique;
+
+        this.profilsParService = new int[services.length][];
+        for (int s = 0; s < services.length; s++) {
+            int service = s;
+            profilsParService[s] = IntStream.range(0, servicesParProfil.length)
+                    .filter(p -> Arrays.stream(servicesParProfil[p]).anyMatch(x -> x == service))
+                    .boxed()
+                    .sorted(Comparator.comparingInt(p -> servicesParProfil[p].length))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+
+    /** Heure de la semaine (0 = lundi 0 h) d'un instant en secondes epoch */
+    public static int heureSemaine(long secondes)
+    {
+        return heureSemaineDeHeure(Math.floorDiv(secondes, 3600L));
+    }
+
+    /** Heure de la semaine d'une heure epoch (le 01/01/1970 0 h était un jeudi, soit l'heure 72) */
+    public static int heureSemaineDeHeure(long heureEpoch)
+    {
+        return (int) Math.floorMod(heureEpoch + 72, (long) HEURES_SEMAINE);
+    }
+
+    /**
+     * Ajuste le modèle sur les appels donnés (appels sans date de réception ou sans service ignorés).
+     */
+    public static ModeleCharge ajuster(AppelsColonnaires appels)
+    {
+        int nombreCodes = appels.nombreServices();
+        long debut = Long.MAX_VALUE;
+        long fin = Long.MIN_VALUE;
+        for (int i = 0; i < appels.taille(); i++) {
+            long reception = appels.getReception(i);
+            if (reception == Horodatage.ABSENT || appels.getCodeService(i) == AppelsColonnaires.AUCUN) continue;
+            debut = Math.min(debut, reception);
+            fin = Math.max(fin, reception);
+        }
+        if (debut > fin) throw new IllegalArgumentException("Aucun appel exploitable pour ajuster le modèle de charge");
+
+        // Nombre d'occurrences de chaque heure de la semaine sur la période observée
+        long[] occurrences = new long[HEURES_SEMAINE];
+        for (long heure = debut / 3600; heure <= fin / 3600; heure++) {
+            occurrences[heureSemaine(heure * 3600)]++;
+        }
+
+        long[][] arrivees = new long[nombreCodes][HEURES_SEMAINE];
+        List<List<Long>> durees = new ArrayList<>();
+        for (int s = 0; s < nombreCodes; s++) durees.add(new ArrayList<>());
+        long[] abandons = new long[nombreCodes];
+        double[] attenteCumulee = new double[nombreCodes];
+        Map<Integer, EtatAgent> agents = new HashMap<>();
+
+        for (int i = 0; i < appels.taille(); i++) {
+            long reception = appels.getReception(i);
+            int s = appels.getCodeService(i);
+            if (reception == Horodatage.ABSENT || s == AppelsColonnaires.AUCUN) continue;
+            arrivees[s][heureSemaine(reception)]++;
+
+            long reponse = appels.getReponse(i);
+            long raccrochage = appels.getRaccrochage(i);
+            if (reponse != Horodatage.ABSENT && reponse >= reception) {
+                attenteCumulee[s] += reponse - reception;
+                if (raccrochage != Horodatage.ABSENT && raccrochage > reponse) durees.get(s).add(raccrochage - reponse);
+                int agent = appels.getAgent(i);
+                if (agent != AppelsColonnaires.AUCUN) {
+                    agents.computeIfAbsent(agent, a -> new EtatAgent(new TreeSet<>()))
+                            .getServicesAutorises().add(appels.serviceDeCode(s));
+                }
+            } else if (reponse == Horodatage.ABSENT && raccrochage != Horodatage.ABSENT && raccrochage >= reception) {
+                abandons[s]++;
+                attenteCumulee[s] += raccrochage - reception;
+            }
+        }
+
+        String[] services = new String[nombreCodes];
+        double[][] tauxArrivee = new double[nombreCodes][HEURES_SEMAINE];
+        double[][] quantilesDuree = new double[nombreCodes][];
+        double[] tauxPatience = new double[nombreCodes];
+        List<Long> toutesDurees = new ArrayList<>();
+        durees.forEach(toutesDurees::addAll);
+        double[] quantilesGlobaux = toutesDurees.isEmpty() ? new double[]{180.0} : quantiles(toutesDurees);
+
+        for (int s = 0; s < nombreCodes; s++) {
+            services[s] = appels.serviceDeCode(s);
+            for (int h = 0; h < HEURES_SEMAINE; h++) {
+                tauxArrivee[s][h] = occurrences[h] == 0 ? 0.0 : (double) arrivees[s][h] / occurrences[h];
+            }
+            quantilesDuree[s] = durees.get(s).isEmpty() ? quantilesGlobaux : quantiles(durees.get(s));
+            tauxPatience[s] = attenteCumulee[s] > 0 ? abandons[s] / attenteCumulee[s] : 0.0;
+        }
+
+        // Profils : agents de mêmes compétences
+        Map<Set<String>, Integer> indiceProfil = new LinkedHashMap<>();
+        Map<Integer, Integer> profilParAgent = new HashMap<>();
+        agents.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> profilParAgent.put(e.getKey(),
+                        indiceProfil.computeIfAbsent(e.getValue().getServicesAutorises(), p -> indiceProfil.size())));
+
+        int[][] servicesParProfil = new int[indiceProfil.size()][];
+        for (Map.Entry<Set<String>, Integer> profil : indiceProfil.entrySet()) {
+            servicesParProfil[profil.getValue()] = profil.getKey().stream().mapToInt(appels::codeDeService).toArray();
+        }
+
+        // Effectif d'un profil sur une heure : agents distincts ayant répondu à au moins un appel dans l'heure
+        double[][] effectifs = new double[indiceProfil.size()][HEURES_SEMAINE];
+        Set<Long> presences = new HashSet<>();
+        for (int i = 0; i < appels.taille(); i++) {
+            long reponse = appels.getReponse(i);
+            int agent = appels.getAgent(i);
+            if (reponse == Horodatage.ABSENT || agent == AppelsColonnaires.AUCUN) continue;
+            Integer profil = profilParAgent.get(agent);
+            if (profil == null) continue;
+            if (presences.add((reponse / 3600) * (1L << 32) + (agent & 0xFFFFFFFFL))) {
+                effectifs[profil][heureSemaine(reponse)]++;
+            }
+        }
+        for (double[] effectif : effectifs) {
+            for (int h = 0; h < HEURES_SEMAINE; h++) {
+                effectif[h] = occurrences[h] == 0 ? 0.0 : effectif[h] / occurrences[h];
+            }
+        }
+
+        return new ModeleCharge(services, tauxArrivee, quantilesDuree, tauxPatience, servicesParProfil, effectifs, fin);
+    }
+
+    private static double[] quantiles(List<Long> valeurs)
+    {
+        long[] triees = valeurs.stream().mapToLong(Long::longValue).sorted().toArray();
+        double[] table = new double[NOMBRE_QUANTILES + 1];
+        for (int k = 0; k <= NOMBRE_QUANTILES; k++) {
+            double position = (double) k / NOMBRE_QUANTILES * (triees.length - 1);
+            int bas = (int) position;
+            int haut = Math.min(bas + 1, triees.length - 1);
+            table[k] = triees[bas] + (position - bas) * (triees[haut] - triees[bas]);
+        }
+        return table;
+    }
+
+    // === Tirages ===
+
+    /** Durée de traitement (secondes) tirée dans la distribution empirique du service */
+    public double tirerDuree(int service, SplittableRandom alea)
+    {
+        double[] table = quantilesDuree[service];
+        if (table.length == 1) return table[0];
+        double position = alea.nextDouble() * (table.length - 1);
+        int bas = (int) position;
+        return table[bas] + (position - bas) * (table[bas + 1] - table[bas]);
+    }
+
+    // === Accès ===
+
+    public int nombreServices()
+    {
+        return services.length;
+    }
+
+    public String getService(int service)
+    {
+        return services[service];
+    }
+
+    public int nombreProfils()
+    {
+        return servicesParProfil.length;
+    }
+
+    /** Indices des services traités par les agents du profil */
+    public int[] getServicesProfil(int profil)
+    {
+        return servicesParProfil[profil];
+    }
+
+    /** Profils traitant le service, du plus spécialisé (moins de compétences) au plus polyvalent */
+    public int[] getProfilsService(int service)
+    {
+        return profilsParService[service];
+    }
+
+    /** Appels par heure attendus pour le service à l'heure de la semaine donnée */
+    public double getTauxArrivee(int service, int heureSemaine)
+    {
+        return tauxArrivee[service][heureSemaine];
+    }
+
+    /** Taux d'abandon par seconde d'attente (0 si aucun abandon observé) */
+    public double getTauxPatience(int service)
+    {
+        return tauxPatience[service];
+    }
+
+    /** Effectif moyen du profil à l'heure de la semaine donnée */
+    public double getEffectif(int profil, int heureSemaine)
+    {
+        return effectifs[profil][heureSemaine];
+    }
+
+    public double getDureeMoyenne(int service)
+    {
+        double[] table = quantilesDuree[service];
+        if (table.length == 1) return table[0];
+        double somme = 0;
+        for (int k = 0; k < table.length - 1; k++) somme += (table[k] + table[k + 1]) / 2;
+        return somme / (table.length - 1);
+    }
+
+    /** Secondes epoch du dernier appel observé */
+    public long getFinHistorique()
+    {
+        return finHistorique;
+    }
+
+    /** Résumé par service : volume hebdomadaire, durée moyenne, patience moyenne ; nombre de profils */
+    public String resume()
+    {
+        StringBuilder texte = new StringBuilder();
+        texte.append(String.format(Locale.US, "%-8s %12s %12s %14s%n", "Service", "Appels/sem.", "Durée moy.", "Patience moy."));
+        for (int s = 0; s < services.length; s++) {
+            double hebdo = Arrays.stream(tauxArrivee[s]).sum();
+            texte.append(String.format(Locale.US, "%-8s %12.0f %10.0f s %12s%n", services[s], hebdo, getDureeMoyenne(s),
+                    tauxPatience[s] > 0 ? String.format(Locale.US, "%.0f s", 1 / tauxPatience[s]) : "∞"));
+        }
+        double effectifMoyen = 0;
+        for (double[] effectif : effectifs) effectifMoyen += Arrays.stream(effectif).sum() / HEURES_SEMAINE;
+        texte.append(String.format(Locale.US, "%d profils de compétences, %.1f agents présents en moyenne",
+                servicesParProfil.length, effectifMoyen));
+        return texte.toString();
+    }
+}
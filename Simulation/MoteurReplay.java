@@ -1,150 +1,481 @@
 package Simulation;
 
+import Donnees.Trace;
 import Modele.ActiviteAgent;
-import Modele.EtatAgent;
+import Modele.ActivitesColonnaires;
 import Modele.Appel;
+import Modele.AppelsColonnaires;
+import Modele.Horodatage;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Moteur de simulation fidèle du centre d'appels VANAD,
  * reconstituant l'état du système à partir des événements passés (appels, activités d'agents).
  * Utilisé pour générer un jeu d'entraînement réaliste destiné à la prédiction du temps d'attente.
+ * Le moteur travaille en interne sur des dates en secondes epoch ; il peut être alimenté soit par
+ * des objets {@link Appel}, soit directement par un stockage colonnaire {@link AppelsColonnaires}.
  */
 public class MoteurReplay
 {
 
     private final String[] typesServices;
-    private final Map<String, Queue<Appel>> filesParService;
-    private final Map<Integer, EtatAgent> etatsParAgent;
-    private final Map<String, List<Double>> historiquesTempsAttente;
-    private final Map<String, List<Double>> historiquesTempsService;
-    private final List<ActiviteAgent> activitesChronologiques;
+    private final Map<String, Integer> indiceParService;
+    private final FileAppelsParEcheance[] filesParService;
+    private final HistoriqueGlissant[] historiquesTempsAttente;
+    private final HistoriqueGlissant[] historiquesTempsService;
+    private final ActivitesColonnaires activites;
+    private final int[] ordreActivites;
+    private final Iterator<ActiviteAgent> fluxActivites;
+    private ActiviteAgent activiteSuivante;
+    private long debutActiviteSuivante;
+    private long dernierDebutFlux = Long.MIN_VALUE;
+    private final AppelsColonnaires appelsColonnaires;
+    private int[] indiceParCodeService;
+    private int[] identifiantsAgents;
+    private int[][] servicesParAgent;
+    private IndexDisponibiliteAgents indexDisponibilite;
     private int indexActivite = 0;
+    private final int tailleHistorique;
+    private ReseauANN reseauANN;
+    private final double[] vecteurCaracteristiques = new double[EtatSysteme.NOMBRE_CARACTERISTIQUES];
+    private float[] tamponANN;
+    private int capturesAvantMesure = EvenementsJfr.PERIODE_CAPTURES;
+    private MetriquesReplay metriques;
 
-    private static final Set<Integer> CODES_DISPONIBILITE = Set.of(3, 16);
-    private static final Set<Integer> CODES_INDISPONIBILITE = Set.of(2, 7, 8, 35, 39, 40, 41, 42, 43, 44, 61, 71);
+    private static final Trace TRACE = Trace.pour("MoteurReplay");
+
+    /** Codes d'activité pris en compte : disponible après leur fin, indisponible jusqu'à leur fin */
+    static final Set<Integer> CODES_DISPONIBILITE = Set.of(3, 16);
+    static final Set<Integer> CODES_INDISPONIBILITE = Set.of(2, 7, 8, 35, 39, 40, 41, 42, 43, 44, 61, 71);
+
+    /** Taille par défaut de la fenêtre des historiques d'attente et de service */
+    public static final int TAILLE_HISTORIQUE_DEFAUT = 200;
 
     public MoteurReplay(String[] services, List<Appel> appels, List<ActiviteAgent> activites)
+    {
+        this(services, appels, activites, TAILLE_HISTORIQUE_DEFAUT);
+    }
+
+    /**
+     * @param tailleHistorique Nombre de durées récentes conservées par service pour les prédicteurs
+     */
+    public MoteurReplay(String[] services, List<Appel> appels, List<ActiviteAgent> activites, int tailleHistorique)
+    {
+        this(services, ActivitesColonnaires.depuis(activites), null, tailleHistorique, null);
+        initialiserAgentsDepuisAppels(appels);
+    }
+
+    public MoteurReplay(String[] services, AppelsColonnaires appels, ActivitesColonnaires activites)
+    {
+        this(services, appels, activites, TAILLE_HISTORIQUE_DEFAUT);
+    }
+
+    /**
+     * Moteur alimenté par des stockages colonnaires : les appels sont ensuite désignés par leur
+     * indice dans {@code appels} (cf. {@link #capturerEtatSysteme(int)}).
+     * Les stockages ne doivent plus être modifiés pendant le replay.
+     */
+    public MoteurReplay(String[] services, AppelsColonnaires appels, ActivitesColonnaires activites, int tailleHistorique)
+    {
+        this(services, activites, null, tailleHistorique, appels);
+        initialiserAgentsDepuisColonnes(appels);
+    }
+
+    /**
+     * Moteur en flux : les activités sont consommées au fil de l'eau depuis un itérateur trié par date
+     * de début, au rythme des appels capturés, sans être conservées. Les compétences des agents
+     * (services traités) doivent être connues à l'avance, par exemple via une première passe sur les appels.
+     *
+     * @param competencesAgents        Services traités par chaque agent
+     * @param activitesChronologiques  Activités triées par date de début croissante
+     */
+    public MoteurReplay(String[] services, Map<Integer, Set<String>> competencesAgents,
+                        Iterator<ActiviteAgent> activitesChronologiques, int tailleHistorique)
+    {
+        this(services, null, activitesChronologiques, tailleHistorique, null);
+        initialiserAgents(competencesAgents);
+    }
+
+    private MoteurReplay(String[] services, ActivitesColonnaires activites, Iterator<ActiviteAgent> fluxActivites,
+                         int tailleHistorique, AppelsColonnaires appelsColonnaires)
     {
         this.typesServices = services;
-        this.filesParService = new HashMap<>();
-        this.etatsParAgent = new HashMap<>();
-        this.historiquesTempsAttente = new HashMap<>();
-        this.historiquesTempsService = new HashMap<>();
-        this.activitesChronologiques = activites.stream()
-                .sorted(Comparator.comparing(ActiviteAgent::getDebutActivite))
-                .toList();
+        this.indiceParService = new HashMap<>();
+        this.filesParService = new FileAppelsParEcheance[services.length];
+        this.historiquesTempsAttente = new HistoriqueGlissant[services.length];
+        this.historiquesTempsService = new HistoriqueGlissant[services.length];
+        this.activites = activites;
+        this.ordreActivites = activites != null ? activites.ordreChronologique() : new int[0];
+        this.fluxActivites = fluxActivites;
+        this.appelsColonnaires = appelsColonnaires;
+        this.tailleHistorique = tailleHistorique;
+
+        for (int s = 0; s < services.length; s++) {
+            indiceParService.put(services[s], s);
+        }
+        initialiserFilesEtHistoriques();
+    }
 
-        for (String s : services) {
-            filesParService.put(s, new LinkedList<>());
-            historiquesTempsAttente.put(s, new ArrayList<>());
-            historiquesTempsService.put(s, new ArrayList<>());
+    /**
+     * Moteur vierge partageant les données, les compétences et les services d'un moteur existant
+     * (qui n'est pas modifié). Seules les activités débutant à partir de {@code debutActivites}
+     * seront appliquées ; {@code Long.MIN_VALUE} redonne le replay complet.
+     */
+    private MoteurReplay(MoteurReplay modele, long debutActivites)
+    {
+        if (modele.fluxActivites != null) {
+            throw new IllegalStateException("Un moteur en flux ne peut pas être dupliqué");
         }
+        this.typesServices = modele.typesServices;
+        this.indiceParService = modele.indiceParService;
+        this.filesParService = new FileAppelsParEcheance[typesServices.length];
+        this.historiquesTempsAttente = new HistoriqueGlissant[typesServices.length];
+        this.historiquesTempsService = new HistoriqueGlissant[typesServices.length];
+        this.activites = modele.activites;
+        this.ordreActivites = modele.ordreActivites;
+        this.fluxActivites = null;
+        this.appelsColonnaires = modele.appelsColonnaires;
+        this.indiceParCodeService = modele.indiceParCodeService;
+        this.identifiantsAgents = modele.identifiantsAgents;
+        this.servicesParAgent = modele.servicesParAgent;
+        this.indexDisponibilite = new IndexDisponibiliteAgents(indiceParService.size(), servicesParAgent);
+        this.tailleHistorique = modele.tailleHistorique;
+        utiliserReseauANN(modele.reseauANN);
+        this.indexActivite = premiereActiviteDepuis(debutActivites);
+        initialiserFilesEtHistoriques();
+    }
 
-        initialiserAgentsDepuisAppels(appels);
+    /**
+     * Nouveau moteur vide pour rejouer une tranche des mêmes données (un jour, par exemple),
+     * indépendant de celui-ci : il peut tourner sur un autre fil. Les activités antérieures à
+     * {@code debutActivites} sont ignorées ; les appels de préchauffage éventuels sont à enregistrer
+     * via {@link #enregistrerEvenementAppel(int)} avant la première capture.
+     */
+    public MoteurReplay moteurVierge(long debutActivites)
+    {
+        return new MoteurReplay(this, debutActivites);
+    }
+
+    /**
+     * Ajoute le réseau ANN comme troisième prédicteur (cf. {@link EtatSysteme#getEstimationANN()}),
+     * évalué sur les caractéristiques de chaque état capturé ; null le retire.
+     * Les moteurs créés ensuite par {@link #moteurVierge(long)} le partagent.
+     */
+    public void utiliserReseauANN(ReseauANN reseau)
+    {
+        this.reseauANN = reseau;
+        this.tamponANN = reseau == null ? null : new float[reseau.getNombreCachees()];
+    }
+
+    /**
+     * Publie dans {@code registre} les métriques du replay (cf. {@link MetriquesReplay}), mises à jour à chaque
+     * capture et à chaque appel enregistré ; null les désactive. Les moteurs créés par {@link #moteurVierge(long)}
+     * ne publient rien, leurs séries se confondraient avec celles de ce moteur.
+     *
+     * @throws IllegalArgumentException si les séries d'un autre moteur sont déjà enregistrées dans le registre
+     */
+    public void publierMetriques(RegistreMetriques registre)
+    {
+        this.metriques = registre == null ? null : new MetriquesReplay(registre, typesServices);
+    }
+
+    private void initialiserFilesEtHistoriques()
+    {
+        for (int s = 0; s < typesServices.length; s++) {
+            filesParService[s] = new FileAppelsParEcheance();
+            historiquesTempsAttente[s] = new HistoriqueGlissant(tailleHistorique);
+            historiquesTempsService[s] = new HistoriqueGlissant(tailleHistorique);
+        }
+    }
+
+    // === Rang de la première activité (ordre chronologique) débutant à partir de la date donnée ===
+    private int premiereActiviteDepuis(long instant)
+    {
+        int bas = 0;
+        int haut = ordreActivites.length;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (activites.getDebut(ordreActivites[milieu]) < instant) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
     }
 
     // === Initialise les compétences des agents à partir des appels historisés ===
     private void initialiserAgentsDepuisAppels(List<Appel> appels)
     {
-        Map<Integer, Set<String>> competencesAgents = appels.stream()
-                .filter(appel -> appel.getIdentifiantAgent() != null)
-                .collect(Collectors.groupingBy(
-                        Appel::getIdentifiantAgent,
-                        Collectors.mapping(Appel::getNomFileAttenteClient, Collectors.toSet())
-                ));
+        Map<Integer, Set<String>> competencesAgents = new HashMap<>();
+        for (Appel appel : appels) {
+            if (appel.getIdentifiantAgent() != null) {
+                competencesAgents.computeIfAbsent(appel.getIdentifiantAgent(), id -> new HashSet<>())
+                        .add(appel.getNomFileAttenteClient());
+            }
+        }
+        initialiserAgents(competencesAgents);
+    }
 
-        for (Map.Entry<Integer, Set<String>> entry : competencesAgents.entrySet()) {
-            etatsParAgent.put(entry.getKey(), new EtatAgent(entry.getValue()));
+    private void initialiserAgentsDepuisColonnes(AppelsColonnaires appels)
+    {
+        Map<Integer, Set<String>> competencesAgents = new HashMap<>();
+        for (int i = 0; i < appels.taille(); i++) {
+            if (appels.getAgent(i) != AppelsColonnaires.AUCUN) {
+                competencesAgents.computeIfAbsent(appels.getAgent(i), id -> new HashSet<>())
+                        .add(appels.getService(i));
+            }
         }
+        initialiserAgents(competencesAgents);
 
-        System.out.println("Agents initialisés : " + etatsParAgent.size());
+        indiceParCodeService = new int[appels.nombreServices()];
+        for (int code = 0; code < indiceParCodeService.length; code++) {
+            indiceParCodeService[code] = indiceService(appels.serviceDeCode(code));
+        }
+    }
+
+    private void initialiserAgents(Map<Integer, Set<String>> competencesAgents)
+    {
+        identifiantsAgents = competencesAgents.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        servicesParAgent = new int[identifiantsAgents.length][];
+
+        for (int position = 0; position < identifiantsAgents.length; position++) {
+            Set<String> services = competencesAgents.get(identifiantsAgents[position]);
+            int[] indices = new int[services.size()];
+            int k = 0;
+            for (String service : services) {
+                // Les compétences hors services suivis sont indexées à la suite des services principaux
+                indices[k++] = indiceParService.computeIfAbsent(service, nom -> indiceParService.size());
+            }
+            servicesParAgent[position] = indices;
+        }
+
+        indexDisponibilite = new IndexDisponibiliteAgents(indiceParService.size(), servicesParAgent);
+        System.out.println("Agents initialisés : " + identifiantsAgents.length);
     }
 
     // === Capture un snapshot de l'état du système au moment de réception d’un appel ===
     public EtatSysteme capturerEtatSysteme(Appel appel, LocalDateTime horodatage) {
         String file = appel.getNomFileAttenteClient();
+        return capturer(indiceService(file), file, Horodatage.enSecondes(horodatage), horodatage,
+                Horodatage.enSecondes(appel.getDateReceptionAppel()),
+                Horodatage.enSecondes(appel.getDateReponseAgent()), true);
+    }
 
-        mettreAJourEtatsAgents(horodatage);
-        purgerAppelsAnciennementTraites(horodatage);
+    /**
+     * État du système et prédictions pour un appel du service donné arrivant à {@code horodatage}, sans faire
+     * avancer le moteur : les activités pas encore appliquées sont ignorées et les files ne sont pas purgées,
+     * seuls les appels encore en attente à cet instant sont comptés. L'état partagé reste intact, quel que
+     * soit l'instant demandé ; il n'avance que par {@link #avancerJusqua} ou une capture.
+     */
+    public EtatSysteme estimerEtatSysteme(String service, LocalDateTime horodatage)
+    {
+        long instant = Horodatage.enSecondes(horodatage);
+        return capturer(indiceService(service), service, instant, horodatage, instant, Horodatage.ABSENT, false);
+    }
 
-        int filePrincipale = filesParService.getOrDefault(file, new LinkedList<>()).size();
-        int[] autresFiles = Arrays.stream(typesServices)
-                .filter(s -> !s.equals(file))
-                .mapToInt(s -> filesParService.getOrDefault(s, new LinkedList<>()).size())
-                .toArray();
-        autresFiles = ajusterTaille(autresFiles, 5);
+    /** Applique les activités débutées et retire des files les appels répondus avant {@code horodatage} */
+    public void avancerJusqua(LocalDateTime horodatage)
+    {
+        long instant = Horodatage.enSecondes(horodatage);
+        mettreAJourEtatsAgents(instant);
+        purgerAppelsAnciennementTraites(instant);
+    }
 
-        int agentsCompatibles = compterAgentsCompatibles(file, horodatage);
+    /**
+     * Capture l'état du système à la réception de l'appel d'indice donné
+     * (moteur construit sur un stockage colonnaire ; la date de réception doit être présente).
+     */
+    public EtatSysteme capturerEtatSysteme(int indiceAppel)
+    {
+        long reception = appelsColonnaires.getReception(indiceAppel);
+        return capturer(indiceServiceDeCode(appelsColonnaires.getCodeService(indiceAppel)),
+                appelsColonnaires.getService(indiceAppel), reception, Horodatage.versDateHeure(reception),
+                reception, appelsColonnaires.getReponse(indiceAppel), true);
+    }
+
+    /**
+     * @param avancer Applique les activités et purge les files jusqu'à {@code instant} avant la capture ;
+     *                sinon l'état n'est pas modifié et les files sont comptées à {@code instant}
+     */
+    private EtatSysteme capturer(int service, String file, long instant, LocalDateTime horodatage,
+                                 long reception, long reponse, boolean avancer)
+    {
+        EvenementsJfr.Capture mesure = null;
+        if (--capturesAvantMesure == 0) {
+            capturesAvantMesure = EvenementsJfr.PERIODE_CAPTURES;
+            mesure = new EvenementsJfr.Capture();
+            mesure.begin();
+        }
+        long debut = metriques != null ? System.nanoTime() : 0;
+
+        if (avancer) {
+            mettreAJourEtatsAgents(instant);
+            purgerAppelsAnciennementTraites(instant);
+        }
+
+        int filePrincipale = estServiceSuivi(service) ? tailleFile(filesParService[service], instant, avancer) : 0;
+        int[] autresFiles = new int[5];
+        for (int s = 0, k = 0; s < typesServices.length && k < autresFiles.length; s++) {
+            if (s != service) autresFiles[k++] = tailleFile(filesParService[s], instant, avancer);
+        }
+
+        int agentsCompatibles = compterAgentsCompatibles(service, instant);
 
         double attenteReelle = -1;
-        if (appel.getDateReceptionAppel() != null && appel.getDateReponseAgent() != null) {
-            attenteReelle = ChronoUnit.SECONDS.between(appel.getDateReceptionAppel(), appel.getDateReponseAgent());
+        if (reception != Horodatage.ABSENT && reponse != Horodatage.ABSENT) {
+            attenteReelle = reponse - reception;
         }
 
         EtatSysteme etat = new EtatSysteme(file, filePrincipale, autresFiles, horodatage, Math.max(1, agentsCompatibles));
         etat.setDelaiAttenteObserve(attenteReelle);
 
-        calculerPredicteurs(etat, file);
+        calculerPredicteurs(etat, service);
+        if (mesure != null && mesure.shouldCommit()) {
+            enregistrerMesure(mesure, service, file, filePrincipale, agentsCompatibles);
+        }
+        if (metriques != null) {
+            metriques.capture(service, etat, agentsCompatibles, System.nanoTime() - debut);
+        }
+
+        if (Trace.actif(Trace.Niveau.DETAIL)) {
+            TRACE.detail("Appel %s service %s : file=%d autres=%s agents=%d attente=%.0f s LES=%.1f AvgLES=%.1f ANN=%.1f",
+                    horodatage, file, filePrincipale, Arrays.toString(autresFiles), etat.getNombreAgentsLibres(),
+                    attenteReelle, etat.getEstimationLES(), etat.getEstimationLESMoyenne(), etat.getEstimationANN());
+        }
 
         return etat;
     }
 
-    // === Réduit ou complète un tableau à une taille fixe ===
-    private int[] ajusterTaille(int[] tableau, int tailleFixe)
+    private void enregistrerMesure(EvenementsJfr.Capture mesure, int service, String file, int filePrincipale,
+                                   int agentsCompatibles)
+    {
+        int filesTotal = 0;
+        for (FileAppelsParEcheance f : filesParService) filesTotal += f.taille();
+        mesure.service = file;
+        mesure.fileService = filePrincipale;
+        mesure.filesTotal = filesTotal;
+        mesure.agentsDisponibles = agentsCompatibles;
+        mesure.agentsConnus = identifiantsAgents.length;
+        if (estServiceSuivi(service)) {
+            mesure.historiqueAttentes = historiquesTempsAttente[service].taille();
+            mesure.historiqueServices = historiquesTempsService[service].taille();
+        }
+        mesure.commit();
+    }
+
+    // === Indice interne d'un service (-1 si aucun appel ni agent ne le concerne) ===
+    private int indiceService(String service)
     {
-        int[] resultat = new int[tailleFixe];
-        int min = Math.min(tableau.length, tailleFixe);
-        System.arraycopy(tableau, 0, resultat, 0, min);
-        return resultat;
+        Integer indice = indiceParService.get(service);
+        return indice == null ? -1 : indice;
+    }
+
+    private int indiceServiceDeCode(int code)
+    {
+        return code == AppelsColonnaires.AUCUN
+                ? indiceService(null)
+                : indiceParCodeService[code];
+    }
+
+    // === Taille d'une file à l'instant donné, purgée jusqu'à cet instant ou non ===
+    private static int tailleFile(FileAppelsParEcheance file, long instant, boolean purgee)
+    {
+        return purgee ? file.taille() : file.tailleA(instant);
+    }
+
+    private boolean estServiceSuivi(int service)
+    {
+        return service >= 0 && service < typesServices.length;
     }
 
     // === Retire les appels qui ont déjà été traités à la date courante ===
-    private void purgerAppelsAnciennementTraites(LocalDateTime horodatage)
+    private void purgerAppelsAnciennementTraites(long horodatage)
     {
-        for (String s : typesServices) {
-            Queue<Appel> file = filesParService.get(s);
-            file.removeIf(a -> a.getDateReponseAgent() != null && a.getDateReponseAgent().isBefore(horodatage));
+        for (FileAppelsParEcheance file : filesParService) {
+            file.purgerAvant(horodatage);
         }
     }
 
     // === Applique les changements d’état des agents jusqu’au moment courant ===
-    private void mettreAJourEtatsAgents(LocalDateTime maintenant)
-    {
-        while (indexActivite < activitesChronologiques.size() &&
-                !activitesChronologiques.get(indexActivite).getDebutActivite().isAfter(maintenant)) {
-
-            ActiviteAgent act = activitesChronologiques.get(indexActivite);
-            Integer agentId = act.getIdAgent();
-            if (agentId != null && etatsParAgent.containsKey(agentId)) {
-                EtatAgent etat = etatsParAgent.get(agentId);
-                if (CODES_DISPONIBILITE.contains(act.obtenirIdActiviteInt())) {
-                    etat.setDispoApres(act.getFinActivite());
-                } else if (CODES_INDISPONIBILITE.contains(act.obtenirIdActiviteInt())) {
-                    etat.setIndispoAvant(act.getFinActivite());
+    private void mettreAJourEtatsAgents(long maintenant)
+    {
+        if (fluxActivites != null) {
+            consommerFluxActivites(maintenant);
+            return;
+        }
+
+        while (indexActivite < ordreActivites.length &&
+                activites.getDebut(ordreActivites[indexActivite]) <= maintenant) {
+
+            int act = ordreActivites[indexActivite];
+            appliquerActivite(activites.getIdAgent(act), activites.getCodeActivite(act), activites.getFin(act));
+            indexActivite++;
+        }
+    }
+
+    // === Variante en flux : consomme les activités dont le début est atteint ===
+    private void consommerFluxActivites(long maintenant)
+    {
+        while (true) {
+            if (activiteSuivante == null) {
+                if (!fluxActivites.hasNext()) return;
+                activiteSuivante = fluxActivites.next();
+                debutActiviteSuivante = Horodatage.enSecondes(activiteSuivante.getDebutActivite());
+                if (debutActiviteSuivante == Horodatage.ABSENT) {
+                    activiteSuivante = null;
+                    continue;
                 }
+                if (debutActiviteSuivante < dernierDebutFlux) {
+                    throw new IllegalStateException("Flux d'activités non trié par date de début : " + activiteSuivante);
+                }
+                dernierDebutFlux = debutActiviteSuivante;
             }
-            indexActivite++;
+            if (debutActiviteSuivante > maintenant) return;
+
+            Integer agent = activiteSuivante.getIdAgent();
+            Long id = activiteSuivante.getIdActivite();
+            appliquerActivite(agent == null ? AppelsColonnaires.AUCUN : agent,
+                    (id == null || id != id.intValue()) ? ActivitesColonnaires.AUCUN : id.intValue(),
+                    Horodatage.enSecondes(activiteSuivante.getFinActivite()));
+            activiteSuivante = null;
         }
     }
 
+    // === Applique une activité à l'agent concerné selon son code ===
+    private void appliquerActivite(int identifiantAgent, int code, long fin)
+    {
+        int position = positionAgent(identifiantAgent);
+        if (position < 0 || fin == Horodatage.ABSENT) return;
+
+        if (CODES_DISPONIBILITE.contains(code)) {
+            indexDisponibilite.definirDispoApres(position, fin);
+        } else if (CODES_INDISPONIBILITE.contains(code)) {
+            indexDisponibilite.definirIndispoAvant(position, fin);
+        }
+    }
+
+    // === Position d'un agent dans l'index (-1 si inconnu) ===
+    private int positionAgent(int identifiantAgent)
+    {
+        if (identifiantAgent == AppelsColonnaires.AUCUN) return -1;
+        int position = Arrays.binarySearch(identifiantsAgents, identifiantAgent);
+        return position >= 0 ? position : -1;
+    }
+
     // === Nombre d’agents pouvant prendre un appel d’un service donné à une date donnée ===
-    private int compterAgentsCompatibles(String file, LocalDateTime temps)
+    private int compterAgentsCompatibles(int service, long temps)
     {
-        return (int) etatsParAgent.values().stream()
-                .filter(agent -> agent.accepteService(file))
-                .filter(agent -> agent.estDisponible(temps))
-                .count();
+        return service < 0 ? 0 : indexDisponibilite.compterDisponibles(service, temps);
     }
 
-    // === Calcule les prédicteurs LES et Avg-LES pour l’état courant ===
-    private void calculerPredicteurs(EtatSysteme etat, String file)
+    // === Calcule les prédicteurs LES, Avg-LES et, si un réseau est chargé, ANN pour l’état courant ===
+    private void calculerPredicteurs(EtatSysteme etat, int service)
     {
-        double tempsMoyenService = calculerMoyenne(historiquesTempsService.get(file), 180.0);
+        boolean suivi = estServiceSuivi(service);
+        double tempsMoyenService = suivi ? historiquesTempsService[service].moyenne(180.0) : 180.0;
         int nbAgents = Math.max(1, etat.getNombreAgentsLibres());
 
         double predLes;
@@ -155,60 +486,73 @@ public class MoteurReplay
             predLes = (positionMoy * tempsMoyenService) / nbAgents;
         }
 
-        double moyenneAttenteRecente = calculerMoyenne(historiquesTempsAttente.get(file), 60.0);
+        double moyenneAttenteRecente = suivi ? historiquesTempsAttente[service].moyenne(60.0) : 60.0;
         double facteurCharge = (double) etat.getTailleFilePrincipale() / nbAgents;
         double predAvgLes = moyenneAttenteRecente * (1 + facteurCharge * 0.1);
 
         etat.setEstimationLES(predLes);
         etat.setEstimationLESMoyenne(predAvgLes);
+
+        if (reseauANN != null) {
+            etat.remplirVecteurCaracteristiques(vecteurCaracteristiques);
+            etat.setEstimationANN(reseauANN.predire(vecteurCaracteristiques, tamponANN));
+        }
     }
 
     // === Enregistre un appel dans la file de son service et met à jour l'état de l’agent ===
     public void enregistrerEvenementAppel(Appel appel)
     {
         String file = appel.getNomFileAttenteClient();
-        LocalDateTime reponse = appel.getDateReponseAgent();
+        Integer agent = appel.getIdentifiantAgent();
+        enregistrer(indiceService(file), file, agent == null ? AppelsColonnaires.AUCUN : agent,
+                Horodatage.enSecondes(appel.getDateReceptionAppel()),
+                Horodatage.enSecondes(appel.getDateReponseAgent()),
+                Horodatage.enSecondes(appel.getDateRaccrochage()));
+    }
+
+    /**
+     * Enregistre l'appel d'indice donné (moteur construit sur un stockage colonnaire).
+     */
+    public void enregistrerEvenementAppel(int indiceAppel)
+    {
+        enregistrer(indiceServiceDeCode(appelsColonnaires.getCodeService(indiceAppel)),
+                appelsColonnaires.getService(indiceAppel),
+                appelsColonnaires.getAgent(indiceAppel),
+                appelsColonnaires.getReception(indiceAppel),
+                appelsColonnaires.getReponse(indiceAppel),
+                appelsColonnaires.getRaccrochage(indiceAppel));
+    }
+
+    private void enregistrer(int service, String file, int agent, long reception, long reponse, long raccrochage)
+    {
+        if (!estServiceSuivi(service)) {
+            throw new IllegalArgumentException("Service non suivi par le moteur : " + file);
+        }
 
-        filesParService.get(file).offer(appel);
+        filesParService[service].ajouter(reponse);
 
-        if (appel.getIdentifiantAgent() != null && reponse != null) {
-            EtatAgent agent = etatsParAgent.get(appel.getIdentifiantAgent());
-            if (agent != null) {
-                agent.setOccupeJusquA(appel.getDateRaccrochage());
+        if (agent != AppelsColonnaires.AUCUN && reponse != Horodatage.ABSENT) {
+            int position = positionAgent(agent);
+            if (position >= 0 && raccrochage != Horodatage.ABSENT) {
+                indexDisponibilite.definirOccupeJusquA(position, raccrochage);
             }
 
-            collecterStatistiques(appel, file);
+            collecterStatistiques(service, reception, reponse, raccrochage);
         }
+        if (metriques != null) metriques.appelEnregistre();
     }
 
     // === Stocke les durées d’attente et de service dans l’historique ===
-    private void collecterStatistiques(Appel appel, String file)
+    private void collecterStatistiques(int service, long reception, long reponse, long raccrochage)
     {
-        if (appel.getDateReceptionAppel() != null && appel.getDateReponseAgent() != null)
+        if (reception != Horodatage.ABSENT)
         {
-            double attente = ChronoUnit.SECONDS.between(appel.getDateReceptionAppel(), appel.getDateReponseAgent());
-            enregistrerDansHistorique(historiquesTempsAttente.get(file), attente, 200);
+            historiquesTempsAttente[service].ajouter(reponse - reception);
         }
 
-        if (appel.getDateReponseAgent() != null && appel.getDateRaccrochage() != null)
+        if (raccrochage != Horodatage.ABSENT)
         {
-            double service = ChronoUnit.SECONDS.between(appel.getDateReponseAgent(), appel.getDateRaccrochage());
-            enregistrerDansHistorique(historiquesTempsService.get(file), service, 200);
+            historiquesTempsService[service].ajouter(raccrochage - reponse);
         }
     }
-
-    // === Ajoute une valeur à l'historique, avec limite de taille ===
-    private void enregistrerDansHistorique(List<Double> liste, double valeur, int limite)
-    {
-        liste.add(valeur);
-        if (liste.size() > limite) liste.remove(0);
-    }
-
-    // === Moyenne d’une liste de valeurs, ou valeur par défaut si vide ===
-    private double calculerMoyenne(List<Double> liste, double valeurParDefaut)
-    {
-        return (liste == null || liste.isEmpty())
-                ? valeurParDefaut
-                : liste.stream().mapToDouble(Double::doubleValue).average().orElse(valeurParDefaut);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,372 @@
+package Simulation;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import Modele.Horodatage;
+
+/**
+ * Recherche par simulation (Monte-Carlo) des effectifs minimaux par heure, profil de compétences compris,
+ * respectant un niveau de service et une attente moyenne cibles.
+ * <p>
+ * Le plan part d'une borne basse, la charge offerte de chaque heure ({@code taux × durée moyenne}) portée par
+ * le profil le plus spécialisé de chaque service. À chaque itération, {@code replications} simulations
+ * indépendantes de la période ({@link SimulationGenerative}, précédée de quelques heures de préparation)
+ * sont exécutées en parallèle sur un pool fork-join (vol de tâches) ; chaque heure qui manque une cible reçoit
+ * un agent de plus, dans le profil le plus spécialisé de son service le moins bien servi, jusqu'à ce que
+ * toutes les heures respectent les cibles.
+ * <p>
+ * Ces ajouts ne font que monter, et un agent ajouté tôt peut devenir superflu une fois les heures voisines
+ * renforcées. Une passe de retrait suit donc : profil par profil et heure par heure, un agent est retiré et
+ * le plan allégé est simulé sur les mêmes scénarios ; le retrait est conservé si toutes les heures respectent
+ * encore les cibles, et l'heure est allégée de nouveau, sinon il est annulé. Le retrait est vérifié sur toute
+ * la période, car il déplace aussi les heures voisines : la file reportée pèse sur les heures suivantes, et
+ * les tirages consommés autrement décalent les scénarios des autres heures. Les évaluations des deux phases
+ * partagent la limite de {@value #ITERATIONS_MAX}, au-delà de laquelle les heures restantes ne sont pas
+ * allégées. Le plan retenu respecte toujours les cibles, sauf si la phase d'ajout n'y parvient pas. C'est un
+ * minimum local (retraits un à un, dans l'ordre des heures), pas un optimum global.
+ * <p>
+ * Les flux de tirages des réplications sont découpés ({@link SplittableRandom#split()}) dans l'ordre
+ * depuis la graine, et les mêmes flux sont repris à chaque itération (nombres aléatoires communs) : les plans
+ * successifs sont comparés sur les mêmes scénarios, et le résultat ne dépend pas du nombre de fils.
+ */
+public class OptimiseurEffectifs
+{
+
+    private static final int ITERATIONS_MAX = 200;
+    private static final int HEURES_PREPARATION = 6;
+    private static final String[] JOURS = {"lun.", "mar.", "mer.", "jeu.", "ven.", "sam.", "dim."};
+
+    private final ModeleCharge modele;
+    private final double facteurCharge;
+    private final double niveauServiceCible;
+    private final double attenteMoyenneCible;
+    private final int replications;
+    private final int parallelisme;
+
+    /**
+     * @param niveauServiceCible  Part minimale des appels servis en moins de
+     *                            {@link SimulationGenerative#SEUIL_NIVEAU_SERVICE_SECONDES} (0.8 : 80 %)
+     * @param attenteMoyenneCible Attente moyenne maximale des appels servis, en secondes
+     * @param replications        Simulations par plan évalué
+     * @param parallelisme        Fils du pool de simulation
+     */
+    public OptimiseurEffectifs(ModeleCharge modele, double facteurCharge, double niveauServiceCible,
+                               double attenteMoyenneCible, int replications, int parallelisme)
+    {
+        if (replications < 1) throw new IllegalArgumentException("Nombre de réplications invalide : " + replications);
+        this.modele = modele;
+        this.facteurCharge = facteurCharge;
+        this.niveauServiceCible = niveauServiceCible;
+        this.attenteMoyenneCible = attenteMoyenneCible;
+        this.replications = replications;
+        this.parallelisme = Math.max(1, parallelisme);
+    }
+
+    /**
+     * Optimise les heures de la semaine {@code [premiereHeure, premiereHeure + nombreHeures)}
+     * (0 = lundi 0 h ; 24 heures pour une journée, 168 pour la semaine). Les autres heures gardent
+     * l'effectif historique, arrondi au-dessus.
+     */
+    public Plan optimiser(int premiereHeure, int nombreHeures, long graine) throws InterruptedException
+    {
+        if (premiereHeure < 0 || nombreHeures < 1 || premiereHeure + nombreHeures > ModeleCharge.HEURES_SEMAINE) {
+            throw new IllegalArgumentException("Période invalide : heures " + premiereHeure + " à "
+                    + (premiereHeure + nombreHeures - 1) + " de la semaine");
+        }
+        // Semaine simulée : la première semaine complète après l'historique
+        LocalDateTime lundi = Horodatage.date(modele.getFinHistorique())
+                .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay();
+        LocalDateTime debut = lundi.plusHours(premiereHeure);
+        // Une heure de plus pour que les appels de la dernière heure aient le temps d'être servis
+        int heuresSimulees = nombreHeures + 1;
+        int finHeures = premiereHeure + nombreHeures;
+
+        int[][] plan = planInitial(premiereHeure, nombreHeures);
+        long depart = System.nanoTime();
+        Mesures mesures;
+        int iterations = 0;
+        try (ForkJoinPool pool = new ForkJoinPool(parallelisme)) {
+            while (true) {
+                mesures = simuler(pool, plan, debut, heuresSimulees, graine);
+                iterations++;
+                boolean modifie = false;
+                for (int h = premiereHeure; h < finHeures; h++) {
+                    if (mesures.respecteCibles(h)) continue;
+                    int service = mesures.serviceLeMoinsBienServi(h);
+                    int[] profils = modele.getProfilsService(service);
+                    if (profils.length == 0) continue;
+                    plan[profils[0]][h]++;
+                    modifie = true;
+                }
+                if (!modifie || iterations == ITERATIONS_MAX) break;
+            }
+
+            // Passe de retrait, seulement depuis un plan qui respecte les cibles
+            for (int p = 0; p < plan.length && mesures.respecteCibles(premiereHeure, finHeures); p++) {
+                for (int h = premiereHeure; h < finHeures; h++) {
+                    while (plan[p][h] > 0 && iterations < ITERATIONS_MAX) {
+                        plan[p][h]--;
+                        Mesures essai = simuler(pool, plan, debut, heuresSimulees, graine);
+                        iterations++;
+                        if (!essai.respecteCibles(premiereHeure, finHeures)) {
+                            plan[p][h]++;
+                            break;
+                        }
+                        mesures = essai;
+                    }
+                }
+            }
+        }
+        return new Plan(plan, premiereHeure, nombreHeures, mesures, iterations, System.nanoTime() - depart);
+    }
+
+    // === Borne basse : charge offerte (Erlang) de chaque service, portée par son profil le plus spécialisé ===
+    private int[][] planInitial(int premiereHeure, int nombreHeures)
+    {
+        int[][] plan = new int[modele.nombreProfils()][ModeleCharge.HEURES_SEMAINE];
+        for (int h = 0; h < ModeleCharge.HEURES_SEMAINE; h++) {
+            boolean optimisee = h >= premiereHeure && h < premiereHeure + nombreHeures;
+            double[] charge = new double[modele.nombreProfils()];
+            if (optimisee) {
+                for (int s = 0; s < modele.nombreServices(); s++) {
+                    int[] profils = modele.getProfilsService(s);
+                    if (profils.length == 0) continue;
+                    charge[profils[0]] += modele.getTauxArrivee(s, h) * facteurCharge * modele.getDureeMoyenne(s) / 3600;
+                }
+            }
+            for (int p = 0; p < plan.length; p++) {
+                plan[p][h] = (int) Math.ceil(optimisee ? charge[p] : modele.getEffectif(p, h));
+            }
+        }
+        return plan;
+    }
+
+    // === Réplications parallèles d'un plan, cumulées dans l'ordre des réplications ===
+    private Mesures simuler(ForkJoinPool pool, int[][] plan, LocalDateTime debut, int heures, long graine)
+            throws InterruptedException
+    {
+        SplittableRandom racine = new SplittableRandom(graine);
+        List<Callable<SimulationGenerative.Resultats>> taches = new ArrayList<>(replications);
+        for (int r = 0; r < replications; r++) {
+            SplittableRandom alea = racine.split();
+            taches.add(() -> new SimulationGenerative(modele, facteurCharge, plan)
+                    .executer(debut, HEURES_PREPARATION, heures, alea));
+        }
+
+        Mesures mesures = new Mesures(modele.nombreServices());
+        for (Future<SimulationGenerative.Resultats> resultat : pool.invokeAll(taches)) {
+            try {
+                mesures.cumuler(resultat.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Échec d'une réplication", e.getCause());
+            }
+        }
+        return mesures;
+    }
+
+    /**
+     * Indicateurs cumulés sur les réplications, par service et par heure de la semaine ; le niveau de service
+     * de chaque heure est aussi suivi réplication par réplication pour son intervalle de confiance.
+     */
+    private final class Mesures
+    {
+        final long[][] offerts;
+        final long[][] servis;
+        final long[][] dansLeDelai;
+        final long[][] attente;           // ms
+        final double[] sommeNiveaux = new double[ModeleCharge.HEURES_SEMAINE];
+        final double[] sommeCarres = new double[ModeleCharge.HEURES_SEMAINE];
+        final int[] replicationsAvecAppels = new int[ModeleCharge.HEURES_SEMAINE];
+
+        Mesures(int services)
+        {
+            offerts = new long[services][ModeleCharge.HEURES_SEMAINE];
+            servis = new long[services][ModeleCharge.HEURES_SEMAINE];
+            dansLeDelai = new long[services][ModeleCharge.HEURES_SEMAINE];
+            attente = new long[services][ModeleCharge.HEURES_SEMAINE];
+        }
+
+        void cumuler(SimulationGenerative.Resultats resultats)
+        {
+            for (int s = 0; s < offerts.length; s++) {
+                for (int h = 0; h < ModeleCharge.HEURES_SEMAINE; h++) {
+                    offerts[s][h] += resultats.offertsHeure[s][h];
+                    servis[s][h] += resultats.servisHeure[s][h];
+                    dansLeDelai[s][h] += resultats.servisDansLeDelaiHeure[s][h];
+                    attente[s][h] += resultats.attenteCumuleeHeure[s][h];
+                }
+            }
+            for (int h = 0; h < ModeleCharge.HEURES_SEMAINE; h++) {
+                if (resultats.getOffertsHeure(h) == 0) continue;
+                double niveau = resultats.getNiveauServiceHeure(h);
+                sommeNiveaux[h] += niveau;
+                sommeCarres[h] += niveau * niveau;
+                replicationsAvecAppels[h]++;
+            }
+        }
+
+        long offerts(int h)
+        {
+            long total = 0;
+            for (long[] o : offerts) total += o[h];
+            return total;
+        }
+
+        double niveauService(int h)
+        {
+            long total = offerts(h);
+            long delai = 0;
+            for (long[] d : dansLeDelai) delai += d[h];
+            return total == 0 ? 1.0 : (double) delai / total;
+        }
+
+        double attenteMoyenne(int h)
+        {
+            long nombre = 0;
+            long cumul = 0;
+            for (int s = 0; s < servis.length; s++) {
+                nombre += servis[s][h];
+                cumul += attente[s][h];
+            }
+            return nombre == 0 ? 0.0 : cumul / 1000.0 / nombre;
+        }
+
+        /** Demi-largeur de l'intervalle de confiance à 95 % du niveau de service de l'heure */
+        double demiLargeurNiveau(int h)
+        {
+            int n = replicationsAvecAppels[h];
+            if (n < 2) return 0.0;
+            double moyenne = sommeNiveaux[h] / n;
+            double variance = Math.max(0.0, (sommeCarres[h] - n * moyenne * moyenne) / (n - 1));
+            return 1.96 * Math.sqrt(variance / n);
+        }
+
+        boolean respecteCibles(int h)
+        {
+            return niveauService(h) >= niveauServiceCible && attenteMoyenne(h) <= attenteMoyenneCible;
+        }
+
+        boolean respecteCibles(int premiereHeure, int finHeures)
+        {
+            for (int h = premiereHeure; h < finHeures; h++) {
+                if (!respecteCibles(h)) return false;
+            }
+            return true;
+        }
+
+        int serviceLeMoinsBienServi(int h)
+        {
+            int pire = -1;
+            double niveauPire = Double.MAX_VALUE;
+            for (int s = 0; s < offerts.length; s++) {
+                if (offerts[s][h] == 0) continue;
+                double niveau = (double) dansLeDelai[s][h] / offerts[s][h];
+                if (niveau < niveauPire) {
+                    niveauPire = niveau;
+                    pire = s;
+                }
+            }
+            return pire;
+        }
+    }
+
+    /**
+     * Plan d'effectifs retenu et indicateurs simulés de chaque heure optimisée.
+     */
+    public final class Plan
+    {
+        private final int[][] effectifs;
+        private final int premiereHeure;
+        private final int nombreHeures;
+        private final Mesures mesures;
+        private final int iterations;
+        private final long dureeNanos;
+
+        private Plan(int[][] effectifs, int premiereHeure, int nombreHeures, Mesures mesures, int iterations,
+                     long dureeNanos)
+        {
+            this.effectifs = effectifs;
+            this.premiereHeure = premiereHeure;
+            this.nombreHeures = nombreHeures;
+            this.mesures = mesures;
+            this.iterations = iterations;
+            this.dureeNanos = dureeNanos;
+        }
+
+        /** Agents du profil en poste à l'heure de la semaine donnée */
+        public int getEffectif(int profil, int heureSemaine)
+        {
+            return effectifs[profil][heureSemaine];
+        }
+
+        /** Plan complet {@code [profil][heure de la semaine]}, utilisable par {@link SimulationGenerative} */
+        public int[][] getEffectifs()
+        {
+            int[][] copie = new int[effectifs.length][];
+            for (int p = 0; p < effectifs.length; p++) copie[p] = effectifs[p].clone();
+            return copie;
+        }
+
+        public double getNiveauService(int heureSemaine)
+        {
+            return mesures.niveauService(heureSemaine);
+        }
+
+        public double getAttenteMoyenne(int heureSemaine)
+        {
+            return mesures.attenteMoyenne(heureSemaine);
+        }
+
+        /** Vrai si toutes les heures optimisées respectent les cibles */
+        public boolean respecteCibles()
+        {
+            return mesures.respecteCibles(premiereHeure, premiereHeure + nombreHeures);
+        }
+
+        public int getIterations()
+        {
+            return iterations;
+        }
+
+        public String resume()
+        {
+            StringBuilder texte = new StringBuilder();
+            texte.append(String.format(Locale.US, "Cibles : NS %.0f s >= %.1f %%, attente moyenne <= %.1f s, charge × %.2f%n",
+                    SimulationGenerative.SEUIL_NIVEAU_SERVICE_SECONDES, 100 * niveauServiceCible,
+                    attenteMoyenneCible, facteurCharge));
+            texte.append(String.format(Locale.US, "%-10s %7s %-16s %11s %18s %12s%n",
+                    "Heure", "Agents", "par profil", "Appels/rép.", "NS (IC 95 %)", "Attente moy."));
+            long agentsHeures = 0;
+            for (int h = premiereHeure; h < premiereHeure + nombreHeures; h++) {
+                int total = 0;
+                StringBuilder parProfil = new StringBuilder();
+                for (int p = 0; p < effectifs.length; p++) {
+                    total += effectifs[p][h];
+                    if (p > 0) parProfil.append('/');
+                    parProfil.append(effectifs[p][h]);
+                }
+                agentsHeures += total;
+                texte.append(String.format(Locale.US, "%-10s %7d %-16s %11.1f %9.1f %% ± %4.1f %10.1f s%s%n",
+                        JOURS[h / 24] + String.format(" %02d h", h % 24), total, parProfil,
+                        (double) mesures.offerts(h) / replications, 100 * mesures.niveauService(h),
+                        100 * mesures.demiLargeurNiveau(h), mesures.attenteMoyenne(h),
+                        mesures.respecteCibles(h) ? "" : "  (cible manquée)"));
+            }
+            texte.append(String.format(Locale.US,
+                    "%d heures-agents ; %d itérations × %d réplications en %.1f s (%d fils, %.0f réplications/s)",
+                    agentsHeures, iterations, replications, dureeNanos / 1e9, parallelisme,
+                    (double) iterations * replications / (dureeNanos / 1e9)));
+            return texte.toString();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package Simulation;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination des échantillons d'entraînement retenus, alimentée au fil du replay
+ * (fichier CSV, colonnes binaires…). Les échantillons arrivent dans l'ordre chronologique.
+ */
+public interface PuitsEchantillons extends Closeable
+{
+
+    void ecrire(EtatSysteme etat) throws IOException;
+
+    /** Puits qui transmet chaque échantillon aux deux puits donnés, puis les ferme tous les deux */
+    static PuitsEchantillons combiner(PuitsEchantillons premier, PuitsEchantillons second)
+    {
+        return new PuitsEchantillons()
+        {
+            @Override
+            public void ecrire(EtatSysteme etat) throws IOException
+            {
+                premier.ecrire(etat);
+                second.ecrire(etat);
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                try (second) {
+                    premier.close();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,198 @@
+package Simulation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Registre de métriques en mémoire, exposé au format texte de Prometheus (cf. {@link ServeurMetriques}) :
+ * compteurs, jauges et histogrammes de latences ({@link HistogrammeLatences}, exposés comme résumés
+ * à quantiles, en secondes). Chaque série est identifiée par un nom et des étiquettes fixées à
+ * l'enregistrement ; les mises à jour passent ensuite directement par l'objet retourné, sans verrou,
+ * sans recherche par nom et sans allocation. Seuls l'enregistrement et l'exposition prennent le verrou du registre.
+ */
+public class RegistreMetriques
+{
+
+    private static final Pattern NOM_VALIDE = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern ETIQUETTE_VALIDE = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, Famille> familles = new LinkedHashMap<>();
+
+    /** Séries d'un même nom : même type, même aide, étiquettes différentes */
+    private record Famille(String type, String aide, List<Serie> series) {}
+
+    private record Serie(String etiquettes, Object metrique) {}
+
+    /** Compteur monotone, incrémentable depuis un grand nombre de fils */
+    public static final class Compteur
+    {
+        private final LongAdder valeur = new LongAdder();
+
+        public void incrementer()
+        {
+            valeur.increment();
+        }
+
+        public void ajouter(long n)
+        {
+            valeur.add(n);
+        }
+
+        public long valeur()
+        {
+            return valeur.sum();
+        }
+    }
+
+    /** Valeur instantanée, dernière écriture gagnante (NaN tant qu'elle n'a pas été définie) */
+    public static final class Jauge
+    {
+        private volatile double valeur = Double.NaN;
+
+        public void definir(double valeur)
+        {
+            this.valeur = valeur;
+        }
+
+        public double valeur()
+        {
+            return valeur;
+        }
+    }
+
+    // === Création et enregistrement des séries ===
+
+    /**
+     * @param nom         Nom Prometheus, suffixé par {@code _total} par convention
+     * @param etiquettes  Paires nom, valeur ({@code "service", "30175"})
+     */
+    public Compteur compteur(String nom, String aide, String... etiquettes)
+    {
+        Compteur compteur = new Compteur();
+        publier(nom, aide, compteur, etiquettes);
+        return compteur;
+    }
+
+    public Jauge jauge(String nom, String aide, String... etiquettes)
+    {
+        Jauge jauge = new Jauge();
+        ajouter(nom, "gauge", aide, jauge, etiquettes);
+        return jauge;
+    }
+
+    /** Histogramme de durées en nanosecondes, exposé en secondes ({@code nom} devrait finir par {@code _secondes}) */
+    public HistogrammeLatences histogramme(String nom, String aide, String... etiquettes)
+    {
+        HistogrammeLatences histogramme = new HistogrammeLatences();
+        publier(nom, aide, histogramme, etiquettes);
+        return histogramme;
+    }
+
+    /** Expose un compteur déjà tenu par ailleurs */
+    public void publier(String nom, String aide, Compteur compteur, String... etiquettes)
+    {
+        ajouter(nom, "counter", aide, compteur, etiquettes);
+    }
+
+    /** Expose un histogramme déjà alimenté par ailleurs (latences d'un serveur, par exemple) */
+    public void publier(String nom, String aide, HistogrammeLatences histogramme, String... etiquettes)
+    {
+        ajouter(nom, "summary", aide, histogramme, etiquettes);
+    }
+
+    /**
+     * @throws IllegalArgumentException si le nom ou les étiquettes sont invalides, si le nom est déjà
+     *                                  enregistré avec un autre type, ou si la série existe déjà
+     */
+    private synchronized void ajouter(String nom, String type, String aide, Object metrique, String[] etiquettes)
+    {
+        if (!NOM_VALIDE.matcher(nom).matches()) {
+            throw new IllegalArgumentException("Nom de métrique invalide : " + nom);
+        }
+        String cle = formaterEtiquettes(etiquettes);
+        Famille famille = familles.computeIfAbsent(nom, n -> new Famille(type, aide, new ArrayList<>()));
+        if (!famille.type().equals(type)) {
+            throw new IllegalArgumentException("Métrique " + nom + " déjà enregistrée comme " + famille.type());
+        }
+        for (Serie serie : famille.series()) {
+            if (serie.etiquettes().equals(cle)) {
+                throw new IllegalArgumentException("Série déjà enregistrée : " + nom + cle);
+            }
+        }
+        famille.series().add(new Serie(cle, metrique));
+    }
+
+    // === Étiquettes au format {cle="valeur",…}, chaîne vide si aucune ===
+    private static String formaterEtiquettes(String[] etiquettes)
+    {
+        if (etiquettes.length % 2 != 0) {
+            throw new IllegalArgumentException("Étiquettes attendues par paires nom, valeur : " + etiquettes.length);
+        }
+        if (etiquettes.length == 0) return "";
+        StringBuilder texte = new StringBuilder("{");
+        for (int i = 0; i < etiquettes.length; i += 2) {
+            if (!ETIQUETTE_VALIDE.matcher(etiquettes[i]).matches()) {
+                throw new IllegalArgumentException("Nom d'étiquette invalide : " + etiquettes[i]);
+            }
+            if (i > 0) texte.append(',');
+            texte.append(etiquettes[i]).append("=\"").append(echapper(String.valueOf(etiquettes[i + 1]), true)).append('"');
+        }
+        return texte.append('}').toString();
+    }
+
+    private static String echapper(String texte, boolean guillemets)
+    {
+        String echappe = texte.replace("\\", "\\\\").replace("\n", "\\n");
+        return guillemets ? echappe.replace("\"", "\\\"") : echappe;
+    }
+
+    // === Exposition ===
+
+    /** Toutes les séries au format texte de Prometheus (version 0.0.4), dans l'ordre d'enregistrement */
+    public synchronized String exposer()
+    {
+        StringBuilder texte = new StringBuilder(4096);
+        familles.forEach((nom, famille) -> {
+            texte.append("# HELP ").append(nom).append(' ').append(echapper(famille.aide(), false)).append('\n');
+            texte.append("# TYPE ").append(nom).append(' ').append(famille.type()).append('\n');
+            for (Serie serie : famille.series()) {
+                switch (serie.metrique()) {
+                    case Compteur c -> ligne(texte, nom, serie.etiquettes(), c.valeur());
+                    case Jauge j -> ligne(texte, nom, serie.etiquettes(), j.valeur());
+                    case HistogrammeLatences h -> resume(texte, nom, serie.etiquettes(), h);
+                    default -> throw new IllegalStateException("Métrique inconnue : " + serie.metrique());
+                }
+            }
+        });
+        return texte.toString();
+    }
+
+    private static void resume(StringBuilder texte, String nom, String etiquettes, HistogrammeLatences histogramme)
+    {
+        String prefixe = etiquettes.isEmpty() ? "{" : etiquettes.substring(0, etiquettes.length() - 1) + ",";
+        for (double q : QUANTILES) {
+            ligne(texte, nom, prefixe + "quantile=\"" + q + "\"}", histogramme.quantile(q) / 1e9);
+        }
+        ligne(texte, nom + "_sum", etiquettes, histogramme.getSomme() / 1e9);
+        ligne(texte, nom + "_count", etiquettes, histogramme.getNombre());
+    }
+
+    private static void ligne(StringBuilder texte, String nom, String etiquettes, long valeur)
+    {
+        texte.append(nom).append(etiquettes).append(' ').append(valeur).append('\n');
+    }
+
+    private static void ligne(StringBuilder texte, String nom, String etiquettes, double valeur)
+    {
+        texte.append(nom).append(etiquettes).append(' ');
+        if (Double.isNaN(valeur)) texte.append("NaN");
+        else if (Double.isInfinite(valeur)) texte.append(valeur > 0 ? "+Inf" : "-Inf");
+        else texte.append(valeur);
+        texte.append('\n');
+    }
+}
@@ -0,0 +1,180 @@
+package Simulation;
+
+import Modele.AppelsColonnaires;
+import Modele.Horodatage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Replay parallèle par jour ouvré. Les appels retenus (lundi–vendredi, 08h–20h) laissent le centre
+ * pratiquement vide d'un jour à l'autre : chaque jour est rejoué par son propre {@link MoteurReplay}
+ * sur le pool fork-join commun, puis les échantillons sont remis dans l'ordre chronologique.
+ * <p>
+ * Avant son premier appel, le moteur d'un jour est préchauffé avec les appels des jours ouvrés
+ * précédents (files d'attente, historiques d'attente et de service, occupation des agents) ;
+ * il n'applique que les activités débutant à partir du premier jour de préchauffage.
+ * L'écart résiduel au replay séquentiel peut être mesuré ligne à ligne par {@link #rapporterEcarts}.
+ */
+public class ReplayParJours
+{
+
+    private final MoteurReplay modele;
+    private final AppelsColonnaires appels;
+    private final int joursPrechauffage;
+    private final Predicate<EtatSysteme> echantillonValide;
+    private final int[] debutsJours; // indice du premier appel de chaque jour, puis taille()
+
+    /**
+     * @param modele            Moteur construit sur {@code appels} (seules ses données et compétences sont reprises)
+     * @param appels            Appels triés par date de réception
+     * @param joursPrechauffage Nombre de jours ouvrés précédents rejoués avant chaque jour (0 : aucun)
+     * @param echantillonValide Critère de conservation d'un échantillon
+     */
+    public ReplayParJours(MoteurReplay modele, AppelsColonnaires appels, int joursPrechauffage,
+                         Predicate<EtatSysteme> echantillonValide)
+    {
+        if (joursPrechauffage < 0) {
+            throw new IllegalArgumentException("Nombre de jours de préchauffage négatif : " + joursPrechauffage);
+        }
+        this.modele = modele;
+        this.appels = appels;
+        this.joursPrechauffage = joursPrechauffage;
+        this.echantillonValide = echantillonValide;
+        this.debutsJours = decouperParJour(appels);
+    }
+
+    private static int[] decouperParJour(AppelsColonnaires appels)
+    {
+        int[] debuts = new int[appels.taille() + 1];
+        int n = 0;
+        long jourPrecedent = Long.MIN_VALUE;
+        for (int i = 0; i < appels.taille(); i++) {
+            long jour = Horodatage.jourEpoch(appels.getReception(i));
+            if (jour != jourPrecedent) {
+                debuts[n++] = i;
+                jourPrecedent = jour;
+            }
+        }
+        debuts[n++] = appels.taille();
+        return Arrays.copyOf(debuts, n);
+    }
+
+    public int nombreJours()
+    {
+        return debutsJours.length - 1;
+    }
+
+    /**
+     * Rejoue tous les jours en parallèle. Retourne, pour chaque appel (même indice que {@code appels}),
+     * son échantillon s'il est valide, null sinon.
+     */
+    public EtatSysteme[] executer()
+    {
+        EtatSysteme[] echantillons = new EtatSysteme[appels.taille()];
+        IntStream.range(0, nombreJours()).parallel().forEach(jour -> rejouerJour(jour, echantillons));
+        return echantillons;
+    }
+
+    // === Chaque jour écrit une tranche disjointe du tableau ===
+    private void rejouerJour(int jour, EtatSysteme[] echantillons)
+    {
+        int premierJourPrechauffage = jour - joursPrechauffage;
+        long debutActivites = premierJourPrechauffage <= 0
+                ? Long.MIN_VALUE
+                : Horodatage.jourEpoch(appels.getReception(debutsJours[premierJourPrechauffage])) * 86_400L;
+
+        MoteurReplay moteur = modele.moteurVierge(debutActivites);
+        for (int i = debutsJours[Math.max(0, premierJourPrechauffage)]; i < debutsJours[jour]; i++) {
+            moteur.enregistrerEvenementAppel(i);
+        }
+
+        for (int i = debutsJours[jour]; i < debutsJours[jour + 1]; i++) {
+            EtatSysteme etat = moteur.capturerEtatSysteme(i);
+            if (echantillonValide.test(etat)) echantillons[i] = etat;
+            moteur.enregistrerEvenementAppel(i);
+        }
+    }
+
+    /**
+     * Rejoue séquentiellement les mêmes appels et affiche l'écart ligne à ligne avec les échantillons
+     * du replay par jour : lignes différentes, échantillons valides d'un seul côté, écart absolu maximal
+     * par colonne et premières lignes divergentes.
+     */
+    public void rapporterEcarts(EtatSysteme[] echantillons)
+    {
+        String[] colonnes = Arrays.copyOf(EtatSysteme.nomsColonnesCSV(), EtatSysteme.nomsColonnesCSV().length + 1);
+        colonnes[colonnes.length - 1] = "attente_reelle";
+        double[] ecartsMax = new double[colonnes.length];
+        long identiques = 0, differentes = 0, seulementParJours = 0, seulementSequentiel = 0;
+        int exemplesAffiches = 0;
+
+        System.out.println("=== ÉCART AU REPLAY SÉQUENTIEL ===");
+        MoteurReplay sequentiel = modele.moteurVierge(Long.MIN_VALUE);
+        for (int i = 0; i < appels.taille(); i++) {
+            EtatSysteme etat = sequentiel.capturerEtatSysteme(i);
+            EtatSysteme reference = echantillonValide.test(etat) ? etat : null;
+            sequentiel.enregistrerEvenementAppel(i);
+
+            EtatSysteme parJours = echantillons[i];
+            if (reference == null && parJours == null) continue;
+            if (reference == null) {
+                seulementParJours++;
+                continue;
+            }
+            if (parJours == null) {
+                seulementSequentiel++;
+                continue;
+            }
+
+            double[] attendu = ligne(reference);
+            double[] obtenu = ligne(parJours);
+            boolean identique = true;
+            for (int c = 0; c < attendu.length; c++) {
+                double ecart = Math.abs(attendu[c] - obtenu[c]);
+                if (ecart != 0) {
+                    identique = false;
+                    ecartsMax[c] = Math.max(ecartsMax[c], ecart);
+                }
+            }
+            if (identique) {
+                identiques++;
+                continue;
+            }
+            differentes++;
+            if (exemplesAffiches++ < 5) {
+                System.out.printf("Appel %d (%s) :%n  séquentiel : %s%n  par jour   : %s%n", i,
+                        Horodatage.versDateHeure(appels.getReception(i)), formater(attendu), formater(obtenu));
+            }
+        }
+
+        long comparees = identiques + differentes;
+        System.out.printf("Lignes identiques : %d / %d (%.3f%%)%n", identiques, comparees,
+                comparees == 0 ? 100.0 : 100.0 * identiques / comparees);
+        System.out.printf("Lignes différentes : %d%n", differentes);
+        System.out.printf("Échantillons valides seulement en séquentiel : %d, seulement par jour : %d%n",
+                seulementSequentiel, seulementParJours);
+        for (int c = 0; c < colonnes.length; c++) {
+            if (ecartsMax[c] > 0) {
+                System.out.printf(Locale.US, "  écart max %-22s : %.2f%n", colonnes[c], ecartsMax[c]);
+            }
+        }
+    }
+
+    private static double[] ligne(EtatSysteme etat)
+    {
+        double[] vecteur = etat.transformerEnVecteurCaracteristiques();
+        double[] ligne = Arrays.copyOf(vecteur, vecteur.length + 1);
+        ligne[vecteur.length] = etat.getDelaiAttenteObserve();
+        return ligne;
+    }
+
+    private static String formater(double[] ligne)
+    {
+        List<String> valeurs = Arrays.stream(ligne).mapToObj(v -> String.format(Locale.US, "%.2f", v)).toList();
+        return String.join(",", valeurs);
+    }
+}
@@ -0,0 +1,242 @@
+package Simulation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inférence en Java du réseau entraîné dans le notebook {@code Entrainement_Modele_ANN} :
+ * normalisation {@code StandardScaler}, couche cachée Dense(relu), puis Dense(1) linéaire
+ * (le Dropout n'intervient pas à l'inférence).
+ * <p>
+ * Le fichier de modèle est un texte produit par la dernière cellule du notebook : une ligne par clé,
+ * suivie de ses valeurs séparées par des blancs ; les lignes commençant par {@code #} sont ignorées.
+ * <pre>
+ * unite         secondes ou minutes : unité de la cible d'entraînement et des entrées PLES, Pavg_LES
+ * colonnes      noms des caractéristiques, dans l'ordre de {@link EtatSysteme#nomsColonnesCSV()}
+ * entrees       nombre de caractéristiques E
+ * cachees       nombre de neurones cachés H
+ * moyennes      E valeurs (scaler.mean_)
+ * ecarts        E valeurs (scaler.scale_)
+ * poids_cachee  E × H valeurs, ligne par caractéristique (noyau Keras de forme (E, H))
+ * biais_cachee  H valeurs
+ * poids_sortie  H valeurs
+ * biais_sortie  1 valeur
+ * </pre>
+ * Le moteur fournit PLES et Pavg_LES en secondes et compare la sortie à des attentes en secondes :
+ * un modèle entraîné en minutes est converti au chargement (entrées divisées, sortie multipliée par 60),
+ * de sorte que {@link #predire} et {@link #predireLot} rendent toujours des secondes.
+ * La normalisation est repliée dans la couche cachée au chargement ; les poids sont rangés en float32,
+ * dans les deux ordres utiles aux boucles internes (contiguës, donc vectorisées par le compilateur JIT).
+ * Une instance est immuable et partageable entre fils ; les zones de travail sont fournies par
+ * l'appelant et aucune prédiction n'alloue de mémoire.
+ */
+public final class ReseauANN
+{
+
+    private static final List<String> CLES = List.of("unite", "colonnes", "entrees", "cachees", "moyennes", "ecarts",
+            "poids_cachee", "biais_cachee", "poids_sortie", "biais_sortie");
+
+    /** Caractéristiques exprimées, comme la cible, dans l'unité du modèle */
+    private static final List<String> COLONNES_DUREES = List.of("PLES", "Pavg_LES");
+
+    private final int entrees;
+    private final int cachees;
+    private final float[] poidsCachee; // [neurone * entrees + caracteristique], normalisation incluse
+    private final float[] poidsEntree; // mêmes poids, [caracteristique * cachees + neurone]
+    private final float[] biaisCachee;
+    private final float[] poidsSortie;
+    private final float biaisSortie;
+
+    private ReseauANN(int entrees, int cachees, float[] poidsCachee, float[] biaisCachee,
+                      float[] poidsSortie, float biaisSortie)
+    {
+        this.entrees = entrees;
+        this.cachees = cachees;
+        this.poidsCachee = poidsCachee;
+        this.poidsEntree = new float[poidsCachee.length];
+        for (int j = 0; j < cachees; j++) {
+            for (int i = 0; i < entrees; i++) {
+                poidsEntree[i * cachees + j] = poidsCachee[j * entrees + i];
+            }
+        }
+        this.biaisCachee = biaisCachee;
+        this.poidsSortie = poidsSortie;
+        this.biaisSortie = biaisSortie;
+    }
+
+    /**
+     * Charge un modèle exporté par le notebook.
+     *
+     * @throws IllegalArgumentException si le fichier est incomplet, mal dimensionné, d'unité inconnue ou si ses
+     *                                  colonnes ne correspondent pas aux caractéristiques de {@link EtatSysteme}
+     */
+    public static ReseauANN charger(Path fichier) throws IOException
+    {
+        Map<String, String[]> valeurs = new HashMap<>();
+        for (String ligne : Files.readAllLines(fichier, StandardCharsets.UTF_8)) {
+            String texte = ligne.strip();
+            if (texte.isEmpty() || texte.startsWith("#")) continue;
+            String[] jetons = texte.split("\\s+");
+            if (!CLES.contains(jetons[0])) {
+                throw new IllegalArgumentException("Clé inconnue dans " + fichier + " : " + jetons[0]);
+            }
+            valeurs.put(jetons[0], Arrays.copyOfRange(jetons, 1, jetons.length));
+        }
+        for (String cle : CLES) {
+            if (!valeurs.containsKey(cle)) {
+                throw new IllegalArgumentException("Clé absente de " + fichier + " : " + cle);
+            }
+        }
+
+        String[] attendues = EtatSysteme.nomsColonnesCSV();
+        if (!Arrays.equals(valeurs.get("colonnes"), attendues)) {
+            throw new IllegalArgumentException("Colonnes du modèle " + Arrays.toString(valeurs.get("colonnes"))
+                    + " différentes des caractéristiques " + Arrays.toString(attendues));
+        }
+
+        double secondesParUnite = switch (unique(valeurs, "unite")) {
+            case "secondes" -> 1.0;
+            case "minutes" -> 60.0;
+            default -> throw new IllegalArgumentException("Unité du modèle inconnue dans " + fichier + " : "
+                    + unique(valeurs, "unite") + " (secondes ou minutes)");
+        };
+
+        int entrees = Integer.parseInt(unique(valeurs, "entrees"));
+        int cachees = Integer.parseInt(unique(valeurs, "cachees"));
+        if (entrees != attendues.length || cachees <= 0) {
+            throw new IllegalArgumentException("Dimensions invalides : " + entrees + " entrées, " + cachees + " neurones cachés");
+        }
+
+        double[] moyennes = nombres(valeurs, "moyennes", entrees);
+        double[] ecarts = nombres(valeurs, "ecarts", entrees);
+        double[] noyau = nombres(valeurs, "poids_cachee", entrees * cachees);
+        double[] biais = nombres(valeurs, "biais_cachee", cachees);
+        double[] sortie = nombres(valeurs, "poids_sortie", cachees);
+        double biaisSortie = Double.parseDouble(unique(valeurs, "biais_sortie")) * secondesParUnite;
+
+        // Entrées en secondes : (x / s - m) / e = (x - s·m) / (s·e)
+        for (int i = 0; i < entrees; i++) {
+            if (COLONNES_DUREES.contains(attendues[i])) {
+                moyennes[i] *= secondesParUnite;
+                ecarts[i] *= secondesParUnite;
+            }
+        }
+
+        // Repli de la normalisation : w·(x - m)/e + b = (w/e)·x + (b - Σ w·m/e)
+        float[] poidsCachee = new float[cachees * entrees];
+        float[] biaisCachee = new float[cachees];
+        for (int j = 0; j < cachees; j++) {
+            double b = biais[j];
+            for (int i = 0; i < entrees; i++) {
+                double ecart = ecarts[i] == 0.0 ? 1.0 : ecarts[i];
+                double w = noyau[i * cachees + j] / ecart;
+                poidsCachee[j * entrees + i] = (float) w;
+                b -= w * moyennes[i];
+            }
+            biaisCachee[j] = (float) b;
+        }
+        float[] poidsSortie = new float[cachees];
+        for (int j = 0; j < cachees; j++) {
+            poidsSortie[j] = (float) (sortie[j] * secondesParUnite);
+        }
+        return new ReseauANN(entrees, cachees, poidsCachee, biaisCachee, poidsSortie, (float) biaisSortie);
+    }
+
+    private static String unique(Map<String, String[]> valeurs, String cle)
+    {
+        String[] texte = valeurs.get(cle);
+        if (texte.length != 1) {
+            throw new IllegalArgumentException("La clé " + cle + " attend une seule valeur, " + texte.length + " lues");
+        }
+        return texte[0];
+    }
+
+    private static double[] nombres(Map<String, String[]> valeurs, String cle, int attendus)
+    {
+        String[] texte = valeurs.get(cle);
+        if (texte.length != attendus) {
+            throw new IllegalArgumentException("La clé " + cle + " attend " + attendus + " valeurs, " + texte.length + " lues");
+        }
+        double[] nombres = new double[attendus];
+        for (int k = 0; k < attendus; k++) {
+            nombres[k] = Double.parseDouble(texte[k]);
+        }
+        return nombres;
+    }
+
+    public int getNombreEntrees()
+    {
+        return entrees;
+    }
+
+    public int getNombreCachees()
+    {
+        return cachees;
+    }
+
+    /**
+     * Prédit l'attente, en secondes, pour un vecteur de caractéristiques brut (non normalisé),
+     * tel que rempli par {@link EtatSysteme#remplirVecteurCaracteristiques(double[])}.
+     *
+     * @param tampon Zone de travail d'au moins {@link #getNombreCachees()} éléments, fournie par l'appelant
+     */
+    public double predire(double[] caracteristiques, float[] tampon)
+    {
+        System.arraycopy(biaisCachee, 0, tampon, 0, cachees);
+        for (int i = 0, ligne = 0; i < entrees; i++, ligne += cachees) {
+            float x = (float) caracteristiques[i];
+            for (int j = 0; j < cachees; j++) {
+                tampon[j] += x * poidsEntree[ligne + j];
+            }
+        }
+        float sortie = 0f;
+        for (int j = 0; j < cachees; j++) {
+            sortie += poidsSortie[j] * Math.max(tampon[j], 0f);
+        }
+        return sortie + biaisSortie;
+    }
+
+    /**
+     * Prédit un lot d'échantillons rangés par colonne (une colonne par caractéristique, comme les fichiers
+     * de {@link ExportateurColonnesNpy}) : {@code sorties[k] = f(colonnes[.][debut + k])} pour k &lt; n.
+     * Pour chaque neurone caché, les caractéristiques sont cumulées quatre par quatre sur tout le lot.
+     *
+     * @param tampon Zone de travail d'au moins {@code n} éléments, fournie par l'appelant
+     */
+    public void predireLot(float[][] colonnes, int debut, int n, float[] sorties, float[] tampon)
+    {
+        if (colonnes.length != entrees) {
+            throw new IllegalArgumentException("Le lot a " + colonnes.length + " colonnes au lieu de " + entrees);
+        }
+        Arrays.fill(sorties, 0, n, biaisSortie);
+        for (int j = 0, ligne = 0; j < cachees; j++, ligne += entrees) {
+            Arrays.fill(tampon, 0, n, biaisCachee[j]);
+            int i = 0;
+            for (; i + 4 <= entrees; i += 4) {
+                float w0 = poidsCachee[ligne + i], w1 = poidsCachee[ligne + i + 1];
+                float w2 = poidsCachee[ligne + i + 2], w3 = poidsCachee[ligne + i + 3];
+                float[] c0 = colonnes[i], c1 = colonnes[i + 1], c2 = colonnes[i + 2], c3 = colonnes[i + 3];
+                for (int k = 0; k < n; k++) {
+                    tampon[k] += w0 * c0[debut + k] + w1 * c1[debut + k] + w2 * c2[debut + k] + w3 * c3[debut + k];
+                }
+            }
+            for (; i < entrees; i++) {
+                float w = poidsCachee[ligne + i];
+                float[] colonne = colonnes[i];
+                for (int k = 0; k < n; k++) {
+                    tampon[k] += w * colonne[debut + k];
+                }
+            }
+            float v = poidsSortie[j];
+            for (int k = 0; k < n; k++) {
+                sorties[k] += v * Math.max(tampon[k], 0f);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package Simulation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Point d'accès HTTP local aux métriques d'un {@link RegistreMetriques}, au format texte de Prometheus :
+ * <pre>
+ * GET /metrics      toutes les séries (compteurs, jauges, résumés de latences)
+ * </pre>
+ * Les requêtes sont servies une à une par le fil du serveur HTTP, à côté du replay ou du serveur
+ * de prédiction qui alimente le registre. Le serveur n'écoute que sur l'interface locale.
+ */
+public class ServeurMetriques implements Closeable
+{
+
+    private static final String TYPE_CONTENU = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final RegistreMetriques registre;
+    private HttpServer serveur;
+
+    public ServeurMetriques(RegistreMetriques registre)
+    {
+        this.registre = registre;
+    }
+
+    /**
+     * Démarre l'écoute sur l'interface locale ; {@code port} 0 choisit un port libre (cf. {@link #getPort()}).
+     */
+    public void demarrer(int port) throws IOException
+    {
+        serveur = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        serveur.createContext("/metrics", this::traiter);
+        serveur.start();
+        System.out.println("Métriques exposées sur http://" + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + getPort() + "/metrics");
+    }
+
+    public int getPort()
+    {
+        return serveur.getAddress().getPort();
+    }
+
+    private void traiter(HttpExchange echange) throws IOException
+    {
+        try (InputStream corps = echange.getRequestBody()) {
+            corps.readAllBytes();
+        }
+        if (!"GET".equals(echange.getRequestMethod())) {
+            echange.getResponseHeaders().set("Allow", "GET");
+            echange.sendResponseHeaders(405, -1);
+            echange.close();
+            return;
+        }
+        byte[] octets = registre.exposer().getBytes(StandardCharsets.UTF_8);
+        echange.getResponseHeaders().set("Content-Type", TYPE_CONTENU);
+        echange.sendResponseHeaders(200, octets.length);
+        try (OutputStream sortie = echange.getResponseBody()) {
+            sortie.write(octets);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (serveur != null) serveur.stop(0);
+    }
+}
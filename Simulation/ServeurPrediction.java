@@ -0,0 +1,438 @@
+package Simulation;
+
+import Modele.ActiviteAgent;
+import Modele.Appel;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serveur local de prédiction du temps d'attente, à l'arrivée d'un appel. Un {@link MoteurReplay} en flux,
+ * préchauffé sur l'historique (cf. {@link SimulationCentreAppels#preparerServeurPrediction}), reste en mémoire
+ * et continue sur les événements reçus en direct. Chaque requête HTTP est traitée sur son propre fil virtuel ;
+ * le moteur, non partageable, est protégé par un verrou ({@link ReentrantLock} plutôt que {@code synchronized},
+ * qui épinglerait le fil virtuel sur son porteur pendant l'attente).
+ * <pre>
+ * GET  /prediction?service=30175&amp;instant=2014-03-03T10:15:00      état et prédictions LES, Avg-LES, ANN (JSON)
+ * POST /appel?service=…&amp;reception=…&amp;reponse=…&amp;raccrochage=…[&amp;agent=…]   appel terminé
+ * POST /activite?agent=…&amp;code=…&amp;debut=…&amp;fin=…                  activité d'agent (débuts croissants)
+ * GET  /statistiques                                               latences mesurées côté serveur
+ * </pre>
+ * Les dates sont au format ISO ({@code 2014-03-03T10:15:00}). Le serveur n'écoute que sur l'interface locale.
+ * <p>
+ * Une prédiction ne modifie pas l'état (cf. {@link MoteurReplay#estimerEtatSysteme}) : seuls les événements
+ * le font avancer. L'horloge du serveur est l'instant du dernier événement accepté (fin de l'historique au
+ * départ) ; instants de prédiction, réceptions d'appels et débuts d'activités doivent tomber entre
+ * {@link #RETARD_MAX} avant et {@link #AVANCE_MAX} après elle, sinon la requête est refusée (409), comme une
+ * activité qui débute avant la précédente. Une requête mal formée ou visant un service non suivi est refusée (400)
+ * avant toute modification de l'état.
+ */
+public class ServeurPrediction implements Closeable
+{
+
+    private static final int FILE_CONNEXIONS = 4096;
+
+    /** Retard accepté sur l'horloge : un appel n'est transmis qu'une fois terminé, après sa réception */
+    static final Duration RETARD_MAX = Duration.ofHours(1);
+
+    /** Avance acceptée sur l'horloge */
+    static final Duration AVANCE_MAX = Duration.ofMinutes(15);
+
+    private final MoteurReplay moteur;
+    private final FluxActivites activites;
+    private final String[] services;
+    private final LocalDateTime finHistorique;
+    private final Closeable ressources;
+    private final ReentrantLock verrou = new ReentrantLock();
+    private LocalDateTime horloge;
+
+    private final HistogrammeLatences latencesPredictions = new HistogrammeLatences();
+    private final HistogrammeLatences latencesEvenements = new HistogrammeLatences();
+    private final RegistreMetriques.Compteur requetesRejetees = new RegistreMetriques.Compteur();
+
+    private HttpServer serveur;
+    private ExecutorService executeur;
+
+    /**
+     * @param moteur        Moteur en flux dont les activités proviennent de {@code activites}
+     * @param finHistorique Réception du dernier appel rejoué au préchauffage (null si aucun)
+     * @param ressources    Fermé avec le serveur (flux historiques encore ouverts)
+     */
+    ServeurPrediction(MoteurReplay moteur, FluxActivites activites, String[] services, LocalDateTime finHistorique,
+                      Closeable ressources)
+    {
+        this.moteur = moteur;
+        this.activites = activites;
+        this.services = services;
+        this.finHistorique = finHistorique;
+        this.ressources = ressources;
+        this.horloge = finHistorique;
+    }
+
+    /**
+     * Flux des activités du moteur : fusion, par date de début, de la fin du flux historique et des activités
+     * reçues en direct. Il n'est manipulé que sous le verrou du serveur.
+     */
+    static final class FluxActivites implements Iterator<ActiviteAgent>
+    {
+        private final Iterator<ActiviteAgent> historique;
+        private ActiviteAgent teteHistorique;
+        private final ArrayDeque<ActiviteAgent> direct = new ArrayDeque<>();
+        private LocalDateTime dernierDebut;
+
+        FluxActivites(Iterator<ActiviteAgent> historique)
+        {
+            this.historique = historique;
+        }
+
+        private ActiviteAgent teteHistorique()
+        {
+            if (teteHistorique == null && historique.hasNext()) teteHistorique = historique.next();
+            return teteHistorique;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return teteHistorique() != null || !direct.isEmpty();
+        }
+
+        @Override
+        public ActiviteAgent next()
+        {
+            ActiviteAgent h = teteHistorique();
+            ActiviteAgent d = direct.peekFirst();
+            if (h == null && d == null) throw new NoSuchElementException();
+
+            ActiviteAgent suivante;
+            if (d == null || (h != null && !d.getDebutActivite().isBefore(h.getDebutActivite()))) {
+                suivante = h;
+                teteHistorique = null;
+            } else {
+                suivante = direct.pollFirst();
+            }
+            dernierDebut = suivante.getDebutActivite();
+            return suivante;
+        }
+
+        /**
+         * @throws IllegalStateException si l'activité débute avant une activité déjà reçue ou appliquée
+         */
+        void ajouter(ActiviteAgent activite)
+        {
+            LocalDateTime debut = activite.getDebutActivite();
+            ActiviteAgent derniere = direct.peekLast();
+            if ((derniere != null && debut.isBefore(derniere.getDebutActivite()))
+                    || (dernierDebut != null && debut.isBefore(dernierDebut))) {
+                throw new IllegalStateException("Activité non chronologique (début " + debut + ")");
+            }
+            direct.addLast(activite);
+        }
+    }
+
+    // === Opérations sur l'état en mémoire ===
+
+    /**
+     * État du système et prédictions pour un appel du service donné arrivant à {@code instant}, sans modifier l'état
+     *
+     * @throws IllegalStateException si l'instant sort de la fenêtre acceptée autour de l'horloge
+     */
+    public EtatSysteme predire(String service, LocalDateTime instant)
+    {
+        verrou.lock();
+        try {
+            verifierInstant("Instant de prédiction", instant);
+            return moteur.estimerEtatSysteme(service, instant);
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Enregistre un appel terminé (réception, réponse et raccrochage connus), après avoir fait avancer
+     * le moteur jusqu'à sa réception
+     *
+     * @throws IllegalArgumentException si le service n'est pas suivi par le moteur (état inchangé)
+     * @throws IllegalStateException    si la réception sort de la fenêtre acceptée autour de l'horloge
+     */
+    public void enregistrerAppel(Appel appel)
+    {
+        verifierService(appel.getNomFileAttenteClient());
+        verrou.lock();
+        try {
+            LocalDateTime reception = appel.getDateReceptionAppel();
+            verifierInstant("Réception", reception);
+            moteur.avancerJusqua(reception);
+            moteur.enregistrerEvenementAppel(appel);
+            avancerHorloge(reception);
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Transmet au moteur une activité d'agent ; les débuts doivent être croissants
+     *
+     * @throws IllegalStateException si le début sort de la fenêtre acceptée autour de l'horloge
+     *                               ou précède une activité déjà reçue
+     */
+    public void enregistrerActivite(ActiviteAgent activite)
+    {
+        verrou.lock();
+        try {
+            verifierInstant("Début d'activité", activite.getDebutActivite());
+            activites.ajouter(activite);
+            avancerHorloge(activite.getDebutActivite());
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // === Fenêtre des instants acceptés, appelée sous le verrou (aucune borne avant le premier événement) ===
+    private void verifierInstant(String nature, LocalDateTime instant)
+    {
+        if (horloge == null) return;
+        if (instant.isBefore(horloge.minus(RETARD_MAX)) || instant.isAfter(horloge.plus(AVANCE_MAX))) {
+            throw new IllegalStateException(nature + " " + instant + " hors de la fenêtre acceptée ("
+                    + horloge.minus(RETARD_MAX) + " à " + horloge.plus(AVANCE_MAX) + ")");
+        }
+    }
+
+    private void verifierService(String service)
+    {
+        if (!Arrays.asList(services).contains(service)) {
+            throw new IllegalArgumentException("Service non suivi : " + service);
+        }
+    }
+
+    private void avancerHorloge(LocalDateTime instant)
+    {
+        if (horloge == null || instant.isAfter(horloge)) horloge = instant;
+    }
+
+    public String[] getServices()
+    {
+        return services.clone();
+    }
+
+    /** Réception du dernier appel de l'historique rejoué au préchauffage (null si aucun) */
+    public LocalDateTime getFinHistorique()
+    {
+        return finHistorique;
+    }
+
+    public HistogrammeLatences getLatencesPredictions()
+    {
+        return latencesPredictions;
+    }
+
+    public HistogrammeLatences getLatencesEvenements()
+    {
+        return latencesEvenements;
+    }
+
+    /** Publie dans {@code registre} les latences et les rejets mesurés côté serveur */
+    public void publierMetriques(RegistreMetriques registre)
+    {
+        String aide = "Durée de traitement d'une requête, réponse comprise";
+        registre.publier("vanad_serveur_duree_requete_secondes", aide, latencesPredictions, "route", "prediction");
+        registre.publier("vanad_serveur_duree_requete_secondes", aide, latencesEvenements, "route", "evenement");
+        registre.publier("vanad_serveur_requetes_rejetees_total", "Requêtes refusées (code HTTP 4xx)", requetesRejetees);
+    }
+
+    // === Point d'accès HTTP ===
+
+    /**
+     * Démarre l'écoute sur l'interface locale ; {@code port} 0 choisit un port libre (cf. {@link #getPort()}).
+     */
+    public void demarrer(int port) throws IOException
+    {
+        // Propriétés lues à la création du premier serveur de la JVM :
+        // - sans TCP_NODELAY, l'algorithme de Nagle et l'ACK retardé du client ajoutent ~40 ms par réponse ;
+        // - au-delà de 200 connexions persistantes inactives (défaut), les suivantes sont fermées après chaque réponse.
+        definirSiAbsente("sun.net.httpserver.nodelay", "true");
+        definirSiAbsente("sun.net.httpserver.maxIdleConnections", String.valueOf(FILE_CONNEXIONS));
+        serveur = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), FILE_CONNEXIONS);
+        executeur = Executors.newVirtualThreadPerTaskExecutor();
+        serveur.setExecutor(executeur);
+        serveur.createContext("/prediction", mesure(this::traiterPrediction, "GET", latencesPredictions));
+        serveur.createContext("/appel", mesure(this::traiterAppel, "POST", latencesEvenements));
+        serveur.createContext("/activite", mesure(this::traiterActivite, "POST", latencesEvenements));
+        serveur.createContext("/statistiques", mesure(this::traiterStatistiques, "GET", null));
+        serveur.start();
+        System.out.println("Serveur de prédiction à l'écoute sur http://" + InetAddress.getLoopbackAddress().getHostAddress()
+                + ":" + getPort() + " (services : " + String.join(", ", services) + ")");
+    }
+
+    private static void definirSiAbsente(String propriete, String valeur)
+    {
+        if (System.getProperty(propriete) == null) System.setProperty(propriete, valeur);
+    }
+
+    public int getPort()
+    {
+        return serveur.getAddress().getPort();
+    }
+
+    /** Traitement d'une requête : paramètres décodés, réponse (code HTTP et corps) */
+    private interface Traitement
+    {
+        Reponse traiter(Map<String, String> parametres);
+    }
+
+    private record Reponse(int code, String type, String corps) {}
+
+    private HttpHandler mesure(Traitement traitement, String methode, HistogrammeLatences latences)
+    {
+        return echange -> {
+            long debut = System.nanoTime();
+            Reponse reponse;
+            try (InputStream corps = echange.getRequestBody()) {
+                corps.readAllBytes();
+                if (!methode.equals(echange.getRequestMethod())) {
+                    reponse = new Reponse(405, "text/plain", "Méthode attendue : " + methode + "\n");
+                } else {
+                    reponse = traitement.traiter(parametres(echange));
+                }
+            } catch (IllegalArgumentException | DateTimeParseException | IllegalStateException e) {
+                reponse = new Reponse(e instanceof IllegalStateException ? 409 : 400, "text/plain", e.getMessage() + "\n");
+            }
+            if (reponse.code() >= 400) requetesRejetees.incrementer();
+            envoyer(echange, reponse);
+            if (latences != null) latences.enregistrer(System.nanoTime() - debut);
+        };
+    }
+
+    private static Map<String, String> parametres(HttpExchange echange)
+    {
+        Map<String, String> parametres = new HashMap<>();
+        String requete = echange.getRequestURI().getRawQuery();
+        if (requete == null || requete.isEmpty()) return parametres;
+        for (String paire : requete.split("&")) {
+            int egal = paire.indexOf('=');
+            String cle = egal < 0 ? paire : paire.substring(0, egal);
+            String valeur = egal < 0 ? "" : paire.substring(egal + 1);
+            parametres.put(URLDecoder.decode(cle, StandardCharsets.UTF_8), URLDecoder.decode(valeur, StandardCharsets.UTF_8));
+        }
+        return parametres;
+    }
+
+    private static void envoyer(HttpExchange echange, Reponse reponse) throws IOException
+    {
+        byte[] octets = reponse.corps().getBytes(StandardCharsets.UTF_8);
+        echange.getResponseHeaders().set("Content-Type", reponse.type() + "; charset=utf-8");
+        echange.sendResponseHeaders(reponse.code(), octets.length == 0 ? -1 : octets.length);
+        try (OutputStream sortie = echange.getResponseBody()) {
+            sortie.write(octets);
+        }
+    }
+
+    private Reponse traiterPrediction(Map<String, String> parametres)
+    {
+        String service = obligatoire(parametres, "service");
+        verifierService(service);
+        LocalDateTime instant = LocalDateTime.parse(obligatoire(parametres, "instant"));
+        EtatSysteme etat = predire(service, instant);
+
+        String ann = Double.isNaN(etat.getEstimationANN()) ? "null" : String.format(Locale.US, "%.2f", etat.getEstimationANN());
+        String json = String.format(Locale.US,
+                "{\"service\":%s,\"instant\":\"%s\",\"file\":%d,\"agents_libres\":%d,\"les\":%.2f,\"avg_les\":%.2f,\"ann\":%s}\n",
+                chaineJson(service), instant, etat.getTailleFilePrincipale(), etat.getNombreAgentsLibres(),
+                etat.getEstimationLES(), etat.getEstimationLESMoyenne(), ann);
+        return new Reponse(200, "application/json", json);
+    }
+
+    private Reponse traiterAppel(Map<String, String> parametres)
+    {
+        String agent = parametres.get("agent");
+        String service = obligatoire(parametres, "service");
+        verifierService(service);
+        Appel appel = new Appel(LocalDateTime.parse(obligatoire(parametres, "reception")), service,
+                agent == null || agent.isEmpty() ? null : Integer.valueOf(agent));
+        appel.setDateReponseAgent(LocalDateTime.parse(obligatoire(parametres, "reponse")));
+        appel.setDateRaccrochage(LocalDateTime.parse(obligatoire(parametres, "raccrochage")));
+        enregistrerAppel(appel);
+        return new Reponse(204, "text/plain", "");
+    }
+
+    private Reponse traiterActivite(Map<String, String> parametres)
+    {
+        ActiviteAgent activite = new ActiviteAgent(Long.valueOf(obligatoire(parametres, "code")),
+                Integer.valueOf(obligatoire(parametres, "agent")), LocalDateTime.parse(obligatoire(parametres, "debut")));
+        activite.setFinActivite(LocalDateTime.parse(obligatoire(parametres, "fin")));
+        enregistrerActivite(activite);
+        return new Reponse(204, "text/plain", "");
+    }
+
+    private Reponse traiterStatistiques(Map<String, String> parametres)
+    {
+        String texte = "predictions " + latencesPredictions.resume() + "\n"
+                + "evenements  " + latencesEvenements.resume() + "\n"
+                + "rejetees    " + requetesRejetees.valeur() + "\n";
+        return new Reponse(200, "text/plain", texte);
+    }
+
+    // === Chaîne JSON entre guillemets : guillemets, barres obliques inverses et caractères de contrôle échappés ===
+    private static String chaineJson(String texte)
+    {
+        StringBuilder json = new StringBuilder(texte.length() + 2).append('"');
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+                    else json.append(c);
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static String obligatoire(Map<String, String> parametres, String cle)
+    {
+        String valeur = parametres.get(cle);
+        if (valeur == null || valeur.isEmpty()) {
+            throw new IllegalArgumentException("Paramètre manquant : " + cle);
+        }
+        return valeur;
+    }
+
+    /** Arrête l'écoute, attend les requêtes en cours et ferme les flux historiques */
+    @Override
+    public void close() throws IOException
+    {
+        if (serveur != null) {
+            serveur.stop(0);
+            executeur.close();
+        }
+        ressources.close();
+    }
+}
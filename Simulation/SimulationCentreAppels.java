@@ -1,16 +1,21 @@
 package Simulation;
 
+import Donnees.InstantaneBinaire;
 import Donnees.LecteurCSV;
 import Modele.ActiviteAgent;
+import Modele.ActivitesColonnaires;
 import Modele.Appel;
+import Modele.AppelsColonnaires;
+import Modele.Horodatage;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.DayOfWeek;
+import java.time.temporal.TemporalAdjusters;
 
 /**
  * Simulation du centre d'appel VANAD avec moteur de replay temporel fidèle.
@@ -24,14 +29,22 @@ public class SimulationCentreAppels
 {
 
     private String[] servicesPrincipaux;
-    private List<Appel> appelsFiltres;
-    private List<ActiviteAgent> activitesAgents;
-    private final List<EtatSysteme> donneesEntrainement;
+    private AppelsColonnaires appelsFiltres;
+    private ActivitesColonnaires activitesAgents;
+    private final SyntheseEchantillons synthese;
     private MoteurReplay moteurReplay;
 
+    private boolean exportColonnesNpy;
+    private ReseauANN reseauANN;
+    private RegistreMetriques metriques;
+
+    private static final String FICHIER_SORTIE = "jeu_donnees_ann_vanad.csv";
+    private static final String REPERTOIRE_SORTIE_NPY = "jeu_donnees_ann_vanad_npy";
+    private static final String FICHIER_EVALUATION = "evaluation_predicteurs.csv";
+
     public SimulationCentreAppels()
     {
-        this.donneesEntrainement = new ArrayList<>();
+        this.synthese = new SyntheseEchantillons();
     }
 
     /**
@@ -45,69 +58,363 @@ public class SimulationCentreAppels
 
         chargerEtPreparerDonnees(cheminFichierAppels, cheminFichierActivites);
         initialiserMoteurReplay();
-        executerReplayEvenementParEvenement();
-        exporterDonneesEntrainement();
+        try (PuitsEchantillons exportateur = EvenementsJfr.mesurerExport(ouvrirExport())) {
+            executerReplayEvenementParEvenement(exportateur);
+        }
         analyserResultatsSimulation();
 
         System.out.println(">>> Replay terminé avec succès <<<");
     }
 
+    /**
+     * Lance le replay historique en parallèle, un moteur par jour ouvré (cf. {@link ReplayParJours}).
+     * Les échantillons sont exportés et analysés dans l'ordre chronologique, comme en mode séquentiel.
+     *
+     * @param cheminFichierAppels    Chemin du fichier CSV des appels
+     * @param cheminFichierActivites Chemin du fichier CSV des activités agents
+     * @param joursPrechauffage      Jours ouvrés précédents rejoués pour préchauffer chaque jour
+     * @param comparerAuSequentiel   Rejoue aussi séquentiellement et affiche l'écart ligne à ligne
+     */
+    public void lancerReplayParJours(String cheminFichierAppels, String cheminFichierActivites,
+                                     int joursPrechauffage, boolean comparerAuSequentiel) throws Exception {
+        System.out.println(">>> Initialisation du replay parallèle par jour ouvré <<<");
+
+        chargerEtPreparerDonnees(cheminFichierAppels, cheminFichierActivites);
+        initialiserMoteurReplay();
+
+        ReplayParJours replay = new ReplayParJours(moteurReplay, appelsFiltres, joursPrechauffage, this::echantillonValide);
+        System.out.printf("Replay de %d jours ouvrés (préchauffage : %d jour(s))%n", replay.nombreJours(), joursPrechauffage);
+        EvenementsJfr.Phase phase = EvenementsJfr.Phase.debuter("replay", "appels");
+        EtatSysteme[] echantillons = replay.executer();
+        phase.terminer(echantillons.length);
+        System.out.printf("Progression : %d/%d appels traités (100.0%%)%n", echantillons.length, echantillons.length);
+
+        try (PuitsEchantillons exportateur = EvenementsJfr.mesurerExport(ouvrirExport())) {
+            for (EtatSysteme etat : echantillons) {
+                if (etat != null) {
+                    exportateur.ecrire(etat);
+                    synthese.ajouter(etat);
+                }
+            }
+        }
+        if (comparerAuSequentiel) {
+            replay.rapporterEcarts(echantillons);
+        }
+        analyserResultatsSimulation();
+
+        System.out.println(">>> Replay terminé avec succès <<<");
+    }
+
+    /**
+     * Lance le replay historique en flux : ni les appels, ni les activités, ni les échantillons
+     * ne sont conservés en mémoire. Chaque ligne d'entraînement est écrite dès sa capture.
+     * Les deux fichiers doivent être triés chronologiquement (réception des appels, début des activités).
+     * Chaque chemin peut aussi désigner un répertoire ou un motif glob de fichiers triés (un export par mois) :
+     * ils sont alors fusionnés à la lecture, sans tri global.
+     * Une première passe sur les appels détermine les services principaux et les compétences des agents,
+     * la seconde rejoue les appels en fusionnant le flux des activités.
+     *
+     * @param cheminFichierAppels    Fichier, répertoire ou motif des CSV d'appels (triés par date de réception)
+     * @param cheminFichierActivites Fichier, répertoire ou motif des CSV d'activités agents (triés par date de début)
+     */
+    public void lancerReplayEnFlux(String cheminFichierAppels, String cheminFichierActivites) throws Exception {
+        System.out.println(">>> Initialisation du replay en flux des appels historiques <<<");
+
+        Map<Integer, Set<String>> competencesAgents = determinerServicesEtCompetences(cheminFichierAppels);
+        executerReplayEnFlux(cheminFichierAppels, cheminFichierActivites, competencesAgents);
+        analyserResultatsSimulation();
+
+        System.out.println(">>> Replay terminé avec succès <<<");
+    }
+
+    /**
+     * Première passe en flux : volumes par service, services principaux et compétences des agents
+     * (mêmes règles de sélection que le mode en mémoire). Mémoire proportionnelle au nombre d'agents.
+     */
+    private Map<Integer, Set<String>> determinerServicesEtCompetences(String cheminAppels) throws Exception {
+        Map<String, Long> volumesParService = new HashMap<>();
+        Map<String, Set<Integer>> agentsParService = new HashMap<>();
+
+        try (Stream<Appel> appels = LecteurCSV.fluxAppelsFusionnes(cheminAppels)) {
+            appels.filter(appel -> estJourEtHeureOuvres(Horodatage.enSecondes(appel.getDateReceptionAppel())))
+                    .filter(appel -> appel.getNomFileAttenteClient() != null && estAppelComplet(appel))
+                    .forEach(appel -> {
+                        volumesParService.merge(appel.getNomFileAttenteClient(), 1L, Long::sum);
+                        if (appel.getIdentifiantAgent() != null) {
+                            agentsParService.computeIfAbsent(appel.getNomFileAttenteClient(), s -> new HashSet<>())
+                                    .add(appel.getIdentifiantAgent());
+                        }
+                    });
+        }
+
+        servicesPrincipaux = choisirServicesPrincipaux(volumesParService);
+        System.out.println("Services principaux retenus : " + Arrays.toString(servicesPrincipaux));
+
+        Map<Integer, Set<String>> competencesAgents = new HashMap<>();
+        for (String service : servicesPrincipaux) {
+            for (Integer agent : agentsParService.getOrDefault(service, Set.of())) {
+                competencesAgents.computeIfAbsent(agent, a -> new HashSet<>()).add(service);
+            }
+        }
+        return competencesAgents;
+    }
+
+    /**
+     * Seconde passe : rejoue les appels retenus au fil de la lecture et écrit chaque échantillon valide.
+     */
+    private void executerReplayEnFlux(String cheminAppels, String cheminActivites,
+                                      Map<Integer, Set<String>> competencesAgents) throws Exception {
+        try (Stream<Appel> appels = LecteurCSV.fluxAppelsFusionnes(cheminAppels);
+             Stream<ActiviteAgent> activites = LecteurCSV.fluxActivitesFusionnees(cheminActivites);
+             PuitsEchantillons exportateur = ouvrirExport()) {
+
+            moteurReplay = new MoteurReplay(servicesPrincipaux, competencesAgents,
+                    activites.filter(a -> a.getDebutActivite() != null && a.getFinActivite() != null).iterator(),
+                    MoteurReplay.TAILLE_HISTORIQUE_DEFAUT);
+            moteurReplay.utiliserReseauANN(reseauANN);
+            moteurReplay.publierMetriques(metriques);
+
+            rejouerAppelsEnFlux(appels, exportateur);
+        }
+    }
+
+    /**
+     * Rejoue sur {@link #moteurReplay} les appels retenus d'un flux trié ; chaque échantillon valide est
+     * exporté, sauf si {@code exportateur} est null (simple préchauffage de l'état).
+     *
+     * @return Date de réception du dernier appel rejoué (null si aucun)
+     */
+    private LocalDateTime rejouerAppelsEnFlux(Stream<Appel> appels, PuitsEchantillons exportateur) throws IOException {
+        Set<String> principaux = new HashSet<>(Arrays.asList(servicesPrincipaux));
+        Iterator<Appel> appelsRetenus = appels
+                .filter(appel -> estJourEtHeureOuvres(Horodatage.enSecondes(appel.getDateReceptionAppel())))
+                .filter(appel -> principaux.contains(appel.getNomFileAttenteClient()) && estAppelComplet(appel))
+                .iterator();
+
+        long compteur = 0;
+        LocalDateTime precedente = null;
+        while (appelsRetenus.hasNext()) {
+            Appel appel = appelsRetenus.next();
+            if (precedente != null && appel.getDateReceptionAppel().isBefore(precedente)) {
+                throw new IllegalStateException("Fichier d'appels non trié par date de réception : " + appel);
+            }
+            precedente = appel.getDateReceptionAppel();
+
+            EtatSysteme etat = moteurReplay.capturerEtatSysteme(appel, appel.getDateReceptionAppel());
+            if (exportateur != null && echantillonValide(etat)) {
+                exportateur.ecrire(etat);
+                synthese.ajouter(etat);
+            }
+            moteurReplay.enregistrerEvenementAppel(appel);
+            compteur++;
+
+            if (compteur % 200000 == 0) {
+                System.out.printf("Progression : %d appels traités%n", compteur);
+            }
+        }
+        System.out.printf("Progression : %d appels traités (fin du flux)%n", compteur);
+        return precedente;
+    }
+
+    /**
+     * Prépare le mode serveur : première passe sur l'historique (services principaux, compétences des agents),
+     * puis replay en flux de l'historique, sans export, pour amorcer les files, les historiques d'attente
+     * et l'occupation des agents. Le moteur continue ensuite sur les événements reçus en direct par
+     * le serveur retourné, qu'il reste à démarrer ; le flux historique des activités reste ouvert
+     * jusqu'à sa fermeture.
+     */
+    public ServeurPrediction preparerServeurPrediction(String cheminFichierAppels, String cheminFichierActivites) throws Exception {
+        System.out.println(">>> Préchauffage du serveur de prédiction sur l'historique <<<");
+
+        Map<Integer, Set<String>> competencesAgents = determinerServicesEtCompetences(cheminFichierAppels);
+        Stream<ActiviteAgent> activites = LecteurCSV.fluxActivitesFusionnees(cheminFichierActivites);
+        try (Stream<Appel> appels = LecteurCSV.fluxAppelsFusionnes(cheminFichierAppels)) {
+            ServeurPrediction.FluxActivites flux = new ServeurPrediction.FluxActivites(
+                    activites.filter(a -> a.getDebutActivite() != null && a.getFinActivite() != null).iterator());
+            moteurReplay = new MoteurReplay(servicesPrincipaux, competencesAgents, flux, MoteurReplay.TAILLE_HISTORIQUE_DEFAUT);
+            moteurReplay.utiliserReseauANN(reseauANN);
+            moteurReplay.publierMetriques(metriques);
+
+            LocalDateTime finHistorique = rejouerAppelsEnFlux(appels, null);
+            return new ServeurPrediction(moteurReplay, flux, servicesPrincipaux, finHistorique, activites::close);
+        } catch (Exception e) {
+            activites.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Simulation générative « et si » : ajuste un {@link ModeleCharge} sur tous les appels historiques,
+     * puis simule {@code jours} jours à partir du lendemain de l'historique, avec charge et effectifs
+     * multipliés par les facteurs donnés.
+     */
+    public SimulationGenerative.Resultats lancerSimulationGenerative(String cheminFichierAppels, int jours,
+                                                                     double facteurCharge, double facteurEffectifs,
+                                                                     long graine) throws Exception {
+        System.out.println(">>> Simulation générative à partir du modèle de charge ajusté <<<");
+
+        ModeleCharge modele = ModeleCharge.ajuster(InstantaneBinaire.lireAppels(cheminFichierAppels));
+        System.out.println(modele.resume());
+
+        LocalDateTime debut = Horodatage.date(modele.getFinHistorique()).plusDays(1).atStartOfDay();
+        SimulationGenerative.Resultats resultats = new SimulationGenerative(modele, facteurCharge, facteurEffectifs)
+                .executer(debut, jours, graine);
+        System.out.println(resultats.resume());
+        return resultats;
+    }
+
+    /**
+     * Recherche des effectifs minimaux par heure ({@link OptimiseurEffectifs}) sur les heures de la semaine
+     * {@code [premiereHeure, premiereHeure + nombreHeures)}, à partir du modèle de charge ajusté sur les appels.
+     */
+    public OptimiseurEffectifs.Plan lancerOptimisationEffectifs(String cheminFichierAppels, int premiereHeure,
+                                                                int nombreHeures, double niveauServiceCible,
+                                                                double attenteMoyenneCible, int replications,
+                                                                double facteurCharge, long graine,
+                                                                int parallelisme) throws Exception {
+        System.out.println(">>> Recherche des effectifs par simulation <<<");
+
+        ModeleCharge modele = ModeleCharge.ajuster(InstantaneBinaire.lireAppels(cheminFichierAppels));
+        System.out.println(modele.resume());
+
+        OptimiseurEffectifs.Plan plan = new OptimiseurEffectifs(modele, facteurCharge, niveauServiceCible,
+                attenteMoyenneCible, replications, parallelisme).optimiser(premiereHeure, nombreHeures, graine);
+        System.out.println(plan.resume());
+        return plan;
+    }
+
+    /**
+     * Jeu de données synthétique au format VANAD ({@link GenerateurVanad}) : {@code semaines} semaines à partir
+     * du lundi suivant l'historique, volumes et effectifs du modèle ajusté sur les appels multipliés par les
+     * facteurs donnés.
+     */
+    public void genererJeuSynthetique(String cheminFichierAppels, String sortieAppels, String sortieActivites,
+                                      int semaines, double facteurVolume, double facteurAgents,
+                                      long graine) throws Exception {
+        System.out.println(">>> Génération d'un jeu de données synthétique <<<");
+
+        ModeleCharge modele = ModeleCharge.ajuster(InstantaneBinaire.lireAppels(cheminFichierAppels));
+        System.out.println(modele.resume());
+
+        GenerateurVanad generateur = new GenerateurVanad(modele, facteurVolume, facteurAgents);
+        LocalDateTime debut = Horodatage.date(modele.getFinHistorique())
+                .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay();
+        int heures = semaines * ModeleCharge.HEURES_SEMAINE;
+
+        long depart = System.nanoTime();
+        long appels = generateur.ecrireAppels(Path.of(sortieAppels), debut, heures, graine);
+        double dureeAppels = (System.nanoTime() - depart) / 1e9;
+        depart = System.nanoTime();
+        long activites = generateur.ecrireActivites(Path.of(sortieActivites), debut, heures, graine);
+        double dureeActivites = (System.nanoTime() - depart) / 1e9;
+
+        System.out.printf(Locale.US, "%d appels écrits dans %s en %.1f s (%.0f lignes/s)%n",
+                appels, sortieAppels, dureeAppels, appels / dureeAppels);
+        System.out.printf(Locale.US, "%d activités de %d agents écrites dans %s en %.1f s (%.0f lignes/s)%n",
+                activites, generateur.nombreAgents(), sortieActivites, dureeActivites, activites / dureeActivites);
+    }
+
     /**
      * Charge, filtre, trie et prépare les données pour la simulation.
+     * Les données sont tenues sous forme colonnaire (dates en secondes epoch) de bout en bout.
      */
     private void chargerEtPreparerDonnees(String cheminAppels, String cheminActivites) throws Exception {
         System.out.println("Chargement des données depuis les fichiers CSV...");
 
-        List<Appel> appelsBruts = LecteurCSV.lireAppels(cheminAppels);
-        System.out.println("Nombre total d'appels chargés : " + appelsBruts.size());
+        EvenementsJfr.Phase phase = EvenementsJfr.Phase.debuter("chargement", "appels");
+        AppelsColonnaires appelsLus = InstantaneBinaire.lireAppels(cheminAppels);
+        phase.terminer(appelsLus.taille());
+        System.out.println("Nombre total d'appels chargés : " + appelsLus.taille());
 
         // === Filtrage par jours et heures d'ouverture (lundi–vendredi, 08h–20h) ===
-        appelsBruts = appelsBruts.stream()
-                .filter(appel -> {
-                    LocalDateTime dt = appel.getDateReceptionAppel();
-                    if (dt == null) return false;
-                    DayOfWeek jour = dt.getDayOfWeek();
-                    LocalTime heure = dt.toLocalTime();
-                    boolean jourOuvre = (jour != DayOfWeek.SATURDAY && jour != DayOfWeek.SUNDAY);
-                    boolean horaireOuvre = !heure.isBefore(LocalTime.of(8, 0)) && !heure.isAfter(LocalTime.of(20, 0));
-                    return jourOuvre && horaireOuvre;
-                })
-                .collect(Collectors.toList());
-
-        System.out.println("Appels après filtrage horaire (jours + heures ouvrées) : " + appelsBruts.size());
+        phase = EvenementsJfr.Phase.debuter("filtrage", "appels");
+        AppelsColonnaires appelsBruts = appelsLus.selectionner(i -> estJourEtHeureOuvres(appelsLus.getReception(i)));
+
+        System.out.println("Appels après filtrage horaire (jours + heures ouvrées) : " + appelsBruts.taille());
 
         // === Calcul des volumes d'appels par service ===
-        Map<String, Long> volumesParService = appelsBruts.stream()
-                .filter(appel -> appel.getNomFileAttenteClient() != null)
-                .filter(appel -> appel.getDateReceptionAppel() != null
-                        && appel.getDateReponseAgent() != null
-                        && appel.getDateRaccrochage() != null)
-                .collect(Collectors.groupingBy(Appel::getNomFileAttenteClient, Collectors.counting()));
-
-        servicesPrincipaux = volumesParService.entrySet().stream()
+        long[] volumesParCode = new long[appelsBruts.nombreServices()];
+        Map<String, Long> volumesParService = new HashMap<>();
+        for (int i = 0; i < appelsBruts.taille(); i++) {
+            if (appelsBruts.getCodeService(i) != AppelsColonnaires.AUCUN && estAppelComplet(appelsBruts, i)) {
+                volumesParCode[appelsBruts.getCodeService(i)]++;
+                volumesParService.putIfAbsent(appelsBruts.getService(i), 0L);
+            }
+        }
+        volumesParService.replaceAll((service, volume) -> volumesParCode[appelsBruts.codeDeService(service)]);
+
+        servicesPrincipaux = choisirServicesPrincipaux(volumesParService);
+
+        System.out.println("Services principaux retenus : " + Arrays.toString(servicesPrincipaux));
+
+        boolean[] codesPrincipaux = new boolean[appelsBruts.nombreServices()];
+        for (String service : servicesPrincipaux) {
+            codesPrincipaux[appelsBruts.codeDeService(service)] = true;
+        }
+
+        AppelsColonnaires appelsRetenus = appelsBruts
+                .selectionner(i -> appelsBruts.getCodeService(i) != AppelsColonnaires.AUCUN
+                        && codesPrincipaux[appelsBruts.getCodeService(i)]
+                        && estAppelComplet(appelsBruts, i));
+        phase.terminer(appelsRetenus.taille());
+
+        phase = EvenementsJfr.Phase.debuter("tri", "appels");
+        appelsFiltres = appelsRetenus.trierParReception();
+        phase.terminer(appelsFiltres.taille());
+
+        phase = EvenementsJfr.Phase.debuter("chargement", "activités");
+        ActivitesColonnaires activitesLues = InstantaneBinaire.lireActivites(cheminActivites);
+        phase.terminer(activitesLues.taille());
+
+        phase = EvenementsJfr.Phase.debuter("filtrage", "activités");
+        ActivitesColonnaires activitesRetenues = activitesLues
+                .selectionner(i -> activitesLues.getDebut(i) != Horodatage.ABSENT
+                        && activitesLues.getFin(i) != Horodatage.ABSENT);
+        phase.terminer(activitesRetenues.taille());
+
+        phase = EvenementsJfr.Phase.debuter("tri", "activités");
+        activitesAgents = activitesRetenues.trierParDebut();
+        phase.terminer(activitesAgents.taille());
+
+        System.out.println("Appels filtrés pour simulation : " + appelsFiltres.taille());
+        System.out.println("Activités agents chargées : " + activitesAgents.taille());
+    }
+
+    // === Les 5 services les plus volumineux (au moins 200 appels complets) ===
+    private static String[] choisirServicesPrincipaux(Map<String, Long> volumesParService)
+    {
+        return volumesParService.entrySet().stream()
                 .filter(e -> e.getValue() >= 200)
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .limit(5)
                 .map(Map.Entry::getKey)
                 .toArray(String[]::new);
+    }
 
-        System.out.println("Services principaux retenus : " + Arrays.toString(servicesPrincipaux));
-
-        appelsFiltres = appelsBruts.stream()
-                .filter(appel -> Arrays.asList(servicesPrincipaux).contains(appel.getNomFileAttenteClient()))
-                .filter(appel -> appel.getDateReceptionAppel() != null
-                        && appel.getDateReponseAgent() != null
-                        && appel.getDateRaccrochage() != null)
-                .sorted(Comparator.comparing(Appel::getDateReceptionAppel))
-                .collect(Collectors.toList());
+    // === Lundi–vendredi, entre 08:00:00 et 20:00:00 inclus ===
+    private static boolean estJourEtHeureOuvres(long reception)
+    {
+        if (reception == Horodatage.ABSENT) return false;
+        int jour = Horodatage.jourSemaine(reception);
+        int seconde = Horodatage.secondeDansJournee(reception);
+        boolean jourOuvre = jour != DayOfWeek.SATURDAY.getValue() && jour != DayOfWeek.SUNDAY.getValue();
+        boolean horaireOuvre = seconde >= LocalTime.of(8, 0).toSecondOfDay() && seconde <= LocalTime.of(20, 0).toSecondOfDay();
+        return jourOuvre && horaireOuvre;
+    }
 
-        activitesAgents = LecteurCSV.lireActivites(cheminActivites).stream()
-                .filter(a -> a.getDebutActivite() != null && a.getFinActivite() != null)
-                .sorted(Comparator.comparing(ActiviteAgent::getDebutActivite))
-                .collect(Collectors.toList());
+    // === Appel ayant une réception, une réponse et un raccrochage ===
+    private static boolean estAppelComplet(AppelsColonnaires appels, int i)
+    {
+        return appels.getReception(i) != Horodatage.ABSENT
+                && appels.getReponse(i) != Horodatage.ABSENT
+                && appels.getRaccrochage(i) != Horodatage.ABSENT;
+    }
 
-        System.out.println("Appels filtrés pour simulation : " + appelsFiltres.size());
-        System.out.println("Activités agents chargées : " + activitesAgents.size());
+    private static boolean estAppelComplet(Appel appel)
+    {
+        return appel.getDateReceptionAppel() != null
+                && appel.getDateReponseAgent() != null
+                && appel.getDateRaccrochage() != null;
     }
 
     /**
@@ -115,24 +422,28 @@ public class SimulationCentreAppels
      */
     private void initialiserMoteurReplay() {
         moteurReplay = new MoteurReplay(servicesPrincipaux, appelsFiltres, activitesAgents);
+        moteurReplay.utiliserReseauANN(reseauANN);
+        moteurReplay.publierMetriques(metriques);
     }
 
     /**
-     * Exécute la simulation appel par appel.
+     * Exécute la simulation appel par appel ; chaque échantillon valide est exporté dès sa capture.
      */
-    private void executerReplayEvenementParEvenement()
+    private void executerReplayEvenementParEvenement(PuitsEchantillons exportateur) throws IOException
     {
-        int totalAppels = appelsFiltres.size();
+        int totalAppels = appelsFiltres.taille();
         int compteur = 0;
+        EvenementsJfr.Phase phase = EvenementsJfr.Phase.debuter("replay", "appels");
 
-        for (Appel appel : appelsFiltres) {
-            EtatSysteme etat = moteurReplay.capturerEtatSysteme(appel, appel.getDateReceptionAppel());
+        for (int i = 0; i < totalAppels; i++) {
+            EtatSysteme etat = moteurReplay.capturerEtatSysteme(i);
 
             if (echantillonValide(etat)) {
-                donneesEntrainement.add(etat);
+                exportateur.ecrire(etat);
+                synthese.ajouter(etat);
             }
 
-            moteurReplay.enregistrerEvenementAppel(appel);
+            moteurReplay.enregistrerEvenementAppel(i);
             compteur++;
 
             // Affichage allégé pour suivi de la progression
@@ -141,6 +452,7 @@ public class SimulationCentreAppels
                         compteur, totalAppels, 100.0 * compteur / totalAppels);
             }
         }
+        phase.terminer(totalAppels);
     }
 
     /**
@@ -154,73 +466,101 @@ public class SimulationCentreAppels
     }
 
     /**
-     * Exporte les données d'entraînement dans un fichier CSV.
+     * Active en plus du CSV l'export binaire colonne par colonne (float32 .npy et manifeste JSON)
+     * dans le répertoire {@value #REPERTOIRE_SORTIE_NPY}, cf. {@link ExportateurColonnesNpy}.
+     */
+    public void activerExportColonnesNpy(boolean actif) {
+        this.exportColonnesNpy = actif;
+    }
+
+    /**
+     * Charge un réseau ANN exporté par le notebook d'entraînement et l'évalue, à côté de LES et Avg-LES,
+     * sur chaque état capturé lors des replays suivants (cf. {@link ReseauANN}).
      */
-    private void exporterDonneesEntrainement() throws IOException {
-        String fichierSortie = "jeu_donnees_ann_vanad.csv";
-        System.out.println("Export des données d'entraînement vers : " + fichierSortie);
+    public void activerPredicteurANN(Path fichierModele) throws IOException {
+        this.reseauANN = ReseauANN.charger(fichierModele);
+        System.out.printf("Réseau ANN chargé : %s (%d entrées, %d neurones cachés)%n", fichierModele,
+                reseauANN.getNombreEntrees(), reseauANN.getNombreCachees());
+    }
 
-        try (FileWriter fw = new FileWriter(fichierSortie)) {
-            fw.append(String.join(",", EtatSysteme.nomsColonnesCSV())).append(",attente_reelle\n");
+    /**
+     * Publie dans {@code registre} les métriques des moteurs de replay créés ensuite (débit, files, agents
+     * compatibles, RMSE glissante des prédicteurs), à exposer par exemple avec {@link ServeurMetriques}.
+     * Les moteurs du replay parallèle par jours, copies du moteur de référence, n'en publient pas.
+     */
+    public void activerMetriques(RegistreMetriques registre) {
+        this.metriques = registre;
+    }
 
-            for (EtatSysteme etat : donneesEntrainement) {
-                double[] vecteur = etat.transformerEnVecteurCaracteristiques();
-                for (double valeur : vecteur) {
-                    fw.append(String.format(Locale.US, "%.2f", valeur)).append(",");
-                }
-                fw.append(String.format(Locale.US, "%.2f", etat.getDelaiAttenteObserve())).append("\n");
-            }
+    /**
+     * Ouvre le fichier CSV des données d'entraînement (et les colonnes binaires si activées),
+     * alimentés au fil du replay.
+     */
+    private PuitsEchantillons ouvrirExport() throws IOException {
+        System.out.println("Export des données d'entraînement vers : " + FICHIER_SORTIE);
+        PuitsEchantillons csv = new ExportateurJeuDonnees(Path.of(FICHIER_SORTIE));
+        if (!exportColonnesNpy) return csv;
+
+        System.out.println("Export binaire des colonnes vers : " + REPERTOIRE_SORTIE_NPY);
+        try {
+            return PuitsEchantillons.combiner(csv, new ExportateurColonnesNpy(Path.of(REPERTOIRE_SORTIE_NPY)));
+        } catch (IOException e) {
+            csv.close();
+            throw e;
         }
     }
 
     /**
      * Analyse les résultats générés par la simulation.
      */
-    private void analyserResultatsSimulation() {
+    private void analyserResultatsSimulation() throws IOException {
         System.out.println("=== ANALYSE DES DONNÉES SIMULÉES ===");
 
-        if (donneesEntrainement.isEmpty()) {
+        if (synthese.estVide()) {
             System.out.println("Aucun échantillon généré.");
             return;
         }
 
-        EtatSysteme exemple = donneesEntrainement.get(0);
+        EtatSysteme exemple = synthese.getPremierEchantillon();
         System.out.println("Exemple d’échantillon simulé :");
         System.out.println(exemple);
 
-        double moyenneAttente = donneesEntrainement.stream()
-                .mapToDouble(EtatSysteme::getDelaiAttenteObserve).average().orElse(0);
-        double moyenneFile = donneesEntrainement.stream()
-                .mapToDouble(EtatSysteme::getTailleFilePrincipale).average().orElse(0);
-
-        System.out.printf("Nombre total d’échantillons : %d%n", donneesEntrainement.size());
-        System.out.printf("Temps d’attente moyen : %.1f secondes%n", moyenneAttente);
-        System.out.printf("Longueur moyenne de la file d’attente : %.1f%n", moyenneFile);
+        System.out.printf("Nombre total d’échantillons : %d%n", synthese.getNombre());
+        System.out.printf("Temps d’attente moyen : %.1f secondes%n", synthese.getMoyenneAttente());
+        System.out.printf("Longueur moyenne de la file d’attente : %.1f%n", synthese.getMoyenneTailleFile());
 
+        EvenementsJfr.Phase phase = EvenementsJfr.Phase.debuter("analyse", "échantillons");
         validerPredicteurs();
+        phase.terminer(synthese.getNombre());
     }
 
     /**
-     * Calcule et affiche les RMSE des prédicteurs LES et Avg-LES.
+     * Calcule et affiche les RMSE des prédicteurs LES et Avg-LES (et ANN s'il est actif), puis leur précision par segment
+     * (table complète service × jour × heure exportée en CSV).
      */
-    private void validerPredicteurs() {
-        System.out.println("=== VALIDATION DES PRÉDICTEURS LES ET AVG-LES ===");
-
-        double mseLes = donneesEntrainement.stream()
-                .mapToDouble(e -> Math.pow(e.getDelaiAttenteObserve() - e.getEstimationLES(), 2))
-                .average().orElse(0);
-
-        double mseAvg = donneesEntrainement.stream()
-                .mapToDouble(e -> Math.pow(e.getDelaiAttenteObserve() - e.getEstimationLESMoyenne(), 2))
-                .average().orElse(0);
-
-        double moyenneAttente = donneesEntrainement.stream()
-                .mapToDouble(EtatSysteme::getDelaiAttenteObserve).average().orElse(1);
+    private void validerPredicteurs() throws IOException {
+        System.out.println(reseauANN == null
+                ? "=== VALIDATION DES PRÉDICTEURS LES ET AVG-LES ==="
+                : "=== VALIDATION DES PRÉDICTEURS LES, AVG-LES ET ANN ===");
 
-        double rmseLes = Math.sqrt(mseLes);
-        double rmseAvg = Math.sqrt(mseAvg);
+        double moyenneAttente = synthese.getMoyenneAttente();
+        double rmseLes = Math.sqrt(synthese.getMseLES());
+        double rmseAvg = Math.sqrt(synthese.getMseLESMoyenne());
 
         System.out.printf("Prédicteur LES : RMSE = %.2f secondes, RRMSE = %.3f%n", rmseLes, rmseLes / moyenneAttente);
         System.out.printf("Prédicteur Avg-LES : RMSE = %.2f secondes, RRMSE = %.3f%n", rmseAvg, rmseAvg / moyenneAttente);
+        if (synthese.aPredictionsANN()) {
+            double rmseAnn = Math.sqrt(synthese.getMseANN());
+            System.out.printf("Prédicteur ANN : RMSE = %.2f secondes, RRMSE = %.3f%n", rmseAnn, rmseAnn / moyenneAttente);
+            if (!synthese.erreurANNPlausible()) {
+                System.out.printf("ATTENTION : RMSE ANN %.2f fois celle de LES, le modèle n'est sans doute pas"
+                        + " dans l'unité déclarée (clé « unite » du fichier de modèle)%n", rmseAnn / rmseLes);
+            }
+        }
+
+        EvaluationSegmentee evaluation = synthese.getEvaluation();
+        evaluation.afficherResume();
+        evaluation.exporterCSV(Path.of(FICHIER_EVALUATION));
+        System.out.println("Précision par service × jour × heure exportée vers : " + FICHIER_EVALUATION);
     }
-}
\ No newline at end of file
+}
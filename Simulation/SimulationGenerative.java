@@ -0,0 +1,633 @@
+package Simulation;
+
+import Modele.Horodatage;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Simulation à événements discrets générative : les appels ne sont plus rejoués mais tirés selon un
+ * {@link ModeleCharge} ajusté, pour répondre à des questions de type « et si » (charge, effectifs).
+ * <ul>
+ *   <li>arrivées : processus de Poisson non homogène par service, taux constant par heure de la semaine,
+ *       tiré exactement par inversion de l'intensité cumulée (aucun événement à annuler au changement d'heure) ;</li>
+ *   <li>routage par compétences : un appel va à un agent libre du profil le plus spécialisé qui traite
+ *       son service ; un agent qui se libère prend, parmi ses services, l'appel en attente le plus ancien ;</li>
+ *   <li>effectifs : ajustés à chaque heure sur l'effectif moyen du profil (arrondi aléatoire sans biais)
+ *       ou sur un plan de présence imposé ; un agent en trop termine son appel avant de quitter son poste ;</li>
+ *   <li>abandons : patience exponentielle par service.</li>
+ * </ul>
+ * L'échéancier est une file calendrier à clés primitives ({@link FileCalendrier} : instant en millisecondes,
+ * type d'événement et indice codés dans un entier), et tout l'état est tenu dans des tableaux d'entiers :
+ * aucune allocation par événement. Les indicateurs sont tenus par service et par heure de la semaine
+ * de réception des appels, éventuellement après une période de préparation non mesurée.
+ */
+public class SimulationGenerative
+{
+
+    /** Seuil du niveau de service : part des appels servis en moins de 20 secondes */
+    public static final double SEUIL_NIVEAU_SERVICE_SECONDES = 20.0;
+
+    private static final long MS_HEURE = 3_600_000L;
+    private static final int BITS_TYPE = 2;
+    private static final int MASQUE_TYPE = (1 << BITS_TYPE) - 1;
+    private static final int ARRIVEE = 0;
+    private static final int FIN_SERVICE = 1;
+    private static final int ABANDON = 2;
+    private static final int CHANGEMENT_HEURE = 3;
+
+    private final ModeleCharge modele;
+    private final String scenario;
+    private final double[][] effectifs;          // [profil][heure de la semaine], effectif visé
+
+    private final int nombreServices;
+    private final int nombreProfils;
+    private final double[][] tauxParMs;          // [service][heure de la semaine], arrivées par milliseconde
+    private final boolean[] serviceActif;
+    private final double[] tauxPatienceParMs;
+    private final int[][] profilsParService;     // profils traitant le service, du plus spécialisé au plus polyvalent
+    private final int[] premierAgent;            // agents du profil p : [premierAgent[p], premierAgent[p + 1])
+    private final int[] profilAgent;
+
+    // === État d'une exécution ===
+    private SplittableRandom alea;
+    private Echeancier calendrier;
+    private long maintenant;
+    private long debutMesure;                    // appels reçus avant cet instant (préparation) non comptés
+    private long debutHeure = Long.MAX_VALUE;    // heure de la semaine [debutHeure, debutHeure + 1 h) en cache
+    private int heureSemaine;
+
+    private int[] libres;                        // pile des agents libres, par profil (dans la plage du profil)
+    private int[] nombreLibres;
+    private int[] horsPoste;                     // pile des agents hors poste, par profil
+    private int[] nombreHorsPoste;
+    private int[] aRetirer;                      // agents occupés à retirer dès la fin de leur appel
+
+    private long[] receptionAppel;               // appels en attente (emplacements recyclés)
+    private int[] serviceAppel;
+    private boolean[] appelEnAttente;
+    private byte[] referencesAppel;              // présence en file + abandon planifié
+    private int[] emplacementsLibres;
+    private int nombreEmplacementsLibres;
+    private int nombreEmplacements;
+
+    private int[][] files;                       // files FIFO circulaires d'emplacements, par service
+    private int[] teteFile;
+    private int[] longueurFile;
+
+    private Resultats resultats;
+
+    /**
+     * @param modele           Modèle de charge ajusté
+     * @param facteurCharge    Multiplicateur des taux d'arrivée (1 : charge historique)
+     * @param facteurEffectifs Multiplicateur des effectifs par profil (1 : effectifs historiques)
+     */
+    public SimulationGenerative(ModeleCharge modele, double facteurCharge, double facteurEffectifs)
+    {
+        this(modele, facteurCharge, effectifsHistoriques(modele, facteurEffectifs),
+                String.format(Locale.US, "charge × %.2f, effectifs × %.2f", facteurCharge, facteurEffectifs));
+    }
+
+    /**
+     * @param modele        Modèle de charge ajusté
+     * @param facteurCharge Multiplicateur des taux d'arrivée (1 : charge historique)
+     * @param plan          Agents en poste par profil et par heure de la semaine ({@code [profil][168]})
+     */
+    public SimulationGenerative(ModeleCharge modele, double facteurCharge, int[][] plan)
+    {
+        this(modele, facteurCharge, effectifsPlanifies(modele, plan),
+                String.format(Locale.US, "charge × %.2f, effectifs planifiés", facteurCharge));
+    }
+
+    private static double[][] effectifsHistoriques(ModeleCharge modele, double facteurEffectifs)
+    {
+        double[][] effectifs = new double[modele.nombreProfils()][ModeleCharge.HEURES_SEMAINE];
+        for (int p = 0; p < effectifs.length; p++) {
+            for (int h = 0; h < ModeleCharge.HEURES_SEMAINE; h++) {
+                effectifs[p][h] = modele.getEffectif(p, h) * facteurEffectifs;
+            }
+        }
+        return effectifs;
+    }
+
+    private static double[][] effectifsPlanifies(ModeleCharge modele, int[][] plan)
+    {
+        if (plan.length != modele.nombreProfils()) {
+            throw new IllegalArgumentException("Plan de " + plan.length + " profils pour un modèle de "
+                    + modele.nombreProfils() + " profils");
+        }
+        double[][] effectifs = new double[plan.length][];
+        for (int p = 0; p < plan.length; p++) {
+            if (plan[p].length != ModeleCharge.HEURES_SEMAINE) {
+                throw new IllegalArgumentException("Plan du profil " + p + " sur " + plan[p].length + " heures au lieu de "
+                        + ModeleCharge.HEURES_SEMAINE);
+            }
+            effectifs[p] = Arrays.stream(plan[p]).asDoubleStream().toArray();
+        }
+        return effectifs;
+    }
+
+    private SimulationGenerative(ModeleCharge modele, double facteurCharge, double[][] effectifs, String scenario)
+    {
+        this.modele = modele;
+        this.scenario = scenario;
+        this.effectifs = effectifs;
+        this.nombreServices = modele.nombreServices();
+        this.nombreProfils = modele.nombreProfils();
+
+        tauxParMs = new double[nombreServices][ModeleCharge.HEURES_SEMAINE];
+        serviceActif = new boolean[nombreServices];
+        tauxPatienceParMs = new double[nombreServices];
+        for (int s = 0; s < nombreServices; s++) {
+            for (int h = 0; h < ModeleCharge.HEURES_SEMAINE; h++) {
+                tauxParMs[s][h] = modele.getTauxArrivee(s, h) * facteurCharge / MS_HEURE;
+                serviceActif[s] |= tauxParMs[s][h] > 0;
+            }
+            tauxPatienceParMs[s] = modele.getTauxPatience(s) / 1000.0;
+        }
+
+        profilsParService = new int[nombreServices][];
+        for (int s = 0; s < nombreServices; s++) {
+            profilsParService[s] = modele.getProfilsService(s);
+        }
+
+        // Places d'agents par profil : effectif maximal sur la semaine, arrondi au-dessus
+        premierAgent = new int[nombreProfils + 1];
+        for (int p = 0; p < nombreProfils; p++) {
+            double maximum = 0;
+            for (int h = 0; h < ModeleCharge.HEURES_SEMAINE; h++) maximum = Math.max(maximum, effectifs[p][h]);
+            premierAgent[p + 1] = premierAgent[p] + (int) Math.ceil(maximum);
+        }
+        profilAgent = new int[premierAgent[nombreProfils]];
+        for (int p = 0; p < nombreProfils; p++) {
+            Arrays.fill(profilAgent, premierAgent[p], premierAgent[p + 1], p);
+        }
+    }
+
+    /**
+     * Simule {@code jours} jours à partir de {@code debut} (état initial vide).
+     *
+     * @param graine Graine des tirages : deux exécutions de même graine sont identiques
+     */
+    public Resultats executer(LocalDateTime debut, int jours, long graine)
+    {
+        return executer(debut, 0, jours * 24, new SplittableRandom(graine));
+    }
+
+    /**
+     * Simule {@code heuresPreparation} heures non mesurées (le centre se remplit), puis {@code heures} heures
+     * mesurées à partir de {@code debut}. Une instance ne doit servir qu'à une exécution à la fois.
+     *
+     * @param alea Flux de tirages propre à l'exécution (par exemple {@code racine.split()})
+     */
+    public Resultats executer(LocalDateTime debut, int heuresPreparation, int heures, SplittableRandom alea)
+    {
+        debutMesure = Horodatage.enSecondes(debut) * 1000;
+        long debutMs = debutMesure - heuresPreparation * MS_HEURE;
+        long finMs = debutMesure + heures * MS_HEURE;
+        initialiser(alea);
+
+        long depart = System.nanoTime();
+        maintenant = debutMs;
+        ajusterEffectifs(Math.floorDiv(debutMs, MS_HEURE));
+        calendrier.ajouter((Math.floorDiv(debutMs, MS_HEURE) + 1) * MS_HEURE, CHANGEMENT_HEURE);
+        for (int s = 0; s < nombreServices; s++) {
+            if (serviceActif[s]) calendrier.ajouter(prochaineArrivee(s, debutMs), s << BITS_TYPE | ARRIVEE);
+        }
+
+        long evenements = 0;
+        while (!calendrier.estVide() && calendrier.cleMin() < finMs) {
+            maintenant = calendrier.cleMin();
+            int evenement = calendrier.valeurMin();
+            calendrier.retirerMin();
+            int indice = evenement >>> BITS_TYPE;
+            switch (evenement & MASQUE_TYPE) {
+                case ARRIVEE -> traiterArrivee(indice);
+                case FIN_SERVICE -> traiterFinService(indice);
+                case ABANDON -> traiterAbandon(indice);
+                default -> {
+                    long heure = maintenant / MS_HEURE;
+                    ajusterEffectifs(heure);
+                    calendrier.ajouter((heure + 1) * MS_HEURE, CHANGEMENT_HEURE);
+                }
+            }
+            evenements++;
+        }
+
+        resultats.evenements = evenements;
+        resultats.dureeNanos = System.nanoTime() - depart;
+        resultats.heures = heures;
+        return resultats;
+    }
+
+    private void initialiser(SplittableRandom alea)
+    {
+        this.alea = alea;
+        calendrier = new FileCalendrier(1024);
+        int agents = profilAgent.length;
+        libres = new int[agents];
+        horsPoste = new int[agents];
+        nombreLibres = new int[nombreProfils];
+        nombreHorsPoste = new int[nombreProfils];
+        aRetirer = new int[nombreProfils];
+        for (int p = 0; p < nombreProfils; p++) {
+            for (int a = premierAgent[p + 1] - 1; a >= premierAgent[p]; a--) {
+                horsPoste[premierAgent[p] + nombreHorsPoste[p]++] = a;
+            }
+        }
+
+        nombreEmplacements = 0;
+        nombreEmplacementsLibres = 0;
+        receptionAppel = new long[1024];
+        serviceAppel = new int[1024];
+        appelEnAttente = new boolean[1024];
+        referencesAppel = new byte[1024];
+        emplacementsLibres = new int[1024];
+
+        files = new int[nombreServices][64];
+        teteFile = new int[nombreServices];
+        longueurFile = new int[nombreServices];
+        resultats = new Resultats(modele, scenario);
+    }
+
+    // === Arrivées : inversion de l'intensité cumulée, heure par heure ===
+    private long prochaineArrivee(int service, long depuis)
+    {
+        double[] taux = tauxParMs[service];
+        double reste = -Math.log(1.0 - alea.nextDouble());
+        long heure = Math.floorDiv(depuis, MS_HEURE);
+        double instant = depuis;
+        while (true) {
+            double tauxHeure = taux[ModeleCharge.heureSemaineDeHeure(heure)];
+            double finHeure = (double) (heure + 1) * MS_HEURE;
+            if (tauxHeure > 0) {
+                double ecart = reste / tauxHeure;
+                if (instant + ecart < finHeure) return Math.max(depuis, (long) (instant + ecart));
+                reste -= tauxHeure * (finHeure - instant);
+            }
+            instant = finHeure;
+            heure++;
+        }
+    }
+
+    private void traiterArrivee(int service)
+    {
+        calendrier.ajouter(prochaineArrivee(service, maintenant), service << BITS_TYPE | ARRIVEE);
+        boolean mesure = maintenant >= debutMesure;
+        if (mesure) resultats.compterOffert(service, heureSemaine(maintenant));
+
+        for (int profil : profilsParService[service]) {
+            if (nombreLibres[profil] > 0) {
+                int agent = libres[premierAgent[profil] + --nombreLibres[profil]];
+                servir(agent, service, 0);
+                return;
+            }
+        }
+
+        if (profilsParService[service].length == 0) {
+            // Aucun profil ne traite ce service : l'appel ne peut qu'être abandonné
+            if (mesure) resultats.abandons[service]++;
+            return;
+        }
+
+        int appel = nouvelEmplacement();
+        receptionAppel[appel] = maintenant;
+        serviceAppel[appel] = service;
+        appelEnAttente[appel] = true;
+        referencesAppel[appel] = 1;
+        enfiler(service, appel);
+        resultats.enAttente[service]++;
+        resultats.attenteMaximale[service] = Math.max(resultats.attenteMaximale[service], resultats.enAttente[service]);
+
+        double patience = tauxPatienceParMs[service];
+        if (patience > 0) {
+            referencesAppel[appel]++;
+            long echeance = maintenant + 1 + (long) (-Math.log(1.0 - alea.nextDouble()) / patience);
+            calendrier.ajouter(echeance, appel << BITS_TYPE | ABANDON);
+        }
+    }
+
+    private void servir(int agent, int service, long attente)
+    {
+        long reception = maintenant - attente;
+        if (reception >= debutMesure) resultats.compterServi(service, heureSemaine(reception), attente);
+        long duree = Math.max(1, (long) (modele.tirerDuree(service, alea) * 1000));
+        calendrier.ajouter(maintenant + duree, agent << BITS_TYPE | FIN_SERVICE);
+    }
+
+    private void traiterFinService(int agent)
+    {
+        int profil = profilAgent[agent];
+        if (aRetirer[profil] > 0) {
+            aRetirer[profil]--;
+            horsPoste[premierAgent[profil] + nombreHorsPoste[profil]++] = agent;
+            return;
+        }
+        prendreOuLiberer(agent, profil);
+    }
+
+    // === Un agent disponible prend l'appel en attente le plus ancien parmi ses services, sinon devient libre ===
+    private void prendreOuLiberer(int agent, int profil)
+    {
+        int meilleurService = -1;
+        long meilleureReception = Long.MAX_VALUE;
+        for (int service : modele.getServicesProfil(profil)) {
+            int appel = teteEnAttente(service);
+            if (appel >= 0 && receptionAppel[appel] < meilleureReception) {
+                meilleureReception = receptionAppel[appel];
+                meilleurService = service;
+            }
+        }
+
+        if (meilleurService < 0) {
+            libres[premierAgent[profil] + nombreLibres[profil]++] = agent;
+            return;
+        }
+        int appel = defiler(meilleurService);
+        appelEnAttente[appel] = false;
+        resultats.enAttente[meilleurService]--;
+        relacher(appel);
+        servir(agent, meilleurService, maintenant - meilleureReception);
+    }
+
+    private void traiterAbandon(int appel)
+    {
+        if (appelEnAttente[appel]) {
+            appelEnAttente[appel] = false;
+            int service = serviceAppel[appel];
+            if (receptionAppel[appel] >= debutMesure) resultats.abandons[service]++;
+            resultats.enAttente[service]--;
+        }
+        relacher(appel);
+    }
+
+    // === Effectifs de l'heure : arrondi aléatoire de l'effectif moyen, retraits par les agents libres d'abord ===
+    private void ajusterEffectifs(long heureEpoch)
+    {
+        int heureSemaine = ModeleCharge.heureSemaineDeHeure(heureEpoch);
+        for (int p = 0; p < nombreProfils; p++) {
+            double effectif = effectifs[p][heureSemaine];
+            int cible = (int) effectif + (alea.nextDouble() < effectif - (int) effectif ? 1 : 0);
+            int places = premierAgent[p + 1] - premierAgent[p];
+            cible = Math.min(cible, places);
+            int enPoste = places - nombreHorsPoste[p] - aRetirer[p];
+            int ecart = cible - enPoste;
+
+            if (ecart > 0) {
+                int annules = Math.min(aRetirer[p], ecart);
+                aRetirer[p] -= annules;
+                ecart -= annules;
+                while (ecart-- > 0) {
+                    int agent = horsPoste[premierAgent[p] + --nombreHorsPoste[p]];
+                    prendreOuLiberer(agent, p);
+                }
+            } else {
+                while (ecart < 0 && nombreLibres[p] > 0) {
+                    int agent = libres[premierAgent[p] + --nombreLibres[p]];
+                    horsPoste[premierAgent[p] + nombreHorsPoste[p]++] = agent;
+                    ecart++;
+                }
+                aRetirer[p] -= ecart;
+            }
+        }
+    }
+
+    // === Heure de la semaine d'un instant (la plupart des instants tombent dans l'heure en cours) ===
+    private int heureSemaine(long instant)
+    {
+        if (instant < debutHeure || instant >= debutHeure + MS_HEURE) {
+            long heure = Math.floorDiv(instant, MS_HEURE);
+            debutHeure = heure * MS_HEURE;
+            heureSemaine = ModeleCharge.heureSemaineDeHeure(heure);
+        }
+        return heureSemaine;
+    }
+
+    // === Files d'attente circulaires ; les appels abandonnés sont retirés paresseusement en tête ===
+
+    private int teteEnAttente(int service)
+    {
+        while (longueurFile[service] > 0) {
+            int appel = files[service][teteFile[service]];
+            if (appelEnAttente[appel]) return appel;
+            defiler(service);
+            relacher(appel);
+        }
+        return -1;
+    }
+
+    private void enfiler(int service, int appel)
+    {
+        int[] file = files[service];
+        if (longueurFile[service] == file.length) {
+            int[] agrandie = new int[file.length * 2];
+            for (int k = 0; k < longueurFile[service]; k++) {
+                agrandie[k] = file[(teteFile[service] + k) & (file.length - 1)];
+            }
+            files[service] = file = agrandie;
+            teteFile[service] = 0;
+        }
+        file[(teteFile[service] + longueurFile[service]++) & (file.length - 1)] = appel;
+    }
+
+    private int defiler(int service)
+    {
+        int[] file = files[service];
+        int appel = file[teteFile[service]];
+        teteFile[service] = (teteFile[service] + 1) & (file.length - 1);
+        longueurFile[service]--;
+        return appel;
+    }
+
+    // === Emplacements d'appels en attente, libérés quand plus rien ne les référence ===
+
+    private int nouvelEmplacement()
+    {
+        if (nombreEmplacementsLibres > 0) return emplacementsLibres[--nombreEmplacementsLibres];
+        if (nombreEmplacements == receptionAppel.length) {
+            int capacite = nombreEmplacements * 2;
+            receptionAppel = Arrays.copyOf(receptionAppel, capacite);
+            serviceAppel = Arrays.copyOf(serviceAppel, capacite);
+            appelEnAttente = Arrays.copyOf(appelEnAttente, capacite);
+            referencesAppel = Arrays.copyOf(referencesAppel, capacite);
+            emplacementsLibres = Arrays.copyOf(emplacementsLibres, capacite);
+        }
+        return nombreEmplacements++;
+    }
+
+    private void relacher(int appel)
+    {
+        if (--referencesAppel[appel] == 0) emplacementsLibres[nombreEmplacementsLibres++] = appel;
+    }
+
+    /**
+     * Indicateurs d'une exécution, par service et par heure de la semaine de réception des appels
+     * (appels reçus pendant la période mesurée).
+     */
+    public static final class Resultats
+    {
+        private final ModeleCharge modele;
+        private final String scenario;
+
+        final long[] offerts;
+        final long[] servis;
+        final long[] servisDansLeDelai;
+        final long[] abandons;
+        final long[] attenteCumulee;        // ms, appels servis
+        final long[][] offertsHeure;        // [service][heure de la semaine]
+        final long[][] servisHeure;
+        final long[][] servisDansLeDelaiHeure;
+        final long[][] attenteCumuleeHeure; // ms
+        final int[] enAttente;
+        final int[] attenteMaximale;
+        long evenements;
+        long dureeNanos;
+        int heures;
+
+        Resultats(ModeleCharge modele, String scenario)
+        {
+            this.modele = modele;
+            this.scenario = scenario;
+            int n = modele.nombreServices();
+            offerts = new long[n];
+            servis = new long[n];
+            servisDansLeDelai = new long[n];
+            abandons = new long[n];
+            attenteCumulee = new long[n];
+            offertsHeure = new long[n][ModeleCharge.HEURES_SEMAINE];
+            servisHeure = new long[n][ModeleCharge.HEURES_SEMAINE];
+            servisDansLeDelaiHeure = new long[n][ModeleCharge.HEURES_SEMAINE];
+            attenteCumuleeHeure = new long[n][ModeleCharge.HEURES_SEMAINE];
+            enAttente = new int[n];
+            attenteMaximale = new int[n];
+        }
+
+        void compterOffert(int service, int heure)
+        {
+            offerts[service]++;
+            offertsHeure[service][heure]++;
+        }
+
+        void compterServi(int service, int heure, long attente)
+        {
+            boolean dansLeDelai = attente <= SEUIL_NIVEAU_SERVICE_SECONDES * 1000;
+            servis[service]++;
+            attenteCumulee[service] += attente;
+            servisHeure[service][heure]++;
+            attenteCumuleeHeure[service][heure] += attente;
+            if (dansLeDelai) {
+                servisDansLeDelai[service]++;
+                servisDansLeDelaiHeure[service][heure]++;
+            }
+        }
+
+        public long getOfferts(int service)
+        {
+            return offerts[service];
+        }
+
+        public long getServis(int service)
+        {
+            return servis[service];
+        }
+
+        public long getAbandons(int service)
+        {
+            return abandons[service];
+        }
+
+        /** Attente moyenne des appels servis, en secondes */
+        public double getAttenteMoyenne(int service)
+        {
+            return servis[service] == 0 ? 0.0 : attenteCumulee[service] / 1000.0 / servis[service];
+        }
+
+        /** Part des appels offerts servis en moins de {@link #SEUIL_NIVEAU_SERVICE_SECONDES} */
+        public double getNiveauService(int service)
+        {
+            return offerts[service] == 0 ? 1.0 : (double) servisDansLeDelai[service] / offerts[service];
+        }
+
+        /** Niveau de service toutes files confondues */
+        public double getNiveauServiceGlobal()
+        {
+            long dansLeDelai = Arrays.stream(servisDansLeDelai).sum();
+            long total = Arrays.stream(offerts).sum();
+            return total == 0 ? 1.0 : (double) dansLeDelai / total;
+        }
+
+        public double getTauxAbandonGlobal()
+        {
+            long total = Arrays.stream(offerts).sum();
+            return total == 0 ? 0.0 : (double) Arrays.stream(abandons).sum() / total;
+        }
+
+        /** Appels reçus à l'heure de la semaine donnée, toutes files confondues */
+        public long getOffertsHeure(int heureSemaine)
+        {
+            long total = 0;
+            for (long[] offertsService : offertsHeure) total += offertsService[heureSemaine];
+            return total;
+        }
+
+        /** Niveau de service des appels reçus à l'heure de la semaine donnée, pour un service */
+        public double getNiveauService(int service, int heureSemaine)
+        {
+            long offertsService = offertsHeure[service][heureSemaine];
+            return offertsService == 0 ? 1.0 : (double) servisDansLeDelaiHeure[service][heureSemaine] / offertsService;
+        }
+
+        /** Niveau de service des appels reçus à l'heure de la semaine donnée, toutes files confondues */
+        public double getNiveauServiceHeure(int heureSemaine)
+        {
+            long dansLeDelai = 0;
+            for (long[] servisService : servisDansLeDelaiHeure) dansLeDelai += servisService[heureSemaine];
+            long total = getOffertsHeure(heureSemaine);
+            return total == 0 ? 1.0 : (double) dansLeDelai / total;
+        }
+
+        /** Attente moyenne (secondes) des appels servis reçus à l'heure de la semaine donnée */
+        public double getAttenteMoyenneHeure(int heureSemaine)
+        {
+            long nombre = 0;
+            long attente = 0;
+            for (int s = 0; s < servisHeure.length; s++) {
+                nombre += servisHeure[s][heureSemaine];
+                attente += attenteCumuleeHeure[s][heureSemaine];
+            }
+            return nombre == 0 ? 0.0 : attente / 1000.0 / nombre;
+        }
+
+        public long getEvenements()
+        {
+            return evenements;
+        }
+
+        public double getEvenementsParSeconde()
+        {
+            return dureeNanos == 0 ? 0.0 : evenements / (dureeNanos / 1e9);
+        }
+
+        public String resume()
+        {
+            StringBuilder texte = new StringBuilder();
+            texte.append(String.format(Locale.US, "Scénario : %s, %s%n", scenario,
+                    heures % 24 == 0 ? heures / 24 + " jours" : heures + " heures"));
+            texte.append(String.format(Locale.US, "%-8s %10s %10s %9s %11s %9s %11s%n",
+                    "Service", "Offerts", "Servis", "Abandons", "Attente moy.", "NS 20 s", "File max"));
+            for (int s = 0; s < offerts.length; s++) {
+                texte.append(String.format(Locale.US, "%-8s %10d %10d %8.1f%% %10.1f s %8.1f%% %11d%n",
+                        modele.getService(s), offerts[s], servis[s],
+                        offerts[s] == 0 ? 0.0 : 100.0 * abandons[s] / offerts[s],
+                        getAttenteMoyenne(s), 100 * getNiveauService(s), attenteMaximale[s]));
+            }
+            texte.append(String.format(Locale.US, "Global : NS 20 s %.1f%%, abandons %.1f%%%n",
+                    100 * getNiveauServiceGlobal(), 100 * getTauxAbandonGlobal()));
+            texte.append(String.format(Locale.US, "%d événements en %.2f s (%.1f M événements/s)",
+                    evenements, dureeNanos / 1e9, getEvenementsParSeconde() / 1e6));
+            return texte.toString();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package Simulation;
+
+import java.util.DoubleSummaryStatistics;
+
+/**
+ * Synthèse cumulée des échantillons d'entraînement, alimentée au fil du replay.
+ * Permet d'analyser les résultats (moyennes, erreurs des prédicteurs LES, Avg-LES et ANN)
+ * sans conserver la liste des échantillons, notamment en mode flux.
+ * Les moyennes utilisent la même sommation compensée que {@code DoubleStream.average()}.
+ * La précision des prédicteurs est aussi ventilée par segment (cf. {@link EvaluationSegmentee}).
+ */
+public class SyntheseEchantillons
+{
+
+    /**
+     * Rapport maximal entre les RMSE de l'ANN et de LES pour un réseau plausible : un modèle appliqué
+     * dans la mauvaise unité (minutes contre secondes) s'en écarte d'un facteur proche de 60.
+     */
+    static final double RAPPORT_ERREUR_ANN_MAX = 10.0;
+
+    private EtatSysteme premierEchantillon;
+    private final DoubleSummaryStatistics attentes = new DoubleSummaryStatistics();
+    private final DoubleSummaryStatistics taillesFile = new DoubleSummaryStatistics();
+    private final DoubleSummaryStatistics carresErreurLES = new DoubleSummaryStatistics();
+    private final DoubleSummaryStatistics carresErreurLESMoyenne = new DoubleSummaryStatistics();
+    private final DoubleSummaryStatistics carresErreurANN = new DoubleSummaryStatistics();
+    private final EvaluationSegmentee evaluation = new EvaluationSegmentee();
+
+    // === Prise en compte d'un échantillon valide ===
+    public void ajouter(EtatSysteme etat)
+    {
+        if (premierEchantillon == null) premierEchantillon = etat;
+
+        attentes.accept(etat.getDelaiAttenteObserve());
+        taillesFile.accept(etat.getTailleFilePrincipale());
+        carresErreurLES.accept(Math.pow(etat.getDelaiAttenteObserve() - etat.getEstimationLES(), 2));
+        carresErreurLESMoyenne.accept(Math.pow(etat.getDelaiAttenteObserve() - etat.getEstimationLESMoyenne(), 2));
+        if (!Double.isNaN(etat.getEstimationANN())) {
+            carresErreurANN.accept(Math.pow(etat.getDelaiAttenteObserve() - etat.getEstimationANN(), 2));
+        }
+        evaluation.ajouter(etat);
+    }
+
+    public long getNombre()
+    {
+        return attentes.getCount();
+    }
+
+    public boolean estVide()
+    {
+        return attentes.getCount() == 0;
+    }
+
+    public EtatSysteme getPremierEchantillon()
+    {
+        return premierEchantillon;
+    }
+
+    public double getMoyenneAttente()
+    {
+        return attentes.getAverage();
+    }
+
+    public double getMoyenneTailleFile()
+    {
+        return taillesFile.getAverage();
+    }
+
+    public double getMseLES()
+    {
+        return carresErreurLES.getAverage();
+    }
+
+    public double getMseLESMoyenne()
+    {
+        return carresErreurLESMoyenne.getAverage();
+    }
+
+    /** Vrai si au moins un échantillon porte une prédiction du réseau ANN */
+    public boolean aPredictionsANN()
+    {
+        return carresErreurANN.getCount() > 0;
+    }
+
+    public double getMseANN()
+    {
+        return carresErreurANN.getAverage();
+    }
+
+    /**
+     * Vrai si la RMSE de l'ANN est du même ordre de grandeur que celle de LES (rapport dans
+     * [1/{@value #RAPPORT_ERREUR_ANN_MAX}, {@value #RAPPORT_ERREUR_ANN_MAX}]), ou s'il n'y a pas de prédiction ANN
+     */
+    public boolean erreurANNPlausible()
+    {
+        if (!aPredictionsANN()) return true;
+        double rapport = Math.sqrt(getMseANN() / getMseLES());
+        return rapport >= 1.0 / RAPPORT_ERREUR_ANN_MAX && rapport <= RAPPORT_ERREUR_ANN_MAX;
+    }
+
+    public EvaluationSegmentee getEvaluation()
+    {
+        return evaluation;
+    }
+}
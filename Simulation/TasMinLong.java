@@ -0,0 +1,117 @@
+package Simulation;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Tas binaire minimal à clés primitives {@code long}, chaque clé portant une valeur {@code int}.
+ * Sert d'échéancier sans allocation par élément (dates en secondes epoch, identifiants internes),
+ * là où une {@code PriorityQueue} d'objets coûterait un objet par entrée.
+ * L'ordre de retrait entre clés égales n'est pas garanti (voir {@link FileCalendrier}).
+ */
+public class TasMinLong implements Echeancier
+{
+
+    private long[] cles;
+    private int[] valeurs;
+    private int taille;
+
+    public TasMinLong()
+    {
+        this(16);
+    }
+
+    public TasMinLong(int capaciteInitiale)
+    {
+        int capacite = Math.max(1, capaciteInitiale);
+        this.cles = new long[capacite];
+        this.valeurs = new int[capacite];
+    }
+
+    // === Insertion d'une clé et de sa valeur associée (O(log n)) ===
+    public void ajouter(long cle, int valeur)
+    {
+        if (taille == cles.length) {
+            cles = Arrays.copyOf(cles, taille * 2);
+            valeurs = Arrays.copyOf(valeurs, taille * 2);
+        }
+        int i = taille++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (cles[parent] <= cle) break;
+            cles[i] = cles[parent];
+            valeurs[i] = valeurs[parent];
+            i = parent;
+        }
+        cles[i] = cle;
+        valeurs[i] = valeur;
+    }
+
+    // === Plus petite clé du tas ===
+    public long cleMin()
+    {
+        if (taille == 0) throw new NoSuchElementException("Tas vide");
+        return cles[0];
+    }
+
+    // === Valeur associée à la plus petite clé ===
+    public int valeurMin()
+    {
+        if (taille == 0) throw new NoSuchElementException("Tas vide");
+        return valeurs[0];
+    }
+
+    // === Retire la plus petite clé (O(log n)) ===
+    public void retirerMin()
+    {
+        if (taille == 0) throw new NoSuchElementException("Tas vide");
+        taille--;
+        if (taille == 0) return;
+
+        long cle = cles[taille];
+        int valeur = valeurs[taille];
+        int i = 0;
+        int moitie = taille >>> 1;
+        while (i < moitie) {
+            int enfant = 2 * i + 1;
+            int droit = enfant + 1;
+            if (droit < taille && cles[droit] < cles[enfant]) enfant = droit;
+            if (cle <= cles[enfant]) break;
+            cles[i] = cles[enfant];
+            valeurs[i] = valeurs[enfant];
+            i = enfant;
+        }
+        cles[i] = cle;
+        valeurs[i] = valeur;
+    }
+
+    public boolean estVide()
+    {
+        return taille == 0;
+    }
+
+    public int taille()
+    {
+        return taille;
+    }
+
+    /**
+     * Nombre de clés supérieures ou égales à {@code cle}, sans modifier le tas : seules les clés inférieures
+     * sont parcourues (un sous-arbre dont la racine atteint {@code cle} est entièrement compté).
+     */
+    public int compterAPartirDe(long cle)
+    {
+        return taille - compterAvant(0, cle);
+    }
+
+    private int compterAvant(int noeud, long cle)
+    {
+        if (noeud >= taille || cles[noeud] >= cle) return 0;
+        return 1 + compterAvant(2 * noeud + 1, cle) + compterAvant(2 * noeud + 2, cle);
+    }
+
+    public void vider()
+    {
+        taille = 0;
+    }
+}
@@ -0,0 +1,166 @@
+package Simulation;
+
+import Donnees.InstantaneBinaire;
+import Modele.ActiviteAgent;
+import Modele.ActivitesColonnaires;
+import Modele.Appel;
+import Modele.AppelsColonnaires;
+import Modele.Horodatage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Banc d'essai de la chronologie compacte ({@link ChronologieEvenements}) face à la liste triée
+ * d'objets {@link Evenement} et à la liste ordonnée par une file calendrier ({@link FileCalendrier} sur les
+ * indices des événements, par instant en secondes : l'ordonnancement du rejeu avant la chronologie),
+ * à lancer comme {@link TestSimulation} :
+ * construction (création et tri), parcours (événements par seconde, meilleur de plusieurs passes,
+ * avec un traitement minimal identique) et mémoire occupée par événement : mesurée sur le tas pour la liste
+ * d'objets (les {@link Appel} et {@link ActiviteAgent} existant déjà, seuls les événements et la liste sont
+ * comptés), taille exacte du tableau pour la chronologie. Pour la file calendrier, la construction est
+ * la programmation des indices et le parcours leur retrait, refaits à chaque passe.
+ * Les trois représentations doivent donner les mêmes événements dans le même ordre.
+ * Arguments : fichier des appels, fichier des activités, nombre de passes (10).
+ */
+public class TestChronologieEvenements {
+
+    /** Traitement minimal : compte les événements et cumule leurs instants */
+    private static final class Compteur implements ChronologieEvenements.Visiteur {
+        long appels;
+        long activites;
+        long somme;
+
+        @Override
+        public void appel(long instant, int indiceAppel) {
+            appels++;
+            somme += instant;
+        }
+
+        @Override
+        public void activite(long instant, int indiceActivite) {
+            activites++;
+            somme += instant;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage : TestChronologieEvenements <appels.csv> <activites.csv> [passes]");
+            return;
+        }
+        AppelsColonnaires appels = InstantaneBinaire.lireAppels(args[0]);
+        ActivitesColonnaires activites = InstantaneBinaire.lireActivites(args[1]);
+        int passes = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        // Objets de l'API objet (hors mesures)
+        List<Appel> listeAppels = new ArrayList<>(appels.taille());
+        for (int i = 0; i < appels.taille(); i++) listeAppels.add(appels.versAppel(i));
+        List<ActiviteAgent> listeActivites = new ArrayList<>(activites.taille());
+        for (int i = 0; i < activites.taille(); i++) listeActivites.add(activites.versActivite(i));
+
+        // === Liste triée d'objets Evenement ===
+        long memoireAvant = memoireUtilisee();
+        long debut = System.nanoTime();
+        List<Evenement> evenements = creerEvenements(listeAppels, listeActivites);
+        Collections.sort(evenements);
+        double constructionObjets = (System.nanoTime() - debut) / 1e6;
+        double octetsObjets = (double) (memoireUtilisee() - memoireAvant) / evenements.size();
+
+        Compteur compteurObjets = new Compteur();
+        double debitObjets = 0;
+        for (int p = 0; p < passes; p++) {
+            compteurObjets = new Compteur();
+            long t = System.nanoTime();
+            for (Evenement e : evenements) {
+                long instant = Horodatage.enSecondes(e.getDate());
+                if (e.getObjet() instanceof Appel) {
+                    compteurObjets.appel(instant, 0);
+                } else if (e.getObjet() instanceof ActiviteAgent) {
+                    compteurObjets.activite(instant, 0);
+                }
+            }
+            debitObjets = Math.max(debitObjets, evenements.size() / ((System.nanoTime() - t) / 1e9));
+        }
+
+        // === File calendrier sur les indices de la liste non triée, vidée à chaque passe ===
+        List<Evenement> nonTries = creerEvenements(listeAppels, listeActivites);
+        long[] instants = new long[nonTries.size()];
+        for (int i = 0; i < instants.length; i++) instants[i] = Horodatage.enSecondes(nonTries.get(i).getDate());
+
+        FileCalendrier calendrier = new FileCalendrier(nonTries.size());
+        int[] ordreCalendrier = new int[nonTries.size()];
+        double constructionCalendrier = Double.MAX_VALUE;
+        double debitCalendrier = 0;
+        for (int p = 0; p < passes; p++) {
+            long t = System.nanoTime();
+            for (int i = 0; i < instants.length; i++) calendrier.ajouter(instants[i], i);
+            constructionCalendrier = Math.min(constructionCalendrier, (System.nanoTime() - t) / 1e6);
+
+            t = System.nanoTime();
+            for (int rang = 0; !calendrier.estVide(); rang++) {
+                ordreCalendrier[rang] = calendrier.valeurMin();
+                calendrier.retirerMin();
+            }
+            debitCalendrier = Math.max(debitCalendrier, instants.length / ((System.nanoTime() - t) / 1e9));
+        }
+
+        // === Chronologie compacte (la liste d'objets reste en mémoire pour la comparaison finale) ===
+        debut = System.nanoTime();
+        ChronologieEvenements chronologie = ChronologieEvenements.depuis(appels, activites);
+        double constructionChronologie = (System.nanoTime() - debut) / 1e6;
+        double octetsChronologie = (double) chronologie.tailleMemoire() / chronologie.taille();
+
+        Compteur compteur = new Compteur();
+        double debitChronologie = 0;
+        for (int p = 0; p < passes; p++) {
+            compteur = new Compteur();
+            long t = System.nanoTime();
+            chronologie.parcourir(compteur);
+            debitChronologie = Math.max(debitChronologie, chronologie.taille() / ((System.nanoTime() - t) / 1e9));
+        }
+
+        System.out.printf(Locale.US, "%d événements (%d appels, %d activités)%n",
+                chronologie.taille(), compteur.appels, compteur.activites);
+        System.out.println("                         | construction | parcours        | mémoire");
+        System.out.printf(Locale.US, "List<Evenement> triée    | %9.1f ms | %6.1f M év./s | %5.1f octets/év.%n",
+                constructionObjets, debitObjets / 1e6, octetsObjets);
+        System.out.printf(Locale.US, "FileCalendrier (indices) | %9.1f ms | %6.1f M év./s |%n",
+                constructionCalendrier, debitCalendrier / 1e6);
+        System.out.printf(Locale.US, "ChronologieEvenements    | %9.1f ms | %6.1f M év./s | %5.1f octets/év.%n",
+                constructionChronologie, debitChronologie / 1e6, octetsChronologie);
+
+        boolean identiques = evenements.size() == chronologie.taille() && compteurObjets.somme == compteur.somme;
+        for (int rang = 0; identiques && rang < evenements.size(); rang++) {
+            Object attendu = chronologie.getType(rang) == ChronologieEvenements.APPEL
+                    ? listeAppels.get(chronologie.getIndice(rang))
+                    : listeActivites.get(chronologie.getIndice(rang));
+            identiques = evenements.get(rang).getObjet() == attendu
+                    && nonTries.get(ordreCalendrier[rang]).getObjet() == attendu;
+        }
+        System.out.println(identiques ? "Même ordre d'événements." : "ÉCHEC : ordres d'événements différents.");
+        if (!identiques) System.exit(1);
+    }
+
+    // === Réceptions d'appels puis débuts d'activités, dans l'ordre des lignes ===
+    private static List<Evenement> creerEvenements(List<Appel> appels, List<ActiviteAgent> activites) {
+        List<Evenement> evenements = new ArrayList<>();
+        for (Appel a : appels) {
+            if (a.getDateReceptionAppel() != null)
+                evenements.add(new Evenement(Evenement.Type.APPEL, a.getDateReceptionAppel(), a));
+        }
+        for (ActiviteAgent act : activites) {
+            if (act.getDebutActivite() != null)
+                evenements.add(new Evenement(Evenement.Type.ACTIVITE, act.getDebutActivite(), act));
+        }
+        return evenements;
+    }
+
+    private static long memoireUtilisee() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,131 @@
+package Simulation;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Vérification et banc d'essai des échéanciers, à lancer comme {@link TestSimulation}.
+ * <p>
+ * Vérification : ajouts et retraits entremêlés (instants souvent égaux, rafales, échéances lointaines)
+ * comparés à un ordre de référence (instant puis ordre d'ajout) ; {@link FileCalendrier} doit le reproduire
+ * exactement, {@link TasMinLong} au moins l'ordre des instants.
+ * <p>
+ * Banc d'essai « hold » classique des simulations à événements discrets : {@code attente} événements
+ * sont en attente, chaque événement retiré en programme un nouveau un peu plus tard (délai exponentiel
+ * de 10 minutes en moyenne, arrondi à la seconde), pour 10^6, 10^7… événements traités. Référence :
+ * {@code PriorityQueue<Evenement>} ordonnée par {@link LocalDateTime}, comme la boucle de {@link TestSimulation}.
+ * Arguments facultatifs : événements maximum (10^7), attente maximum (10^6).
+ */
+public class TestEcheanciers {
+
+    private static final int DELAIS = 1 << 20;
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2014, 1, 1, 0, 0);
+
+    /** Somme des valeurs retirées, publiée pour que la boucle mesurée ne soit pas éliminée */
+    private static volatile long controle;
+
+    public static void main(String[] args) {
+        long evenementsMax = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        int attenteMax = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        boolean succes = verifier(new FileCalendrier(), true) & verifier(new TasMinLong(), false);
+        System.out.println(succes ? "Ordre de retrait vérifié." : "ÉCHEC : ordre de retrait incorrect.");
+        if (!succes) System.exit(1);
+
+        int[] delais = new int[DELAIS];
+        SplittableRandom alea = new SplittableRandom(7);
+        for (int i = 0; i < DELAIS; i++) {
+            delais[i] = (int) Math.round(-600.0 * Math.log(1.0 - alea.nextDouble()));
+        }
+
+        // Mise en route du compilateur sur les trois boucles mesurées
+        mesurerObjets(1_000, 2_000_000, delais);
+        mesurer(TasMinLong::new, 1_000, 2_000_000, delais);
+        mesurer(FileCalendrier::new, 1_000, 2_000_000, delais);
+
+        System.out.println("   attente |   événements | PriorityQueue<Evenement> |  TasMinLong | FileCalendrier");
+        for (int attente = 1_000; attente <= attenteMax; attente *= 10) {
+            for (long evenements = 1_000_000L; evenements <= evenementsMax; evenements *= 10) {
+                double file = mesurerObjets(attente, evenements, delais);
+                double tas = mesurer(TasMinLong::new, attente, evenements, delais);
+                double calendrier = mesurer(FileCalendrier::new, attente, evenements, delais);
+                System.out.printf(Locale.US, "%10d | %12d | %16.1f ns/év. | %6.1f ns/év. | %6.1f ns/év.%n",
+                        attente, evenements, file, tas, calendrier);
+            }
+        }
+    }
+
+    // === Vérification de l'ordre de retrait ===
+
+    private static boolean verifier(Echeancier echeancier, boolean ordreAjout) {
+        SplittableRandom alea = new SplittableRandom(11);
+        PriorityQueue<long[]> reference = new PriorityQueue<>((a, b) -> a[0] != b[0]
+                ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        int numero = 0;
+        long maintenant = 1_388_534_400L;
+        for (int tour = 0; tour < 2_000_000; tour++) {
+            int choix = alea.nextInt(1_000);
+            if (choix < 400 || reference.isEmpty()) {
+                int rafale = choix < 2 ? 100 : 1;
+                for (int r = 0; r < rafale; r++) {
+                    long cle = maintenant + (choix == 1 ? 1_000_000L + alea.nextInt(1_000) : alea.nextInt(50));
+                    echeancier.ajouter(cle, numero);
+                    reference.add(new long[]{cle, numero++});
+                }
+            } else {
+                long[] attendu = reference.poll();
+                long cle = echeancier.cleMin();
+                int valeur = echeancier.valeurMin();
+                echeancier.retirerMin();
+                if (cle != attendu[0] || (ordreAjout && valeur != attendu[1])) {
+                    System.out.printf("%s : (%d, %d) retiré, (%d, %d) attendu%n", echeancier.getClass().getSimpleName(),
+                            cle, valeur, attendu[0], attendu[1]);
+                    return false;
+                }
+                maintenant = cle;
+            }
+            if (echeancier.taille() != reference.size()) return false;
+        }
+        return true;
+    }
+
+    // === Banc d'essai ===
+
+    private static double mesurer(Supplier<Echeancier> fabrique, int attente, long evenements, int[] delais) {
+        Echeancier echeancier = fabrique.get();
+        long origine = ORIGINE.toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < attente; i++) {
+            echeancier.ajouter(origine + delais[i & (DELAIS - 1)], i);
+        }
+        long debut = System.nanoTime();
+        long somme = 0;
+        for (long n = 0; n < evenements; n++) {
+            long cle = echeancier.cleMin();
+            int valeur = echeancier.valeurMin();
+            echeancier.retirerMin();
+            echeancier.ajouter(cle + delais[(int) n & (DELAIS - 1)], valeur);
+            somme += valeur;
+        }
+        double nanos = (double) (System.nanoTime() - debut) / evenements;
+        controle = somme;
+        return nanos;
+    }
+
+    private static double mesurerObjets(int attente, long evenements, int[] delais) {
+        PriorityQueue<Evenement> file = new PriorityQueue<>();
+        for (int i = 0; i < attente; i++) {
+            file.add(new Evenement(Evenement.Type.APPEL, ORIGINE.plusSeconds(delais[i & (DELAIS - 1)]), null));
+        }
+        long debut = System.nanoTime();
+        for (long n = 0; n < evenements; n++) {
+            Evenement evenement = file.poll();
+            file.add(new Evenement(evenement.getType(),
+                    evenement.getDate().plusSeconds(delais[(int) n & (DELAIS - 1)]), evenement.getObjet()));
+        }
+        return (double) (System.nanoTime() - debut) / evenements;
+    }
+}
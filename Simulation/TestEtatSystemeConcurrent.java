@@ -0,0 +1,142 @@
+package Simulation;
+
+import Modele.Appel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Essai de charge et de cohérence de {@link EtatSystemeConcurrent}, à lancer comme {@link TestSimulation} :
+ * des fils producteurs postent des arrivées d'appels, des fils « agents » libèrent les agents occupés,
+ * des lecteurs prennent des instantanés en continu. Sont vérifiés :
+ * <ul>
+ *   <li>à chaque instantané : agents libres + occupés = effectif, arrivées = affectations + appels en attente ;</li>
+ *   <li>chaque appel est affecté exactement une fois ;</li>
+ *   <li>au repos : plus aucun appel en attente, tous les agents libres.</li>
+ * </ul>
+ * Le débit d'événements et la latence de capture d'un instantané (réutilisé par chaque lecteur) sont mesurés
+ * pour 1, 2, 4… producteurs, avec le nombre de captures faites derrière la barrière des écrivains.
+ * Arguments facultatifs : producteurs maximum, agents, appels par producteur, lecteurs.
+ */
+public class TestEtatSystemeConcurrent {
+
+    private static final String[] SERVICES = {"30175", "30176", "30177", "30179"};
+
+    public static void main(String[] args) throws InterruptedException {
+        int producteursMax = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int agents = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int appelsParProducteur = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+        int lecteurs = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+
+        System.out.printf(Locale.US, "Processeurs disponibles : %d ; agents : %d ; lecteurs : %d%n",
+                Runtime.getRuntime().availableProcessors(), agents, lecteurs);
+        System.out.println("producteurs | événements/s | instantanés | capture instantané | sous barrière | violations");
+
+        boolean succes = true;
+        for (int producteurs = 1; producteurs <= producteursMax; producteurs *= 2) {
+            succes &= executer(producteurs, agents, appelsParProducteur, lecteurs);
+        }
+        System.out.println(succes ? "Toutes les vérifications sont passées." : "ÉCHEC : invariants violés.");
+        if (!succes) System.exit(1);
+    }
+
+    private static boolean executer(int producteurs, int agents, int appelsParProducteur, int lecteurs)
+            throws InterruptedException {
+        long totalAppels = (long) producteurs * appelsParProducteur;
+        ConcurrentLinkedQueue<Integer> aLiberer = new ConcurrentLinkedQueue<>();
+        ConcurrentHashMap<Appel, Boolean> servis = new ConcurrentHashMap<>();
+        LongAdder doublons = new LongAdder();
+        LongAdder evenements = new LongAdder();
+        LongAdder violations = new LongAdder();
+        HistogrammeLatences captures = new HistogrammeLatences();
+        AtomicBoolean termine = new AtomicBoolean();
+
+        EtatSystemeConcurrent etat = new EtatSystemeConcurrent((appel, agent) -> {
+            if (servis.putIfAbsent(appel, Boolean.TRUE) != null) doublons.increment();
+            aLiberer.add(agent);
+        });
+        for (int agent = 1; agent <= agents; agent++) {
+            etat.enregistrerLiberationAgent(agent);
+        }
+
+        List<Thread> fils = new ArrayList<>();
+        for (int l = 0; l < lecteurs; l++) {
+            fils.add(Thread.ofPlatform().start(() -> {
+                EtatSystemeConcurrent.Instantane instantane = new EtatSystemeConcurrent.Instantane();
+                while (!termine.get()) {
+                    long debut = System.nanoTime();
+                    etat.capturerInstantane(instantane);
+                    captures.enregistrer(System.nanoTime() - debut);
+                    if (instantane.agentsLibres() + instantane.agentsOccupes() != agents
+                            || instantane.arrivees() != instantane.affectations() + instantane.appelsEnAttente()) {
+                        violations.increment();
+                    }
+                }
+            }));
+        }
+
+        LocalDateTime origine = LocalDateTime.of(2014, 1, 1, 8, 0);
+        long debut = System.nanoTime();
+        List<Thread> producteursFils = new ArrayList<>();
+        for (int p = 0; p < producteurs; p++) {
+            int numero = p;
+            producteursFils.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < appelsParProducteur; i++) {
+                    Appel appel = new Appel(origine.plusSeconds(i), SERVICES[(numero + i) % SERVICES.length], null);
+                    Integer agent = etat.enregistrerAppel(appel);
+                    evenements.increment();
+                    if (agent != null) {
+                        if (servis.putIfAbsent(appel, Boolean.TRUE) != null) doublons.increment();
+                        aLiberer.add(agent);
+                    }
+                    // Libère au passage un agent occupé : producteurs et libérations s'entrelacent
+                    liberer(etat, aLiberer, servis, doublons, evenements);
+                }
+            }));
+        }
+        for (Thread fil : producteursFils) fil.join();
+
+        // Écoule les appels restant en attente
+        while (servis.size() < totalAppels) {
+            if (!liberer(etat, aLiberer, servis, doublons, evenements)) Thread.onSpinWait();
+        }
+        long duree = System.nanoTime() - debut;
+        while (liberer(etat, aLiberer, servis, doublons, evenements)) {
+            // libère les derniers agents occupés
+        }
+
+        termine.set(true);
+        for (Thread fil : fils) fil.join();
+
+        EtatSystemeConcurrent.Instantane fin = etat.capturerInstantane();
+        boolean coherent = violations.sum() == 0 && doublons.sum() == 0 && servis.size() == totalAppels
+                && fin.appelsEnAttente() == 0 && fin.agentsLibres() == agents && fin.agentsOccupes() == 0
+                && fin.arrivees() == totalAppels && fin.affectations() == totalAppels;
+
+        System.out.printf(Locale.US, "%11d | %12.0f | %11d | p50=%.1f µs p99=%.1f µs | %13d | %d%s%n",
+                producteurs, evenements.sum() / (duree / 1e9), captures.getNombre(),
+                captures.quantile(0.50) / 1e3, captures.quantile(0.99) / 1e3, etat.getCapturesSousBarriere(),
+                violations.sum(),
+                coherent ? "" : "  <- état final incohérent : " + fin + ", doublons=" + doublons.sum());
+        return coherent;
+    }
+
+    private static boolean liberer(EtatSystemeConcurrent etat, ConcurrentLinkedQueue<Integer> aLiberer,
+                                   ConcurrentHashMap<Appel, Boolean> servis, LongAdder doublons, LongAdder evenements) {
+        Integer agent = aLiberer.poll();
+        if (agent == null) return false;
+        Appel appel = etat.enregistrerLiberationAgent(agent);
+        evenements.increment();
+        if (appel != null) {
+            if (servis.putIfAbsent(appel, Boolean.TRUE) != null) doublons.increment();
+            aLiberer.add(agent);
+        }
+        return true;
+    }
+}
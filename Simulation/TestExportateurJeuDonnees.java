@@ -0,0 +1,115 @@
+package Simulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Vérification du formatage de {@link ExportateurJeuDonnees}, à lancer comme {@link TestSimulation} :
+ * chaque valeur écrite doit être identique à {@code String.format(Locale.US, "%.2f", valeur)}.
+ * Les valeurs passent par {@link ExportateurJeuDonnees#ecrire(EtatSysteme)}, quatre par ligne
+ * (file principale, PLES, Pavg_LES, attente réelle), et mêlent :
+ * <ul>
+ *   <li>des valeurs courantes, positives et négatives, et des centièmes exacts ;</li>
+ *   <li>des égalités d'arrondi x.xx5 (et leurs voisins immédiats) ;</li>
+ *   <li>les sentinelles -1 et NaN, zéro signé, infinis, valeurs minuscules ;</li>
+ *   <li>de grandes valeurs (au-delà du formatage direct) et des doubles tirés bit à bit.</li>
+ * </ul>
+ * Argument facultatif : nombre de valeurs (2 000 000).
+ */
+public class TestExportateurJeuDonnees {
+
+    private static final int VALEURS_PAR_LIGNE = 3;
+    private static final double[] PARTICULIERES = {
+            -1.0, Double.NaN, 0.0, -0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            0.005, -0.005, 0.015, 0.125, 2.675, 1.005, 1e-9, -1e-9, 0.004999999, 0.0050000001,
+            999_999_999.995, 1e9, -1e9, 1e15 + 0.5, 9.2e18, 1e300, Double.MAX_VALUE, Double.MIN_VALUE
+    };
+
+    public static void main(String[] args) throws IOException {
+        int nombre = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int lignes = (nombre + VALEURS_PAR_LIGNE - 1) / VALEURS_PAR_LIGNE + PARTICULIERES.length;
+        SplittableRandom alea = new SplittableRandom(5);
+        double[][] valeurs = new double[lignes][VALEURS_PAR_LIGNE];
+        int[] files = new int[lignes];
+        for (int l = 0; l < lignes; l++) {
+            for (int v = 0; v < VALEURS_PAR_LIGNE; v++) {
+                valeurs[l][v] = l < PARTICULIERES.length ? PARTICULIERES[(l + v) % PARTICULIERES.length] : tirer(alea);
+            }
+            files[l] = alea.nextInt(10) == 0 ? -1 - alea.nextInt(1_000) : alea.nextInt(1_000);
+        }
+
+        Path fichier = Files.createTempFile("test-export", ".csv");
+        try {
+            EtatSysteme etat = new EtatSysteme("30175", 0, new int[]{1, 2}, LocalDateTime.of(2014, 3, 3, 9, 30), 4);
+            try (ExportateurJeuDonnees exportateur = new ExportateurJeuDonnees(fichier)) {
+                for (int l = 0; l < lignes; l++) {
+                    etat.setTailleFilePrincipale(files[l]);
+                    etat.setEstimationLES(valeurs[l][0]);
+                    etat.setEstimationLESMoyenne(valeurs[l][1]);
+                    etat.setDelaiAttenteObserve(valeurs[l][2]);
+                    exportateur.ecrire(etat);
+                }
+            }
+            boolean succes = verifier(fichier, valeurs, files);
+            System.out.printf("%d valeurs comparées à String.format%n", (long) lignes * (VALEURS_PAR_LIGNE + 1));
+            System.out.println(succes ? "Formatage identique à String.format." : "ÉCHEC : formatage différent de String.format.");
+            if (!succes) System.exit(1);
+        } finally {
+            Files.delete(fichier);
+        }
+    }
+
+    private static double tirer(SplittableRandom alea) {
+        switch (alea.nextInt(8)) {
+            case 0: // égalité d'arrondi x.xx5, ou l'un de ses deux voisins immédiats
+                double egalite = (alea.nextLong(-10_000_000, 10_000_000) * 10 + 5) / 1000.0;
+                int voisin = alea.nextInt(3);
+                return voisin == 0 ? egalite : voisin == 1 ? Math.nextUp(egalite) : Math.nextDown(egalite);
+            case 1: // centièmes exacts
+                return alea.nextLong(-1_000_000, 1_000_000) / 100.0;
+            case 2: // grandes valeurs, de part et d'autre de la limite du formatage direct
+                return (alea.nextBoolean() ? 1 : -1) * Math.pow(10, 6 + alea.nextDouble(14));
+            case 3: // valeurs minuscules
+                return (alea.nextBoolean() ? 1 : -1) * Math.pow(10, -12 + alea.nextDouble(10));
+            case 4: // doubles quelconques, tirés bit à bit
+                return Double.longBitsToDouble(alea.nextLong());
+            case 5: // attentes réalistes en secondes
+                return alea.nextDouble(3_600.0);
+            default:
+                return alea.nextDouble(-1e5, 1e5);
+        }
+    }
+
+    private static boolean verifier(Path fichier, double[][] valeurs, int[] files) throws IOException {
+        int erreurs = 0;
+        try (BufferedReader lecteur = Files.newBufferedReader(fichier, StandardCharsets.US_ASCII)) {
+            lecteur.readLine();
+            for (int l = 0; l < valeurs.length; l++) {
+                String[] champs = lecteur.readLine().split(",", -1);
+                erreurs += comparer(champs[5], files[l]);
+                erreurs += comparer(champs[11], valeurs[l][0]);
+                erreurs += comparer(champs[12], valeurs[l][1]);
+                erreurs += comparer(champs[13], valeurs[l][2]);
+                if (erreurs > 10) return false;
+            }
+            if (lecteur.readLine() != null) {
+                System.out.println("Lignes en trop dans le fichier exporté");
+                return false;
+            }
+        }
+        return erreurs == 0;
+    }
+
+    private static int comparer(String ecrit, double valeur) {
+        String attendu = String.format(Locale.US, "%.2f", valeur);
+        if (attendu.equals(ecrit)) return 0;
+        System.out.printf("%s (bits %016x) : écrit %s, attendu %s%n", valeur, Double.doubleToRawLongBits(valeur), ecrit, attendu);
+        return 1;
+    }
+}
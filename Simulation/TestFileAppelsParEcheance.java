@@ -0,0 +1,98 @@
+package Simulation;
+
+import Modele.Appel;
+import Modele.Horodatage;
+
+import java.time.LocalDateTime;
+import java.util.LinkedList;
+import java.util.SplittableRandom;
+
+/**
+ * Vérification de {@link FileAppelsParEcheance}, à lancer comme {@link TestSimulation} : elle doit compter
+ * exactement les mêmes appels que la file d'origine de {@code MoteurReplay}, une {@code LinkedList<Appel>}
+ * purgée par {@code removeIf(a -> a.getDateReponseAgent() != null && a.getDateReponseAgent().isBefore(t))}.
+ * <p>
+ * Les séquences aléatoires mêlent des appels jamais répondus, des réponses à la seconde même de la purge,
+ * déjà échues ou lointaines, des purges répétées au même instant ou à un instant antérieur, et comparent
+ * {@link FileAppelsParEcheance#taille()} après chaque purge et {@link FileAppelsParEcheance#tailleA(long)}
+ * à un instant quelconque.
+ * Arguments facultatifs : opérations par séquence (20 000), nombre de séquences (50).
+ */
+public class TestFileAppelsParEcheance {
+
+    private static final LocalDateTime ORIGINE = LocalDateTime.of(2014, 1, 6, 8, 0);
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int sequences = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        boolean succes = true;
+        long comparaisons = 0;
+        for (int graine = 1; graine <= sequences && succes; graine++) {
+            long n = verifier(new SplittableRandom(graine), operations);
+            succes = n >= 0;
+            comparaisons += Math.max(0, n);
+        }
+        System.out.printf("%d tailles comparées à la purge par removeIf%n", comparaisons);
+        System.out.println(succes ? "Files par échéance identiques à la purge par removeIf."
+                : "ÉCHEC : files par échéance différentes de la purge par removeIf.");
+        if (!succes) System.exit(1);
+    }
+
+    /**
+     * @return Nombre de tailles comparées, -1 à la première différence
+     */
+    private static long verifier(SplittableRandom alea, int operations) {
+        FileAppelsParEcheance file = new FileAppelsParEcheance();
+        LinkedList<Appel> reference = new LinkedList<>();
+        int sansReponse = 1 + alea.nextInt(30);
+        long maintenant = Horodatage.enSecondes(ORIGINE);
+        long comparaisons = 0;
+
+        for (int n = 0; n < operations; n++) {
+            int choix = alea.nextInt(100);
+            if (choix < 50) {
+                long reponse = alea.nextInt(sansReponse) == 0 ? Horodatage.ABSENT : echeance(alea, maintenant);
+                Appel appel = new Appel(Horodatage.versDateHeure(maintenant), "30175", null);
+                appel.setDateReponseAgent(Horodatage.versDateHeure(reponse));
+                reference.add(appel);
+                file.ajouter(reponse);
+            } else if (choix < 85) {
+                // Purge à la date courante, qui avance le plus souvent, reste parfois sur place ou recule
+                int pas = alea.nextInt(10);
+                long instant = pas == 0 ? maintenant - alea.nextInt(600) : pas == 1 ? maintenant : (maintenant += alea.nextInt(60));
+                LocalDateTime date = Horodatage.versDateHeure(instant);
+                reference.removeIf(a -> a.getDateReponseAgent() != null && a.getDateReponseAgent().isBefore(date));
+                file.purgerAvant(instant);
+                comparaisons++;
+                if (file.taille() != reference.size()) {
+                    System.out.printf("Opération %d, purge à %s : taille %d, removeIf %d%n",
+                            n, date, file.taille(), reference.size());
+                    return -1;
+                }
+            } else {
+                long instant = maintenant + alea.nextInt(-600, 1_200);
+                LocalDateTime date = Horodatage.versDateHeure(instant);
+                int attendu = 0;
+                for (Appel a : reference) {
+                    if (a.getDateReponseAgent() == null || !a.getDateReponseAgent().isBefore(date)) attendu++;
+                }
+                comparaisons++;
+                if (file.tailleA(instant) != attendu) {
+                    System.out.printf("Opération %d, taille à %s : %d, removeIf %d%n", n, date, file.tailleA(instant), attendu);
+                    return -1;
+                }
+            }
+        }
+        return comparaisons;
+    }
+
+    // === Réponse : le plus souvent à venir, parfois à la seconde même, déjà échue ou lointaine ===
+    private static long echeance(SplittableRandom alea, long maintenant) {
+        int choix = alea.nextInt(20);
+        if (choix == 0) return maintenant;
+        if (choix == 1) return maintenant - alea.nextInt(300);
+        if (choix == 2) return maintenant + 3_600 + alea.nextInt(7_200);
+        return maintenant + alea.nextInt(300);
+    }
+}
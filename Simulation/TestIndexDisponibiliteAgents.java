@@ -0,0 +1,140 @@
+package Simulation;
+
+import Modele.EtatAgent;
+import Modele.Horodatage;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Vérification de {@link IndexDisponibiliteAgents}, à lancer comme {@link TestSimulation} : le nombre
+ * d'agents disponibles par service doit être exactement celui du parcours complet des {@link EtatAgent}
+ * (accepteService puis estDisponible) qu'effectuait {@code MoteurReplay} avant l'index.
+ * <p>
+ * Les séquences aléatoires mêlent, sur les mêmes agents :
+ * <ul>
+ *   <li>des activités de disponibilité et d'indisponibilité qui se chevauchent (fin avant ou après la
+ *       précédente, parfois déjà échue) et des occupations par un appel ;</li>
+ *   <li>des interrogations le plus souvent croissantes, parfois à la même seconde, parfois antérieures
+ *       à la dernière interrogation (parcours de secours) ;</li>
+ *   <li>des agents sans aucun service et des services qu'aucun agent n'accepte.</li>
+ * </ul>
+ * Arguments facultatifs : opérations par séquence (200 000), nombre de séquences (20).
+ */
+public class TestIndexDisponibiliteAgents {
+
+    private static final int SERVICES = 6;
+    private static final long ORIGINE = Horodatage.enSecondes(LocalDateTime.of(2014, 1, 1, 8, 0));
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int sequences = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        boolean succes = true;
+        long interrogations = 0;
+        long anterieures = 0;
+        for (int graine = 1; graine <= sequences && succes; graine++) {
+            long[] bilan = verifier(new SplittableRandom(graine), operations);
+            succes = bilan != null;
+            if (succes) {
+                interrogations += bilan[0];
+                anterieures += bilan[1];
+            }
+        }
+        System.out.printf("%d interrogations comparées, dont %d antérieures à la précédente%n",
+                interrogations, anterieures);
+        System.out.println(succes ? "Comptes de l'index identiques au parcours complet."
+                : "ÉCHEC : comptes de l'index différents du parcours complet.");
+        if (!succes) System.exit(1);
+    }
+
+    /**
+     * @return {interrogations, interrogations antérieures}, ou null à la première différence
+     */
+    private static long[] verifier(SplittableRandom alea, int operations) {
+        int nbAgents = 1 + alea.nextInt(80);
+        int[][] servicesParAgent = new int[nbAgents][];
+        EtatAgent[] agents = new EtatAgent[nbAgents];
+        for (int a = 0; a < nbAgents; a++) {
+            // Le dernier service n'est accepté par personne ; environ un agent sur dix n'en accepte aucun
+            Set<String> autorises = new HashSet<>();
+            int[] indices = new int[SERVICES - 1];
+            int nombre = 0;
+            for (int s = 0; s < SERVICES - 1; s++) {
+                if (alea.nextInt(10) < 3) {
+                    indices[nombre++] = s;
+                    autorises.add(nom(s));
+                }
+            }
+            servicesParAgent[a] = Arrays.copyOf(indices, nombre);
+            agents[a] = new EtatAgent(autorises);
+        }
+        IndexDisponibiliteAgents index = new IndexDisponibiliteAgents(SERVICES, servicesParAgent);
+
+        long maintenant = ORIGINE;
+        long interrogations = 0;
+        long anterieures = 0;
+        for (int n = 0; n < operations; n++) {
+            int choix = alea.nextInt(100);
+            int a = alea.nextInt(nbAgents);
+            if (choix < 20) {
+                long fin = finActivite(alea, maintenant);
+                index.definirDispoApres(a, fin);
+                agents[a].setDispoApres(Horodatage.versDateHeure(fin));
+            } else if (choix < 40) {
+                long fin = finActivite(alea, maintenant);
+                index.definirIndispoAvant(a, fin);
+                agents[a].setIndispoAvant(Horodatage.versDateHeure(fin));
+            } else if (choix < 55) {
+                long fin = maintenant + alea.nextInt(900);
+                index.definirOccupeJusquA(a, fin);
+                agents[a].setOccupeJusquA(Horodatage.versDateHeure(fin));
+            } else {
+                long instant;
+                if (choix < 63) {
+                    instant = maintenant - alea.nextInt(7_200);
+                    anterieures++;
+                } else if (choix < 70) {
+                    instant = maintenant;
+                } else {
+                    maintenant += alea.nextInt(120);
+                    instant = maintenant;
+                }
+                int service = alea.nextInt(SERVICES);
+                int attendu = compterParParcours(agents, nom(service), Horodatage.versDateHeure(instant));
+                int obtenu = index.compterDisponibles(service, instant);
+                interrogations++;
+                if (obtenu != attendu) {
+                    System.out.printf("Opération %d, service %d à %s : index %d, parcours %d%n",
+                            n, service, Horodatage.versDateHeure(instant), obtenu, attendu);
+                    return null;
+                }
+            }
+        }
+        return new long[]{interrogations, anterieures};
+    }
+
+    // === Fin d'activité : souvent à venir, parfois déjà échue, parfois très lointaine ===
+    private static long finActivite(SplittableRandom alea, long maintenant) {
+        int choix = alea.nextInt(10);
+        if (choix == 0) return maintenant - alea.nextInt(3_600);
+        if (choix == 1) return maintenant + 86_400L + alea.nextInt(86_400);
+        return maintenant + alea.nextInt(1_800);
+    }
+
+    // === Référence : parcours complet, comme le comptage d'origine de MoteurReplay ===
+    private static int compterParParcours(EtatAgent[] agents, String service, LocalDateTime instant) {
+        int total = 0;
+        for (EtatAgent agent : agents) {
+            if (agent.accepteService(service) && agent.estDisponible(instant)) total++;
+        }
+        return total;
+    }
+
+    private static String nom(int service) {
+        return String.valueOf(30_170 + service);
+    }
+}
@@ -0,0 +1,168 @@
+package Simulation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Vérification des unités de {@link ReseauANN}, à lancer comme {@link TestSimulation}. Deux fichiers décrivent
+ * le même réseau, l'un en minutes, l'autre en secondes (attente = 1 min + 0,5 min par appel en file + PLES / 4) :
+ * <ul>
+ *   <li>les deux doivent prédire les mêmes secondes, appel par appel et par lot ;</li>
+ *   <li>sur des états dont l'attente suit ce modèle au bruit près, la RMSE de l'ANN doit être du même ordre
+ *       que celle de LES ({@link SyntheseEchantillons#erreurANNPlausible()}) ;</li>
+ *   <li>le modèle en secondes déclaré en minutes doit être signalé comme implausible ;</li>
+ *   <li>un fichier sans unité doit être refusé.</li>
+ * </ul>
+ */
+public class TestReseauANN {
+
+    private static final int ETATS = 10_000;
+    private static final int FILE = 5;
+    private static final int PLES = 11;
+
+    public static void main(String[] args) throws IOException {
+        Path repertoire = Files.createTempDirectory("test-ann");
+        try {
+            ReseauANN minutes = ReseauANN.charger(ecrire(repertoire, "minutes", "minutes", 1.0, 0.5));
+            ReseauANN secondes = ReseauANN.charger(ecrire(repertoire, "secondes", "secondes", 60.0, 30.0));
+            ReseauANN malDeclare = ReseauANN.charger(ecrire(repertoire, "mal_declare", "minutes", 60.0, 30.0));
+
+            EtatSysteme[] etats = etats(new SplittableRandom(3));
+            boolean succes = verifierEquivalence(minutes, secondes, etats);
+            succes &= verifierPlausibilite("minutes", minutes, etats, true);
+            succes &= verifierPlausibilite("secondes", secondes, etats, true);
+            succes &= verifierPlausibilite("secondes déclaré en minutes", malDeclare, etats, false);
+            succes &= verifierUniteObligatoire(repertoire);
+
+            System.out.println(succes ? "Unités du réseau ANN vérifiées." : "ÉCHEC : unités du réseau ANN incohérentes.");
+            if (!succes) System.exit(1);
+        } finally {
+            try (var fichiers = Files.list(repertoire)) {
+                for (Path p : fichiers.toList()) Files.delete(p);
+            }
+            Files.delete(repertoire);
+        }
+    }
+
+    /**
+     * Réseau à deux neurones cachés, {@code biais + pente · file} et {@code PLES / 4} dans l'unité donnée,
+     * derrière une normalisation quelconque, écrit au format du notebook.
+     */
+    private static Path ecrire(Path repertoire, String nom, String unite, double biais, double pente) throws IOException {
+        String[] colonnes = EtatSysteme.nomsColonnesCSV();
+        int entrees = colonnes.length;
+        double[] moyennes = new double[entrees];
+        double[] ecarts = new double[entrees];
+        double[] noyau = new double[entrees * 2];
+        for (int i = 0; i < entrees; i++) {
+            moyennes[i] = 0.5 * i;
+            ecarts[i] = 1.0 + i;
+        }
+        double echelle = unite.equals("minutes") ? 60.0 : 1.0;
+        moyennes[PLES] = 200.0 / echelle;
+        ecarts[PLES] = 100.0 / echelle;
+        // (x - m) / e · k + k·m/e = pente · x  avec  k = pente · e
+        noyau[FILE * 2] = pente * ecarts[FILE];
+        noyau[PLES * 2 + 1] = 0.25 * ecarts[PLES];
+        double[] biaisCachee = {pente * moyennes[FILE], 0.25 * moyennes[PLES]};
+
+        StringBuilder texte = new StringBuilder("# Modèle de vérification\n");
+        texte.append("unite ").append(unite).append('\n');
+        texte.append("colonnes ").append(String.join(" ", colonnes)).append('\n');
+        texte.append("entrees ").append(entrees).append("\ncachees 2\n");
+        ligne(texte, "moyennes", moyennes);
+        ligne(texte, "ecarts", ecarts);
+        ligne(texte, "poids_cachee", noyau);
+        ligne(texte, "biais_cachee", biaisCachee);
+        ligne(texte, "poids_sortie", new double[]{1.0, 1.0});
+        ligne(texte, "biais_sortie", new double[]{biais});
+        Path fichier = repertoire.resolve(nom + ".txt");
+        Files.writeString(fichier, texte, StandardCharsets.UTF_8);
+        return fichier;
+    }
+
+    private static void ligne(StringBuilder texte, String cle, double[] valeurs) {
+        texte.append(cle);
+        for (double v : valeurs) texte.append(' ').append(v);
+        texte.append('\n');
+    }
+
+    // === États dont l'attente (en secondes) suit le réseau au bruit près, LES plus bruité ===
+    private static EtatSysteme[] etats(SplittableRandom alea) {
+        String[] services = {"30175", "30560", "30172", "30181", "30179"};
+        EtatSysteme[] etats = new EtatSysteme[ETATS];
+        LocalDateTime debut = LocalDateTime.of(2014, 3, 3, 8, 0);
+        for (int k = 0; k < ETATS; k++) {
+            int file = alea.nextInt(20);
+            double les = 30.0 + alea.nextDouble(600.0);
+            EtatSysteme etat = new EtatSysteme(services[k % services.length], file, new int[]{alea.nextInt(10), alea.nextInt(10)},
+                    debut.plusMinutes(k), 1 + alea.nextInt(40));
+            etat.setEstimationLES(les);
+            etat.setEstimationLESMoyenne(les);
+            etat.setDelaiAttenteObserve(Math.max(0.0, 60.0 + 30.0 * file + 0.25 * les + 40.0 * alea.nextGaussian()));
+            etats[k] = etat;
+        }
+        return etats;
+    }
+
+    private static boolean verifierEquivalence(ReseauANN minutes, ReseauANN secondes, EtatSysteme[] etats) {
+        int entrees = EtatSysteme.NOMBRE_CARACTERISTIQUES;
+        double[] vecteur = new double[entrees];
+        float[] tampon = new float[2];
+        float[][] colonnes = new float[entrees][etats.length];
+        double ecartMax = 0;
+        for (int k = 0; k < etats.length; k++) {
+            etats[k].remplirVecteurCaracteristiques(vecteur);
+            for (int i = 0; i < entrees; i++) colonnes[i][k] = (float) vecteur[i];
+            double attendu = 60.0 + 30.0 * etats[k].getTailleFilePrincipale() + 0.25 * etats[k].getEstimationLES();
+            ecartMax = Math.max(ecartMax, Math.abs(minutes.predire(vecteur, tampon) - attendu) / attendu);
+            ecartMax = Math.max(ecartMax, Math.abs(secondes.predire(vecteur, tampon) - attendu) / attendu);
+        }
+        float[] parMinutes = new float[etats.length];
+        float[] parSecondes = new float[etats.length];
+        float[] tamponLot = new float[etats.length];
+        minutes.predireLot(colonnes, 0, etats.length, parMinutes, tamponLot);
+        secondes.predireLot(colonnes, 0, etats.length, parSecondes, tamponLot);
+        for (int k = 0; k < etats.length; k++) {
+            ecartMax = Math.max(ecartMax, Math.abs(parMinutes[k] - parSecondes[k]) / parSecondes[k]);
+        }
+        boolean succes = ecartMax < 1e-4;
+        System.out.printf(Locale.US, "Minutes / secondes : écart relatif maximal %.2e %s%n", ecartMax, succes ? "" : "ÉCHEC");
+        return succes;
+    }
+
+    private static boolean verifierPlausibilite(String nom, ReseauANN reseau, EtatSysteme[] etats, boolean attendu) {
+        SyntheseEchantillons synthese = new SyntheseEchantillons();
+        double[] vecteur = new double[EtatSysteme.NOMBRE_CARACTERISTIQUES];
+        float[] tampon = new float[reseau.getNombreCachees()];
+        for (EtatSysteme etat : etats) {
+            etat.remplirVecteurCaracteristiques(vecteur);
+            etat.setEstimationANN(reseau.predire(vecteur, tampon));
+            synthese.ajouter(etat);
+        }
+        boolean plausible = synthese.erreurANNPlausible();
+        System.out.printf(Locale.US, "%-28s : RMSE ANN %10.1f s, RMSE LES %6.1f s, plausible : %s%s%n", nom,
+                Math.sqrt(synthese.getMseANN()), Math.sqrt(synthese.getMseLES()), plausible,
+                plausible == attendu ? "" : " ÉCHEC");
+        return plausible == attendu;
+    }
+
+    private static boolean verifierUniteObligatoire(Path repertoire) throws IOException {
+        Path sansUnite = repertoire.resolve("sans_unite.txt");
+        Files.writeString(sansUnite, Files.readString(ecrire(repertoire, "secondes", "secondes", 60.0, 30.0))
+                .replace("unite secondes\n", ""), StandardCharsets.UTF_8);
+        try {
+            ReseauANN.charger(sansUnite);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Fichier sans unité refusé : " + e.getMessage());
+            return true;
+        }
+        System.out.println("ÉCHEC : fichier sans unité accepté");
+        return false;
+    }
+}
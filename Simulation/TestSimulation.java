@@ -1,36 +1,33 @@
 package Simulation;
 
 import Donnees.LecteurCSV;
+import Donnees.Trace;
+import Modele.ActivitesColonnaires;
 import Modele.Appel;
 import Modele.ActiviteAgent;
+import Modele.AppelsColonnaires;
 
 import java.io.FileWriter;
 import java.io.PrintWriter;
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
 public class TestSimulation {
 
+    private static final Trace TRACE = Trace.pour("TestSimulation");
+
     public static void main(String[] args) {
         try {
             // Lecture des fichiers CSV
             List<Appel> appels = LecteurCSV.lireAppels("data_csv/donnees_appels_2014_nettoyees.csv");
             List<ActiviteAgent> activites = LecteurCSV.lireActivites("data_csv/donnees_activites_2014_nettoyees.csv");
 
-            // Création et tri des événements
-            List<Evenement> evenements = new ArrayList<>();
-            for (Appel a : appels) {
-                if (a.getDateReceptionAppel() != null)
-                    evenements.add(new Evenement(Evenement.Type.APPEL, a.getDateReceptionAppel(), a));
-            }
-            for (ActiviteAgent act : activites) {
-                if (act.getDebutActivite() != null)
-                    evenements.add(new Evenement(Evenement.Type.ACTIVITE, act.getDebutActivite(), act));
-            }
-            Collections.sort(evenements);
+            // Chronologie des événements : réceptions d'appels et débuts d'activités, par indice de ligne.
+            // Tous les événements du rejeu sont connus d'avance : un tri unique suffit, l'échéancier
+            // (Echeancier, FileCalendrier) sert aux simulations qui en créent en cours de route
+            ChronologieEvenements chronologie = ChronologieEvenements.depuis(
+                    AppelsColonnaires.depuis(appels), ActivitesColonnaires.depuis(activites));
 
             // Initialisation simulation
             EtatSysteme etat = new EtatSysteme();
@@ -39,12 +36,6 @@ public class TestSimulation {
             etat.setNombreAgentsLibres(10);
             etat.setTaillesFilesAnnexes(new int[]{0, 0});
 
-            // Paramètre de lissage LES
-            final double alpha = 0.2;
-            double lesPrecedent = 0.0;
-            double sommeLES = 0.0;
-            int compteurLES = 0;
-
             // Écriture du CSV avec gestion d'exception
             try (PrintWriter writer = new PrintWriter(new FileWriter("etat_systeme_sortie.csv"))) {
 
@@ -54,62 +45,85 @@ public class TestSimulation {
                 writer.println(",temps_attente_actuel");
 
                 // Boucle de simulation
-                for (Evenement e : evenements) {
-                    if (e.getType() == Evenement.Type.APPEL) {
-                        Appel appel = (Appel) e.getObjet();
-                        etat.enregistrerAppel(appel);
-
-                        double tempsAttente = -1.0;
-                        if (appel.getDateReceptionAppel() != null && appel.getDateReponseAgent() != null) {
-                            Duration diff = Duration.between(appel.getDateReceptionAppel(), appel.getDateReponseAgent());
-                            tempsAttente = diff.toSeconds() / 60.0;
-                        }
-                        etat.setDelaiAttenteObserve(tempsAttente);
-
-                        // LES & Moyenne LES
-                        if (tempsAttente >= 0) {
-                            double lesActuel = alpha * tempsAttente + (1 - alpha) * lesPrecedent;
-                            lesPrecedent = lesActuel;
-                            sommeLES += lesActuel;
-                            compteurLES++;
-                            etat.setEstimationLES(lesActuel);
-                            etat.setEstimationLESMoyenne(sommeLES / compteurLES);
-                        } else {
-                            etat.setEstimationLES(0.0);
-                            etat.setEstimationLESMoyenne(0.0);
-                        }
-
-                        // Écriture ligne CSV
-                        double[] caracteristiques = etat.transformerEnVecteurCaracteristiques();
-                        StringBuilder sb = new StringBuilder();
-                        for (int i = 0; i < caracteristiques.length; i++) {
-                            if (i == 11 || i == 12) {
-                                sb.append(String.format(Locale.US, "%.3f", caracteristiques[i]));
-                            } else {
-                                sb.append(caracteristiques[i]);
-                            }
-                            if (i < caracteristiques.length - 1)
-                                sb.append(",");
-                        }
-                        sb.append(",").append(String.format(Locale.US, "%.3f", tempsAttente));
-                        writer.println(sb);
-
-                    } else if (e.getType() == Evenement.Type.ACTIVITE) {
-                        ActiviteAgent activite = (ActiviteAgent) e.getObjet();
-                        etat.enregistrerActiviteAgent(activite);
-                    }
-                }
+                chronologie.parcourir(new Rejeu(appels, activites, etat, writer));
 
                 System.out.println("Simulation terminée : Fichier etat_systeme_sortie.csv généré avec succès.");
 
             } catch (Exception e) {
-                System.err.println("Erreur lors de l'écriture du fichier CSV : " + e.getMessage());
-                e.printStackTrace();
+                TRACE.erreur(e, "Erreur lors de l'écriture du fichier CSV : %s", e.getMessage());
             }
 
         } catch (Exception ex) {
-            System.err.println("Erreur globale de simulation : " + ex.getMessage());
-            ex.printStackTrace();
+            TRACE.erreur(ex, "Erreur globale de simulation : %s", ex.getMessage());
+        }
+        Trace.vider();
+    }
+
+    /** Traitement des événements : mise à jour de l'état, lissage LES et écriture d'une ligne par appel */
+    private static final class Rejeu implements ChronologieEvenements.Visiteur {
+
+        // Paramètre de lissage LES
+        private static final double ALPHA = 0.2;
+
+        private final List<Appel> appels;
+        private final List<ActiviteAgent> activites;
+        private final EtatSysteme etat;
+        private final PrintWriter writer;
+        private double lesPrecedent = 0.0;
+        private double sommeLES = 0.0;
+        private int compteurLES = 0;
+
+        Rejeu(List<Appel> appels, List<ActiviteAgent> activites, EtatSysteme etat, PrintWriter writer) {
+            this.appels = appels;
+            this.activites = activites;
+            this.etat = etat;
+            this.writer = writer;
+        }
+
+        @Override
+        public void appel(long instant, int indiceAppel) {
+            Appel appel = appels.get(indiceAppel);
+            etat.enregistrerAppel(appel);
+
+            double tempsAttente = -1.0;
+            if (appel.getDateReceptionAppel() != null && appel.getDateReponseAgent() != null) {
+                Duration diff = Duration.between(appel.getDateReceptionAppel(), appel.getDateReponseAgent());
+                tempsAttente = diff.toSeconds() / 60.0;
+            }
+            etat.setDelaiAttenteObserve(tempsAttente);
+
+            // LES & Moyenne LES
+            if (tempsAttente >= 0) {
+                double lesActuel = ALPHA * tempsAttente + (1 - ALPHA) * lesPrecedent;
+                lesPrecedent = lesActuel;
+                sommeLES += lesActuel;
+                compteurLES++;
+                etat.setEstimationLES(lesActuel);
+                etat.setEstimationLESMoyenne(sommeLES / compteurLES);
+            } else {
+                etat.setEstimationLES(0.0);
+                etat.setEstimationLESMoyenne(0.0);
+            }
+
+            // Écriture ligne CSV
+            double[] caracteristiques = etat.transformerEnVecteurCaracteristiques();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < caracteristiques.length; i++) {
+                if (i == 11 || i == 12) {
+                    sb.append(String.format(Locale.US, "%.3f", caracteristiques[i]));
+                } else {
+                    sb.append(caracteristiques[i]);
+                }
+                if (i < caracteristiques.length - 1)
+                    sb.append(",");
+            }
+            sb.append(",").append(String.format(Locale.US, "%.3f", tempsAttente));
+            writer.println(sb);
+        }
+
+        @Override
+        public void activite(long instant, int indiceActivite) {
+            etat.enregistrerActiviteAgent(activites.get(indiceActivite));
         }
     }
 }
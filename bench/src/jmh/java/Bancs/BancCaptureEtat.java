@@ -0,0 +1,61 @@
+package Bancs;
+
+import Modele.AppelsColonnaires;
+import Simulation.EtatSysteme;
+import Simulation.MoteurReplay;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de {@link MoteurReplay#capturerEtatSysteme(int)} sur un instant figé du replay, selon le nombre
+ * d'agents connus et le nombre d'appels en file : toutes les activités et tous les appels antérieurs
+ * sont appliqués à la préparation, chaque mesure capture donc le même état (comptage des agents
+ * disponibles, files, prédicteurs LES et Avg-LES, création de l'{@link EtatSysteme}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BancCaptureEtat
+{
+
+    @Param({"50", "500", "5000"})
+    public int agents;
+
+    @Param({"0", "100", "10000"})
+    public int enAttente;
+
+    private MoteurReplay moteur;
+    private int appelCapture;
+
+    @Setup(Level.Trial)
+    public void preparer()
+    {
+        AppelsColonnaires appels = JeuSynthetique.appelsInstantFige(agents, enAttente);
+        moteur = new MoteurReplay(JeuSynthetique.SERVICES, appels, JeuSynthetique.activitesInstantFige(agents));
+        appelCapture = appels.taille() - 1;
+        for (int i = 0; i < appelCapture; i++) {
+            moteur.enregistrerEvenementAppel(i);
+        }
+        EtatSysteme etat = moteur.capturerEtatSysteme(appelCapture);
+        if (etat.getTailleFilePrincipale() != enAttente) {
+            throw new IllegalStateException("File de " + etat.getTailleFilePrincipale() + " appels, "
+                    + enAttente + " attendus");
+        }
+    }
+
+    @Benchmark
+    public EtatSysteme capturer()
+    {
+        return moteur.capturerEtatSysteme(appelCapture);
+    }
+}
@@ -0,0 +1,96 @@
+package Bancs;
+
+import Simulation.EtatSysteme;
+import Simulation.ExportateurColonnesNpy;
+import Simulation.ExportateurJeuDonnees;
+import Simulation.PuitsEchantillons;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Débit d'export du jeu d'entraînement : un export complet de {@code lignes} échantillons par opération,
+ * vers le CSV ({@link ExportateurJeuDonnees}) ou les colonnes binaires ({@link ExportateurColonnesNpy}),
+ * ouverture et fermeture des fichiers comprises. Le compteur {@code lignes} donne le débit en lignes par seconde.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BancExportJeuDonnees
+{
+
+    private static final int ETATS = 4096;
+
+    @Param({"10000", "1000000"})
+    public int lignes;
+
+    private EtatSysteme[] etats;
+    private Path repertoire;
+
+    /** Lignes exportées, rapportées par seconde */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Lignes
+    {
+        public long lignes;
+
+        @Setup(Level.Iteration)
+        public void remettreAZero()
+        {
+            lignes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException
+    {
+        etats = JeuSynthetique.etats(ETATS, 42);
+        repertoire = Files.createTempDirectory("banc-export");
+    }
+
+    @TearDown(Level.Trial)
+    public void nettoyer() throws IOException
+    {
+        try (Stream<Path> fichiers = Files.walk(repertoire)) {
+            for (Path p : fichiers.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    @Benchmark
+    public void csv(Lignes compteur) throws IOException
+    {
+        exporter(new ExportateurJeuDonnees(repertoire.resolve("jeu_donnees.csv")), compteur);
+    }
+
+    @Benchmark
+    public void colonnesNpy(Lignes compteur) throws IOException
+    {
+        exporter(new ExportateurColonnesNpy(repertoire.resolve("colonnes")), compteur);
+    }
+
+    private void exporter(PuitsEchantillons puits, Lignes compteur) throws IOException
+    {
+        try (puits) {
+            for (int i = 0; i < lignes; i++) {
+                puits.ecrire(etats[i & (ETATS - 1)]);
+            }
+        }
+        compteur.lignes += lignes;
+    }
+}
@@ -0,0 +1,103 @@
+package Bancs;
+
+import Donnees.LecteurCSV;
+import Modele.Appel;
+import Modele.AppelsColonnaires;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Débit de lecture du fichier des appels par {@link LecteurCSV} : objets {@link Appel} (OpenCSV),
+ * stockage colonnaire (analyseur sur octets) et sa variante parallèle, selon la taille du fichier.
+ * Le compteur {@code lignes} donne le débit en lignes par seconde.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BancLecteurCSV
+{
+
+    @Param({"10000", "100000", "1000000"})
+    public int appels;
+
+    private Path repertoire;
+    private String fichier;
+    private PrintStream sortieStandard;
+
+    /** Lignes lues, rapportées par seconde */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Lignes
+    {
+        public long lignes;
+
+        @Setup(Level.Iteration)
+        public void remettreAZero()
+        {
+            lignes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException
+    {
+        repertoire = Files.createTempDirectory("banc-lecteur");
+        fichier = JeuSynthetique.ecrireAppels(repertoire, appels, 42).toString();
+        // Chaque lecture imprime son bilan : inutile dans les mesures
+        sortieStandard = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void nettoyer() throws IOException
+    {
+        System.setOut(sortieStandard);
+        try (Stream<Path> fichiers = Files.walk(repertoire)) {
+            for (Path p : fichiers.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    @Benchmark
+    public List<Appel> objets(Lignes compteur) throws Exception
+    {
+        List<Appel> lus = LecteurCSV.lireAppels(fichier);
+        compteur.lignes += lus.size();
+        return lus;
+    }
+
+    @Benchmark
+    public AppelsColonnaires colonnes(Lignes compteur) throws Exception
+    {
+        AppelsColonnaires lus = LecteurCSV.lireAppelsColonnaires(fichier);
+        compteur.lignes += lus.taille();
+        return lus;
+    }
+
+    @Benchmark
+    public AppelsColonnaires colonnesParallele(Lignes compteur) throws Exception
+    {
+        AppelsColonnaires lus = LecteurCSV.lireAppelsColonnairesParallele(fichier);
+        compteur.lignes += lus.taille();
+        return lus;
+    }
+}
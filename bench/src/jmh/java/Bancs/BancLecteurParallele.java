@@ -0,0 +1,75 @@
+package Bancs;
+
+import Donnees.LecteurCSV;
+import Modele.AppelsColonnaires;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Passage à l'échelle de {@link LecteurCSV#lireAppelsColonnairesParallele(String)} : la lecture est lancée
+ * dans un pool fork-join de 1, 2, 4 ou N fils (N = cœurs disponibles, paramètre 0), qui exécute les blocs et
+ * fixe leur nombre. La lecture séquentielle de référence est {@code BancLecteurCSV.colonnes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BancLecteurParallele
+{
+
+    @Param({"1000000"})
+    public int appels;
+
+    @Param({"1", "2", "4", "0"})
+    public int fils;
+
+    private Path repertoire;
+    private String fichier;
+    private ForkJoinPool pool;
+    private PrintStream sortieStandard;
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException
+    {
+        repertoire = Files.createTempDirectory("banc-lecteur-parallele");
+        fichier = JeuSynthetique.ecrireAppels(repertoire, appels, 42).toString();
+        pool = new ForkJoinPool(fils > 0 ? fils : Runtime.getRuntime().availableProcessors());
+        // Chaque lecture imprime son bilan : inutile dans les mesures
+        sortieStandard = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void nettoyer() throws IOException
+    {
+        System.setOut(sortieStandard);
+        pool.shutdown();
+        try (Stream<Path> fichiers = Files.walk(repertoire)) {
+            for (Path p : fichiers.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    @Benchmark
+    public AppelsColonnaires lire() throws Exception
+    {
+        return pool.submit(() -> LecteurCSV.lireAppelsColonnairesParallele(fichier)).get();
+    }
+}
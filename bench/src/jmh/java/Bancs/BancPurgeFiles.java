@@ -0,0 +1,94 @@
+package Bancs;
+
+import Modele.Appel;
+import Modele.Horodatage;
+import Simulation.FileAppelsParEcheance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.LinkedList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Files d'appels par service au fil d'un replay : à chaque appel reçu, toutes les files sont purgées des
+ * appels répondus avant sa réception, la file de son service est mesurée, puis l'appel y est ajouté.
+ * {@link FileAppelsParEcheance} face à la file d'origine ({@code LinkedList<Appel>} purgée par {@code removeIf}),
+ * pour le volume actuel et dix fois plus. Un appel sur quinze n'est jamais répondu et reste en file : le
+ * parcours de {@code removeIf} grandit avec le flux. Chaque mesure rejoue tout le flux.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BancPurgeFiles
+{
+
+    @Param({"20000", "200000"})
+    public int appels;
+
+    private int[] services;
+    private long[] receptions;
+    private long[] reponses;
+    private Appel[] objets;
+
+    @Setup(Level.Trial)
+    public void preparer()
+    {
+        SplittableRandom alea = new SplittableRandom(42);
+        services = new int[appels];
+        receptions = new long[appels];
+        reponses = new long[appels];
+        objets = new Appel[appels];
+        long reception = Horodatage.enSecondes(JeuSynthetique.ORIGINE);
+        for (int i = 0; i < appels; i++) {
+            reception += 1 + (long) (-30.0 * Math.log(1.0 - alea.nextDouble()));
+            services[i] = alea.nextInt(JeuSynthetique.SERVICES.length);
+            receptions[i] = reception;
+            reponses[i] = alea.nextInt(15) == 0 ? Horodatage.ABSENT
+                    : reception + (long) (-40.0 * Math.log(1.0 - alea.nextDouble()));
+            objets[i] = new Appel(Horodatage.versDateHeure(reception), JeuSynthetique.SERVICES[services[i]], null);
+            objets[i].setDateReponseAgent(Horodatage.versDateHeure(reponses[i]));
+        }
+    }
+
+    @Benchmark
+    public long parEcheance()
+    {
+        FileAppelsParEcheance[] files = new FileAppelsParEcheance[JeuSynthetique.SERVICES.length];
+        for (int s = 0; s < files.length; s++) files[s] = new FileAppelsParEcheance();
+        long somme = 0;
+        for (int i = 0; i < appels; i++) {
+            for (FileAppelsParEcheance file : files) file.purgerAvant(receptions[i]);
+            somme += files[services[i]].taille();
+            files[services[i]].ajouter(reponses[i]);
+        }
+        return somme;
+    }
+
+    @Benchmark
+    public long removeIf()
+    {
+        @SuppressWarnings("unchecked")
+        LinkedList<Appel>[] files = new LinkedList[JeuSynthetique.SERVICES.length];
+        for (int s = 0; s < files.length; s++) files[s] = new LinkedList<>();
+        long somme = 0;
+        for (int i = 0; i < appels; i++) {
+            LocalDateTime horodatage = objets[i].getDateReceptionAppel();
+            for (LinkedList<Appel> file : files) {
+                file.removeIf(a -> a.getDateReponseAgent() != null && a.getDateReponseAgent().isBefore(horodatage));
+            }
+            somme += files[services[i]].size();
+            files[services[i]].add(objets[i]);
+        }
+        return somme;
+    }
+}
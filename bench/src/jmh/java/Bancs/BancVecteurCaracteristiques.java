@@ -0,0 +1,60 @@
+package Bancs;
+
+import Simulation.EtatSysteme;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodage des états en vecteur de caractéristiques : {@link EtatSysteme#transformerEnVecteurCaracteristiques()}
+ * (un tableau par appel) face à {@link EtatSysteme#remplirVecteurCaracteristiques(double[])} (tampon réutilisé).
+ * Les états parcourus sont plus ou moins nombreux pour tenir ou non dans les caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BancVecteurCaracteristiques
+{
+
+    @Param({"1024", "1048576"})
+    public int etats;
+
+    private EtatSysteme[] echantillon;
+    private final double[] tampon = new double[EtatSysteme.NOMBRE_CARACTERISTIQUES];
+    private int rang;
+
+    @Setup(Level.Trial)
+    public void preparer()
+    {
+        echantillon = JeuSynthetique.etats(etats, 42);
+    }
+
+    private EtatSysteme suivant()
+    {
+        EtatSysteme etat = echantillon[rang];
+        rang = rang + 1 == echantillon.length ? 0 : rang + 1;
+        return etat;
+    }
+
+    @Benchmark
+    public double[] transformer()
+    {
+        return suivant().transformerEnVecteurCaracteristiques();
+    }
+
+    @Benchmark
+    public double[] remplir()
+    {
+        suivant().remplirVecteurCaracteristiques(tampon);
+        return tampon;
+    }
+}
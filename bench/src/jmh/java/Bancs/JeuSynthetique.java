@@ -0,0 +1,125 @@
+package Bancs;
+
+import Modele.ActivitesColonnaires;
+import Modele.AppelsColonnaires;
+import Modele.Horodatage;
+import Simulation.EtatSysteme;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Données synthétiques au format VANAD pour les bancs d'essai (aucun jeu réel n'est livré avec le dépôt) :
+ * arrivées poissonniennes réparties sur les services principaux, 85 % d'appels répondus, identifiants
+ * d'agents parfois écrits en décimal ({@code 31.0}) comme dans les exports réels. Une graine donnée
+ * produit toujours les mêmes données.
+ */
+final class JeuSynthetique
+{
+
+    static final String[] SERVICES = {"30175", "30560", "30172", "30181", "30179", "30066"};
+    static final LocalDateTime ORIGINE = LocalDateTime.of(2014, 1, 6, 8, 0);
+
+    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int AGENTS = 200;
+
+    private JeuSynthetique() {}
+
+    /** Écrit {@code nombre} appels triés par date de réception dans un fichier CSV */
+    static Path ecrireAppels(Path repertoire, int nombre, long graine) throws IOException
+    {
+        Path fichier = repertoire.resolve("appels_" + nombre + ".csv");
+        SplittableRandom alea = new SplittableRandom(graine);
+        LocalDateTime reception = ORIGINE;
+        try (BufferedWriter sortie = Files.newBufferedWriter(fichier, StandardCharsets.UTF_8)) {
+            sortie.write("date_received,queue_name,agent_number,answered,consult,transfer,hangup\n");
+            for (int i = 0; i < nombre; i++) {
+                reception = reception.plusSeconds(exponentielle(alea, 30));
+                String service = SERVICES[alea.nextInt(SERVICES.length)];
+                sortie.write(FORMAT_DATE.format(reception));
+                sortie.write(',');
+                sortie.write(service);
+                sortie.write(',');
+                if (alea.nextInt(100) < 85) {
+                    LocalDateTime reponse = reception.plusSeconds(exponentielle(alea, 40));
+                    int agent = 1 + alea.nextInt(AGENTS);
+                    sortie.write(alea.nextBoolean() ? Integer.toString(agent) : agent + ".0");
+                    sortie.write(',');
+                    sortie.write(FORMAT_DATE.format(reponse));
+                    sortie.write(",,,");
+                    sortie.write(FORMAT_DATE.format(reponse.plusSeconds(exponentielle(alea, 300))));
+                } else {
+                    sortie.write(",,,,");
+                    sortie.write(FORMAT_DATE.format(reception.plusSeconds(exponentielle(alea, 60))));
+                }
+                sortie.write('\n');
+            }
+        }
+        return fichier;
+    }
+
+    /**
+     * Appels d'un instant figé du replay : un appel terminé par agent (pour que le moteur connaisse
+     * ses compétences), {@code enAttente} appels en file sur le premier service, puis l'appel à capturer,
+     * reçu à {@link #ORIGINE} (dernière ligne).
+     */
+    static AppelsColonnaires appelsInstantFige(int agents, int enAttente)
+    {
+        long origine = Horodatage.enSecondes(ORIGINE);
+        AppelsColonnaires appels = new AppelsColonnaires(agents + enAttente + 1);
+        for (int a = 0; a < agents; a++) {
+            long reception = origine - 7_200 + a % 3_600;
+            appels.ajouter(reception, SERVICES[a % SERVICES.length], a + 1, reception + 10,
+                    Horodatage.ABSENT, Horodatage.ABSENT, reception + 60);
+        }
+        for (int i = 0; i < enAttente; i++) {
+            long reception = origine - enAttente + i;
+            appels.ajouter(reception, SERVICES[0], AppelsColonnaires.AUCUN, origine + 86_400,
+                    Horodatage.ABSENT, Horodatage.ABSENT, origine + 86_460);
+        }
+        appels.ajouter(origine, SERVICES[0], AppelsColonnaires.AUCUN, origine + 30,
+                Horodatage.ABSENT, Horodatage.ABSENT, origine + 300);
+        return appels;
+    }
+
+    /** Activités des agents avant {@link #ORIGINE} : neuf sur dix disponibles, les autres en pause */
+    static ActivitesColonnaires activitesInstantFige(int agents)
+    {
+        long origine = Horodatage.enSecondes(ORIGINE);
+        ActivitesColonnaires activites = new ActivitesColonnaires(agents);
+        for (int a = 0; a < agents; a++) {
+            boolean enPause = a % 10 == 9;
+            activites.ajouter(enPause ? 2 : 3, a + 1, ActivitesColonnaires.AUCUN, 1, 100 + a,
+                    ActivitesColonnaires.AUCUN, origine - 10_800, enPause ? origine + 3_600 : origine - 10_000, a + 1);
+        }
+        return activites;
+    }
+
+    /** États capturés variés (services, files, heures, attentes) pour l'encodage et l'export */
+    static EtatSysteme[] etats(int nombre, long graine)
+    {
+        SplittableRandom alea = new SplittableRandom(graine);
+        EtatSysteme[] etats = new EtatSysteme[nombre];
+        for (int i = 0; i < nombre; i++) {
+            EtatSysteme etat = new EtatSysteme(SERVICES[alea.nextInt(SERVICES.length)], alea.nextInt(40),
+                    new int[]{alea.nextInt(20), alea.nextInt(20), alea.nextInt(20), 0, 0},
+                    ORIGINE.plusMinutes(alea.nextInt(7 * 24 * 60)), 1 + alea.nextInt(30));
+            etat.setDelaiAttenteObserve(exponentielle(alea, 40));
+            etat.setEstimationLES(alea.nextDouble() * 300);
+            etat.setEstimationLESMoyenne(alea.nextDouble() * 300);
+            etats[i] = etat;
+        }
+        return etats;
+    }
+
+    private static long exponentielle(SplittableRandom alea, double moyenne)
+    {
+        return Math.round(-moyenne * Math.log(1.0 - alea.nextDouble()));
+    }
+}
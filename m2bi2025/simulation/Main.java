@@ -1,13 +1,202 @@
 package m2bi2025.simulation;
 
 
+import Simulation.EvenementsJfr;
+import Simulation.GenerateurChargePrediction;
+import Simulation.RegistreMetriques;
+import Simulation.ServeurMetriques;
+import Simulation.ServeurPrediction;
 import Simulation.SimulationCentreAppels;
+import jdk.jfr.Recording;
 
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 public class Main {
 
-    public static void main(String[] args) {
+    private static final String USAGE = String.join("\n",
+            "Usage : [--jfr[=fichier.jfr]] [--metriques[=port]] <mode> …",
+            "  --jfr        enregistre la session Java Flight Recorder, phases et captures d'état du replay comprises",
+            "               (vanad.jfr par défaut)",
+            "  --metriques  expose les métriques du replay et du serveur au format Prometheus sur",
+            "               http://127.0.0.1:<port>/metrics pendant l'exécution (port 9464 par défaut)",
+            "  replay <appels> <activites> [modele_ann.txt]",
+            "      rejoue l'historique, exporte le jeu d'entraînement et évalue les prédicteurs",
+            "  serveur <appels> <activites> [port] [modele_ann.txt]",
+            "      préchauffe l'état sur l'historique puis sert les prédictions en direct (port 8080 par défaut)",
+            "  charge <appels> <activites> [clients] [requetes par client] [part d'appels] [modele_ann.txt]",
+            "      démarre le serveur sur un port libre et mesure sa latence avec un générateur de charge local",
+            "  generatif <appels> [jours] [facteur de charge] [facteur d'effectifs] [graine]",
+            "      ajuste un modèle de charge sur les appels et simule les jours suivants (365 jours par défaut)",
+            "  effectifs <appels> [semaine|lundi..dimanche] [NS cible] [attente cible (s)] [réplications]"
+                    + " [facteur de charge] [graine] [fils]",
+            "      cherche par simulation les effectifs minimaux par heure (NS 20 s >= 80 %, attente <= 20 s,",
+            "      200 réplications et un fil par cœur par défaut)",
+            "  synthetique <appels> <sortie appels> <sortie activites> [semaines] [facteur de volume]"
+                    + " [facteur d'agents] [graine]",
+            "      écrit un jeu VANAD synthétique tiré du modèle de charge ajusté sur les appels (4 semaines par défaut)");
 
+    private static final List<String> JOURS =
+            List.of("lundi", "mardi", "mercredi", "jeudi", "vendredi", "samedi", "dimanche");
+
+    private static final String FICHIER_JFR = "vanad.jfr";
+    private static final int PORT_METRIQUES = 9464;
+
+    /** Registre alimenté par les modes replay, serveur et charge (null sans --metriques) */
+    private static RegistreMetriques metriques;
+
+    public static void main(String[] arguments) throws Exception {
+        String fichierJfr = null;
+        int portMetriques = -1;
+        List<String> restants = new ArrayList<>();
+        for (String argument : arguments) {
+            if (argument.equals("--jfr")) {
+                fichierJfr = FICHIER_JFR;
+            } else if (argument.startsWith("--jfr=")) {
+                fichierJfr = argument.substring("--jfr=".length());
+            } else if (argument.equals("--metriques")) {
+                portMetriques = PORT_METRIQUES;
+            } else if (argument.startsWith("--metriques=")) {
+                portMetriques = Integer.parseInt(argument.substring("--metriques=".length()));
+            } else {
+                restants.add(argument);
+            }
+        }
+        String[] args = restants.toArray(String[]::new);
+        if (args.length < 2 || (args.length < 3 && !List.of("generatif", "effectifs").contains(args[0]))) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        Recording enregistrement = fichierJfr == null ? null : EvenementsJfr.demarrer(Path.of(fichierJfr));
+        ServeurMetriques serveurMetriques = null;
+        if (portMetriques >= 0) {
+            metriques = new RegistreMetriques();
+            serveurMetriques = new ServeurMetriques(metriques);
+            serveurMetriques.demarrer(portMetriques);
+        }
+        try {
+            switch (args[0]) {
+                case "replay" -> rejouer(args);
+                case "serveur" -> lancerServeur(args);
+                case "charge" -> mesurerCharge(args);
+                case "generatif" -> simulerGeneratif(args);
+                case "effectifs" -> optimiserEffectifs(args);
+                case "synthetique" -> genererSynthetique(args);
+                default -> System.out.println(USAGE);
+            }
+        } finally {
+            if (serveurMetriques != null) {
+                serveurMetriques.close();
+            }
+            if (enregistrement != null) {
+                enregistrement.stop();
+                enregistrement.close();
+                System.out.println("Enregistrement JFR écrit dans : " + fichierJfr);
+            }
+        }
+    }
+
+    private static void rejouer(String[] args) throws Exception {
+        SimulationCentreAppels simulation = new SimulationCentreAppels();
+        simulation.activerMetriques(metriques);
+        if (args.length > 3) {
+            simulation.activerPredicteurANN(Path.of(args[3]));
+        }
+        simulation.lancerReplayHistorique(args[1], args[2]);
+    }
+
+    private static void simulerGeneratif(String[] args) throws Exception {
+        int jours = args.length > 2 ? Integer.parseInt(args[2]) : 365;
+        double facteurCharge = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+        double facteurEffectifs = args.length > 4 ? Double.parseDouble(args[4]) : 1.0;
+        long graine = args.length > 5 ? Long.parseLong(args[5]) : 42L;
+        new SimulationCentreAppels().lancerSimulationGenerative(args[1], jours, facteurCharge, facteurEffectifs, graine);
+    }
+
+    private static void optimiserEffectifs(String[] args) throws Exception {
+        String periode = args.length > 2 ? args[2] : "semaine";
+        int jour = JOURS.indexOf(periode);
+        if (jour < 0 && !periode.equals("semaine")) {
+            System.out.println(USAGE);
+            return;
+        }
+        double niveauServiceCible = args.length > 3 ? Double.parseDouble(args[3]) : 0.8;
+        double attenteCible = args.length > 4 ? Double.parseDouble(args[4]) : 20.0;
+        int replications = args.length > 5 ? Integer.parseInt(args[5]) : 200;
+        double facteurCharge = args.length > 6 ? Double.parseDouble(args[6]) : 1.0;
+        long graine = args.length > 7 ? Long.parseLong(args[7]) : 42L;
+        int fils = args.length > 8 ? Integer.parseInt(args[8]) : Runtime.getRuntime().availableProcessors();
+        new SimulationCentreAppels().lancerOptimisationEffectifs(args[1], jour < 0 ? 0 : 24 * jour,
+                jour < 0 ? 168 : 24, niveauServiceCible, attenteCible, replications, facteurCharge, graine, fils);
+    }
+
+    private static void genererSynthetique(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.out.println(USAGE);
+            return;
+        }
+        int semaines = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        double facteurVolume = args.length > 5 ? Double.parseDouble(args[5]) : 1.0;
+        double facteurAgents = args.length > 6 ? Double.parseDouble(args[6]) : facteurVolume;
+        long graine = args.length > 7 ? Long.parseLong(args[7]) : 42L;
+        new SimulationCentreAppels().genererJeuSynthetique(args[1], args[2], args[3], semaines, facteurVolume,
+                facteurAgents, graine);
+    }
+
+    private static ServeurPrediction preparer(String appels, String activites, List<String> args, int indiceModele)
+            throws Exception {
+        SimulationCentreAppels simulation = new SimulationCentreAppels();
+        simulation.activerMetriques(metriques);
+        if (args.size() > indiceModele) {
+            simulation.activerPredicteurANN(Path.of(args.get(indiceModele)));
+        }
+        ServeurPrediction serveur = simulation.preparerServeurPrediction(appels, activites);
+        if (metriques != null) {
+            serveur.publierMetriques(metriques);
+        }
+        return serveur;
+    }
+
+    private static void lancerServeur(String[] args) throws Exception {
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 8080;
+        ServeurPrediction serveur = preparer(args[1], args[2], List.of(args), 4);
+        serveur.demarrer(port);
+
+        CountDownLatch arret = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("Arrêt du serveur de prédiction");
+            System.out.println("predictions " + serveur.getLatencesPredictions().resume());
+            System.out.println("evenements  " + serveur.getLatencesEvenements().resume());
+            try {
+                serveur.close();
+            } catch (Exception e) {
+                System.err.println("Erreur à l'arrêt du serveur : " + e.getMessage());
+            }
+            arret.countDown();
+        }));
+        arret.await();
+    }
+
+    private static void mesurerCharge(String[] args) throws Exception {
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        int requetes = args.length > 4 ? Integer.parseInt(args[4]) : 50;
+        double partAppels = args.length > 5 ? Double.parseDouble(args[5]) : 0.1;
+
+        try (ServeurPrediction serveur = preparer(args[1], args[2], List.of(args), 6)) {
+            serveur.demarrer(0);
+            // Requêtes situées dans la dernière heure de l'historique, là où l'état préchauffé est représentatif
+            LocalDateTime fin = serveur.getFinHistorique();
+            LocalDateTime instant = (fin != null ? fin : LocalDateTime.now().withNano(0)).minusHours(1);
+            new GenerateurChargePrediction(serveur.getPort(), serveur.getServices(), instant, partAppels)
+                    .executer(clients, requetes);
+
+            System.out.println("=== LATENCE CÔTÉ SERVEUR (traitement des requêtes) ===");
+            System.out.println("predictions " + serveur.getLatencesPredictions().resume());
+            System.out.println("evenements  " + serveur.getLatencesEvenements().resume());
+        }
     }
 }